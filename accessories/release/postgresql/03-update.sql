@@ -8,5 +8,127 @@ BEGIN;
 -- Java Version upgrade (8->11), breaks backwards compatibility, CWS 2.x
 INSERT INTO cws_versions(schema_version, cws_version, db_vendor) VALUES (4, '2.0.0', 'PostgreSQL');
 
+-- Local copies of the Settings, the Data Types and the Member names are kept
+-- by each CWS instance, the revision table is used to tell the instances when
+-- their copy is outdated.
+CREATE TABLE cws_revisions (
+  id               SERIAL,
+  name             VARCHAR(75),
+  revision         BIGINT DEFAULT 0,
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT revision_pk                    PRIMARY KEY (id),
+
+  /* Unique Constraints */
+  CONSTRAINT revision_unique_name           UNIQUE (name),
+
+  /* Not Null Constraints */
+  CONSTRAINT revision_notnull_id            CHECK (id IS NOT NULL),
+  CONSTRAINT revision_notnull_name          CHECK (name IS NOT NULL),
+  CONSTRAINT revision_notnull_revision      CHECK (revision IS NOT NULL),
+  CONSTRAINT revision_notnull_altered       CHECK (altered IS NOT NULL),
+  CONSTRAINT revision_notnull_added         CHECK (added IS NOT NULL)
+);
+INSERT INTO cws_revisions (name) VALUES
+    ('settings'),
+    ('datatypes'),
+    ('circles'),
+    ('members'),
+    ('heartbeat');
+
+-- Sessions are moved from the Members to a separate table, so a Member may
+-- have multiple Sessions, and login & logout no longer rewrites the Members.
+-- Existing Sessions are dropped, the Members simply have to login again.
+CREATE TABLE cws_sessions (
+  id               SERIAL,
+  member_id        INTEGER,
+  checksum         VARCHAR(256),   -- MasterKey Checksum of the given Session
+  crypto           VARCHAR(16384), -- Private Key, stored encrypted & armored
+  expires          TIMESTAMP,      -- Time, when the Session expires
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT session_pk                     PRIMARY KEY (id),
+  CONSTRAINT session_member_fk              FOREIGN KEY (member_id) REFERENCES cws_members (id) ON DELETE CASCADE,
+
+  /* Unique Constraints */
+  CONSTRAINT session_unique_checksum        UNIQUE (checksum),
+
+  /* Not Null Constraints */
+  CONSTRAINT session_notnull_id             CHECK (id IS NOT NULL),
+  CONSTRAINT session_notnull_member_id      CHECK (member_id IS NOT NULL),
+  CONSTRAINT session_notnull_checksum       CHECK (checksum IS NOT NULL),
+  CONSTRAINT session_notnull_crypto         CHECK (crypto IS NOT NULL),
+  CONSTRAINT session_notnull_expires        CHECK (expires IS NOT NULL),
+  CONSTRAINT session_notnull_altered        CHECK (altered IS NOT NULL),
+  CONSTRAINT session_notnull_added          CHECK (added IS NOT NULL)
+);
+CREATE INDEX cws_sessions_member_index ON cws_sessions (member_id);
+CREATE INDEX cws_sessions_expires_index ON cws_sessions (expires);
+
+ALTER TABLE cws_members DROP CONSTRAINT member_unique_session_checksum;
+ALTER TABLE cws_members DROP COLUMN session_checksum;
+ALTER TABLE cws_members DROP COLUMN session_crypto;
+ALTER TABLE cws_members DROP COLUMN session_expire;
+
+-- External Id's are stored as native UUIDs rather than 36 character Strings,
+-- which reduces both the rows and the unique indexes considerably.
+INSERT INTO cws_versions(schema_version, cws_version, db_vendor) VALUES (5, '2.0.0', 'PostgreSQL');
+ALTER TABLE cws_members ALTER COLUMN external_id TYPE UUID USING external_id::UUID;
+ALTER TABLE cws_circles ALTER COLUMN external_id TYPE UUID USING external_id::UUID;
+ALTER TABLE cws_metadata ALTER COLUMN external_id TYPE UUID USING external_id::UUID;
+
+-- While a Circle Key is being rotated, the Trustees also keep the previous Key,
+-- so the Data which is not yet re-encrypted can still be read.
+ALTER TABLE cws_trustees ADD COLUMN previous_key_id INTEGER;
+ALTER TABLE cws_trustees ADD COLUMN previous_circle_key VARCHAR(8192);
+ALTER TABLE cws_trustees ADD CONSTRAINT trustee_previous_key_fk FOREIGN KEY (previous_key_id) REFERENCES cws_keys (id);
+
+-- =============================================================================
+-- Rotating a Key means that all rows encrypted with it, must be re-encrypted
+-- with the new Key. This is done in the background, in smaller batches, so the
+-- CWS can continue to work while the rotation is ongoing. The progress is kept
+-- in this table, where the checkpoint is the Id of the last processed row, so
+-- any CWS instance can continue the rotation, also after a restart.
+--   For the MasterKey, the secret is the previous Key, encrypted with the new
+-- Key, so the rows which are not yet re-encrypted can still be read. For the
+-- Circle Keys, the secret is the previous and the new Circle Key, encrypted
+-- with the MasterKey. The secret is removed, once the rotation is completed.
+-- =============================================================================
+CREATE TABLE cws_rotations (
+  id               SERIAL,
+  name             VARCHAR(75),
+  status           VARCHAR(10),
+  checkpoint       BIGINT DEFAULT 0,
+  processed        BIGINT DEFAULT 0,
+  circle_id        INTEGER,
+  key_id           INTEGER,
+  previous_key_id  INTEGER,
+  secret           VARCHAR(256),
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT rotation_pk                    PRIMARY KEY (id),
+  CONSTRAINT rotation_circle_fk             FOREIGN KEY (circle_id) REFERENCES cws_circles (id) ON DELETE CASCADE,
+  CONSTRAINT rotation_key_fk                FOREIGN KEY (key_id) REFERENCES cws_keys (id),
+  CONSTRAINT rotation_previous_key_fk       FOREIGN KEY (previous_key_id) REFERENCES cws_keys (id),
+
+  /* Unique Constraints */
+  CONSTRAINT rotation_unique_name           UNIQUE (name),
+
+  /* Not Null Constraints */
+  CONSTRAINT rotation_notnull_id            CHECK (id IS NOT NULL),
+  CONSTRAINT rotation_notnull_name          CHECK (name IS NOT NULL),
+  CONSTRAINT rotation_notnull_status        CHECK (status IS NOT NULL),
+  CONSTRAINT rotation_notnull_checkpoint    CHECK (checkpoint IS NOT NULL),
+  CONSTRAINT rotation_notnull_processed     CHECK (processed IS NOT NULL),
+  CONSTRAINT rotation_notnull_altered       CHECK (altered IS NOT NULL),
+  CONSTRAINT rotation_notnull_added         CHECK (added IS NOT NULL)
+);
+
 -- Save all changes
 COMMIT;
@@ -0,0 +1,167 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.api;
+
+import io.javadog.cws.api.requests.Authentication;
+import io.javadog.cws.api.requests.FetchCircleRequest;
+import io.javadog.cws.api.requests.FetchMemberRequest;
+import io.javadog.cws.api.requests.FetchTrusteeRequest;
+import io.javadog.cws.api.requests.InventoryRequest;
+import io.javadog.cws.api.requests.MasterKeyRequest;
+import io.javadog.cws.api.requests.ProcessCircleRequest;
+import io.javadog.cws.api.requests.ProcessMemberRequest;
+import io.javadog.cws.api.requests.ProcessTrusteeRequest;
+import io.javadog.cws.api.requests.SanityRequest;
+import io.javadog.cws.api.requests.SettingRequest;
+import io.javadog.cws.api.responses.AuthenticateResponse;
+import io.javadog.cws.api.responses.FetchCircleResponse;
+import io.javadog.cws.api.responses.FetchMemberResponse;
+import io.javadog.cws.api.responses.FetchTrusteeResponse;
+import io.javadog.cws.api.responses.InventoryResponse;
+import io.javadog.cws.api.responses.MasterKeyResponse;
+import io.javadog.cws.api.responses.ProcessCircleResponse;
+import io.javadog.cws.api.responses.ProcessMemberResponse;
+import io.javadog.cws.api.responses.ProcessTrusteeResponse;
+import io.javadog.cws.api.responses.RotationResponse;
+import io.javadog.cws.api.responses.SanityResponse;
+import io.javadog.cws.api.responses.SettingResponse;
+import io.javadog.cws.api.responses.SlowRequestResponse;
+import io.javadog.cws.api.responses.VersionResponse;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * <p>Asynchronous variant of the {@link Management} interface. Each method
+ * takes the same Request Object as the synchronous method, but rather than
+ * waiting for the Response Object, it returns a Stage, which is completed
+ * when the Response is received.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public interface AsyncManagement {
+
+    /**
+     * Asynchronous variant of {@link Management#version()}.
+     *
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<VersionResponse> version();
+
+    /**
+     * Asynchronous variant of {@link Management#settings(SettingRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<SettingResponse> settings(SettingRequest request);
+
+    /**
+     * Asynchronous variant of {@link Management#masterKey(MasterKeyRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<MasterKeyResponse> masterKey(MasterKeyRequest request);
+
+    /**
+     * Asynchronous variant of {@link Management#sanitized(SanityRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<SanityResponse> sanitized(SanityRequest request);
+
+    /**
+     * Asynchronous variant of {@link Management#inventory(InventoryRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<InventoryResponse> inventory(InventoryRequest request);
+
+    /**
+     * Asynchronous variant of {@link Management#authenticated(Authentication)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<AuthenticateResponse> authenticated(Authentication request);
+
+    /**
+     * Asynchronous variant of {@link Management#slowRequests(Authentication)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<SlowRequestResponse> slowRequests(Authentication request);
+
+    /**
+     * Asynchronous variant of {@link Management#rotations(Authentication)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<RotationResponse> rotations(Authentication request);
+
+    /**
+     * Asynchronous variant of {@link Management#fetchMembers(FetchMemberRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<FetchMemberResponse> fetchMembers(FetchMemberRequest request);
+
+    /**
+     * Asynchronous variant of {@link Management#processMember(ProcessMemberRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<ProcessMemberResponse> processMember(ProcessMemberRequest request);
+
+    /**
+     * Asynchronous variant of {@link Management#fetchCircles(FetchCircleRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<FetchCircleResponse> fetchCircles(FetchCircleRequest request);
+
+    /**
+     * Asynchronous variant of {@link Management#processCircle(ProcessCircleRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<ProcessCircleResponse> processCircle(ProcessCircleRequest request);
+
+    /**
+     * Asynchronous variant of {@link Management#fetchTrustees(FetchTrusteeRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<FetchTrusteeResponse> fetchTrustees(FetchTrusteeRequest request);
+
+    /**
+     * Asynchronous variant of {@link Management#processTrustee(ProcessTrusteeRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<ProcessTrusteeResponse> processTrustee(ProcessTrusteeRequest request);
+}
@@ -0,0 +1,102 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.api;
+
+import io.javadog.cws.api.requests.FetchDataRequest;
+import io.javadog.cws.api.requests.FetchDataTypeRequest;
+import io.javadog.cws.api.requests.FetchSignatureRequest;
+import io.javadog.cws.api.requests.ProcessDataRequest;
+import io.javadog.cws.api.requests.ProcessDataTypeRequest;
+import io.javadog.cws.api.requests.SignRequest;
+import io.javadog.cws.api.requests.VerifyRequest;
+import io.javadog.cws.api.responses.FetchDataResponse;
+import io.javadog.cws.api.responses.FetchDataTypeResponse;
+import io.javadog.cws.api.responses.FetchSignatureResponse;
+import io.javadog.cws.api.responses.ProcessDataResponse;
+import io.javadog.cws.api.responses.ProcessDataTypeResponse;
+import io.javadog.cws.api.responses.SignResponse;
+import io.javadog.cws.api.responses.VerifyResponse;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * <p>Asynchronous variant of the {@link Share} interface. Each method takes
+ * the same Request Object as the synchronous method, but rather than waiting
+ * for the Response Object, it returns a Stage, which is completed when the
+ * Response is received. This allows a client to have many requests in
+ * flight, without having a thread blocked per request.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public interface AsyncShare {
+
+    /**
+     * Asynchronous variant of {@link Share#processDataType(ProcessDataTypeRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<ProcessDataTypeResponse> processDataType(ProcessDataTypeRequest request);
+
+    /**
+     * Asynchronous variant of {@link Share#fetchDataTypes(FetchDataTypeRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<FetchDataTypeResponse> fetchDataTypes(FetchDataTypeRequest request);
+
+    /**
+     * Asynchronous variant of {@link Share#processData(ProcessDataRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<ProcessDataResponse> processData(ProcessDataRequest request);
+
+    /**
+     * Asynchronous variant of {@link Share#fetchData(FetchDataRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<FetchDataResponse> fetchData(FetchDataRequest request);
+
+    /**
+     * Asynchronous variant of {@link Share#sign(SignRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<SignResponse> sign(SignRequest request);
+
+    /**
+     * Asynchronous variant of {@link Share#verify(VerifyRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<VerifyResponse> verify(VerifyRequest request);
+
+    /**
+     * Asynchronous variant of {@link Share#fetchSignatures(FetchSignatureRequest)}.
+     *
+     * @param request Request Object
+     * @return Stage, completed with the Response Object
+     */
+    CompletionStage<FetchSignatureResponse> fetchSignatures(FetchSignatureRequest request);
+}
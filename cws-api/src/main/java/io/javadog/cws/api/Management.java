@@ -36,8 +36,10 @@ import io.javadog.cws.api.responses.MasterKeyResponse;
 import io.javadog.cws.api.responses.ProcessCircleResponse;
 import io.javadog.cws.api.responses.ProcessMemberResponse;
 import io.javadog.cws.api.responses.ProcessTrusteeResponse;
+import io.javadog.cws.api.responses.RotationResponse;
 import io.javadog.cws.api.responses.SanityResponse;
 import io.javadog.cws.api.responses.SettingResponse;
+import io.javadog.cws.api.responses.SlowRequestResponse;
 import io.javadog.cws.api.responses.VersionResponse;
 
 /**
@@ -234,6 +236,98 @@ public interface Management {
      *     <i>The Cross Origin Resource Sharing value, which determines who may
      *     invoke the CWS. It is required for most JavaScript based Clients.</i>
      *   </li>
+     *   <li>
+     *     <b>cws.cache.check.interval.seconds</b> - default value: '5'<br>
+     *     Allowed Values: Any integer<br>
+     *     <i>Rarely changing information, such as the Settings and the Data
+     *     Types, is kept in memory by each CWS instance. This setting
+     *     determines how often an instance should check if other instances
+     *     have made changes, which requires that the local copy is reloaded.
+     *     For the Data Types, setting it to 0 (zero) will make the check for
+     *     each request, the Settings are checked at least every second. A
+     *     change of this setting requires a restart.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.expose.request.timing</b> - default value: 'false'<br>
+     *     Allowed Values: true or false<br>
+     *     <i>If enabled, the REST responses will contain the header
+     *     'Server-Timing', with a breakdown of the time spent in the
+     *     different phases of the request. It is intended for debugging, as
+     *     it reveals internal details of the processing.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.rest.threads</b> - default value: '8'<br>
+     *     Allowed Values: Any positive integer<br>
+     *     <i>The REST requests are processed by separate groups of threads
+     *     for the Management, Data reading, Data writing and Signature
+     *     requests, so expensive requests in one group cannot starve the
+     *     others. This is the number of threads in each group. A change of
+     *     this setting requires a restart.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.rest.queue.size</b> - default value: '64'<br>
+     *     Allowed Values: Any positive integer<br>
+     *     <i>The number of requests, which may wait for a thread in each
+     *     group. If the queue is full, the request is rejected directly with
+     *     HTTP status 503 (Service Unavailable). A change of this setting
+     *     requires a restart.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.rest.retry.after.seconds</b> - default value: '2'<br>
+     *     Allowed Values: Any positive integer<br>
+     *     <i>The number of seconds a client should wait before retrying a
+     *     rejected request, given in the 'Retry-After' header.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.admission.account.per.minute</b> - default value: '20'<br>
+     *     Allowed Values: Any integer, 0 (zero) disables the limit<br>
+     *     <i>The number of password based authentication attempts, which is
+     *     allowed per Account per minute, before the password key is
+     *     derived. Successful attempts are not counted, but failed attempts
+     *     are penalised progressively, so repeated failures will lock the
+     *     Account for a growing period.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.admission.source.per.minute</b> - default value: '300'<br>
+     *     Allowed Values: Any integer, 0 (zero) disables the limit<br>
+     *     <i>As above, but per client address.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.replica.persistence.unit</b> - default value: ''<br>
+     *     Allowed Values: Name of a Persistence Unit or empty<br>
+     *     <i>The Persistence Unit for a read-only replica of the database.
+     *     If set, the fetch requests are read from the replica, unless it is
+     *     lagging behind or the client has just written. If empty, all
+     *     requests use the primary database.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.replica.max.lag.seconds</b> - default value: '5'<br>
+     *     Allowed Values: Any positive integer<br>
+     *     <i>The replication lag which is tolerated, in addition to the
+     *     cache check interval, before reads are made against the primary
+     *     database again. Clients, which have written, read from the primary
+     *     database for the same period.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.data.cache.size.mb</b> - default value: '64'<br>
+     *     Allowed Values: Any positive integer, or 0 to disable it<br>
+     *     <i>The size of the off-heap cache of encrypted Data Objects, in
+     *     megabytes. Only the encrypted bytes are cached, so frequently read
+     *     Objects can be returned without reading them from the database.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.rotation.batch.size</b> - default value: '100'<br>
+     *     Allowed Values: Any positive integer<br>
+     *     <i>The number of rows, which are re-encrypted and committed together
+     *     when a Key is rotated in the background.</i>
+     *   </li>
+     *   <li>
+     *     <b>cws.rotation.max.batches</b> - default value: '10'<br>
+     *     Allowed Values: Any positive integer<br>
+     *     <i>The maximum number of batches, which each CWS instance will
+     *     process every time it checks for Key rotations. This throttles the
+     *     rotations, so they do not compete too much with the requests.</i>
+     *   </li>
      * </ul>
      *
      * @param request Request Object
@@ -317,6 +411,33 @@ public interface Management {
      */
     AuthenticateResponse authenticated(Authentication request);
 
+    /**
+     * <p>Lists the slowest requests, which the CWS instance has handled
+     * during the latest hour, with a breakdown of the time spent in the
+     * different phases of each request, i.e. verification of the
+     * credentials, lookups, checksums and encryption. The list is kept in
+     * memory by each instance, and is only available for the System
+     * Administrator.</p>
+     *
+     * @param request Authentication Request Object
+     * @return Response Object with the slowest requests
+     */
+    SlowRequestResponse slowRequests(Authentication request);
+
+    /**
+     * <p>Lists the Key rotations, which are currently being processed in the
+     * background, with the progress of each. Once a rotation is completed, it
+     * is no longer listed.</p>
+     *
+     * <p>The System Administrator will receive all rotations, including a
+     * rotation of the MasterKey. Circle Administrators will receive the
+     * rotations for the Circles which they administrate.</p>
+     *
+     * @param request Authentication Request Object
+     * @return Response Object with the ongoing Key rotations
+     */
+    RotationResponse rotations(Authentication request);
+
     /**
      * <p>Allows the retrieval of existing Member Accounts from the System, if
      * a specific Account is requested, then a list of Circles where the Account
@@ -364,7 +485,10 @@ public interface Management {
      *
      * <p><b>Login / Logout</b> <i>Linking and unlinking a Session with an
      * Account. This is to help websites to use CWS without needing to store
-     * the Account credentials in an unsafe way.</i></p>
+     * the Account credentials in an unsafe way. An Account may have several
+     * Sessions at the same time, and a Logout made with a Session will only
+     * end the given Session. A Logout made with the Account credentials will
+     * end all Sessions for the Account.</i></p>
      *
      * <p><b>Update existing Member</b> <i>This action will only affect a
      * member's own Account. Whereby it is allowed to change the Account Name,
@@ -425,6 +549,11 @@ public interface Management {
      *   <li><b>{@link io.javadog.cws.api.common.Action#DELETE}</b> an existing
      *   Circle from the System. This action cannot be reverted - once Deleted,
      *   the Keys and Data will also be deleted.</li>
+     *   <li><b>{@link io.javadog.cws.api.common.Action#ROTATE}</b> the Key of
+     *   an existing Circle. All Trustees are given the new Key at once, and
+     *   the existing Data is re-encrypted with it in the background. Until the
+     *   rotation is completed, Data encrypted with either Key can be read. The
+     *   progress is listed via {@link #rotations(Authentication)}.</li>
      * </ul>
      *
      * @param request Request Object
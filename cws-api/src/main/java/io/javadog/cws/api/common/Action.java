@@ -108,5 +108,12 @@ public enum Action {
      * from a Circle. A Circle Administrator cannot remove themselves from a
      * Circle.</p>
      */
-    REMOVE
+    REMOVE,
+
+    /**
+     * <p>This Action allows a Circle Administrator to replace the Key of a
+     * Circle. The new Key is given to all Trustees at once, and the existing
+     * Data Objects are re-encrypted with it in the background.</p>
+     */
+    ROTATE
 }
@@ -134,6 +134,14 @@ public final class Constants {
     public static final String FIELD_VERSION = "version";
     public static final String FIELD_VERIFIED = "verified";
     public static final String FIELD_ACTION = "action";
+    public static final String FIELD_STARTED = "started";
+    public static final String FIELD_DURATION = "duration";
+    public static final String FIELD_PHASES = "phases";
+    public static final String FIELD_REQUESTS = "requests";
+    public static final String FIELD_ROTATIONS = "rotations";
+    public static final String FIELD_STATUS = "status";
+    public static final String FIELD_PROCESSED = "processed";
+    public static final String FIELD_REMAINING = "remaining";
     public static final String FIELD_RETURN_CODE = "returnCode";
     public static final String FIELD_RETURN_MESSAGE = "returnMessage";
     public static final String FIELD_URL = "url";
@@ -153,6 +161,9 @@ public final class Constants {
     public static final String REST_SANITIZED = "/sanitized";
     public static final String REST_INVENTORY = "/inventory";
     public static final String REST_AUTHENTICATED = "/authenticated";
+    public static final String REST_METRICS = "/metrics";
+    public static final String REST_SLOW_REQUESTS = "/slowRequests";
+    public static final String REST_ROTATIONS = "/rotations";
 
     // Member requests from the Management Interface
     public static final String REST_MEMBERS_BASE = "/members";
@@ -171,6 +182,7 @@ public final class Constants {
     public static final String REST_CIRCLES_CREATE = "/createCircle";
     public static final String REST_CIRCLES_UPDATE = "/updateCircle";
     public static final String REST_CIRCLES_DELETE = "/deleteCircle";
+    public static final String REST_CIRCLES_ROTATE = "/rotateCircleKey";
     public static final String REST_CIRCLES_FETCH = "/fetchCircles";
 
     // Trustee requests from the Management Interface
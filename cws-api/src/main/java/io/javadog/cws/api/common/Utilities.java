@@ -20,6 +20,7 @@ import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 
 /**
  * <p>Common Utilities, primarily immutability functionality.</p>
@@ -43,12 +44,16 @@ public final class Utilities {
     }
 
     /**
-     * Creates a new UTC based ZonedDateTime instance, to be used.
+     * <p>Creates a new UTC based ZonedDateTime instance, to be used.</p>
+     *
+     * <p>The value is truncated to microseconds, the precision of the
+     * database TIMESTAMP columns, so a value read back from the database
+     * compares equal to the value it was written with.</p>
      *
      * @return New UTC based ZonedDateTime instance
      */
     public static LocalDateTime newDate() {
-        return LocalDateTime.now(Clock.systemUTC());
+        return LocalDateTime.now(Clock.systemUTC()).truncatedTo(ChronoUnit.MICROS);
     }
 
     /**
@@ -0,0 +1,140 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.api.dtos;
+
+import io.javadog.cws.api.common.Constants;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import javax.json.bind.annotation.JsonbDateFormat;
+import javax.json.bind.annotation.JsonbProperty;
+import javax.json.bind.annotation.JsonbPropertyOrder;
+
+/**
+ * <p>The Rotation Object contain the progress of a Key rotation, which is
+ * being processed in the background. If the Circle Id is set, the Key of the
+ * given Circle is being rotated, otherwise it is the MasterKey.</p>
+ *
+ * <p>The Status is the current phase of the rotation, and the processed and
+ * remaining counts are the number of records re-encrypted so far, and the
+ * number of records still to be re-encrypted in the current phase.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@JsonbPropertyOrder({
+        Constants.FIELD_CIRCLE_ID,
+        Constants.FIELD_STATUS,
+        Constants.FIELD_PROCESSED,
+        Constants.FIELD_REMAINING,
+        Constants.FIELD_STARTED,
+        Constants.FIELD_CHANGED })
+public final class Rotation implements Serializable {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    @JsonbProperty(value = Constants.FIELD_CIRCLE_ID, nillable = true)
+    private String circleId = null;
+
+    @JsonbProperty(value = Constants.FIELD_STATUS, nillable = true)
+    private String status = null;
+
+    @JsonbProperty(Constants.FIELD_PROCESSED)
+    private long processed = 0;
+
+    @JsonbProperty(Constants.FIELD_REMAINING)
+    private long remaining = 0;
+
+    @JsonbProperty(value = Constants.FIELD_STARTED, nillable = true)
+    @JsonbDateFormat(Constants.JSON_DATE_FORMAT)
+    private LocalDateTime started = null;
+
+    @JsonbProperty(value = Constants.FIELD_CHANGED, nillable = true)
+    @JsonbDateFormat(Constants.JSON_DATE_FORMAT)
+    private LocalDateTime changed = null;
+
+    // =========================================================================
+    // Standard Setters & Getters
+    // =========================================================================
+
+    public void setCircleId(final String circleId) {
+        this.circleId = circleId;
+    }
+
+    public String getCircleId() {
+        return circleId;
+    }
+
+    public void setStatus(final String status) {
+        this.status = status;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setProcessed(final long processed) {
+        this.processed = processed;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setRemaining(final long remaining) {
+        this.remaining = remaining;
+    }
+
+    public long getRemaining() {
+        return remaining;
+    }
+
+    public void setStarted(final LocalDateTime started) {
+        this.started = started;
+    }
+
+    public LocalDateTime getStarted() {
+        return started;
+    }
+
+    public void setChanged(final LocalDateTime changed) {
+        this.changed = changed;
+    }
+
+    public LocalDateTime getChanged() {
+        return changed;
+    }
+
+    // =========================================================================
+    // Standard Methods
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Rotation{" +
+                "circleId='" + circleId + '\'' +
+                ", status='" + status + '\'' +
+                ", processed=" + processed +
+                ", remaining=" + remaining +
+                ", started=" + started +
+                ", changed=" + changed +
+                '}';
+    }
+}
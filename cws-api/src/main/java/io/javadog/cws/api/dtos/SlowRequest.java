@@ -0,0 +1,110 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.api.dtos;
+
+import io.javadog.cws.api.common.Constants;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.json.bind.annotation.JsonbDateFormat;
+import javax.json.bind.annotation.JsonbProperty;
+import javax.json.bind.annotation.JsonbPropertyOrder;
+
+/**
+ * <p>The Slow Request Object contain the timing of a single request, which
+ * was among the slowest requests handled by the CWS instance. Besides the
+ * total duration, the time spent in each phase of the request is listed, so
+ * it is possible to see where the time was spent. All durations are given in
+ * microseconds.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@JsonbPropertyOrder({ Constants.FIELD_ACTION, Constants.FIELD_STARTED, Constants.FIELD_DURATION, Constants.FIELD_PHASES })
+public final class SlowRequest implements Serializable {
+
+    /** {@link Constants#SERIAL_VERSION_UID}. */
+    private static final long serialVersionUID = Constants.SERIAL_VERSION_UID;
+
+    @JsonbProperty(value = Constants.FIELD_ACTION, nillable = true)
+    private String action = null;
+
+    @JsonbProperty(value = Constants.FIELD_STARTED, nillable = true)
+    @JsonbDateFormat(Constants.JSON_DATE_FORMAT)
+    private LocalDateTime started = null;
+
+    @JsonbProperty(Constants.FIELD_DURATION)
+    private long duration = 0;
+
+    @JsonbProperty(Constants.FIELD_PHASES)
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    // =========================================================================
+    // Standard Setters & Getters
+    // =========================================================================
+
+    public void setAction(final String action) {
+        this.action = action;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setStarted(final LocalDateTime started) {
+        this.started = started;
+    }
+
+    public LocalDateTime getStarted() {
+        return started;
+    }
+
+    public void setDuration(final long duration) {
+        this.duration = duration;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setPhases(final Map<String, Long> phases) {
+        this.phases.putAll(phases);
+    }
+
+    public Map<String, Long> getPhases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    // =========================================================================
+    // Standard Methods
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "SlowRequest{" +
+                "action='" + action + '\'' +
+                ", started=" + started +
+                ", duration=" + duration +
+                ", phases=" + phases +
+                '}';
+    }
+}
@@ -32,6 +32,7 @@ import java.util.Map;
  *   <li><b>CREATE</b> - For creating a new Circle</li>
  *   <li><b>UPDATE</b> - For updating an existing Circle</li>
  *   <li><b>DELETE</b> - For deleting an existing Circle</li>
+ *   <li><b>ROTATE</b> - For replacing the Key of an existing Circle</li>
  * </ul>
  *
  * <p>Action <b>CREATE</b>; request requires a name for the Circle, which must
@@ -50,6 +51,11 @@ import java.util.Map;
  * <p>Action <b>DELETE</b>; request requires a Circle Id, and may be performed
  * by anyone who have Administrative right in the Circle.</p>
  *
+ * <p>Action <b>ROTATE</b>; request requires a Circle Id, and may be performed
+ * by anyone who have Administrative right in the Circle. The Circle is given a
+ * new Key, and the existing Data Objects are re-encrypted with it in the
+ * background. The progress can be followed via the 'rotations' request.</p>
+ *
  * <p>For more details, please see the 'processCircle' request in the Management
  * interface: {@link io.javadog.cws.api.Management#processCircle(ProcessCircleRequest)}</p>
  *
@@ -170,6 +176,9 @@ public final class ProcessCircleRequest extends Authentication implements Circle
                 case DELETE:
                     checkNotNullAndValidId(errors, Constants.FIELD_CIRCLE_ID, circleId, "Cannot delete a Circle, without knowing the Circle Id.");
                     break;
+                case ROTATE:
+                    checkNotNullAndValidId(errors, Constants.FIELD_CIRCLE_ID, circleId, "Cannot rotate the Circle Key, without knowing the Circle Id.");
+                    break;
                 default:
                     errors.put(Constants.FIELD_ACTION, "Not supported Action has been provided.");
                     break;
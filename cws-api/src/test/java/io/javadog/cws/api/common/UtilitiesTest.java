@@ -21,7 +21,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import org.junit.jupiter.api.Test;
 
@@ -43,4 +45,10 @@ final class UtilitiesTest {
         // prevent that the Static Analysis tools complain about it.
         assertArrayEquals(bytes, copy);
     }
+
+    @Test
+    void testNewDateHasDatabasePrecision() {
+        final LocalDateTime date = Utilities.newDate();
+        assertEquals(date.truncatedTo(ChronoUnit.MICROS), date);
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.api.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.javadog.cws.api.common.Utilities;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class RotationTest {
+
+    @Test
+    void testClassFlow() {
+        final String circleId = UUID.randomUUID().toString();
+        final LocalDateTime started = Utilities.newDate();
+        final LocalDateTime changed = Utilities.newDate();
+
+        final Rotation rotation = new Rotation();
+        rotation.setCircleId(circleId);
+        rotation.setStatus("DATA");
+        rotation.setProcessed(100L);
+        rotation.setRemaining(25L);
+        rotation.setStarted(started);
+        rotation.setChanged(changed);
+
+        assertEquals(circleId, rotation.getCircleId());
+        assertEquals("DATA", rotation.getStatus());
+        assertEquals(100L, rotation.getProcessed());
+        assertEquals(25L, rotation.getRemaining());
+        assertEquals(started, rotation.getStarted());
+        assertEquals(changed, rotation.getChanged());
+    }
+
+    @Test
+    void testStandardMethods() {
+        final Rotation rotation = new Rotation();
+        final Rotation emptyRotation = new Rotation();
+        rotation.setStatus("DATA");
+        rotation.setProcessed(100L);
+
+        assertNotEquals(emptyRotation.toString(), rotation.toString());
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.api.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.javadog.cws.api.common.Utilities;
+import java.time.LocalDateTime;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class SlowRequestTest {
+
+    @Test
+    void testClassFlow() {
+        final LocalDateTime started = Utilities.newDate();
+        final Map<String, Long> phases = Map.of("authenticate", 1500L);
+
+        final SlowRequest request = new SlowRequest();
+        request.setAction("/fetchData");
+        request.setStarted(started);
+        request.setDuration(2000L);
+        request.setPhases(phases);
+
+        assertEquals("/fetchData", request.getAction());
+        assertEquals(started, request.getStarted());
+        assertEquals(2000L, request.getDuration());
+        assertEquals(phases, request.getPhases());
+    }
+
+    @Test
+    void testStandardMethods() {
+        final SlowRequest request = new SlowRequest();
+        final SlowRequest emptyRequest = new SlowRequest();
+        request.setAction("/fetchData");
+        request.setDuration(2000L);
+
+        assertNotEquals(emptyRequest.toString(), request.toString());
+    }
+}
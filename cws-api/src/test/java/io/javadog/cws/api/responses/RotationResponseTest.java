@@ -0,0 +1,56 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.api.responses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.api.dtos.Rotation;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class RotationResponseTest {
+
+    @Test
+    void testClassFlow() {
+        final List<Rotation> rotations = List.of(new Rotation(), new Rotation());
+
+        final RotationResponse response = new RotationResponse();
+        response.setRotations(rotations);
+
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+        assertTrue(response.isOk());
+        assertEquals(rotations, response.getRotations());
+    }
+
+    @Test
+    void testError() {
+        final String msg = "Rotation Request failed due to Verification Problems.";
+        final RotationResponse response = new RotationResponse(ReturnCode.VERIFICATION_WARNING, msg);
+
+        assertEquals(ReturnCode.VERIFICATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals(msg, response.getReturnMessage());
+        assertFalse(response.isOk());
+        assertTrue(response.getRotations().isEmpty());
+    }
+}
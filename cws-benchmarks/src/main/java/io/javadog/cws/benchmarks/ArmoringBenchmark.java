@@ -0,0 +1,90 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks;
+
+import io.javadog.cws.core.jce.CWSKeyPair;
+import io.javadog.cws.core.jce.Crypto;
+import io.javadog.cws.core.jce.IVSalt;
+import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.model.Settings;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Armors and dearmors the Member Key Pair, as it is stored in the
+ * database. The Private Key is encrypted as part of the armoring, so the
+ * Benchmarks include the Symmetric Encryption of the Key.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArmoringBenchmark {
+
+    private Crypto crypto = null;
+    private CWSKeyPair keyPair = null;
+    private SecretCWSKey key = null;
+    private String armoredPublicKey = null;
+    private String armoredPrivateKey = null;
+
+    @Setup
+    public void setup() {
+        final var settings = Settings.getInstance();
+        crypto = new Crypto(settings);
+        keyPair = Crypto.generateAsymmetricKey(settings.getAsymmetricAlgorithm());
+        key = Crypto.generateSymmetricKey(settings.getSymmetricAlgorithm());
+        key.setSalt(new IVSalt());
+        armoredPublicKey = Crypto.armoringPublicKey(keyPair.getPublic().getKey());
+        armoredPrivateKey = Crypto.armoringPrivateKey(key, keyPair.getPrivate().getKey());
+    }
+
+    @Benchmark
+    public String armoringPublicKey() {
+        return Crypto.armoringPublicKey(keyPair.getPublic().getKey());
+    }
+
+    @Benchmark
+    public PublicKey dearmoringPublicKey() {
+        return crypto.dearmoringPublicKey(armoredPublicKey);
+    }
+
+    @Benchmark
+    public String armoringPrivateKey() {
+        return Crypto.armoringPrivateKey(key, keyPair.getPrivate().getKey());
+    }
+
+    @Benchmark
+    public PrivateKey dearmoringPrivateKey() {
+        return crypto.dearmoringPrivateKey(key, armoredPrivateKey);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * <p>Runs the CWS Benchmarks. All JMH command line options are supported,
+ * i.e. a regular expression to select which Benchmarks to run, or '-p' to
+ * override the Parameters. Unless otherwise requested, the results are
+ * written as JSON to the file 'cws-benchmarks.json', so the results from
+ * different commits can be compared.</p>
+ *
+ * <pre>
+ *   mvn -pl cws-benchmarks -am package -DskipTests
+ *   java -jar cws-benchmarks/target/benchmarks.jar [JMH options] [regexp]
+ * </pre>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class Benchmarks {
+
+    private static final String RESULT_FORMAT = "-rf";
+    private static final String RESULT_FILE = "-rff";
+
+    private Benchmarks() {
+        // Private Constructor, this is the main entry point.
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final List<String> arguments = new ArrayList<>(List.of(args));
+
+        if (!arguments.contains(RESULT_FORMAT)) {
+            arguments.addAll(0, List.of(RESULT_FORMAT, "json"));
+        }
+        if (!arguments.contains(RESULT_FILE)) {
+            arguments.addAll(0, List.of(RESULT_FILE, "cws-benchmarks.json"));
+        }
+
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
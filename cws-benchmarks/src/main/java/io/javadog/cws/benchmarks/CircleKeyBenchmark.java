@@ -0,0 +1,72 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks;
+
+import io.javadog.cws.core.enums.KeyAlgorithm;
+import io.javadog.cws.core.jce.CWSKeyPair;
+import io.javadog.cws.core.jce.Crypto;
+import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.model.Settings;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Extracts the Circle Key, by decrypting it with the Private Key of the
+ * Member. This is done for every request, which reads or writes Data in a
+ * Circle.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CircleKeyBenchmark {
+
+    @Param({ "RSA_2048", "RSA_4096", "RSA_8192" })
+    public KeyAlgorithm algorithm;
+
+    private KeyAlgorithm symmetric = null;
+    private CWSKeyPair keyPair = null;
+    private String armoredCircleKey = null;
+
+    @Setup
+    public void setup() {
+        symmetric = Settings.getInstance().getSymmetricAlgorithm();
+        keyPair = Crypto.generateAsymmetricKey(algorithm);
+        final SecretCWSKey circleKey = Crypto.generateSymmetricKey(symmetric);
+        armoredCircleKey = Crypto.encryptAndArmorCircleKey(keyPair.getPublic(), circleKey);
+    }
+
+    @Benchmark
+    public SecretCWSKey extractCircleKey() {
+        return Crypto.extractCircleKey(symmetric, keyPair.getPrivate(), armoredCircleKey);
+    }
+}
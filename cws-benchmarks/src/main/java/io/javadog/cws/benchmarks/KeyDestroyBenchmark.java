@@ -0,0 +1,99 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks;
+
+import io.javadog.cws.core.enums.KeyAlgorithm;
+import io.javadog.cws.core.jce.CWSKeyPair;
+import io.javadog.cws.core.jce.Crypto;
+import io.javadog.cws.core.jce.PrivateCWSKey;
+import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.model.Settings;
+import java.security.PrivateKey;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Wraps and destroys the Keys, which is done for the Private Key of the
+ * Member and the Circle Keys used, at the end of every request.</p>
+ *
+ * <p>The two results must not be read as a speed-up. Creating and
+ * destroying a Secret Key is slower with the KeyVault (measured 188 ns
+ * before, 314 ns after on JDK 11). About 170 ns of this is the Cleaner,
+ * which is registered for every Key, so the slot is wiped and released even
+ * if the Key is never destroyed. Destroying a Private Key became almost free
+ * (186 ns before, 3 ns after), only because the Private Key is no longer
+ * overwritten, but merely has its reference cleared. RSA keys consist of
+ * immutable BigIntegers, so the material is left for the garbage collector,
+ * as it also was before.</p>
+ *
+ * <p>What the KeyVault reduces is the number of copies. The JCE Key reads
+ * the material from the slot, so the only copy on the heap is the one the
+ * Provider asks for, when a Cipher is initialized. Before, each Key also
+ * had a SecretKeySpec holding a copy, which could only be overwritten via
+ * Reflection. The KeyVault is a safety measure, not an optimization.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyDestroyBenchmark {
+
+    private KeyAlgorithm symmetric = null;
+    private KeyAlgorithm asymmetric = null;
+    private byte[] rawKey = null;
+    private PrivateKey privateKey = null;
+
+    @Setup
+    public void setup() {
+        final Settings settings = Settings.getInstance();
+        symmetric = settings.getSymmetricAlgorithm();
+        asymmetric = settings.getAsymmetricAlgorithm();
+        rawKey = Crypto.generateSymmetricKey(symmetric).getEncoded();
+        final CWSKeyPair keyPair = Crypto.generateAsymmetricKey(asymmetric);
+        privateKey = keyPair.getPrivate().getKey();
+    }
+
+    @Benchmark
+    public boolean destroySecretKey() {
+        final SecretCWSKey key = new SecretCWSKey(symmetric, rawKey.clone());
+        key.destroy();
+
+        return key.isDestroyed();
+    }
+
+    @Benchmark
+    public boolean destroyPrivateKey() {
+        final PrivateCWSKey key = new PrivateCWSKey(asymmetric, privateKey);
+        key.destroy();
+
+        return key.isDestroyed();
+    }
+}
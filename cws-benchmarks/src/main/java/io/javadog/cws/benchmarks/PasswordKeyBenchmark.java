@@ -0,0 +1,73 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks;
+
+import io.javadog.cws.core.enums.StandardSetting;
+import io.javadog.cws.core.jce.Crypto;
+import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.model.Settings;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Derives the Member Key from the Credentials with PBKDF2, which is done
+ * for every request authenticated with a Password. The cost grows linearly
+ * with the number of iterations, see 'cws.crypto.pbe.iterations'.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordKeyBenchmark {
+
+    private static final String SALT = "c5d5d4de-8e5a-4a7f-8f3e-3f5e7c6a0b5e";
+    private static final byte[] SECRET = "benchmark password".getBytes(StandardCharsets.UTF_8);
+
+    @Param({ "1024", "10000", "100000" })
+    public int iterations;
+
+    private Settings settings = null;
+    private Crypto crypto = null;
+
+    @Setup
+    public void setup() {
+        settings = Settings.getInstance();
+        settings.set(StandardSetting.PBE_ITERATIONS, String.valueOf(iterations));
+        crypto = new Crypto(settings);
+    }
+
+    @Benchmark
+    public SecretCWSKey generatePasswordKey() {
+        return crypto.generatePasswordKey(settings.getPasswordAlgorithm(), SECRET, SALT);
+    }
+}
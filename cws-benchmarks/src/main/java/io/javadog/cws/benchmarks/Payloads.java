@@ -0,0 +1,42 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks;
+
+import java.util.Random;
+
+/**
+ * <p>Generates the payloads for the Benchmarks. The content is random, but
+ * the generator is seeded, so every run will process the same bytes.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class Payloads {
+
+    private static final long SEED = 20161010L;
+
+    private Payloads() {
+        // Private Constructor, this is a utility Class.
+    }
+
+    static byte[] generate(final int size) {
+        final var bytes = new byte[size];
+        new Random(SEED).nextBytes(bytes);
+
+        return bytes;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks;
+
+import io.javadog.cws.core.jce.Randomness;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Generates the random values needed when Objects are added, i.e. the
+ * External Ids and Initial Vectors, from multiple threads at the same time.
+ * The shared and new SecureRandom variants are the way the values were
+ * generated before the {@link Randomness} class was added.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RandomnessBenchmark {
+
+    private static final int IV_SIZE = 16;
+
+    @Benchmark
+    public UUID sharedUUID() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID threadUUID() {
+        return Randomness.newUUID();
+    }
+
+    @Benchmark
+    public byte[] newSecureRandomIV() {
+        final var bytes = new byte[IV_SIZE];
+        new SecureRandom().nextBytes(bytes);
+
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] threadRandomIV() {
+        final var bytes = new byte[IV_SIZE];
+        Randomness.nextBytes(bytes);
+
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] counterNonce() {
+        return Randomness.newNonce(IV_SIZE);
+    }
+}
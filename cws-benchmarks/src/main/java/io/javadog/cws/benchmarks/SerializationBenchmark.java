@@ -0,0 +1,128 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import io.javadog.cws.api.dtos.Metadata;
+import io.javadog.cws.api.responses.FetchDataResponse;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Serializes the Fetch Data Response with JSON-B, as the REST API does,
+ * and with Gson, as the REST Client does. The Response is built with a
+ * folder listing of Metadata records and a Data Object, which is encoded
+ * using Base64 by both. Responses are only read by the REST Client, so only
+ * the Gson deserialization is measured.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "10", "1000" })
+    public int records;
+
+    @Param({ "1024", "1048576" })
+    public int size;
+
+    private Jsonb jsonb = null;
+    private Gson gson = null;
+    private FetchDataResponse response = null;
+    private String gsonResponse = null;
+
+    @Setup
+    public void setup() {
+        jsonb = JsonbBuilder.create();
+        gson = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, (JsonSerializer<LocalDateTime>) (src, type, context) -> new JsonPrimitive(src.toInstant(ZoneOffset.UTC).toEpochMilli()))
+                .registerTypeAdapter(LocalDateTime.class, (JsonDeserializer<LocalDateTime>) (json, type, context) -> LocalDateTime.ofInstant(Instant.ofEpochMilli(json.getAsLong()), ZoneOffset.UTC))
+                .registerTypeAdapter(byte[].class, (JsonSerializer<byte[]>) (src, type, context) -> new JsonPrimitive(Base64.getEncoder().encodeToString(src)))
+                .registerTypeAdapter(byte[].class, (JsonDeserializer<byte[]>) (json, type, context) -> Base64.getDecoder().decode(json.getAsString()))
+                .create();
+
+        final List<Metadata> metadata = new ArrayList<>(records);
+        final String circleId = UUID.randomUUID().toString();
+        final String folderId = UUID.randomUUID().toString();
+        for (int i = 0; i < records; i++) {
+            final var entry = new Metadata();
+            entry.setDataId(UUID.randomUUID().toString());
+            entry.setCircleId(circleId);
+            entry.setFolderId(folderId);
+            entry.setDataName("Data Object " + i);
+            entry.setTypeName("data");
+            entry.setAdded(LocalDateTime.now().withNano(0));
+            metadata.add(entry);
+        }
+
+        response = new FetchDataResponse();
+        response.setMetadata(metadata);
+        response.setRecords(records);
+        response.setData(Payloads.generate(size));
+        gsonResponse = gson.toJson(response);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        jsonb.close();
+    }
+
+    @Benchmark
+    public String jsonbSerialize() {
+        return jsonb.toJson(response);
+    }
+
+    @Benchmark
+    public String gsonSerialize() {
+        return gson.toJson(response);
+    }
+
+    @Benchmark
+    public FetchDataResponse gsonDeserialize() {
+        return gson.fromJson(gsonResponse, FetchDataResponse.class);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks;
+
+import io.javadog.cws.core.enums.StandardSetting;
+import io.javadog.cws.core.model.Settings;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <p>The Settings are read several times by every request, so the reads
+ * must scale with the number of threads. The Benchmarks read the typed
+ * Settings from 64 threads, either alone or while another thread keeps
+ * updating them.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SettingsBenchmark {
+
+    private Settings settings = null;
+    private String interval = null;
+    private boolean toggle = false;
+
+    @Setup
+    public void setup() {
+        settings = Settings.getInstance();
+        interval = settings.get(StandardSetting.CACHE_CHECK_INTERVAL.getKey());
+    }
+
+    @TearDown
+    public void tearDown() {
+        settings.set(StandardSetting.CACHE_CHECK_INTERVAL, interval);
+    }
+
+    @Benchmark
+    @Group("read")
+    @GroupThreads(64)
+    public void read(final Blackhole blackhole) {
+        readSettings(blackhole);
+    }
+
+    @Benchmark
+    @Group("readWhileUpdating")
+    @GroupThreads(63)
+    public void reader(final Blackhole blackhole) {
+        readSettings(blackhole);
+    }
+
+    @Benchmark
+    @Group("readWhileUpdating")
+    @GroupThreads(1)
+    public void writer() {
+        toggle = !toggle;
+        settings.set(StandardSetting.CACHE_CHECK_INTERVAL, toggle ? "10" : interval);
+    }
+
+    private void readSettings(final Blackhole blackhole) {
+        blackhole.consume(settings.getSymmetricAlgorithm());
+        blackhole.consume(settings.getCharset());
+        blackhole.consume(settings.getSessionTimeout());
+        blackhole.consume(settings.getCacheCheckInterval());
+    }
+}
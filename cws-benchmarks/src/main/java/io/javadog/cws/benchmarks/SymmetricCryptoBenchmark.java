@@ -0,0 +1,80 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks;
+
+import io.javadog.cws.core.enums.KeyAlgorithm;
+import io.javadog.cws.core.jce.Crypto;
+import io.javadog.cws.core.jce.IVSalt;
+import io.javadog.cws.core.jce.SecretCWSKey;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Encrypts and decrypts Data with the two supported Symmetric
+ * Transformations, AES CBC and AES GCM, for payloads from 1 KB to 100 MB.
+ * The largest payloads require a bigger heap, which the forked JVM is
+ * given.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SymmetricCryptoBenchmark {
+
+    @Param({ "AES_CBC_256", "AES_GCM_128" })
+    public KeyAlgorithm algorithm;
+
+    @Param({ "1024", "1048576", "104857600" })
+    public int size;
+
+    private SecretCWSKey key = null;
+    private byte[] plain = null;
+    private byte[] encrypted = null;
+
+    @Setup
+    public void setup() {
+        key = Crypto.generateSymmetricKey(algorithm);
+        key.setSalt(new IVSalt());
+        plain = Payloads.generate(size);
+        encrypted = Crypto.encrypt(key, plain);
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        return Crypto.encrypt(key, plain);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return Crypto.decrypt(key, encrypted);
+    }
+}
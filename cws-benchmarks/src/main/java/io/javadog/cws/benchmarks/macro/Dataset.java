@@ -0,0 +1,107 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks.macro;
+
+import java.util.Random;
+
+/**
+ * <p>The generated dataset, as seen by the clients of the workload. Members
+ * are referenced by their index, and for each, the Circles they are Trustees
+ * of, are kept together with the Data Objects in each Circle.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class Dataset {
+
+    private final String[] accounts;
+    private final int[][] circles;
+    private final int[][] writableCircles;
+    private final int[] members;
+    private final int[] writers;
+    private final String[] circleIds;
+    private final String[][] objects;
+
+    Dataset(final String[] accounts, final int[][] circles, final int[][] writableCircles, final String[] circleIds, final String[][] objects) {
+        this.accounts = accounts;
+        this.circles = circles;
+        this.writableCircles = writableCircles;
+        this.circleIds = circleIds;
+        this.objects = objects;
+        this.members = withCircles(circles);
+        this.writers = withCircles(writableCircles);
+    }
+
+    String account(final int member) {
+        return accounts[member];
+    }
+
+    /**
+     * <p>Picks a random Member, which is Trustee of at least one Circle, and
+     * if requested, with write access to it.</p>
+     *
+     * @param random   Random generator of the client
+     * @param writable True if the Member must be allowed to write
+     * @return Index of the Member
+     */
+    int member(final Random random, final boolean writable) {
+        final int[] candidates = writable ? writers : members;
+        if (candidates.length == 0) {
+            throw new IllegalStateException("The dataset has no Members with " + (writable ? "writable " : "") + "Circles.");
+        }
+
+        return candidates[random.nextInt(candidates.length)];
+    }
+
+    int circle(final Random random, final int member, final boolean writable) {
+        final int[] candidates = writable ? writableCircles[member] : circles[member];
+
+        return candidates[random.nextInt(candidates.length)];
+    }
+
+    String circleId(final int circle) {
+        return circleIds[circle];
+    }
+
+    /**
+     * <p>Picks a random Data Object from the given Circle.</p>
+     *
+     * @param random Random generator of the client
+     * @param circle Index of the Circle
+     * @return External Id of the Data Object, or null if the Circle is empty
+     */
+    String object(final Random random, final int circle) {
+        final String[] candidates = objects[circle];
+
+        return (candidates.length > 0) ? candidates[random.nextInt(candidates.length)] : null;
+    }
+
+    private static int[] withCircles(final int[][] memberCircles) {
+        int count = 0;
+        final int[] found = new int[memberCircles.length];
+        for (int i = 0; i < memberCircles.length; i++) {
+            if (memberCircles[i].length > 0) {
+                found[count] = i;
+                count++;
+            }
+        }
+
+        final int[] result = new int[count];
+        System.arraycopy(found, 0, result, 0, count);
+        return result;
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks.macro;
+
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.common.MemberRole;
+import io.javadog.cws.api.common.TrustLevel;
+import io.javadog.cws.api.common.Utilities;
+import io.javadog.cws.core.enums.KeyAlgorithm;
+import io.javadog.cws.core.enums.SanityStatus;
+import io.javadog.cws.core.enums.Status;
+import io.javadog.cws.core.jce.CWSKeyPair;
+import io.javadog.cws.core.jce.Crypto;
+import io.javadog.cws.core.jce.IVSalt;
+import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.model.CommonDao;
+import io.javadog.cws.core.model.DataTypeRegistry;
+import io.javadog.cws.core.model.Settings;
+import io.javadog.cws.core.model.entities.CWSEntity;
+import io.javadog.cws.core.model.entities.CircleEntity;
+import io.javadog.cws.core.model.entities.DataEntity;
+import io.javadog.cws.core.model.entities.DataTypeEntity;
+import io.javadog.cws.core.model.entities.KeyEntity;
+import io.javadog.cws.core.model.entities.MemberEntity;
+import io.javadog.cws.core.model.entities.MetadataEntity;
+import io.javadog.cws.core.model.entities.TrusteeEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManager;
+
+/**
+ * <p>Generates the dataset for the Macro Benchmark. The Entities are built
+ * the same way as the Services builds them, but they are persisted directly,
+ * as generating a large dataset via the Beans would take hours.</p>
+ *
+ * <p>To keep the generation time reasonable, the Members share a small pool
+ * of RSA Key Pairs, but each has its own Salt and thus Password Key, so the
+ * authentication costs the same as for a real Member. The passphrase of each
+ * Member is the account name.</p>
+ *
+ * <p>The size of the Data Objects follows a log-normal distribution, which
+ * is how file sizes are typically distributed, i.e. many small and few
+ * large Objects, with the configured median and maximum size.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class DatasetGenerator {
+
+    private static final int KEY_POOL = 16;
+    private static final int BATCH = 1_000;
+    private static final double SIGMA = 1.0;
+
+    private final MacroOptions options;
+    private final EntityManager entityManager;
+    private final CommonDao dao;
+    private final Settings settings = Settings.getInstance();
+    private final Crypto crypto = new Crypto(settings);
+    private final Random random;
+    private final byte[] content;
+    private int pending = 0;
+
+    DatasetGenerator(final MacroOptions options, final EntityManager entityManager) {
+        this.options = options;
+        this.entityManager = entityManager;
+        this.dao = new CommonDao(entityManager);
+        this.random = new Random(options.seed());
+        this.content = new byte[options.max()];
+        random.nextBytes(content);
+    }
+
+    Dataset generate() {
+        final CWSKeyPair[] keys = IntStream.range(0, Math.min(KEY_POOL, Math.max(1, options.members())))
+                .parallel()
+                .mapToObj(i -> Crypto.generateAsymmetricKey(settings.getAsymmetricAlgorithm()))
+                .toArray(CWSKeyPair[]::new);
+
+        entityManager.getTransaction().begin();
+        final String[] accounts = new String[options.members()];
+        final long[] memberIds = generateMembers(accounts, keys);
+        final String[] circleIds = new String[options.circles()];
+        final CircleKey[] circleKeys = new CircleKey[options.circles()];
+        final List<List<Integer>> circles = newLists(options.members());
+        final List<List<Integer>> writableCircles = newLists(options.members());
+        generateCircles(memberIds, keys, circleIds, circleKeys, circles, writableCircles);
+        final String[][] objects = generateObjects(circleKeys);
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+
+        return new Dataset(accounts, toArrays(circles), toArrays(writableCircles), circleIds, objects);
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private long[] generateMembers(final String[] accounts, final CWSKeyPair[] keys) {
+        log("Generating " + accounts.length + " Members.");
+        // The Password Key derivation is the expensive part, so the Members
+        // are prepared in parallel, and persisted afterwards.
+        final List<MemberEntity> members = IntStream.range(0, accounts.length)
+                .parallel()
+                .mapToObj(i -> prepareMember(String.format("macro%06d", i), keys[i % keys.length]))
+                .collect(Collectors.toList());
+
+        final long[] ids = new long[accounts.length];
+        for (int i = 0; i < accounts.length; i++) {
+            final MemberEntity member = members.get(i);
+            persist(member);
+            accounts[i] = member.getName();
+            ids[i] = member.getId();
+        }
+
+        return ids;
+    }
+
+    private MemberEntity prepareMember(final String account, final CWSKeyPair pair) {
+        final KeyAlgorithm pbeAlgorithm = settings.getPasswordAlgorithm();
+        final var salt = new IVSalt();
+        final SecretCWSKey key = crypto.generatePasswordKey(pbeAlgorithm, crypto.stringToBytes(account), salt.getArmored());
+        key.setSalt(salt);
+
+        final var member = new MemberEntity();
+        member.setName(account);
+        member.setMemberRole(MemberRole.STANDARD);
+        member.setSalt(crypto.encryptWithMasterKey(salt.getArmored()));
+        member.setPbeAlgorithm(pbeAlgorithm);
+        member.setRsaAlgorithm(pair.getAlgorithm());
+        member.setPublicKey(Crypto.armoringPublicKey(pair.getPublic().getKey()));
+        member.setPrivateKey(Crypto.armoringPrivateKey(key, pair.getPrivate().getKey()));
+
+        return member;
+    }
+
+    private void generateCircles(final long[] memberIds, final CWSKeyPair[] keys, final String[] circleIds, final CircleKey[] circleKeys, final List<List<Integer>> circles, final List<List<Integer>> writableCircles) {
+        log("Generating " + circleIds.length + " Circles with " + options.trustees() + " Trustees each.");
+        final KeyAlgorithm algorithm = settings.getSymmetricAlgorithm();
+        final DataTypeEntity folder = DataTypeRegistry.getInstance().find(dao, Constants.FOLDER_TYPENAME);
+
+        for (int c = 0; c < circleIds.length; c++) {
+            final SecretCWSKey secretKey = Crypto.generateSymmetricKey(algorithm);
+            final var circle = new CircleEntity();
+            circle.setName(String.format("macro-circle%05d", c));
+            persist(circle);
+
+            final var root = new MetadataEntity();
+            root.setCircle(circle);
+            root.setName("/");
+            root.setParentId(0L);
+            root.setType(entityManager.getReference(DataTypeEntity.class, folder.getId()));
+            persist(root);
+
+            final var keyEntity = new KeyEntity();
+            keyEntity.setAlgorithm(algorithm);
+            keyEntity.setStatus(Status.ACTIVE);
+            persist(keyEntity);
+
+            for (int t = 0; t < options.trustees(); t++) {
+                final int member = ((c * options.trustees()) + t) % memberIds.length;
+                final TrustLevel trustLevel = trustLevel(t);
+                final var trustee = new TrusteeEntity();
+                trustee.setMember(entityManager.getReference(MemberEntity.class, memberIds[member]));
+                trustee.setCircle(circle);
+                trustee.setKey(keyEntity);
+                trustee.setTrustLevel(trustLevel);
+                trustee.setCircleKey(Crypto.encryptAndArmorCircleKey(keys[member % keys.length].getPublic(), secretKey));
+                persist(trustee);
+
+                circles.get(member).add(c);
+                if (trustLevel != TrustLevel.READ) {
+                    writableCircles.get(member).add(c);
+                }
+            }
+
+            circleIds[c] = circle.getExternalId();
+            circleKeys[c] = new CircleKey(secretKey, keyEntity.getId(), circle.getId(), root.getId());
+        }
+    }
+
+    private static TrustLevel trustLevel(final int trustee) {
+        final TrustLevel trustLevel;
+
+        if (trustee == 0) {
+            trustLevel = TrustLevel.ADMIN;
+        } else if ((trustee % 2) == 1) {
+            trustLevel = TrustLevel.WRITE;
+        } else {
+            trustLevel = TrustLevel.READ;
+        }
+
+        return trustLevel;
+    }
+
+    private String[][] generateObjects(final CircleKey[] circleKeys) {
+        final int count = options.objects();
+        log("Generating " + count + " Data Objects.");
+        final String[][] objects = new String[circleKeys.length][];
+        final int[] filled = new int[circleKeys.length];
+        for (int c = 0; c < circleKeys.length; c++) {
+            objects[c] = new String[(count / circleKeys.length) + (((count % circleKeys.length) > c) ? 1 : 0)];
+        }
+
+        final DataTypeEntity type = DataTypeRegistry.getInstance().find(dao, Constants.DATA_TYPENAME);
+        for (int i = 0; i < count; i++) {
+            final int c = i % circleKeys.length;
+            final CircleKey circleKey = circleKeys[c];
+
+            final var metadata = new MetadataEntity();
+            metadata.setCircle(entityManager.getReference(CircleEntity.class, circleKey.circleId));
+            metadata.setName(String.format("macro-object%07d", i));
+            metadata.setParentId(circleKey.folderId);
+            metadata.setType(entityManager.getReference(DataTypeEntity.class, type.getId()));
+            persist(metadata);
+
+            final var salt = new IVSalt();
+            circleKey.key.setSalt(salt);
+            final var data = new DataEntity();
+            data.setMetadata(metadata);
+            data.setKey(entityManager.getReference(KeyEntity.class, circleKey.keyId));
+            data.setData(Crypto.encrypt(circleKey.key, payload()));
+            data.setInitialVector(crypto.encryptWithMasterKey(salt.getArmored()));
+            data.setChecksum(crypto.generateChecksum(data.getData()));
+            data.setSanityStatus(SanityStatus.OK);
+            data.setSanityChecked(Utilities.newDate());
+            persist(data);
+
+            objects[c][filled[c]] = metadata.getExternalId();
+            filled[c]++;
+            if (((i + 1) % (count / 10 + 1)) == 0) {
+                log("Generated " + (i + 1) + " Data Objects.");
+            }
+        }
+
+        return objects;
+    }
+
+    /**
+     * <p>Returns a payload with a log-normal distributed size, with the
+     * configured median, limited to the configured maximum size.</p>
+     *
+     * @return Payload of random size
+     */
+    private byte[] payload() {
+        final long size = Math.round(options.median() * Math.exp(SIGMA * random.nextGaussian()));
+        final int length = (int) Math.max(1, Math.min(content.length, size));
+        final int offset = random.nextInt(content.length - length + 1);
+
+        return Arrays.copyOfRange(content, offset, offset + length);
+    }
+
+    /**
+     * <p>Persists the Entity, and for every batch of Entities, the changes
+     * are committed, and the Persistence Context is cleared, so it will not
+     * keep growing.</p>
+     *
+     * @param entity The Entity to persist
+     */
+    private void persist(final CWSEntity entity) {
+        dao.persist(entity);
+        pending++;
+
+        if (pending == BATCH) {
+            entityManager.flush();
+            entityManager.getTransaction().commit();
+            entityManager.clear();
+            entityManager.getTransaction().begin();
+            pending = 0;
+        }
+    }
+
+    private static List<List<Integer>> newLists(final int count) {
+        final List<List<Integer>> lists = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lists.add(new ArrayList<>(1));
+        }
+
+        return lists;
+    }
+
+    private static int[][] toArrays(final List<List<Integer>> lists) {
+        final int[][] arrays = new int[lists.size()][];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        return arrays;
+    }
+
+    static void log(final String message) {
+        System.out.printf("[%tT] %s%n", System.currentTimeMillis(), message);
+    }
+
+    /**
+     * <p>The Circle Key, together with the Ids needed to add Data Objects to
+     * the Circle, without having to read the Entities again.</p>
+     */
+    private static final class CircleKey {
+
+        private final SecretCWSKey key;
+        private final long keyId;
+        private final long circleId;
+        private final long folderId;
+
+        private CircleKey(final SecretCWSKey key, final long keyId, final long circleId, final long folderId) {
+            this.key = key;
+            this.keyId = keyId;
+            this.circleId = circleId;
+            this.folderId = folderId;
+        }
+    }
+}
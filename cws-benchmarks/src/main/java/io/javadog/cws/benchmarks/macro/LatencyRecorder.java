@@ -0,0 +1,89 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks.macro;
+
+import java.util.Arrays;
+
+/**
+ * <p>Records the latency of every request for a single Operation, so the
+ * exact percentiles can be calculated afterwards. Each client has its own
+ * Recorders, which are merged when the workload is completed, so the
+ * Recorders are not thread-safe.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count = 0;
+    private long errors = 0;
+    private boolean sorted = true;
+
+    void record(final long nanos, final boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count] = nanos;
+        count++;
+        sorted = false;
+
+        if (!success) {
+            errors++;
+        }
+    }
+
+    void merge(final LatencyRecorder other) {
+        if ((count + other.count) > samples.length) {
+            samples = Arrays.copyOf(samples, count + other.count);
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        errors += other.errors;
+        sorted = false;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    /**
+     * <p>Returns the latency at the given percentile, using the nearest rank
+     * method.</p>
+     *
+     * @param percentile Percentile, between 0 and 100
+     * @return Latency in nanoseconds, or 0 if nothing was recorded
+     */
+    long percentile(final double percentile) {
+        long value = 0;
+
+        if (count > 0) {
+            if (!sorted) {
+                Arrays.sort(samples, 0, count);
+                sorted = true;
+            }
+            final int rank = (int) Math.ceil((percentile / 100.0) * count);
+            value = samples[Math.max(0, Math.min(count, rank) - 1)];
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks.macro;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbConfig;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+/**
+ * <p>End-to-end Macro Benchmark of the Share and Management Beans. It seeds
+ * an embedded H2 database with a large dataset, and then runs a mixed
+ * workload from concurrent clients against the Beans, authenticated with
+ * both Passphrases and Sessions. For each Operation, the throughput and the
+ * p50, p99 and p99.9 latencies are reported, and written as JSON to the
+ * result file, so the effect of schema and caching changes can be measured
+ * at a realistic scale.</p>
+ *
+ * <p>The benchmark uses the persistence unit from the CWS Core tests, but
+ * with a file based database, as the default dataset is too large to keep
+ * in memory. See {@link MacroOptions} for the options.</p>
+ *
+ * <pre>
+ *   java -Xmx4g -cp cws-benchmarks/target/benchmarks.jar \
+ *        io.javadog.cws.benchmarks.macro.MacroBenchmark [name=value ...]
+ * </pre>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class MacroBenchmark {
+
+    private static final String PERSISTENCE_UNIT = "io.javadog.cws.jpa";
+    private static final double[] PERCENTILES = { 50, 99, 99.9 };
+
+    private MacroBenchmark() {
+        // Private Constructor, this is the main entry point.
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException, ExecutionException {
+        final var options = new MacroOptions(args);
+        Path directory = null;
+        String url = options.url();
+        if (url == null) {
+            directory = Files.createTempDirectory("cws-macro");
+            url = "jdbc:h2:file:" + directory.resolve("cws").toAbsolutePath() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+        }
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.url", url);
+        properties.put("hibernate.connection.pool_size", String.valueOf(options.threads() + 5));
+        properties.put("hibernate.generate_statistics", "false");
+        final EntityManagerFactory factory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, properties);
+
+        try {
+            final long started = System.nanoTime();
+            final Dataset dataset = seed(options, factory);
+            DatasetGenerator.log("Dataset generated in " + TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started) + " seconds.");
+
+            final Map<Operation, LatencyRecorder> results = run(options, dataset, factory);
+            report(options, results);
+        } finally {
+            factory.close();
+            if (directory != null) {
+                delete(directory);
+            }
+        }
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private static Dataset seed(final MacroOptions options, final EntityManagerFactory factory) {
+        final EntityManager entityManager = factory.createEntityManager();
+        try {
+            return new DatasetGenerator(options, entityManager).generate();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static Map<Operation, LatencyRecorder> run(final MacroOptions options, final Dataset dataset, final EntityManagerFactory factory) throws InterruptedException, ExecutionException {
+        DatasetGenerator.log("Running the workload with " + options.threads() + " clients, " + options.warmup() + " seconds warmup and " + options.duration() + " seconds measurement.");
+        final ConcurrentMap<Integer, byte[]> sessions = new ConcurrentHashMap<>();
+        final long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmup());
+        final long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(options.duration());
+        final ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+
+        try {
+            final List<Future<Map<Operation, LatencyRecorder>>> futures = new ArrayList<>(options.threads());
+            for (int i = 0; i < options.threads(); i++) {
+                futures.add(executor.submit(new Worker(i, dataset, options, factory, sessions, measureFrom, measureUntil)));
+            }
+
+            final Map<Operation, LatencyRecorder> results = new EnumMap<>(Operation.class);
+            for (final Future<Map<Operation, LatencyRecorder>> future : futures) {
+                for (final Map.Entry<Operation, LatencyRecorder> entry : future.get().entrySet()) {
+                    results.computeIfAbsent(entry.getKey(), key -> new LatencyRecorder()).merge(entry.getValue());
+                }
+            }
+
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void report(final MacroOptions options, final Map<Operation, LatencyRecorder> results) throws IOException {
+        final double seconds = options.duration();
+        final Map<String, Object> operations = new LinkedHashMap<>();
+
+        System.out.printf("%n%-16s %10s %8s %12s %10s %10s %10s%n", "Operation", "Requests", "Errors", "Throughput", "p50 (ms)", "p99 (ms)", "p99.9 (ms)");
+        for (final Map.Entry<Operation, LatencyRecorder> entry : results.entrySet()) {
+            final LatencyRecorder recorder = entry.getValue();
+            final double throughput = recorder.count() / seconds;
+            final double[] latencies = new double[PERCENTILES.length];
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                latencies[i] = recorder.percentile(PERCENTILES[i]) / 1_000_000.0;
+            }
+            System.out.printf("%-16s %10d %8d %10.1f/s %10.2f %10.2f %10.2f%n", entry.getKey().name().toLowerCase(Locale.ENGLISH), recorder.count(), recorder.errors(), throughput, latencies[0], latencies[1], latencies[2]);
+
+            final Map<String, Object> result = new LinkedHashMap<>();
+            result.put("requests", recorder.count());
+            result.put("errors", recorder.errors());
+            result.put("throughput", throughput);
+            result.put("p50", latencies[0]);
+            result.put("p99", latencies[1]);
+            result.put("p999", latencies[2]);
+            operations.put(entry.getKey().name().toLowerCase(Locale.ENGLISH), result);
+        }
+
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("options", new TreeMap<>(options.describe()));
+        json.put("latencyUnit", "ms");
+        json.put("throughputUnit", "ops/s");
+        json.put("operations", operations);
+        try (Writer writer = Files.newBufferedWriter(Paths.get(options.result()), StandardCharsets.UTF_8);
+             var jsonb = JsonbBuilder.create(new JsonbConfig().withFormatting(true))) {
+            jsonb.toJson(json, writer);
+        } catch (Exception e) {
+            throw new IOException("Cannot write the results to " + options.result() + ": " + e.getMessage(), e);
+        }
+        System.out.printf("%nResults are saved to %s%n", options.result());
+    }
+
+    private static void delete(final Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (final Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
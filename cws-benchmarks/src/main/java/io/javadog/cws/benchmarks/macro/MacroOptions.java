@@ -0,0 +1,167 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks.macro;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>Options for the Macro Benchmark, given as 'name=value' arguments. The
+ * defaults describe a realistic installation, with 10.000 Members, 1.000
+ * Circles and 1.000.000 Data Objects, which takes a while to generate. For
+ * quick comparisons, the dataset can be scaled down.</p>
+ *
+ * <ul>
+ *   <li><b>members</b> - Number of Member Accounts (10000)</li>
+ *   <li><b>circles</b> - Number of Circles (1000)</li>
+ *   <li><b>trustees</b> - Number of Trustees per Circle (10)</li>
+ *   <li><b>objects</b> - Number of Data Objects (1000000)</li>
+ *   <li><b>median</b> - Median size of the Data Objects in bytes (2048)</li>
+ *   <li><b>max</b> - Maximum size of the Data Objects in bytes (1048576)</li>
+ *   <li><b>threads</b> - Number of concurrent clients (16)</li>
+ *   <li><b>warmup</b> - Warmup time in seconds (30)</li>
+ *   <li><b>duration</b> - Measurement time in seconds (120)</li>
+ *   <li><b>sessions</b> - Percentage of requests using Sessions (50)</li>
+ *   <li><b>mix</b> - Workload mix as 'operation:weight' pairs, separated by
+ *       commas, the default is {@link #DEFAULT_MIX}</li>
+ *   <li><b>url</b> - JDBC URL of the H2 database, by default a new database
+ *       is created in a temporary directory</li>
+ *   <li><b>result</b> - File to write the JSON results to
+ *       (cws-macro-benchmark.json)</li>
+ *   <li><b>seed</b> - Seed for the dataset and the workload (20161010)</li>
+ * </ul>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class MacroOptions {
+
+    static final String DEFAULT_MIX = "fetch_data:50,fetch_folder:15,add_data:10,fetch_circles:10,fetch_trustees:10,fetch_members:5";
+
+    private final Map<String, String> values = new HashMap<>();
+
+    MacroOptions(final String... args) {
+        for (final String arg : args) {
+            final int index = arg.indexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("Options must be given as 'name=value', but got '" + arg + "'.");
+            }
+            values.put(arg.substring(0, index).trim().toLowerCase(Locale.ENGLISH), arg.substring(index + 1).trim());
+        }
+    }
+
+    int members() {
+        return number("members", 10_000);
+    }
+
+    int circles() {
+        return number("circles", 1_000);
+    }
+
+    int trustees() {
+        return Math.min(number("trustees", 10), members());
+    }
+
+    int objects() {
+        return number("objects", 1_000_000);
+    }
+
+    int median() {
+        return number("median", 2_048);
+    }
+
+    int max() {
+        return number("max", 1_048_576);
+    }
+
+    int threads() {
+        return number("threads", 16);
+    }
+
+    int warmup() {
+        return number("warmup", 30);
+    }
+
+    int duration() {
+        return number("duration", 120);
+    }
+
+    int sessions() {
+        return number("sessions", 50);
+    }
+
+    long seed() {
+        return Long.parseLong(values.getOrDefault("seed", "20161010"));
+    }
+
+    String url() {
+        return values.get("url");
+    }
+
+    String result() {
+        return values.getOrDefault("result", "cws-macro-benchmark.json");
+    }
+
+    Map<Operation, Integer> mix() {
+        final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+        for (final String pair : values.getOrDefault("mix", DEFAULT_MIX).split(",")) {
+            final String[] parts = pair.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("The workload mix must be given as 'operation:weight' pairs, but got '" + pair + "'.");
+            }
+            final int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ENGLISH)), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The workload mix must contain at least one operation.");
+        }
+
+        return mix;
+    }
+
+    Map<String, String> describe() {
+        final Map<String, String> description = new HashMap<>(values);
+        description.putIfAbsent("members", String.valueOf(members()));
+        description.putIfAbsent("circles", String.valueOf(circles()));
+        description.putIfAbsent("trustees", String.valueOf(trustees()));
+        description.putIfAbsent("objects", String.valueOf(objects()));
+        description.putIfAbsent("median", String.valueOf(median()));
+        description.putIfAbsent("max", String.valueOf(max()));
+        description.putIfAbsent("threads", String.valueOf(threads()));
+        description.putIfAbsent("warmup", String.valueOf(warmup()));
+        description.putIfAbsent("duration", String.valueOf(duration()));
+        description.putIfAbsent("sessions", String.valueOf(sessions()));
+        description.putIfAbsent("mix", DEFAULT_MIX);
+        description.putIfAbsent("seed", String.valueOf(seed()));
+
+        return description;
+    }
+
+    private int number(final String name, final int defaultValue) {
+        final int value = Integer.parseInt(values.getOrDefault(name, String.valueOf(defaultValue)));
+        if (value < 0) {
+            throw new IllegalArgumentException("The option '" + name + "' may not be negative.");
+        }
+
+        return value;
+    }
+}
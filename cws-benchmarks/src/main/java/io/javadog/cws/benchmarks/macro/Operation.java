@@ -0,0 +1,36 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks.macro;
+
+/**
+ * <p>The Operations of the Macro Benchmark workload. Logins are not part of
+ * the mix, they are made the first time a Member sends a request with a
+ * Session, and measured as well.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+enum Operation {
+
+    FETCH_DATA,
+    FETCH_FOLDER,
+    ADD_DATA,
+    FETCH_CIRCLES,
+    FETCH_TRUSTEES,
+    FETCH_MEMBERS,
+    LOGIN
+}
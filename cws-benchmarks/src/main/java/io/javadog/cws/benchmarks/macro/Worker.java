@@ -0,0 +1,318 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.benchmarks.macro;
+
+import io.javadog.cws.api.common.Action;
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.common.CredentialType;
+import io.javadog.cws.api.requests.Authentication;
+import io.javadog.cws.api.requests.FetchCircleRequest;
+import io.javadog.cws.api.requests.FetchDataRequest;
+import io.javadog.cws.api.requests.FetchMemberRequest;
+import io.javadog.cws.api.requests.FetchTrusteeRequest;
+import io.javadog.cws.api.requests.ProcessDataRequest;
+import io.javadog.cws.api.requests.ProcessMemberRequest;
+import io.javadog.cws.api.responses.CwsResponse;
+import io.javadog.cws.core.ManagementBean;
+import io.javadog.cws.core.ShareBean;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+/**
+ * <p>A single client of the Macro Benchmark. It has its own Entity Manager
+ * and Beans, and sends requests picked from the workload mix, until the
+ * time is up. Each request is made in its own transaction, like the
+ * container would do it.</p>
+ *
+ * <p>Requests are authenticated with either the Passphrase or a Session of
+ * the Member. Sessions are shared between the clients, and the first time a
+ * Session is needed for a Member, the client logs in.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class Worker implements Callable<Map<Operation, LatencyRecorder>> {
+
+    private final int id;
+    private final Dataset dataset;
+    private final MacroOptions options;
+    private final ConcurrentMap<Integer, byte[]> sessions;
+    private final Operation[] operations;
+    private final int[] weights;
+    private final int totalWeight;
+    private final long measureFrom;
+    private final long measureUntil;
+    private final Random random;
+    private final EntityManager entityManager;
+    private final ShareBean shareBean;
+    private final ManagementBean managementBean;
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private int added = 0;
+
+    Worker(final int id, final Dataset dataset, final MacroOptions options, final EntityManagerFactory factory, final ConcurrentMap<Integer, byte[]> sessions, final long measureFrom, final long measureUntil) {
+        this.id = id;
+        this.dataset = dataset;
+        this.options = options;
+        this.sessions = sessions;
+        this.measureFrom = measureFrom;
+        this.measureUntil = measureUntil;
+        this.random = new Random(options.seed() + id);
+        this.entityManager = factory.createEntityManager();
+        this.shareBean = inject(new ShareBean(), entityManager);
+        this.managementBean = inject(new ManagementBean(), entityManager);
+
+        final Map<Operation, Integer> mix = options.mix();
+        operations = mix.keySet().toArray(new Operation[0]);
+        weights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            weights[i] = sum;
+        }
+        totalWeight = sum;
+    }
+
+    @Override
+    public Map<Operation, LatencyRecorder> call() {
+        try {
+            long now = System.nanoTime();
+            while (now < measureUntil) {
+                final Operation operation = nextOperation();
+                final int member = dataset.member(random, operation == Operation.ADD_DATA);
+                final boolean measured = now >= measureFrom;
+                final Credentials credentials = credentials(member, measured);
+                final long start = System.nanoTime();
+                final boolean success = invoke(() -> perform(operation, member, credentials));
+                now = System.nanoTime();
+                record(operation, now - start, success, measured);
+            }
+        } finally {
+            entityManager.close();
+        }
+
+        return recorders;
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private Operation nextOperation() {
+        final int value = random.nextInt(totalWeight);
+        int index = 0;
+        while (value >= weights[index]) {
+            index++;
+        }
+
+        return operations[index];
+    }
+
+    private CwsResponse perform(final Operation operation, final int member, final Credentials credentials) {
+        final CwsResponse response;
+
+        switch (operation) {
+            case FETCH_DATA:
+                response = fetchData(member, credentials);
+                break;
+            case FETCH_FOLDER:
+                final var folderRequest = credentials.apply(new FetchDataRequest());
+                folderRequest.setCircleId(dataset.circleId(dataset.circle(random, member, false)));
+                response = shareBean.fetchData(folderRequest);
+                break;
+            case ADD_DATA:
+                response = addData(member, credentials);
+                break;
+            case FETCH_CIRCLES:
+                response = managementBean.fetchCircles(credentials.apply(new FetchCircleRequest()));
+                break;
+            case FETCH_TRUSTEES:
+                final var trusteeRequest = credentials.apply(new FetchTrusteeRequest());
+                trusteeRequest.setCircleId(dataset.circleId(dataset.circle(random, member, false)));
+                response = managementBean.fetchTrustees(trusteeRequest);
+                break;
+            case FETCH_MEMBERS:
+                response = managementBean.fetchMembers(credentials.apply(new FetchMemberRequest()));
+                break;
+            default:
+                throw new IllegalArgumentException("The Operation " + operation + " is not part of the workload mix.");
+        }
+
+        return response;
+    }
+
+    private CwsResponse fetchData(final int member, final Credentials credentials) {
+        final int circle = dataset.circle(random, member, false);
+        final String object = dataset.object(random, circle);
+        final var request = credentials.apply(new FetchDataRequest());
+        if (object != null) {
+            request.setDataId(object);
+        } else {
+            request.setCircleId(dataset.circleId(circle));
+        }
+
+        return shareBean.fetchData(request);
+    }
+
+    private CwsResponse addData(final int member, final Credentials credentials) {
+        final var request = credentials.apply(new ProcessDataRequest());
+        request.setAction(Action.ADD);
+        request.setCircleId(dataset.circleId(dataset.circle(random, member, true)));
+        request.setDataName("macro-added-" + id + '-' + added);
+        request.setTypeName(Constants.DATA_TYPENAME);
+        request.setData(payload());
+        added++;
+
+        return shareBean.processData(request);
+    }
+
+    private byte[] payload() {
+        final long size = Math.round(options.median() * Math.exp(random.nextGaussian()));
+        final var bytes = new byte[(int) Math.max(1, Math.min(options.max(), size))];
+        random.nextBytes(bytes);
+
+        return bytes;
+    }
+
+    private Credentials credentials(final int member, final boolean measured) {
+        final Credentials credentials;
+
+        if (random.nextInt(100) < options.sessions()) {
+            byte[] session = sessions.get(member);
+            if (session == null) {
+                session = login(member, measured);
+            }
+            credentials = new Credentials(null, session, CredentialType.SESSION);
+        } else {
+            final String account = dataset.account(member);
+            credentials = new Credentials(account, account.getBytes(StandardCharsets.UTF_8), CredentialType.PASSPHRASE);
+        }
+
+        return credentials;
+    }
+
+    private byte[] login(final int member, final boolean measured) {
+        final String account = dataset.account(member);
+        final byte[] session = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        final var credentials = new Credentials(account, account.getBytes(StandardCharsets.UTF_8), CredentialType.PASSPHRASE);
+        final var request = credentials.apply(new ProcessMemberRequest());
+        request.setAction(Action.LOGIN);
+        request.setNewCredential(Arrays.copyOf(session, session.length));
+
+        final long start = System.nanoTime();
+        final boolean success = invoke(() -> managementBean.processMember(request));
+        record(Operation.LOGIN, System.nanoTime() - start, success, measured);
+        if (success) {
+            sessions.put(member, session);
+        }
+
+        return session;
+    }
+
+    /**
+     * <p>Invokes the Bean in a new transaction, which is committed unless
+     * the Bean marked it for rollback.</p>
+     *
+     * @param invocation The Bean invocation
+     * @return True if the request completed successfully
+     */
+    private boolean invoke(final Supplier<CwsResponse> invocation) {
+        final EntityTransaction transaction = entityManager.getTransaction();
+        boolean success = false;
+
+        try {
+            transaction.begin();
+            success = invocation.get().isOk();
+            if (transaction.getRollbackOnly()) {
+                transaction.rollback();
+            } else {
+                transaction.commit();
+            }
+        } catch (RuntimeException e) {
+            success = false;
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+        } finally {
+            entityManager.clear();
+        }
+
+        return success;
+    }
+
+    private void record(final Operation operation, final long nanos, final boolean success, final boolean measured) {
+        if (measured) {
+            recorders.computeIfAbsent(operation, key -> new LatencyRecorder()).record(nanos, success);
+        }
+    }
+
+    /**
+     * <p>Injects the Entity Manager into the Bean, like the container would
+     * do for the Persistence Context.</p>
+     *
+     * @param bean          The Bean to inject the Entity Manager into
+     * @param entityManager The Entity Manager of this client
+     * @param <B>           Type of the Bean
+     * @return The Bean
+     */
+    private static <B> B inject(final B bean, final EntityManager entityManager) {
+        try {
+            final Field field = bean.getClass().getDeclaredField("entityManager");
+            field.setAccessible(true);
+            field.set(bean, entityManager);
+
+            return bean;
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException("Cannot inject the Entity Manager into " + bean.getClass().getSimpleName() + '.', e);
+        }
+    }
+
+    /**
+     * <p>The Credentials for a request. As the Beans overwrite the
+     * Credentials when they are used, each request is given a copy.</p>
+     */
+    private static final class Credentials {
+
+        private final String account;
+        private final byte[] credential;
+        private final CredentialType type;
+
+        private Credentials(final String account, final byte[] credential, final CredentialType type) {
+            this.account = account;
+            this.credential = credential;
+            this.type = type;
+        }
+
+        private <A extends Authentication> A apply(final A request) {
+            request.setAccountName(account);
+            request.setCredential(Arrays.copyOf(credential, credential.length));
+            request.setCredentialType(type);
+
+            return request;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.client.rest;
+
+import io.javadog.cws.api.AsyncManagement;
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.requests.Authentication;
+import io.javadog.cws.api.requests.FetchCircleRequest;
+import io.javadog.cws.api.requests.FetchMemberRequest;
+import io.javadog.cws.api.requests.FetchTrusteeRequest;
+import io.javadog.cws.api.requests.InventoryRequest;
+import io.javadog.cws.api.requests.MasterKeyRequest;
+import io.javadog.cws.api.requests.ProcessCircleRequest;
+import io.javadog.cws.api.requests.ProcessMemberRequest;
+import io.javadog.cws.api.requests.ProcessTrusteeRequest;
+import io.javadog.cws.api.requests.SanityRequest;
+import io.javadog.cws.api.requests.SettingRequest;
+import io.javadog.cws.api.responses.AuthenticateResponse;
+import io.javadog.cws.api.responses.FetchCircleResponse;
+import io.javadog.cws.api.responses.FetchMemberResponse;
+import io.javadog.cws.api.responses.FetchTrusteeResponse;
+import io.javadog.cws.api.responses.InventoryResponse;
+import io.javadog.cws.api.responses.MasterKeyResponse;
+import io.javadog.cws.api.responses.ProcessCircleResponse;
+import io.javadog.cws.api.responses.ProcessMemberResponse;
+import io.javadog.cws.api.responses.ProcessTrusteeResponse;
+import io.javadog.cws.api.responses.RotationResponse;
+import io.javadog.cws.api.responses.SanityResponse;
+import io.javadog.cws.api.responses.SettingResponse;
+import io.javadog.cws.api.responses.SlowRequestResponse;
+import io.javadog.cws.api.responses.VersionResponse;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * <p>Asynchronous Gson based REST Client for the CWS Management functionality. The
+ * requests are sent without waiting for the responses, so a few threads can
+ * keep many requests in flight. The maximum number of requests in flight is
+ * controlled by the {@link RestClientConfig}, when it is reached, further
+ * requests are queued, and sent when a running request is completed. The
+ * invoking thread is never blocked.</p>
+ *
+ * <p>If a request fails, the Stage is completed exceptionally with a
+ * {@link RESTClientException}. This is also the case for an invalid Request
+ * Object, i.e. one without an Action.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class AsyncManagementRestClient extends GsonRestClient implements AsyncManagement {
+
+    /**
+     * Constructor for the Asynchronous CWS Management REST Client. It takes the
+     * base URL for the CWS Instance to communicate with, which is the
+     * protocol, hostname, port and deployment name. For example;
+     * &quot;http://localhost:8080/cws&quot;.
+     *
+     * @param baseURL Base URL for the CWS Instance
+     */
+    public AsyncManagementRestClient(final String baseURL) {
+        super(baseURL);
+    }
+
+    /**
+     * Constructor for the REST Client with a specific Configuration of the
+     * underlying HTTP Client, for example to change the maximum number of
+     * requests in flight.
+     *
+     * @param baseURL Base URL for the CWS Instance
+     * @param config  Configuration of the HTTP Client
+     */
+    public AsyncManagementRestClient(final String baseURL, final RestClientConfig config) {
+        super(baseURL, config);
+    }
+
+    // =========================================================================
+    // Implementation of the AsyncManagement Interface
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<VersionResponse> version() {
+        return runAsyncRequest(VersionResponse.class, Constants.REST_VERSION, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<SettingResponse> settings(final SettingRequest request) {
+        return runAsyncRequest(SettingResponse.class, Constants.REST_SETTINGS, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<MasterKeyResponse> masterKey(final MasterKeyRequest request) {
+        return runAsyncRequest(MasterKeyResponse.class, Constants.REST_MASTERKEY, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<SanityResponse> sanitized(final SanityRequest request) {
+        return runAsyncRequest(SanityResponse.class, Constants.REST_SANITIZED, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<InventoryResponse> inventory(final InventoryRequest request) {
+        return runAsyncRequest(InventoryResponse.class, Constants.REST_INVENTORY, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<AuthenticateResponse> authenticated(final Authentication request) {
+        return runAsyncRequest(AuthenticateResponse.class, Constants.REST_AUTHENTICATED, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<SlowRequestResponse> slowRequests(final Authentication request) {
+        return runAsyncRequest(SlowRequestResponse.class, Constants.REST_SLOW_REQUESTS, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<RotationResponse> rotations(final Authentication request) {
+        return runAsyncRequest(RotationResponse.class, Constants.REST_ROTATIONS, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<FetchMemberResponse> fetchMembers(final FetchMemberRequest request) {
+        return runAsyncRequest(FetchMemberResponse.class, Constants.REST_MEMBERS_BASE + Constants.REST_MEMBERS_FETCH, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<ProcessMemberResponse> processMember(final ProcessMemberRequest request) {
+        return runAsyncRequest(ProcessMemberResponse.class, () -> ManagementRestClient.processMemberPath(request), request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<FetchCircleResponse> fetchCircles(final FetchCircleRequest request) {
+        return runAsyncRequest(FetchCircleResponse.class, Constants.REST_CIRCLES_BASE + Constants.REST_CIRCLES_FETCH, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<ProcessCircleResponse> processCircle(final ProcessCircleRequest request) {
+        return runAsyncRequest(ProcessCircleResponse.class, () -> ManagementRestClient.processCirclePath(request), request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<FetchTrusteeResponse> fetchTrustees(final FetchTrusteeRequest request) {
+        return runAsyncRequest(FetchTrusteeResponse.class, Constants.REST_TRUSTEES_BASE + Constants.REST_TRUSTEES_FETCH, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<ProcessTrusteeResponse> processTrustee(final ProcessTrusteeRequest request) {
+        return runAsyncRequest(ProcessTrusteeResponse.class, () -> ManagementRestClient.processTrusteePath(request), request);
+    }
+}
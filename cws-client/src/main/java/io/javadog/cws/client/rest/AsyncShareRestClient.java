@@ -0,0 +1,137 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.client.rest;
+
+import io.javadog.cws.api.AsyncShare;
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.requests.FetchDataRequest;
+import io.javadog.cws.api.requests.FetchDataTypeRequest;
+import io.javadog.cws.api.requests.FetchSignatureRequest;
+import io.javadog.cws.api.requests.ProcessDataRequest;
+import io.javadog.cws.api.requests.ProcessDataTypeRequest;
+import io.javadog.cws.api.requests.SignRequest;
+import io.javadog.cws.api.requests.VerifyRequest;
+import io.javadog.cws.api.responses.FetchDataResponse;
+import io.javadog.cws.api.responses.FetchDataTypeResponse;
+import io.javadog.cws.api.responses.FetchSignatureResponse;
+import io.javadog.cws.api.responses.ProcessDataResponse;
+import io.javadog.cws.api.responses.ProcessDataTypeResponse;
+import io.javadog.cws.api.responses.SignResponse;
+import io.javadog.cws.api.responses.VerifyResponse;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * <p>Asynchronous Gson based REST Client for the CWS Share functionality. The
+ * requests are sent without waiting for the responses, so a few threads can
+ * keep many requests in flight. The maximum number of requests in flight is
+ * controlled by the {@link RestClientConfig}, when it is reached, further
+ * requests are queued, and sent when a running request is completed. The
+ * invoking thread is never blocked.</p>
+ *
+ * <p>If a request fails, the Stage is completed exceptionally with a
+ * {@link RESTClientException}. This is also the case for an invalid Request
+ * Object, i.e. one without an Action.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class AsyncShareRestClient extends GsonRestClient implements AsyncShare {
+
+    /**
+     * Constructor for the Asynchronous CWS Share REST Client. It takes the
+     * base URL for the CWS Instance to communicate with, which is the
+     * protocol, hostname, port and deployment name. For example;
+     * &quot;http://localhost:8080/cws&quot;.
+     *
+     * @param baseURL Base URL for the CWS Instance
+     */
+    public AsyncShareRestClient(final String baseURL) {
+        super(baseURL);
+    }
+
+    /**
+     * Constructor for the REST Client with a specific Configuration of the
+     * underlying HTTP Client, for example to change the maximum number of
+     * requests in flight.
+     *
+     * @param baseURL Base URL for the CWS Instance
+     * @param config  Configuration of the HTTP Client
+     */
+    public AsyncShareRestClient(final String baseURL, final RestClientConfig config) {
+        super(baseURL, config);
+    }
+
+    // =========================================================================
+    // Implementation of the AsyncShare Interface
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<ProcessDataTypeResponse> processDataType(final ProcessDataTypeRequest request) {
+        return runAsyncRequest(ProcessDataTypeResponse.class, () -> ShareRestClient.processDataTypePath(request), request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<FetchDataTypeResponse> fetchDataTypes(final FetchDataTypeRequest request) {
+        return runAsyncRequest(FetchDataTypeResponse.class, Constants.REST_DATATYPES_BASE + Constants.REST_DATATYPES_FETCH, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<ProcessDataResponse> processData(final ProcessDataRequest request) {
+        return runAsyncRequest(ProcessDataResponse.class, () -> ShareRestClient.processDataPath(request), request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<FetchDataResponse> fetchData(final FetchDataRequest request) {
+        return runAsyncRequest(FetchDataResponse.class, Constants.REST_DATA_BASE + Constants.REST_DATA_FETCH, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<SignResponse> sign(final SignRequest request) {
+        return runAsyncRequest(SignResponse.class, Constants.REST_SIGNATURES_BASE + Constants.REST_SIGNATURES_SIGN, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<VerifyResponse> verify(final VerifyRequest request) {
+        return runAsyncRequest(VerifyResponse.class, Constants.REST_SIGNATURES_BASE + Constants.REST_SIGNATURES_VERIFY, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<FetchSignatureResponse> fetchSignatures(final FetchSignatureRequest request) {
+        return runAsyncRequest(FetchSignatureResponse.class, Constants.REST_SIGNATURES_BASE + Constants.REST_SIGNATURES_FETCH, request);
+    }
+}
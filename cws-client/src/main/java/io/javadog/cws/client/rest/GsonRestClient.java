@@ -18,79 +18,438 @@ package io.javadog.cws.client.rest;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import io.javadog.cws.api.requests.Authentication;
 import io.javadog.cws.api.responses.CwsResponse;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import javax.ws.rs.core.MediaType;
 
 /**
  * <p>Common functionality for the Gson based CWS REST Clients. It handles the
  * actual requests.</p>
  *
+ * <p>The HTTP Client is shared between all REST Clients with the same base
+ * URL and Configuration, so the connections are kept open and reused,
+ * rather than a new connection (and TLS handshake) is made per request.
+ * The shared HTTP Clients are counted by reference, when the last REST
+ * Client using it is closed, the threads of the HTTP Client are stopped and
+ * it is removed. REST Clients which are no longer used should therefore be
+ * closed, especially if they are created with changing Configurations.</p>
+ *
+ * <p>The shared HTTP Client also limits the number of requests in flight, see
+ * {@link RestClientConfig#withMaxInFlight(int)}. Both synchronous and
+ * asynchronous requests count towards the limit. A synchronous request waits
+ * for its turn, an asynchronous request is queued without blocking the
+ * invoking thread, and is sent when a running request is completed.</p>
+ *
+ * <p>The Request Objects are serialized directly into a list of byte chunks,
+ * which is given to the HTTP Client as the body, and the Response Objects
+ * are read directly from the response body. This way, a large Data Object
+ * is not copied into intermediate Strings, which for a big upload would
+ * otherwise require several copies of the data.</p>
+ *
+ * <p>The bodies are not fully streamed. The serialized request is held in
+ * memory until it is sent, i.e. about 4/3 of the size of the Data, as it is
+ * Base64 encoded, next to the Data in the Request Object. A streaming body
+ * would need an extra thread per request to write the JSON, which with the
+ * small fixed thread pool of the HTTP Client can block all threads. For the
+ * same reason, the asynchronous requests read the response body into a
+ * byte array before it is parsed, so parsing never blocks a thread of the
+ * HTTP Client while waiting for data. This also costs about 4/3 of the size
+ * of the Data returned. The synchronous requests parse the response while
+ * it is received. In all cases, the Base64 encoded Data is read as a single
+ * String by Gson before it is decoded.</p>
+ *
  * @author Kim Jensen
  * @since CWS 1.1
  */
-public class GsonRestClient {
+public class GsonRestClient implements AutoCloseable {
 
     private static final Charset CHARSET = StandardCharsets.UTF_8;
     private static final Gson GSON = createGsonInstance();
+    private static final ConcurrentMap<ClientKey, SharedClient> CLIENTS = new ConcurrentHashMap<>();
     private final String baseURL;
+    private final RestClientConfig config;
+    private final ClientKey key;
+    private final SharedClient shared;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
     protected GsonRestClient(final String baseURL) {
+        this(baseURL, RestClientConfig.DEFAULT);
+    }
+
+    protected GsonRestClient(final String baseURL, final RestClientConfig config) {
         this.baseURL = baseURL;
+        this.config = Objects.requireNonNull(config, "The REST Client Configuration is missing.");
+        this.key = new ClientKey(baseURL, config);
+        this.shared = CLIENTS.compute(key, (clientKey, current) -> {
+            final SharedClient client = (current != null) ? current : new SharedClient(clientKey.config);
+            client.references++;
+            return client;
+        });
+    }
+
+    /**
+     * <p>Closes this REST Client. If it is the last REST Client using the
+     * shared HTTP Client, the HTTP Client is removed, and its threads are
+     * stopped once the running requests are completed. Closing the REST
+     * Client more than once has no effect, but requests made after it was
+     * closed will fail.</p>
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            CLIENTS.computeIfPresent(key, (clientKey, current) -> {
+                current.references--;
+                return (current.references > 0) ? current : null;
+            });
+            if (shared.references == 0) {
+                shared.executor.shutdown();
+            }
+        }
+    }
+
+    final HttpClient getHttpClient() {
+        return shared.client;
+    }
+
+    final int getAvailableRequests() {
+        return shared.inFlight.available();
     }
 
     protected <R extends Authentication, C extends CwsResponse> C runRequest(final Class<C> clazz, final String requestURL, final R request) {
-        final HttpRequest httpRequest = HttpRequest
+        checkOpen();
+        final HttpRequest httpRequest = prepareRequest(requestURL, request);
+        try {
+            shared.inFlight.await();
+            try {
+                final HttpResponse<InputStream> response = shared.client.send(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
+
+                return fromJson(response.body(), clazz);
+            } finally {
+                shared.inFlight.release();
+            }
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            throw new RESTClientException("Communication / Transformation problem: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RESTClientException("Thread was interrupted: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <p>Sends the request without waiting for the response.</p>
+     *
+     * @param clazz      Class of the Response Object
+     * @param requestURL URL of the request, relative to the base URL
+     * @param request    Request Object, may be null
+     * @param <R>        Request Type
+     * @param <C>        Response Type
+     * @return Stage, completed with the Response Object
+     * @see #runAsyncRequest(Class, Supplier, Authentication)
+     */
+    protected <R extends Authentication, C extends CwsResponse> CompletionStage<C> runAsyncRequest(final Class<C> clazz, final String requestURL, final R request) {
+        return runAsyncRequest(clazz, () -> requestURL, request);
+    }
+
+    /**
+     * <p>Sends the request without waiting for the response. If the maximum
+     * number of requests is already in flight, the request is queued, and
+     * sent when one of them is completed. The invoking thread is never
+     * blocked. Any problem with the request URL, the Request Object, the
+     * communication or the response is given as a
+     * {@link RESTClientException} when the Stage completes.</p>
+     *
+     * @param clazz      Class of the Response Object
+     * @param requestURL Supplier of the URL of the request, relative to the
+     *                   base URL, which may throw a RESTClientException
+     * @param request    Request Object, may be null
+     * @param <R>        Request Type
+     * @param <C>        Response Type
+     * @return Stage, completed with the Response Object
+     */
+    protected <R extends Authentication, C extends CwsResponse> CompletionStage<C> runAsyncRequest(final Class<C> clazz, final Supplier<String> requestURL, final R request) {
+        final HttpRequest httpRequest;
+        try {
+            checkOpen();
+            httpRequest = prepareRequest(requestURL.get(), request);
+        } catch (RESTClientException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new RESTClientException("Communication / Transformation problem: " + e.getMessage(), e));
+        }
+
+        return shared.inFlight.acquire().thenCompose(permit -> sendAsync(clazz, httpRequest));
+    }
+
+    private <C extends CwsResponse> CompletableFuture<C> sendAsync(final Class<C> clazz, final HttpRequest httpRequest) {
+        // The response body is read as bytes, since reading from a stream
+        // would block one of the few threads of the HTTP Client. So the
+        // whole body is kept in memory, see the class description.
+        final CompletableFuture<HttpResponse<byte[]>> future;
+        try {
+            future = shared.client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            shared.inFlight.release();
+            return CompletableFuture.failedFuture(new RESTClientException("Communication / Transformation problem: " + e.getMessage(), e));
+        }
+
+        return future
+                .whenComplete((response, cause) -> shared.inFlight.release())
+                .handle((response, cause) -> readResponse(clazz, response, cause));
+    }
+
+    private void checkOpen() {
+        if (closed.get()) {
+            throw new RESTClientException("The REST Client is closed.");
+        }
+    }
+
+    private HttpRequest prepareRequest(final String requestURL, final Authentication request) {
+        return HttpRequest
                 .newBuilder()
-                .version(HttpClient.Version.HTTP_1_1)
                 .uri(URI.create(baseURL + requestURL))
+                .timeout(config.getRequestTimeout())
                 .header("Content-Type", MediaType.APPLICATION_JSON)
                 .header("Accept", MediaType.APPLICATION_JSON)
                 .POST(prepareBodyPublisher(request))
                 .build();
-        try {
-            final HttpResponse<String> response = HttpClient
-                    .newHttpClient()
-                    .send(httpRequest, HttpResponse.BodyHandlers.ofString(CHARSET));
+    }
 
-            return GSON.fromJson(response.body(), clazz);
-        } catch (IOException | JsonSyntaxException | IllegalStateException e) {
+    private static <C extends CwsResponse> C readResponse(final Class<C> clazz, final HttpResponse<byte[]> response, final Throwable cause) {
+        if (cause != null) {
+            final Throwable problem = (cause instanceof CompletionException) && (cause.getCause() != null) ? cause.getCause() : cause;
+            throw new RESTClientException("Communication / Transformation problem: " + problem.getMessage(), problem);
+        }
+
+        try {
+            return fromJson(new ByteArrayInputStream(response.body()), clazz);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
             throw new RESTClientException("Communication / Transformation problem: " + e.getMessage(), e);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RESTClientException("Thread was interrupted: " + e.getMessage(), e);
+        }
+    }
+
+    private static <C extends CwsResponse> C fromJson(final InputStream body, final Class<C> clazz) throws IOException {
+        try (Reader reader = new InputStreamReader(body, CHARSET)) {
+            return GSON.fromJson(reader, clazz);
         }
     }
 
     private static <R extends Authentication> HttpRequest.BodyPublisher prepareBodyPublisher(final R request) {
-        final String tmp = GSON.toJson(request);
-        // For some weird reason, the ASCII character '=' is being replaced
-        // by the UTF-8 encoded alternative in the Json. The '=' is a white
-        // space filler for Base64 encoded strings.
-        final String json = tmp.replace("\\u003d", "=");
+        if (request == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
 
-        return ("null".equals(json))
-                ? HttpRequest.BodyPublishers.noBody()
-                : HttpRequest.BodyPublishers.ofString(json, CHARSET);
+        final ChunkedOutputStream stream = new ChunkedOutputStream();
+        try (JsonWriter writer = new Base64JsonWriter(new OutputStreamWriter(stream, CHARSET))) {
+            GSON.toJson(request, request.getClass(), writer);
+        } catch (IOException | JsonParseException e) {
+            throw new RESTClientException("Transformation problem: " + e.getMessage(), e);
+        }
+
+        return HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofByteArrays(stream.getChunks()), stream.getSize());
+    }
+
+    /**
+     * The shared HTTP Client, together with the limit for the number of
+     * requests in flight and the number of REST Clients using it. The
+     * references are only updated inside the compute methods of the map
+     * of shared Clients.
+     */
+    private static final class SharedClient {
+
+        private final ExecutorService executor;
+        private final HttpClient client;
+        private final InFlightLimit inFlight;
+        private volatile int references = 0;
+
+        private SharedClient(final RestClientConfig config) {
+            this.executor = Executors.newFixedThreadPool(config.getThreads(), new ClientThreadFactory());
+            this.client = HttpClient
+                    .newBuilder()
+                    .version(config.getVersion())
+                    .connectTimeout(config.getConnectTimeout())
+                    .executor(executor)
+                    .build();
+            this.inFlight = new InFlightLimit(config.getMaxInFlight());
+        }
+    }
+
+    /**
+     * <p>Limit for the number of requests in flight. Unlike a Semaphore, a
+     * permit can also be acquired as a Future, so asynchronous requests can
+     * wait for a permit without blocking a thread. Released permits are
+     * handed to the waiting requests in the order they were queued.</p>
+     */
+    private static final class InFlightLimit {
+
+        private final Queue<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+        private int available;
+
+        private InFlightLimit(final int permits) {
+            this.available = permits;
+        }
+
+        /**
+         * <p>Acquires a permit, the returned Future is completed, when the
+         * permit is given.</p>
+         *
+         * @return Future, completed with the permit
+         */
+        private synchronized CompletableFuture<Void> acquire() {
+            final CompletableFuture<Void> permit;
+
+            if (available > 0) {
+                available--;
+                permit = CompletableFuture.completedFuture(null);
+            } else {
+                permit = new CompletableFuture<>();
+                waiting.add(permit);
+            }
+
+            return permit;
+        }
+
+        /**
+         * <p>Acquires a permit, and waits until it is given.</p>
+         *
+         * @throws InterruptedException if interrupted while waiting
+         */
+        private void await() throws InterruptedException {
+            final CompletableFuture<Void> permit = acquire();
+            try {
+                permit.get();
+            } catch (InterruptedException e) {
+                // If the permit was given while the thread was interrupted,
+                // it must be released again, otherwise it is skipped.
+                if (!permit.cancel(false)) {
+                    release();
+                }
+                throw e;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        /**
+         * <p>Releases a permit, by giving it to the first waiting request,
+         * which is not cancelled. The waiting request is completed outside
+         * the lock, as it will continue with sending the request.</p>
+         */
+        private void release() {
+            CompletableFuture<Void> next;
+
+            do {
+                synchronized (this) {
+                    next = waiting.poll();
+                    if (next == null) {
+                        available++;
+                    }
+                }
+            } while ((next != null) && !next.complete(null));
+        }
+
+        private synchronized int available() {
+            return available;
+        }
+    }
+
+    /**
+     * Key for the shared HTTP Clients, the base URL and the Configuration.
+     */
+    private static final class ClientKey {
+
+        private final String baseURL;
+        private final RestClientConfig config;
+
+        private ClientKey(final String baseURL, final RestClientConfig config) {
+            this.baseURL = baseURL;
+            this.config = config;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ClientKey)) {
+                return false;
+            }
+
+            final ClientKey that = (ClientKey) obj;
+            return Objects.equals(baseURL, that.baseURL) && Objects.equals(config, that.config);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(baseURL, config);
+        }
+    }
+
+    /**
+     * The threads of the shared HTTP Clients are daemon threads, so they
+     * will not prevent the JVM from stopping.
+     */
+    private static final class ClientThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger COUNTER = new AtomicInteger(0);
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final var thread = new Thread(runnable, "cws-rest-client-" + COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        }
     }
 
     // =========================================================================
@@ -99,8 +458,9 @@ public class GsonRestClient {
 
     private static Gson createGsonInstance() {
         final GsonBuilder builder = new GsonBuilder()
-                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-                .registerTypeAdapter(byte[].class, new ByteArrayAdapter());
+                .disableHtmlEscaping()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
+                .registerTypeAdapter(byte[].class, new ByteArrayAdapter().nullSafe());
 
         return builder.create();
     }
@@ -108,44 +468,151 @@ public class GsonRestClient {
     /**
      * GSon Adapter to handle Dates.
      */
-    static class LocalDateTimeAdapter implements JsonSerializer<LocalDateTime>, JsonDeserializer<LocalDateTime> {
+    static class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
 
         /**
          * {@inheritDoc}
          */
         @Override
-        public LocalDateTime deserialize(final JsonElement json, final Type typeOfT, final JsonDeserializationContext context) {
-            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(json.getAsJsonPrimitive().getAsString())), ZoneOffset.UTC);
+        public LocalDateTime read(final JsonReader in) throws IOException {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(in.nextString())), ZoneOffset.UTC);
         }
 
         /**
          * {@inheritDoc}
          */
         @Override
-        public JsonElement serialize(final LocalDateTime src, final Type typeOfSrc, final JsonSerializationContext context) {
-            return new JsonPrimitive(src.toInstant(ZoneOffset.UTC).toEpochMilli());
+        public void write(final JsonWriter out, final LocalDateTime value) throws IOException {
+            out.value(value.toInstant(ZoneOffset.UTC).toEpochMilli());
         }
     }
 
     /**
-     * GSon Adapter to handle Byte Arrays.
+     * GSon Adapter to handle Byte Arrays. When writing the Request Objects,
+     * the Base64 encoded value is written directly to the output in small
+     * chunks, rather than as one large String.
      */
-    static class ByteArrayAdapter implements JsonSerializer<byte[]>, JsonDeserializer<byte[]> {
+    static class ByteArrayAdapter extends TypeAdapter<byte[]> {
 
         /**
          * {@inheritDoc}
          */
         @Override
-        public byte[] deserialize(final JsonElement json, final Type typeOfT, final JsonDeserializationContext context) {
-            return Base64.getDecoder().decode(json.getAsJsonPrimitive().getAsString());
+        public byte[] read(final JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            return Base64.getDecoder().decode(in.nextString());
         }
 
         /**
          * {@inheritDoc}
          */
         @Override
-        public JsonElement serialize(final byte[] src, final Type typeOfSrc, final JsonSerializationContext context) {
-            return new JsonPrimitive(Base64.getEncoder().encodeToString(src));
+        public void write(final JsonWriter out, final byte[] value) throws IOException {
+            if (out instanceof Base64JsonWriter) {
+                ((Base64JsonWriter) out).base64Value(value);
+            } else {
+                out.value(Base64.getEncoder().encodeToString(value));
+            }
+        }
+    }
+
+    /**
+     * <p>JSON Writer, which can write a Base64 encoded value in chunks. The
+     * JSON Writer does not buffer the output, so the opening quote is written
+     * as a raw JSON value, which also places the separators before it, and
+     * the encoded chunks and closing quote are then written directly to the
+     * underlying Writer.</p>
+     */
+    static final class Base64JsonWriter extends JsonWriter {
+
+        // Must be a multiple of 3, so only the final chunk can have padding
+        private static final int CHUNK_SIZE = 3 * 1024;
+        private final Writer writer;
+
+        Base64JsonWriter(final Writer writer) {
+            super(writer);
+            this.writer = writer;
+        }
+
+        void base64Value(final byte[] value) throws IOException {
+            final Base64.Encoder encoder = Base64.getEncoder();
+            jsonValue("\"");
+
+            for (int offset = 0; offset < value.length; offset += CHUNK_SIZE) {
+                final int length = Math.min(CHUNK_SIZE, value.length - offset);
+                final ByteBuffer encoded = encoder.encode(ByteBuffer.wrap(value, offset, length));
+                writer.write(new String(encoded.array(), 0, encoded.limit(), StandardCharsets.US_ASCII));
+            }
+
+            writer.write('"');
+        }
+    }
+
+    /**
+     * <p>Output Stream, which collects the written bytes in a list of fixed
+     * size chunks, so the content is never copied when the buffer grows, as
+     * is the case for the {@link java.io.ByteArrayOutputStream}.</p>
+     */
+    static final class ChunkedOutputStream extends OutputStream {
+
+        private static final int CHUNK_SIZE = 64 * 1024;
+        private final List<byte[]> chunks = new ArrayList<>();
+        private byte[] current = new byte[CHUNK_SIZE];
+        private int position = 0;
+        private long size = 0;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(final int b) {
+            if (position == CHUNK_SIZE) {
+                nextChunk();
+            }
+            current[position++] = (byte) b;
+            size++;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            int written = 0;
+
+            while (written < length) {
+                if (position == CHUNK_SIZE) {
+                    nextChunk();
+                }
+                final int count = Math.min(length - written, CHUNK_SIZE - position);
+                System.arraycopy(bytes, offset + written, current, position, count);
+                position += count;
+                written += count;
+            }
+            size += length;
+        }
+
+        List<byte[]> getChunks() {
+            final List<byte[]> all = new ArrayList<>(chunks);
+            if (position > 0) {
+                all.add(Arrays.copyOf(current, position));
+            }
+
+            return all;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        private void nextChunk() {
+            chunks.add(current);
+            current = new byte[CHUNK_SIZE];
+            position = 0;
         }
     }
 }
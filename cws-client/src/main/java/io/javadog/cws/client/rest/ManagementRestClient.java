@@ -39,8 +39,10 @@ import io.javadog.cws.api.responses.MasterKeyResponse;
 import io.javadog.cws.api.responses.ProcessCircleResponse;
 import io.javadog.cws.api.responses.ProcessMemberResponse;
 import io.javadog.cws.api.responses.ProcessTrusteeResponse;
+import io.javadog.cws.api.responses.RotationResponse;
 import io.javadog.cws.api.responses.SanityResponse;
 import io.javadog.cws.api.responses.SettingResponse;
+import io.javadog.cws.api.responses.SlowRequestResponse;
 import io.javadog.cws.api.responses.VersionResponse;
 
 /**
@@ -65,6 +67,17 @@ public final class ManagementRestClient extends GsonRestClient implements Manage
         super(baseURL);
     }
 
+    /**
+     * Constructor for the REST Client with a specific Configuration of the
+     * underlying HTTP Client, for example to use HTTP/2 or other timeouts.
+     *
+     * @param baseURL Base URL for the CWS Instance
+     * @param config  Configuration of the HTTP Client
+     */
+    public ManagementRestClient(final String baseURL, final RestClientConfig config) {
+        super(baseURL, config);
+    }
+
     // =========================================================================
     // Implementation of the Management Interface
     // =========================================================================
@@ -117,6 +130,22 @@ public final class ManagementRestClient extends GsonRestClient implements Manage
         return runRequest(AuthenticateResponse.class, Constants.REST_AUTHENTICATED, request);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SlowRequestResponse slowRequests(final Authentication request) {
+        return runRequest(SlowRequestResponse.class, Constants.REST_SLOW_REQUESTS, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RotationResponse rotations(final Authentication request) {
+        return runRequest(RotationResponse.class, Constants.REST_ROTATIONS, request);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -130,108 +159,127 @@ public final class ManagementRestClient extends GsonRestClient implements Manage
      */
     @Override
     public ProcessMemberResponse processMember(final ProcessMemberRequest request) {
+        return runRequest(ProcessMemberResponse.class, processMemberPath(request), request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FetchCircleResponse fetchCircles(final FetchCircleRequest request) {
+        return runRequest(FetchCircleResponse.class, Constants.REST_CIRCLES_BASE + Constants.REST_CIRCLES_FETCH, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ProcessCircleResponse processCircle(final ProcessCircleRequest request) {
+        return runRequest(ProcessCircleResponse.class, processCirclePath(request), request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FetchTrusteeResponse fetchTrustees(final FetchTrusteeRequest request) {
+        return runRequest(FetchTrusteeResponse.class, Constants.REST_TRUSTEES_BASE + Constants.REST_TRUSTEES_FETCH, request);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ProcessTrusteeResponse processTrustee(final ProcessTrusteeRequest request) {
+        return runRequest(ProcessTrusteeResponse.class, processTrusteePath(request), request);
+    }
+
+    // =========================================================================
+    // Internal Methods, shared with the Asynchronous Client
+    // =========================================================================
+
+    static String processMemberPath(final ProcessMemberRequest request) {
         final String base = Constants.REST_MEMBERS_BASE;
-        final ProcessMemberResponse response;
+        final String path;
         throwExceptionIfInvalid(request);
 
         switch (request.getAction()) {
             case CREATE:
-                response = runRequest(ProcessMemberResponse.class, base + Constants.REST_MEMBERS_CREATE, request);
+                path = base + Constants.REST_MEMBERS_CREATE;
                 break;
             case INVITE:
-                response = runRequest(ProcessMemberResponse.class, base + Constants.REST_MEMBERS_INVITE, request);
+                path = base + Constants.REST_MEMBERS_INVITE;
                 break;
             case LOGIN:
-                response = runRequest(ProcessMemberResponse.class, base + Constants.REST_MEMBERS_LOGIN, request);
+                path = base + Constants.REST_MEMBERS_LOGIN;
                 break;
             case LOGOUT:
-                response = runRequest(ProcessMemberResponse.class, base + Constants.REST_MEMBERS_LOGOUT, request);
+                path = base + Constants.REST_MEMBERS_LOGOUT;
                 break;
             case ALTER:
-                response = runRequest(ProcessMemberResponse.class, base + Constants.REST_MEMBERS_ALTER, request);
+                path = base + Constants.REST_MEMBERS_ALTER;
                 break;
             case UPDATE:
-                response = runRequest(ProcessMemberResponse.class, base + Constants.REST_MEMBERS_UPDATE, request);
+                path = base + Constants.REST_MEMBERS_UPDATE;
                 break;
             case INVALIDATE:
-                response = runRequest(ProcessMemberResponse.class, base + Constants.REST_MEMBERS_INVALIDATE, request);
+                path = base + Constants.REST_MEMBERS_INVALIDATE;
                 break;
             case DELETE:
-                response = runRequest(ProcessMemberResponse.class, base + Constants.REST_MEMBERS_DELETE, request);
+                path = base + Constants.REST_MEMBERS_DELETE;
                 break;
             default:
                 throw new RESTClientException(UNSUPPORTED_OPERATION + request.getAction());
         }
 
-        return response;
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public FetchCircleResponse fetchCircles(final FetchCircleRequest request) {
-        return runRequest(FetchCircleResponse.class, Constants.REST_CIRCLES_BASE + Constants.REST_CIRCLES_FETCH, request);
+        return path;
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public ProcessCircleResponse processCircle(final ProcessCircleRequest request) {
+    static String processCirclePath(final ProcessCircleRequest request) {
         final String base = Constants.REST_CIRCLES_BASE;
-        final ProcessCircleResponse response;
+        final String path;
         throwExceptionIfInvalid(request);
 
         switch (request.getAction()) {
             case CREATE:
-                response = runRequest(ProcessCircleResponse.class, base + Constants.REST_CIRCLES_CREATE, request);
+                path = base + Constants.REST_CIRCLES_CREATE;
                 break;
             case UPDATE:
-                response = runRequest(ProcessCircleResponse.class, base + Constants.REST_CIRCLES_UPDATE, request);
+                path = base + Constants.REST_CIRCLES_UPDATE;
                 break;
             case DELETE:
-                response = runRequest(ProcessCircleResponse.class, base + Constants.REST_CIRCLES_DELETE, request);
+                path = base + Constants.REST_CIRCLES_DELETE;
+                break;
+            case ROTATE:
+                path = base + Constants.REST_CIRCLES_ROTATE;
                 break;
             default:
                 throw new RESTClientException(UNSUPPORTED_OPERATION + request.getAction());
         }
 
-        return response;
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public FetchTrusteeResponse fetchTrustees(final FetchTrusteeRequest request) {
-        return runRequest(FetchTrusteeResponse.class, Constants.REST_TRUSTEES_BASE + Constants.REST_TRUSTEES_FETCH, request);
+        return path;
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public ProcessTrusteeResponse processTrustee(final ProcessTrusteeRequest request) {
+    static String processTrusteePath(final ProcessTrusteeRequest request) {
         final String base = Constants.REST_TRUSTEES_BASE;
-        final ProcessTrusteeResponse response;
+        final String path;
         throwExceptionIfInvalid(request);
 
         switch (request.getAction()) {
             case ADD:
-                response = runRequest(ProcessTrusteeResponse.class, base + Constants.REST_TRUSTEES_ADD, request);
+                path = base + Constants.REST_TRUSTEES_ADD;
                 break;
             case ALTER:
-                response = runRequest(ProcessTrusteeResponse.class, base + Constants.REST_TRUSTEES_ALTER, request);
+                path = base + Constants.REST_TRUSTEES_ALTER;
                 break;
             case REMOVE:
-                response = runRequest(ProcessTrusteeResponse.class, base + Constants.REST_TRUSTEES_REMOVE, request);
+                path = base + Constants.REST_TRUSTEES_REMOVE;
                 break;
             default:
                 throw new RESTClientException(UNSUPPORTED_OPERATION + request.getAction());
         }
 
-        return response;
+        return path;
     }
 
     private static void throwExceptionIfInvalid(final ActionRequest request) {
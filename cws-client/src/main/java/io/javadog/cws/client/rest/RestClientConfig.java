@@ -0,0 +1,193 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.client.rest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * <p>Configuration of the HTTP Client, used by the REST Clients. All REST
+ * Clients for the same base URL and Configuration share a single HTTP
+ * Client, so the connections are reused between the requests. The HTTP
+ * Client is stopped, when the last REST Client using it is closed.</p>
+ *
+ * <p>The Configuration is immutable, the default can be changed with the
+ * 'with' methods, which each return a new Configuration:</p>
+ *
+ * <pre>
+ *   final RestClientConfig config = RestClientConfig.DEFAULT
+ *           .withHttp2(true)
+ *           .withRequestTimeout(Duration.ofSeconds(30));
+ *   try (ShareRestClient share = new ShareRestClient("https://localhost:8443/cws", config)) {
+ *       ...
+ *   }
+ * </pre>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class RestClientConfig {
+
+    /**
+     * Default Configuration, HTTP/1.1 with a connect timeout of 10 seconds,
+     * a request timeout of 60 seconds, 4 threads and at most 256 requests in
+     * flight.
+     */
+    public static final RestClientConfig DEFAULT = new RestClientConfig(HttpClient.Version.HTTP_1_1, Duration.ofSeconds(10), Duration.ofSeconds(60), 4, 256);
+
+    private final HttpClient.Version version;
+    private final Duration connectTimeout;
+    private final Duration requestTimeout;
+    private final int threads;
+    private final int maxInFlight;
+
+    private RestClientConfig(final HttpClient.Version version, final Duration connectTimeout, final Duration requestTimeout, final int threads, final int maxInFlight) {
+        this.version = version;
+        this.connectTimeout = connectTimeout;
+        this.requestTimeout = requestTimeout;
+        this.threads = threads;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * <p>Enables HTTP/2. The HTTP Client will then negotiate HTTP/2 with the
+     * server, and fall back to HTTP/1.1 if the server does not support
+     * it.</p>
+     *
+     * @param http2 True to use HTTP/2, false for HTTP/1.1
+     * @return New Configuration
+     */
+    public RestClientConfig withHttp2(final boolean http2) {
+        return new RestClientConfig(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1, connectTimeout, requestTimeout, threads, maxInFlight);
+    }
+
+    /**
+     * @param connectTimeout Maximum time to wait for a new connection
+     * @return New Configuration
+     */
+    public RestClientConfig withConnectTimeout(final Duration connectTimeout) {
+        return new RestClientConfig(version, positive(connectTimeout, "connect timeout"), requestTimeout, threads, maxInFlight);
+    }
+
+    /**
+     * @param requestTimeout Maximum time to wait for a response
+     * @return New Configuration
+     */
+    public RestClientConfig withRequestTimeout(final Duration requestTimeout) {
+        return new RestClientConfig(version, connectTimeout, positive(requestTimeout, "request timeout"), threads, maxInFlight);
+    }
+
+    /**
+     * <p>Sets the number of threads for the HTTP Client, which are used to
+     * handle the responses. The threads are only used internally by the
+     * client, and do not limit the number of concurrent requests.</p>
+     *
+     * @param threads Number of threads, must be positive
+     * @return New Configuration
+     */
+    public RestClientConfig withThreads(final int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be positive.");
+        }
+
+        return new RestClientConfig(version, connectTimeout, requestTimeout, threads, maxInFlight);
+    }
+
+    /**
+     * <p>Sets the maximum number of requests, which may be in flight at the
+     * same time for the shared HTTP Client. When the limit is reached, new
+     * requests will wait until a running request is completed; asynchronous
+     * requests are queued without blocking the invoking thread. This way, an
+     * asynchronous client cannot flood the CWS instance with requests, but
+     * is slowed down to the pace the instance can handle.</p>
+     *
+     * @param maxInFlight Maximum number of concurrent requests, must be positive
+     * @return New Configuration
+     */
+    public RestClientConfig withMaxInFlight(final int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("The maximum number of requests in flight must be positive.");
+        }
+
+        return new RestClientConfig(version, connectTimeout, requestTimeout, threads, maxInFlight);
+    }
+
+    public HttpClient.Version getVersion() {
+        return version;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    // =========================================================================
+    // Standard Object Methods
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RestClientConfig)) {
+            return false;
+        }
+
+        final RestClientConfig that = (RestClientConfig) obj;
+        return (threads == that.threads)
+                && (maxInFlight == that.maxInFlight)
+                && (version == that.version)
+                && Objects.equals(connectTimeout, that.connectTimeout)
+                && Objects.equals(requestTimeout, that.requestTimeout);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, connectTimeout, requestTimeout, threads, maxInFlight);
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private static Duration positive(final Duration duration, final String name) {
+        if ((duration == null) || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("The " + name + " must be positive.");
+        }
+
+        return duration;
+    }
+}
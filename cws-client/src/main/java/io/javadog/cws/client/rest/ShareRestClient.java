@@ -52,6 +52,17 @@ public final class ShareRestClient extends GsonRestClient implements Share {
         super(baseURL);
     }
 
+    /**
+     * Constructor for the REST Client with a specific Configuration of the
+     * underlying HTTP Client, for example to use HTTP/2 or other timeouts.
+     *
+     * @param baseURL Base URL for the CWS Instance
+     * @param config  Configuration of the HTTP Client
+     */
+    public ShareRestClient(final String baseURL, final RestClientConfig config) {
+        super(baseURL, config);
+    }
+
     // =========================================================================
     // Implementation of the Share Interface
     // =========================================================================
@@ -61,26 +72,7 @@ public final class ShareRestClient extends GsonRestClient implements Share {
      */
     @Override
     public ProcessDataTypeResponse processDataType(final ProcessDataTypeRequest request) {
-        final ProcessDataTypeResponse response;
-
-        if ((request != null) && (request.getAction() != null)) {
-            final String base = Constants.REST_DATATYPES_BASE;
-
-            switch (request.getAction()) {
-                case PROCESS:
-                    response = runRequest(ProcessDataTypeResponse.class, base + Constants.REST_DATATYPES_PROCESS, request);
-                    break;
-                case DELETE:
-                    response = runRequest(ProcessDataTypeResponse.class, base + Constants.REST_DATATYPES_DELETE, request);
-                    break;
-                default:
-                    throw new RESTClientException("Unsupported Operation: " + request.getAction());
-            }
-        } else {
-            throw new RESTClientException("Cannot perform request, as the Request Object is missing or incomplete.");
-        }
-
-        return response;
+        return runRequest(ProcessDataTypeResponse.class, processDataTypePath(request), request);
     }
 
     /**
@@ -96,34 +88,7 @@ public final class ShareRestClient extends GsonRestClient implements Share {
      */
     @Override
     public ProcessDataResponse processData(final ProcessDataRequest request) {
-        final ProcessDataResponse response;
-
-        if ((request != null) && (request.getAction() != null)) {
-            final String base = Constants.REST_DATA_BASE;
-            switch (request.getAction()) {
-                case ADD:
-                    response = runRequest(ProcessDataResponse.class, base + Constants.REST_DATA_ADD, request);
-                    break;
-                case UPDATE:
-                    response = runRequest(ProcessDataResponse.class, base + Constants.REST_DATA_UPDATE, request);
-                    break;
-                case COPY:
-                    response = runRequest(ProcessDataResponse.class, base + Constants.REST_DATA_COPY, request);
-                    break;
-                case MOVE:
-                    response = runRequest(ProcessDataResponse.class, base + Constants.REST_DATA_MOVE, request);
-                    break;
-                case DELETE:
-                    response = runRequest(ProcessDataResponse.class, base + Constants.REST_DATA_DELETE, request);
-                    break;
-                default:
-                    throw new RESTClientException("Unsupported Operation: " + request.getAction());
-            }
-        } else {
-            throw new RESTClientException("Cannot perform request, as the Request Object is missing or incomplete.");
-        }
-
-        return response;
+        return runRequest(ProcessDataResponse.class, processDataPath(request), request);
     }
 
     /**
@@ -157,4 +122,62 @@ public final class ShareRestClient extends GsonRestClient implements Share {
     public FetchSignatureResponse fetchSignatures(final FetchSignatureRequest request) {
         return runRequest(FetchSignatureResponse.class, Constants.REST_SIGNATURES_BASE + Constants.REST_SIGNATURES_FETCH, request);
     }
+
+    // =========================================================================
+    // Internal Methods, shared with the Asynchronous Client
+    // =========================================================================
+
+    static String processDataTypePath(final ProcessDataTypeRequest request) {
+        final String path;
+
+        if ((request != null) && (request.getAction() != null)) {
+            final String base = Constants.REST_DATATYPES_BASE;
+
+            switch (request.getAction()) {
+                case PROCESS:
+                    path = base + Constants.REST_DATATYPES_PROCESS;
+                    break;
+                case DELETE:
+                    path = base + Constants.REST_DATATYPES_DELETE;
+                    break;
+                default:
+                    throw new RESTClientException("Unsupported Operation: " + request.getAction());
+            }
+        } else {
+            throw new RESTClientException("Cannot perform request, as the Request Object is missing or incomplete.");
+        }
+
+        return path;
+    }
+
+    static String processDataPath(final ProcessDataRequest request) {
+        final String path;
+
+        if ((request != null) && (request.getAction() != null)) {
+            final String base = Constants.REST_DATA_BASE;
+            switch (request.getAction()) {
+                case ADD:
+                    path = base + Constants.REST_DATA_ADD;
+                    break;
+                case UPDATE:
+                    path = base + Constants.REST_DATA_UPDATE;
+                    break;
+                case COPY:
+                    path = base + Constants.REST_DATA_COPY;
+                    break;
+                case MOVE:
+                    path = base + Constants.REST_DATA_MOVE;
+                    break;
+                case DELETE:
+                    path = base + Constants.REST_DATA_DELETE;
+                    break;
+                default:
+                    throw new RESTClientException("Unsupported Operation: " + request.getAction());
+            }
+        } else {
+            throw new RESTClientException("Cannot perform request, as the Request Object is missing or incomplete.");
+        }
+
+        return path;
+    }
 }
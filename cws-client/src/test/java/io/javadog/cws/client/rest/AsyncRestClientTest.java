@@ -0,0 +1,167 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.client.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.requests.ProcessDataRequest;
+import io.javadog.cws.api.responses.ProcessDataResponse;
+import io.javadog.cws.api.responses.VersionResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>Tests the Asynchronous REST Clients against a small local HTTP Server,
+ * which answers the Version request, so no running CWS instance is
+ * required.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class AsyncRestClientTest {
+
+    private static final String VERSION = "{\"" + Constants.FIELD_VERSION + "\":\"2.0.0\"}";
+
+    private final CountDownLatch released = new CountDownLatch(1);
+    private ExecutorService executor = null;
+    private HttpServer server = null;
+    private String baseURL = null;
+    private volatile boolean blocking = false;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(Constants.REST_VERSION, this::handleVersion);
+        server.setExecutor(executor);
+        server.start();
+        baseURL = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        released.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testAsyncVersion() throws InterruptedException, ExecutionException, TimeoutException {
+        final AsyncManagementRestClient client = new AsyncManagementRestClient(baseURL);
+        final VersionResponse response = client.version().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        assertEquals("2.0.0", response.getVersion());
+    }
+
+    @Test
+    void testInFlightLimit() throws InterruptedException, ExecutionException, TimeoutException {
+        blocking = true;
+        final AsyncManagementRestClient client = new AsyncManagementRestClient(baseURL, RestClientConfig.DEFAULT.withMaxInFlight(2));
+        final CompletableFuture<VersionResponse> first = client.version().toCompletableFuture();
+        final CompletableFuture<VersionResponse> second = client.version().toCompletableFuture();
+        assertEquals(0, client.getAvailableRequests());
+
+        released.countDown();
+        CompletableFuture.allOf(first, second).get(10, TimeUnit.SECONDS);
+        assertEquals("2.0.0", first.get().getVersion());
+        assertEquals("2.0.0", second.get().getVersion());
+        assertEquals(2, client.getAvailableRequests());
+    }
+
+    @Test
+    void testFailedRequest() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final AsyncManagementRestClient client = new AsyncManagementRestClient("http://localhost:" + port, RestClientConfig.DEFAULT.withMaxInFlight(1));
+        final CompletableFuture<VersionResponse> future = client.version().toCompletableFuture();
+
+        final ExecutionException cause = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(cause.getCause() instanceof RESTClientException);
+        assertEquals(1, client.getAvailableRequests());
+    }
+
+    @Test
+    void testRequestsAboveLimitAreQueued() throws InterruptedException, ExecutionException, TimeoutException {
+        blocking = true;
+        final AsyncManagementRestClient client = new AsyncManagementRestClient(baseURL, RestClientConfig.DEFAULT.withMaxInFlight(1));
+
+        // The invoking thread is not blocked, the requests above the limit
+        // are queued until a running request is completed.
+        final CompletableFuture<VersionResponse> first = client.version().toCompletableFuture();
+        final CompletableFuture<VersionResponse> second = client.version().toCompletableFuture();
+        final CompletableFuture<VersionResponse> third = client.version().toCompletableFuture();
+        assertEquals(0, client.getAvailableRequests());
+        assertFalse(third.isDone());
+
+        released.countDown();
+        CompletableFuture.allOf(first, second, third).get(10, TimeUnit.SECONDS);
+        assertEquals("2.0.0", third.get().getVersion());
+        assertEquals(1, client.getAvailableRequests());
+    }
+
+    @Test
+    void testInvalidRequestCompletesStage() {
+        final AsyncShareRestClient client = new AsyncShareRestClient(baseURL);
+        final CompletableFuture<ProcessDataResponse> future = client.processData(new ProcessDataRequest()).toCompletableFuture();
+
+        final ExecutionException cause = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(cause.getCause() instanceof RESTClientException);
+        assertEquals(RestClientConfig.DEFAULT.getMaxInFlight(), client.getAvailableRequests());
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private void handleVersion(final HttpExchange exchange) throws IOException {
+        try {
+            if (blocking) {
+                released.await(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        final byte[] body = VERSION.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(body);
+        }
+    }
+}
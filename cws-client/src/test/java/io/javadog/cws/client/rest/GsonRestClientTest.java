@@ -0,0 +1,121 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.client.rest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.javadog.cws.api.requests.ProcessDataRequest;
+import io.javadog.cws.api.responses.FetchDataResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>Verifies the streaming JSON handling of the REST Clients, against a
+ * small local HTTP Server, which returns the received Data in the
+ * response.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class GsonRestClientTest {
+
+    private static final String ECHO = "/echo";
+
+    private HttpServer server = null;
+    private String baseURL = null;
+    private volatile String received = null;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(ECHO, this::handleEcho);
+        server.start();
+        baseURL = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void testLargeDataRoundTrip() {
+        // The size is not a multiple of the chunk sizes, so both the Base64
+        // padding and the final partial chunks are tested.
+        final byte[] data = new byte[1_000_003];
+        new Random(42).nextBytes(data);
+        final byte[] credential = "secret".getBytes(StandardCharsets.UTF_8);
+        final ProcessDataRequest request = new ProcessDataRequest();
+        request.setCredential(credential);
+        request.setData(data);
+
+        final FetchDataResponse response = new ShareRestClient(baseURL).runRequest(FetchDataResponse.class, ECHO, request);
+        assertArrayEquals(data, response.getData());
+        // The '=' padding of the Base64 encoded credential must not be
+        // escaped as HTML.
+        assertTrue(received.contains("\"credential\":\"" + Base64.getEncoder().encodeToString(credential) + '"'));
+    }
+
+    @Test
+    void testEmptyAndMissingData() {
+        final ShareRestClient client = new ShareRestClient(baseURL);
+        final ProcessDataRequest request = new ProcessDataRequest();
+        request.setData(new byte[0]);
+        assertEquals(0, client.runRequest(FetchDataResponse.class, ECHO, request).getData().length);
+
+        request.setData(null);
+        assertNull(client.runRequest(FetchDataResponse.class, ECHO, request).getData());
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private void handleEcho(final HttpExchange exchange) throws IOException {
+        try (InputStream stream = exchange.getRequestBody()) {
+            received = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        final JsonObject json = JsonParser.parseString(received).getAsJsonObject();
+        final JsonObject echo = new JsonObject();
+        if (json.has("data")) {
+            echo.add("data", json.get("data"));
+        }
+
+        final byte[] body = echo.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(body);
+        }
+    }
+}
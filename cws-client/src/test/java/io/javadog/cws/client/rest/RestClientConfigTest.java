@@ -0,0 +1,114 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.client.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.javadog.cws.api.requests.FetchDataTypeRequest;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>Verifies that the REST Clients share the HTTP Client for the same base
+ * URL and Configuration. No requests are made, so no running CWS instance
+ * is required.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class RestClientConfigTest {
+
+    private static final String BASE_URL = "http://localhost:8080/cws";
+
+    @Test
+    void testClientIsSharedForSameBaseURL() {
+        final ShareRestClient share = new ShareRestClient(BASE_URL);
+        final ManagementRestClient management = new ManagementRestClient(BASE_URL);
+
+        assertSame(share.getHttpClient(), management.getHttpClient());
+    }
+
+    @Test
+    void testClientIsSharedForEqualConfig() {
+        final RestClientConfig first = RestClientConfig.DEFAULT.withHttp2(true).withThreads(2);
+        final RestClientConfig second = RestClientConfig.DEFAULT.withThreads(2).withHttp2(true);
+
+        assertEquals(first, second);
+        assertSame(new ShareRestClient(BASE_URL, first).getHttpClient(), new ShareRestClient(BASE_URL, second).getHttpClient());
+    }
+
+    @Test
+    void testDifferentClientsForDifferentBaseURLAndConfig() {
+        final HttpClient client = new ShareRestClient(BASE_URL).getHttpClient();
+
+        assertNotSame(client, new ShareRestClient("http://localhost:8081/cws").getHttpClient());
+        assertNotSame(client, new ShareRestClient(BASE_URL, RestClientConfig.DEFAULT.withHttp2(true)).getHttpClient());
+    }
+
+    @Test
+    void testClientIsRemovedWhenLastIsClosed() {
+        final RestClientConfig config = RestClientConfig.DEFAULT.withThreads(3);
+        final ShareRestClient first = new ShareRestClient(BASE_URL, config);
+        final ShareRestClient second = new ShareRestClient(BASE_URL, config);
+        final HttpClient client = first.getHttpClient();
+
+        first.close();
+        first.close();
+        try (ShareRestClient third = new ShareRestClient(BASE_URL, config)) {
+            assertSame(client, third.getHttpClient());
+        }
+
+        second.close();
+        try (ShareRestClient fourth = new ShareRestClient(BASE_URL, config)) {
+            assertNotSame(client, fourth.getHttpClient());
+        }
+    }
+
+    @Test
+    void testClosedClientRejectsRequests() {
+        final ShareRestClient client = new ShareRestClient(BASE_URL, RestClientConfig.DEFAULT.withThreads(5));
+        client.close();
+
+        final FetchDataTypeRequest request = new FetchDataTypeRequest();
+        final RESTClientException cause = assertThrows(RESTClientException.class, () -> client.fetchDataTypes(request));
+        assertEquals("The REST Client is closed.", cause.getMessage());
+    }
+
+    @Test
+    void testConfigIsAppliedToClient() {
+        final RestClientConfig config = RestClientConfig.DEFAULT
+                .withHttp2(true)
+                .withConnectTimeout(Duration.ofSeconds(3));
+        final HttpClient client = new ShareRestClient(BASE_URL, config).getHttpClient();
+
+        assertEquals(HttpClient.Version.HTTP_2, client.version());
+        assertEquals(Duration.ofSeconds(3), client.connectTimeout().orElseThrow());
+    }
+
+    @Test
+    void testInvalidConfig() {
+        final RestClientConfig config = RestClientConfig.DEFAULT;
+
+        assertThrows(IllegalArgumentException.class, () -> config.withThreads(0));
+        assertThrows(IllegalArgumentException.class, () -> config.withConnectTimeout(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> config.withRequestTimeout(Duration.ofSeconds(-1)));
+    }
+}
@@ -38,10 +38,15 @@ import io.javadog.cws.api.responses.MasterKeyResponse;
 import io.javadog.cws.api.responses.ProcessCircleResponse;
 import io.javadog.cws.api.responses.ProcessMemberResponse;
 import io.javadog.cws.api.responses.ProcessTrusteeResponse;
+import io.javadog.cws.api.responses.RotationResponse;
 import io.javadog.cws.api.responses.SanityResponse;
 import io.javadog.cws.api.responses.SettingResponse;
+import io.javadog.cws.api.responses.SlowRequestResponse;
 import io.javadog.cws.api.responses.VersionResponse;
 import io.javadog.cws.core.exceptions.CWSException;
+import io.javadog.cws.core.jce.MasterKey;
+import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.model.ReadRouting;
 import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.services.AuthenticatedService;
 import io.javadog.cws.core.services.FetchCircleService;
@@ -52,12 +57,19 @@ import io.javadog.cws.core.services.MasterKeyService;
 import io.javadog.cws.core.services.ProcessCircleService;
 import io.javadog.cws.core.services.ProcessMemberService;
 import io.javadog.cws.core.services.ProcessTrusteeService;
+import io.javadog.cws.core.services.RotationService;
 import io.javadog.cws.core.services.SanityService;
 import io.javadog.cws.core.services.SettingService;
+import io.javadog.cws.core.services.SlowRequestService;
+import java.util.Map;
 import java.util.logging.Logger;
+import javax.annotation.Resource;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.Transactional;
 
 /**
@@ -74,6 +86,8 @@ public class ManagementBean {
 
     @PersistenceContext
     private EntityManager entityManager;
+    @Resource
+    private TransactionSynchronizationRegistry registry;
     private final Settings settings = Settings.getInstance();
 
     @Transactional(Transactional.TxType.SUPPORTS)
@@ -90,8 +104,10 @@ public class ManagementBean {
         SettingResponse response;
 
         try {
+            ReadRouting.getInstance().written(request);
             service = new SettingService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
+            publishAfterCommit(service.getUpdates());
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -114,14 +130,18 @@ public class ManagementBean {
         return response;
     }
 
-    @Transactional(Transactional.TxType.SUPPORTS)
+    @Transactional(Transactional.TxType.REQUIRED)
     public MasterKeyResponse masterKey(final MasterKeyRequest request) {
+        final var masterKey = MasterKey.getInstance(settings);
+        final SecretCWSKey key = masterKey.getKey();
+        final SecretCWSKey previousKey = masterKey.getPreviousKey();
         MasterKeyService service = null;
         MasterKeyResponse response;
 
         try {
             service = new MasterKeyService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
+            restoreOnRollback(masterKey, key, previousKey);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -129,6 +149,14 @@ public class ManagementBean {
             // response.
             LOG.log(Settings.DEBUG, e.getMessage(), e);
             response = new MasterKeyResponse(e.getReturnCode(), e.getMessage());
+
+            // The request may have failed after the MasterKey was altered,
+            // and values re-encrypted with it, so neither must be kept.
+            masterKey.setKey(key);
+            masterKey.setPreviousKey(previousKey);
+            if ((registry != null) && (registry.getTransactionStatus() != Status.STATUS_NO_TRANSACTION)) {
+                registry.setRollbackOnly();
+            }
         } finally {
             CommonBean.destroy(service);
         }
@@ -143,7 +171,7 @@ public class ManagementBean {
 
         try {
             service = new SanityService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -163,9 +191,9 @@ public class ManagementBean {
         InventoryService service = null;
         InventoryResponse response;
 
-        try {
-            service = new InventoryService(settings, entityManager);
-            response = service.perform(request);
+        try (ReadRouting.Route route = ReadRouting.getInstance().route(entityManager, request)) {
+            service = new InventoryService(settings, route.getEntityManager());
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -187,7 +215,7 @@ public class ManagementBean {
 
         try {
             service = new AuthenticatedService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -202,14 +230,58 @@ public class ManagementBean {
         return response;
     }
 
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public SlowRequestResponse slowRequests(final Authentication request) {
+        SlowRequestService service = null;
+        SlowRequestResponse response;
+
+        try {
+            service = new SlowRequestService(settings, entityManager);
+            response = service.process(request);
+        } catch (CWSException e) {
+            // Any Warning or Error thrown by the CWS contain enough information
+            // so it can be dealt with by the requesting System. Logging the
+            // error is thus not needed, as all information is provided in the
+            // response.
+            LOG.log(Settings.DEBUG, e.getMessage(), e);
+            response = new SlowRequestResponse(e.getReturnCode(), e.getMessage());
+        } finally {
+            CommonBean.destroy(service);
+        }
+
+        return response;
+    }
+
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public RotationResponse rotations(final Authentication request) {
+        RotationService service = null;
+        RotationResponse response;
+
+        try {
+            service = new RotationService(settings, entityManager);
+            response = service.process(request);
+        } catch (CWSException e) {
+            // Any Warning or Error thrown by the CWS contain enough information
+            // so it can be dealt with by the requesting System. Logging the
+            // error is thus not needed, as all information is provided in the
+            // response.
+            LOG.log(Settings.DEBUG, e.getMessage(), e);
+            response = new RotationResponse(e.getReturnCode(), e.getMessage());
+        } finally {
+            CommonBean.destroy(service);
+        }
+
+        return response;
+    }
+
     @Transactional(Transactional.TxType.SUPPORTS)
     public FetchMemberResponse fetchMembers(final FetchMemberRequest request) {
         FetchMemberService service = null;
         FetchMemberResponse response;
 
-        try {
-            service = new FetchMemberService(settings, entityManager);
-            response = service.perform(request);
+        try (ReadRouting.Route route = ReadRouting.getInstance().route(entityManager, request)) {
+            service = new FetchMemberService(settings, route.getEntityManager());
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -230,8 +302,9 @@ public class ManagementBean {
         ProcessMemberResponse response;
 
         try {
+            ReadRouting.getInstance().written(request);
             service = new ProcessMemberService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -251,9 +324,9 @@ public class ManagementBean {
         FetchCircleService service = null;
         FetchCircleResponse response;
 
-        try {
-            service = new FetchCircleService(settings, entityManager);
-            response = service.perform(request);
+        try (ReadRouting.Route route = ReadRouting.getInstance().route(entityManager, request)) {
+            service = new FetchCircleService(settings, route.getEntityManager());
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -274,8 +347,9 @@ public class ManagementBean {
         ProcessCircleResponse response;
 
         try {
+            ReadRouting.getInstance().written(request);
             service = new ProcessCircleService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -295,9 +369,9 @@ public class ManagementBean {
         FetchTrusteeService service = null;
         FetchTrusteeResponse response;
 
-        try {
-            service = new FetchTrusteeService(settings, entityManager);
-            response = service.perform(request);
+        try (ReadRouting.Route route = ReadRouting.getInstance().route(entityManager, request)) {
+            service = new FetchTrusteeService(settings, route.getEntityManager());
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -318,8 +392,9 @@ public class ManagementBean {
         ProcessTrusteeResponse response;
 
         try {
+            ReadRouting.getInstance().written(request);
             service = new ProcessTrusteeService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -333,4 +408,68 @@ public class ManagementBean {
 
         return response;
     }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    /**
+     * <p>The MasterKey is shared by all requests, but the values re-encrypted
+     * with a new MasterKey are first persisted with the transaction. So if it
+     * is rolled back, the MasterKey is restored.</p>
+     *
+     * @param masterKey   The MasterKey instance
+     * @param key         The MasterKey before the request
+     * @param previousKey The previous MasterKey before the request
+     */
+    private void restoreOnRollback(final MasterKey masterKey, final SecretCWSKey key, final SecretCWSKey previousKey) {
+        if ((registry != null) && (registry.getTransactionStatus() != Status.STATUS_NO_TRANSACTION)) {
+            registry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    // Nothing to prepare, the MasterKey is first restored
+                    // after the transaction is completed.
+                }
+
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status != Status.STATUS_COMMITTED) {
+                        masterKey.setKey(key);
+                        masterKey.setPreviousKey(previousKey);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * <p>Publishes the changed Settings, once the transaction has been
+     * committed. If the transaction is rolled back, the Settings are left
+     * unaltered, so they never differ from those in the database. Without a
+     * transaction, the changes are published directly.</p>
+     *
+     * @param updates Map with the changed Settings
+     */
+    private void publishAfterCommit(final Map<String, String> updates) {
+        if (!updates.isEmpty()) {
+            if ((registry == null) || (registry.getTransactionStatus() == Status.STATUS_NO_TRANSACTION)) {
+                settings.update(updates);
+            } else {
+                registry.registerInterposedSynchronization(new Synchronization() {
+                    @Override
+                    public void beforeCompletion() {
+                        // Nothing to prepare, the Settings are first altered
+                        // after the transaction is completed.
+                    }
+
+                    @Override
+                    public void afterCompletion(final int status) {
+                        if (status == Status.STATUS_COMMITTED) {
+                            settings.update(updates);
+                        }
+                    }
+                });
+            }
+        }
+    }
 }
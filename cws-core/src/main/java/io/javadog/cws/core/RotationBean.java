@@ -0,0 +1,399 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core;
+
+import io.javadog.cws.api.common.Utilities;
+import io.javadog.cws.core.enums.RotationStatus;
+import io.javadog.cws.core.exceptions.CryptoException;
+import io.javadog.cws.core.jce.Crypto;
+import io.javadog.cws.core.jce.IVSalt;
+import io.javadog.cws.core.jce.MasterKey;
+import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.metrics.Metrics;
+import io.javadog.cws.core.misc.CiphertextCache;
+import io.javadog.cws.core.model.RotationDao;
+import io.javadog.cws.core.model.Settings;
+import io.javadog.cws.core.model.entities.KeyEntity;
+import io.javadog.cws.core.model.entities.RotationEntity;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Logger;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * <p>Rotating the MasterKey requires that all values encrypted with it, are
+ * re-encrypted with the new MasterKey. As this may be a large number of rows,
+ * it is done in the background, in batches which are each committed together
+ * with the checkpoint, i.e. the Id of the last processed row. So if the CWS
+ * is stopped, or another CWS instance picks up the work, the rotation simply
+ * continues from the checkpoint.</p>
+ *
+ * <p>The rotation first re-encrypts the Member Salts, then the Initial
+ * Vectors of the Data Objects. The Sessions cannot be re-encrypted, as they
+ * are derived from the Session Key, which is not stored. So the previous
+ * MasterKey is kept until the Sessions created with it have expired, after
+ * which the rotation is completed. Before that, the values are checked once
+ * more, as CWS instances which had not yet been given the new MasterKey, may
+ * have encrypted values with the previous, also behind the checkpoint.</p>
+ *
+ * <p>Rotating a Circle Key is done the same way, here the Data Objects
+ * encrypted with the previous Circle Key are re-encrypted with the new. Both
+ * Circle Keys are kept encrypted with the MasterKey until the rotation is
+ * completed, after which the previous Circle Key is removed from the
+ * Trustees.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@Stateless
+@TransactionAttribute(TransactionAttributeType.REQUIRED)
+public class RotationBean {
+
+    private static final Logger LOG = Logger.getLogger(RotationBean.class.getName());
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final Settings settings = Settings.getInstance();
+    private final Crypto crypto = new Crypto(settings);
+
+    /**
+     * <p>Processes the next batch of the MasterKey rotation, if one is in
+     * progress. Each invocation runs in its own transaction, so the batch
+     * and the checkpoint are committed together.</p>
+     *
+     * @return True if more batches are ready to be processed, otherwise false
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public boolean rotateMasterKey() {
+        final var dao = new RotationDao(entityManager);
+        final var masterKey = MasterKey.getInstance(settings);
+        final RotationEntity rotation = dao.findRotation(RotationDao.MASTER_KEY);
+        var more = false;
+
+        if ((rotation == null) || (rotation.getStatus() == RotationStatus.COMPLETED)) {
+            // Another CWS instance may have completed the rotation, so the
+            // previous MasterKey is no longer needed.
+            masterKey.setPreviousKey(null);
+        } else if (restorePreviousKey(masterKey, rotation)) {
+            if (rotation.getStatus() == RotationStatus.MEMBERS) {
+                more = reEncryptMembers(dao, rotation);
+            } else if (rotation.getStatus() == RotationStatus.DATA) {
+                more = reEncryptData(dao, rotation);
+            } else {
+                completeRotation(dao, masterKey, rotation);
+            }
+        }
+
+        return more;
+    }
+
+    /**
+     * <p>Processes the next batch of a Circle Key rotation, if any is in
+     * progress. Each invocation runs in its own transaction, so the batch
+     * and the checkpoint are committed together. If the Circle Keys of a
+     * rotation cannot be unwrapped by this CWS instance, the next rotation
+     * is processed instead, so it does not hold back the others.</p>
+     *
+     * @return True if more batches are ready to be processed, otherwise false
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public boolean rotateCircleKeys() {
+        final var dao = new RotationDao(entityManager);
+        final Iterator<RotationEntity> rotations = dao.findActiveCircleRotations().iterator();
+        var processed = false;
+        var more = false;
+
+        while (!processed && rotations.hasNext()) {
+            final RotationEntity rotation = rotations.next();
+            final KeyEntity previousKeyEntity = rotation.getPreviousKey();
+            final KeyEntity keyEntity = rotation.getKey();
+
+            try {
+                final SecretCWSKey[] keys = crypto.unwrapCircleKeys(rotation.getSecret(), previousKeyEntity.getAlgorithm(), keyEntity.getAlgorithm());
+                processed = true;
+                try {
+                    more = reEncryptCircleData(dao, rotation, keys[0], keys[1]);
+                } finally {
+                    keys[0].destroy();
+                    keys[1].destroy();
+                }
+            } catch (CryptoException e) {
+                // This CWS instance has not yet been given the MasterKey,
+                // which the Circle Keys are encrypted with.
+                LOG.log(Settings.DEBUG, e, () -> "Cannot unwrap the Circle Keys of the Circle '" + rotation.getCircle().getName() + "': " + e.getMessage());
+            }
+        }
+
+        return more;
+    }
+
+    private boolean reEncryptCircleData(final RotationDao dao, final RotationEntity rotation, final SecretCWSKey previousKey, final SecretCWSKey key) {
+        final int batchSize = settings.getRotationBatchSize();
+        final List<Object[]> rows = dao.findDataByKey(rotation.getPreviousKey(), rotation.getCheckpoint(), batchSize);
+
+        for (final Object[] row : rows) {
+            reEncryptCircleRow(dao, rotation, row, previousKey, key);
+            rotation.setCheckpoint((Long) row[0]);
+        }
+
+        if ((rows.size() < batchSize) && !reEncryptRemaining(dao, rotation, previousKey, key)) {
+            completeCircleRotation(dao, rotation);
+        }
+        dao.persist(rotation);
+
+        // Once this rotation is completed, the next may be processed.
+        return true;
+    }
+
+    private boolean reEncryptCircleRow(final RotationDao dao, final RotationEntity rotation, final Object[] row, final SecretCWSKey previousKey, final SecretCWSKey key) {
+        final Long id = (Long) row[0];
+        final String previousVector = (String) row[2];
+        var reEncrypted = false;
+
+        try {
+            previousKey.setSalt(new IVSalt(crypto.decryptWithMasterKey(previousVector)));
+            final byte[] bytes = Crypto.decrypt(previousKey, (byte[]) row[3]);
+            final var algorithm = rotation.getKey().getAlgorithm();
+            key.setSalt(IVSalt.forEncryption(algorithm));
+            final String initialVector = crypto.encryptWithMasterKey(key.getSalt().getArmored());
+            final byte[] encrypted = Crypto.encrypt(key, bytes);
+            Arrays.fill(bytes, (byte) 0);
+
+            final int updated = dao.updateEncryption(id, rotation.getKey(), encrypted, initialVector, crypto.generateChecksum(encrypted), previousVector);
+            rotation.setProcessed(rotation.getProcessed() + updated);
+            Metrics.getInstance().counter("cws_circle_key_rotation_records_total", "Data Objects re-encrypted with a new Circle Key.").add(updated);
+            CiphertextCache.getInstance().invalidate((Long) row[1]);
+            reEncrypted = true;
+        } catch (CryptoException e) {
+            // If the Data cannot be decrypted, then it is left as is, since
+            // it could not be read before the rotation either.
+            LOG.log(Settings.WARN, e, () -> "Cannot re-encrypt the Data with Id " + id + " with the new Circle Key: " + e.getMessage());
+        }
+
+        return reEncrypted;
+    }
+
+    /**
+     * <p>Re-encrypts the Data Objects, which are still encrypted with the
+     * previous Circle Key, also those behind the checkpoint. They were
+     * written by requests, which read the Trustee before the rotation was
+     * started, or are updates of existing Objects, which keep their Id. If
+     * any were re-encrypted, the rotation continues from the beginning, so
+     * the previous Circle Key is first removed from the Trustees, when no
+     * Objects need it. Objects, which cannot be decrypted, are left as they
+     * are, as they could not be read before the rotation either.</p>
+     *
+     * @param dao         Rotation DAO
+     * @param rotation    The Circle Key rotation
+     * @param previousKey The previous Circle Key
+     * @param key         The new Circle Key
+     * @return True if Objects were re-encrypted, otherwise false
+     */
+    private boolean reEncryptRemaining(final RotationDao dao, final RotationEntity rotation, final SecretCWSKey previousKey, final SecretCWSKey key) {
+        var reEncrypted = 0;
+
+        if (dao.countDataByKey(rotation.getPreviousKey()) > 0) {
+            final int batchSize = settings.getRotationBatchSize();
+            final int maxBatches = settings.getRotationMaxBatches();
+            var lastId = 0L;
+            var batches = 0;
+            var full = true;
+
+            while (full && (batches < maxBatches)) {
+                final List<Object[]> rows = dao.findDataByKey(rotation.getPreviousKey(), lastId, batchSize);
+                for (final Object[] row : rows) {
+                    if (reEncryptCircleRow(dao, rotation, row, previousKey, key)) {
+                        reEncrypted++;
+                    }
+                    lastId = (Long) row[0];
+                }
+                full = rows.size() == batchSize;
+                batches++;
+            }
+
+            if (reEncrypted > 0) {
+                rotation.setCheckpoint(0L);
+                final int found = reEncrypted;
+                LOG.log(Settings.WARN, () -> found + " Data Objects in the Circle '" + rotation.getCircle().getName() + "' were still encrypted with the previous Circle Key, the rotation continues.");
+            }
+        }
+
+        return reEncrypted > 0;
+    }
+
+    private static void completeCircleRotation(final RotationDao dao, final RotationEntity rotation) {
+        rotation.setStatus(RotationStatus.COMPLETED);
+        rotation.setCheckpoint(0L);
+        rotation.setSecret(null);
+        dao.clearPreviousKeys(rotation.getCircle());
+        LOG.log(Settings.INFO, () -> "Circle Key rotation for the Circle '" + rotation.getCircle().getName() + "' completed, " + rotation.getProcessed() + " Data Objects re-encrypted.");
+    }
+
+    private boolean restorePreviousKey(final MasterKey masterKey, final RotationEntity rotation) {
+        var restored = masterKey.getPreviousKey() != null;
+
+        if (!restored) {
+            try {
+                masterKey.unwrapPreviousKey(rotation.getSecret());
+                restored = true;
+            } catch (CryptoException e) {
+                // This CWS instance has not yet been given the new MasterKey,
+                // so it cannot help with the rotation.
+                LOG.log(Settings.DEBUG, e, () -> "Cannot restore the previous MasterKey: " + e.getMessage());
+            }
+        }
+
+        return restored;
+    }
+
+    private boolean reEncryptMembers(final RotationDao dao, final RotationEntity rotation) {
+        final int batchSize = settings.getRotationBatchSize();
+        final List<Object[]> rows = dao.findMemberSalts(rotation.getCheckpoint(), batchSize);
+
+        for (final Object[] row : rows) {
+            final String reEncrypted = reEncrypt((String) row[1]);
+            if (!Objects.equals(reEncrypted, row[1])) {
+                count(rotation, dao.updateMemberSalt((Long) row[0], reEncrypted, (String) row[1]), "members");
+            }
+            rotation.setCheckpoint((Long) row[0]);
+        }
+
+        return checkpoint(dao, rotation, rows.size() == batchSize, RotationStatus.DATA);
+    }
+
+    private boolean reEncryptData(final RotationDao dao, final RotationEntity rotation) {
+        final int batchSize = settings.getRotationBatchSize();
+        final List<Object[]> rows = dao.findInitialVectors(rotation.getCheckpoint(), batchSize);
+
+        for (final Object[] row : rows) {
+            final String reEncrypted = reEncrypt((String) row[1]);
+            if (!Objects.equals(reEncrypted, row[1])) {
+                count(rotation, dao.updateInitialVector((Long) row[0], reEncrypted, (String) row[1]), "data");
+            }
+            rotation.setCheckpoint((Long) row[0]);
+        }
+
+        return checkpoint(dao, rotation, rows.size() == batchSize, RotationStatus.SESSIONS);
+    }
+
+    private String reEncrypt(final String value) {
+        String result = value;
+
+        try {
+            result = crypto.reEncryptWithMasterKey(value);
+        } catch (CryptoException e) {
+            // If a value cannot be decrypted, then it is left as is, since
+            // it could not be read before the rotation either.
+            LOG.log(Settings.WARN, e, () -> "Cannot re-encrypt a value with the MasterKey: " + e.getMessage());
+        }
+
+        return result;
+    }
+
+    private static void count(final RotationEntity rotation, final int updated, final String table) {
+        rotation.setProcessed(rotation.getProcessed() + updated);
+        Metrics.getInstance().counter("cws_masterkey_rotation_records_total", "Rows re-encrypted with a new MasterKey.", "table", table).add(updated);
+    }
+
+    private static boolean checkpoint(final RotationDao dao, final RotationEntity rotation, final boolean more, final RotationStatus next) {
+        if (!more) {
+            rotation.setStatus(next);
+            rotation.setCheckpoint(0L);
+            LOG.log(Settings.INFO, () -> "MasterKey rotation continues with " + next + ", " + rotation.getProcessed() + " rows re-encrypted so far.");
+        }
+        dao.persist(rotation);
+
+        return more || (next != RotationStatus.SESSIONS);
+    }
+
+    private void completeRotation(final RotationDao dao, final MasterKey masterKey, final RotationEntity rotation) {
+        // The rotation entered the Sessions phase, when it was last altered,
+        // and all Sessions created with the previous MasterKey, have expired
+        // once the Session timeout has passed since then.
+        if (rotation.getAltered().plusMinutes(settings.getSessionTimeout()).isBefore(Utilities.newDate())
+                && !reEncryptPrevious(dao, masterKey, rotation)) {
+            rotation.setStatus(RotationStatus.COMPLETED);
+            rotation.setSecret(null);
+            dao.persist(rotation);
+            masterKey.setPreviousKey(null);
+            LOG.log(Settings.INFO, () -> "MasterKey rotation completed, " + rotation.getProcessed() + " rows re-encrypted.");
+        }
+    }
+
+    /**
+     * <p>Re-encrypts the values, which are still encrypted with the previous
+     * MasterKey. These were written by CWS instances, which had not yet been
+     * given the new MasterKey, after the rotation had passed them. If any
+     * are found, the rotation is persisted, so the waiting for the Sessions
+     * starts over, as the same instances may also have created Sessions with
+     * the previous MasterKey. Values, which cannot be decrypted, are left as
+     * they are, as they could not be read before the rotation either.</p>
+     *
+     * @param dao       Rotation DAO
+     * @param masterKey The MasterKey instance
+     * @param rotation  The MasterKey rotation
+     * @return True if values were re-encrypted, otherwise false
+     */
+    private boolean reEncryptPrevious(final RotationDao dao, final MasterKey masterKey, final RotationEntity rotation) {
+        final String prefix = masterKey.getPreviousPrefix();
+        final int batchSize = settings.getRotationBatchSize();
+        final int maxBatches = settings.getRotationMaxBatches();
+        var reEncrypted = 0;
+        var batches = 0;
+        var full = true;
+
+        while (full && (batches < maxBatches)) {
+            var batch = 0;
+            final List<Object[]> members = dao.findMemberSaltsWithPrefix(prefix, batchSize);
+            for (final Object[] row : members) {
+                final String value = reEncrypt((String) row[1]);
+                if (!Objects.equals(value, row[1])) {
+                    count(rotation, dao.updateMemberSalt((Long) row[0], value, (String) row[1]), "members");
+                    batch++;
+                }
+            }
+            final List<Object[]> data = dao.findInitialVectorsWithPrefix(prefix, batchSize);
+            for (final Object[] row : data) {
+                final String value = reEncrypt((String) row[1]);
+                if (!Objects.equals(value, row[1])) {
+                    count(rotation, dao.updateInitialVector((Long) row[0], value, (String) row[1]), "data");
+                    batch++;
+                }
+            }
+
+            // If none of a full batch could be re-encrypted, the next would
+            // find the same rows again.
+            full = (batch > 0) && ((members.size() == batchSize) || (data.size() == batchSize));
+            reEncrypted += batch;
+            batches++;
+        }
+
+        if (reEncrypted > 0) {
+            dao.persist(rotation);
+            final int found = reEncrypted;
+            LOG.log(Settings.WARN, () -> found + " values were still encrypted with the previous MasterKey, the MasterKey rotation is completed once the Sessions have expired again.");
+        }
+
+        return reEncrypted > 0;
+    }
+}
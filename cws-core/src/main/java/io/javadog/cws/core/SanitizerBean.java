@@ -19,18 +19,29 @@ package io.javadog.cws.core;
 import io.javadog.cws.api.common.Utilities;
 import io.javadog.cws.core.enums.SanityStatus;
 import io.javadog.cws.core.jce.Crypto;
+import io.javadog.cws.core.metrics.Gauge;
+import io.javadog.cws.core.metrics.Histogram;
+import io.javadog.cws.core.metrics.MeteredQuery;
+import io.javadog.cws.core.metrics.Metrics;
+import io.javadog.cws.core.metrics.SanitizerEvent;
+import io.javadog.cws.core.misc.SanityQueue;
 import io.javadog.cws.core.model.CommonDao;
 import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.model.entities.DataEntity;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.logging.Logger;
+import javax.annotation.Resource;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.Transactional;
 
 /**
@@ -55,31 +66,49 @@ public class SanitizerBean {
 
     private static final Logger LOG = Logger.getLogger(SanitizerBean.class.getName());
     private static final int BLOCK = 100;
+    private static final int QUEUED_BLOCKS = 10;
+    private static final Histogram DURATION = Metrics.getInstance().histogram("cws_sanitizer_run_seconds", "Duration of the Sanity checks.");
+    private static final Gauge ACTIVE_SESSIONS = Metrics.getInstance().gauge("cws_sessions_active", "Sessions, which have not yet expired.");
 
     @PersistenceContext
     private EntityManager entityManager;
+    @Resource
+    private TransactionSynchronizationRegistry registry;
     private final Settings settings = Settings.getInstance();
     private final Crypto crypto = new Crypto(settings);
 
     @Transactional(Transactional.TxType.REQUIRED)
     public void sanitize() {
+        final long start = System.nanoTime();
+        applyQueuedResults();
         clearExpireSessions();
         List<Long> ids = findNextBatch(BLOCK);
         var count = 0;
         var flawed = 0;
 
         while (!ids.isEmpty()) {
+            final var event = new SanitizerEvent();
+            event.begin();
+            var batchFlawed = 0;
+
             for (final Long id : ids) {
                 final SanityStatus status = processEntity(id);
                 if (status == SanityStatus.FAILED) {
-                    flawed++;
+                    batchFlawed++;
                 }
-                count++;
             }
+            if (event.shouldCommit()) {
+                event.setRecords(ids.size());
+                event.setFlawed(batchFlawed);
+                event.commit();
+            }
+            count += ids.size();
+            flawed += batchFlawed;
 
             ids = findNextBatch(BLOCK);
         }
 
+        DURATION.recordSince(start);
         final String[] args = { String.valueOf(flawed), String.valueOf(count) };
         LOG.log(Settings.INFO, "Completed Sanity check, found {0} flaws out of {1} checked Data Objects.", args);
     }
@@ -123,24 +152,171 @@ public class SanitizerBean {
             LOG.log(Settings.ERROR, e.getMessage(), e);
             status = SanityStatus.BLOCKED;
         }
+        Metrics.getInstance().counter("cws_sanitizer_records_total", "Data Objects processed by the Sanity checks.", "status", status.name()).increment();
 
         return status;
     }
 
+    /**
+     * <p>Applies the Sanity results, which were queued when Data Objects
+     * were read, see {@link SanityQueue}. The results are applied in blocks,
+     * with a single update per block for the successful results. Within a
+     * block, the earliest check time is used, so no Object is marked as
+     * checked later than it actually was, and Objects altered since are
+     * skipped. Failed results are applied one by one, and only if the Object
+     * has not been altered since it was read, so a newer version of the
+     * Object is never marked as corrupted.</p>
+     *
+     * <p>Each invocation applies at most a fixed number of blocks, the rest
+     * is left for the next invocation. If the transaction is rolled back,
+     * the results are returned to the queue.</p>
+     *
+     * @return Number of applied results
+     */
+    @Transactional(Transactional.TxType.REQUIRED)
+    public int applyQueuedResults() {
+        final SanityQueue queue = SanityQueue.getInstance();
+        final List<SanityQueue.Result> drained = new ArrayList<>(BLOCK);
+        final boolean transactional = requeueOnRollback(drained);
+        var blocks = 0;
+        var count = 0;
+
+        try {
+            List<SanityQueue.Result> results = queue.drain(BLOCK);
+            while (!results.isEmpty()) {
+                drained.addAll(results);
+                applyResults(results);
+                count += results.size();
+                blocks++;
+                results = ((results.size() == BLOCK) && (blocks < QUEUED_BLOCKS)) ? queue.drain(BLOCK) : List.of();
+            }
+        } catch (RuntimeException e) {
+            // Within a transaction, the results are returned when it is
+            // rolled back, otherwise it must be done here.
+            if (!transactional) {
+                queue.requeue(drained);
+            }
+            throw e;
+        }
+
+        Metrics.getInstance().counter("cws_sanity_queue_applied_total", "Queued Sanity results applied to the Data Objects.").add(count);
+        return count;
+    }
+
+    /**
+     * <p>Counts the Sessions, which have not yet expired, and publishes the
+     * number in the Gauge 'cws_sessions_active'. The Sessions are shared by
+     * all CWS instances, so the number is read from the database.</p>
+     *
+     * @return Number of active Sessions
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public long countActiveSessions() {
+        final long count = (Long) MeteredQuery.createNamedQuery(entityManager, "session.countActive")
+                .setParameter("now", Utilities.newDate())
+                .getSingleResult();
+        ACTIVE_SESSIONS.set(count);
+
+        return count;
+    }
+
+    private void applyResults(final List<SanityQueue.Result> results) {
+        final List<Long> ids = new ArrayList<>(results.size());
+        LocalDateTime checked = null;
+
+        for (final SanityQueue.Result result : results) {
+            if (result.getStatus() == SanityStatus.FAILED) {
+                MeteredQuery.createNamedQuery(entityManager, "data.updateSanityIfUnaltered")
+                        .setParameter("status", result.getStatus())
+                        .setParameter("checked", result.getChecked())
+                        .setParameter("id", result.getDataId())
+                        .setParameter("altered", result.getAltered())
+                        .executeUpdate();
+            } else {
+                ids.add(result.getDataId());
+                if ((checked == null) || result.getChecked().isBefore(checked)) {
+                    checked = result.getChecked();
+                }
+            }
+        }
+
+        if (!ids.isEmpty()) {
+            MeteredQuery.createNamedQuery(entityManager, "data.updateSanity")
+                    .setParameter("status", SanityStatus.OK)
+                    .setParameter("checked", checked)
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * <p>Returns the given results to the queue, if the current transaction
+     * is rolled back. The list may still be filled after this method has
+     * been invoked.</p>
+     *
+     * @param results Results drained from the queue
+     * @return True if a transaction is active, otherwise false
+     */
+    private boolean requeueOnRollback(final List<SanityQueue.Result> results) {
+        final boolean transactional = (registry != null) && (registry.getTransactionStatus() != Status.STATUS_NO_TRANSACTION);
+
+        if (transactional) {
+            registry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    // Nothing to prepare, the results are first returned
+                    // after the transaction is completed.
+                }
+
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status != Status.STATUS_COMMITTED) {
+                        SanityQueue.getInstance().requeue(results);
+                    }
+                }
+            });
+        }
+
+        return transactional;
+    }
+
+    /**
+     * <p>Removes the expired Sessions. The Sessions are removed in blocks, so
+     * each delete is bounded, and the Sessions, which are still in use, are
+     * not affected.</p>
+     */
     private void clearExpireSessions() {
-        final var query = entityManager.createNamedQuery("member.removeExpiredSessions");
-        final String logMessage = "expired " + query.executeUpdate() + " sessions.";
+        final LocalDateTime now = Utilities.newDate();
+        List<Long> ids = findExpiredSessions(now);
+        var count = 0;
+
+        while (!ids.isEmpty()) {
+            count += MeteredQuery.createNamedQuery(entityManager, "session.deleteByIds")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+            ids = (ids.size() == BLOCK) ? findExpiredSessions(now) : List.of();
+        }
+
+        Metrics.getInstance().counter("cws_sessions_expired_total", "Expired Sessions removed by the Sanitizer.").add(count);
+        final String logMessage = "expired " + count + " sessions.";
         LOG.log(Settings.DEBUG, logMessage);
     }
 
+    private List<Long> findExpiredSessions(final LocalDateTime now) {
+        final var query = MeteredQuery.createNamedQuery(entityManager, "session.findExpired")
+                .setParameter("now", now)
+                .setMaxResults(BLOCK);
+
+        return CommonDao.findList(query);
+    }
+
     public List<Long> findNextBatch(final int maxResults) {
         // JPA support for Java 8 Date/Time API is not supported
         // before JavaEE8, which is still very early in adoption.
         final int days = settings.getSanityInterval();
         final LocalDateTime date = Utilities.newDate().minusDays(days);
 
-        final var query = entityManager
-                .createNamedQuery("data.findIdsForSanityCheck")
+        final var query = MeteredQuery.createNamedQuery(entityManager, "data.findIdsForSanityCheck")
                 .setParameter("status", SanityStatus.OK)
                 .setParameter("date", date)
                 .setMaxResults(maxResults);
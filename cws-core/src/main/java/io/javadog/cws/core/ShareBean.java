@@ -31,6 +31,8 @@ import io.javadog.cws.api.responses.ProcessDataTypeResponse;
 import io.javadog.cws.api.responses.SignResponse;
 import io.javadog.cws.api.responses.VerifyResponse;
 import io.javadog.cws.core.exceptions.CWSException;
+import io.javadog.cws.core.model.DataTypeRegistry;
+import io.javadog.cws.core.model.ReadRouting;
 import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.services.FetchDataService;
 import io.javadog.cws.core.services.FetchDataTypeService;
@@ -40,9 +42,13 @@ import io.javadog.cws.core.services.ProcessDataTypeService;
 import io.javadog.cws.core.services.SignService;
 import io.javadog.cws.core.services.VerifyService;
 import java.util.logging.Logger;
+import javax.annotation.Resource;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.Transactional;
 
 /**
@@ -59,6 +65,8 @@ public class ShareBean {
 
     @PersistenceContext
     private EntityManager entityManager;
+    @Resource
+    private TransactionSynchronizationRegistry registry;
     private final Settings settings = Settings.getInstance();
 
     @Transactional(Transactional.TxType.REQUIRED)
@@ -67,8 +75,10 @@ public class ShareBean {
         ProcessDataTypeResponse response;
 
         try {
+            ReadRouting.getInstance().written(request);
             service = new ProcessDataTypeService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
+            invalidateAfterCommit(service.isChanged());
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -88,9 +98,9 @@ public class ShareBean {
         FetchDataTypeService service = null;
         FetchDataTypeResponse response;
 
-        try {
-            service = new FetchDataTypeService(settings, entityManager);
-            response = service.perform(request);
+        try (ReadRouting.Route route = ReadRouting.getInstance().route(entityManager, request)) {
+            service = new FetchDataTypeService(settings, route.getEntityManager());
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -111,8 +121,9 @@ public class ShareBean {
         ProcessDataResponse response;
 
         try {
+            ReadRouting.getInstance().written(request);
             service = new ProcessDataService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -127,14 +138,14 @@ public class ShareBean {
         return response;
     }
 
-    @Transactional(Transactional.TxType.REQUIRED)
+    @Transactional(Transactional.TxType.SUPPORTS)
     public FetchDataResponse fetchData(final FetchDataRequest request) {
         FetchDataService service = null;
         FetchDataResponse response;
 
-        try {
-            service = new FetchDataService(settings, entityManager);
-            response = service.perform(request);
+        try (ReadRouting.Route route = ReadRouting.getInstance().route(entityManager, request)) {
+            service = new FetchDataService(settings, route.getEntityManager());
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -155,8 +166,9 @@ public class ShareBean {
         SignResponse response;
 
         try {
+            ReadRouting.getInstance().written(request);
             service = new SignService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -178,7 +190,7 @@ public class ShareBean {
 
         try {
             service = new VerifyService(settings, entityManager);
-            response = service.perform(request);
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -198,9 +210,9 @@ public class ShareBean {
         FetchSignatureService service = null;
         FetchSignatureResponse response;
 
-        try {
-            service = new FetchSignatureService(settings, entityManager);
-            response = service.perform(request);
+        try (ReadRouting.Route route = ReadRouting.getInstance().route(entityManager, request)) {
+            service = new FetchSignatureService(settings, route.getEntityManager());
+            response = service.process(request);
         } catch (CWSException e) {
             // Any Warning or Error thrown by the CWS contain enough information
             // so it can be dealt with by the requesting System. Logging the
@@ -214,4 +226,40 @@ public class ShareBean {
 
         return response;
     }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    /**
+     * <p>Invalidates the local Data Type registry, once the transaction with
+     * the changed Data Types has been committed. If it is invalidated before,
+     * a concurrent request may reload it with the previous Data Types. If the
+     * transaction is rolled back, the registry is left unaltered. Without a
+     * transaction, the registry is invalidated directly.</p>
+     *
+     * @param changed True if the Data Types were changed
+     */
+    private void invalidateAfterCommit(final boolean changed) {
+        if (changed) {
+            if ((registry == null) || (registry.getTransactionStatus() == Status.STATUS_NO_TRANSACTION)) {
+                DataTypeRegistry.getInstance().invalidate();
+            } else {
+                registry.registerInterposedSynchronization(new Synchronization() {
+                    @Override
+                    public void beforeCompletion() {
+                        // Nothing to prepare, the registry is first
+                        // invalidated after the transaction is completed.
+                    }
+
+                    @Override
+                    public void afterCompletion(final int status) {
+                        if (status == Status.STATUS_COMMITTED) {
+                            DataTypeRegistry.getInstance().invalidate();
+                        }
+                    }
+                });
+            }
+        }
+    }
 }
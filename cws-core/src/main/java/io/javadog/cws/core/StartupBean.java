@@ -16,17 +16,34 @@
  */
 package io.javadog.cws.core;
 
+import io.javadog.cws.api.common.Utilities;
 import io.javadog.cws.core.enums.StandardSetting;
 import io.javadog.cws.core.exceptions.CWSException;
 import io.javadog.cws.core.model.CommonDao;
+import io.javadog.cws.core.model.DataTypeRegistry;
+import io.javadog.cws.core.model.LookupFilter;
+import io.javadog.cws.core.model.ReadRouting;
 import io.javadog.cws.core.model.Settings;
+import io.javadog.cws.core.model.entities.CircleEntity;
+import io.javadog.cws.core.model.entities.KeyEntity;
 import io.javadog.cws.core.model.entities.SettingEntity;
 import io.javadog.cws.core.model.entities.VersionEntity;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.ejb.Asynchronous;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
 import javax.ejb.ScheduleExpression;
 import javax.ejb.Singleton;
 import javax.ejb.Startup;
@@ -54,15 +71,24 @@ import javax.persistence.PersistenceContext;
 public class StartupBean {
 
     private static final Logger LOG = Logger.getLogger(StartupBean.class.getName());
-    private static final int DB_VERSION = 4;
+    private static final int DB_VERSION = 5;
+    private static final String SETTINGS_TIMER = "CWS Settings";
+    private static final String SANITY_TIMER = "CWS Sanity Results";
+    private static final String ROTATION_TIMER = "CWS Key Rotation";
 
     @PersistenceContext
     private EntityManager entityManager;
     @Inject
     private SanitizerBean sanitizerBean;
+    @Inject
+    private RotationBean rotationBean;
     @Resource
     private TimerService timerService;
     private final Settings settings = Settings.getInstance();
+    private volatile Set<String> persistedSettings = new HashSet<>(0);
+    private volatile long settingsRevision = 0L;
+    private volatile long circlesRevision = 0L;
+    private final AtomicBoolean rotating = new AtomicBoolean(false);
 
     @PostConstruct
     public void startup() {
@@ -72,6 +98,13 @@ public class StartupBean {
             LOG.info("Initialize the Settings.");
             initializeSettings();
 
+            LOG.info("Initialize the Data Type Registry.");
+            final var dao = new CommonDao(entityManager);
+            DataTypeRegistry.getInstance().load(dao);
+
+            LOG.info("Initialize the Lookup Filter.");
+            LookupFilter.getInstance().load(dao);
+
             LOG.info("Initializing the CWS Sanitizer Service.");
 
             // If requested, then simply start the sanitize as a background job
@@ -94,9 +127,40 @@ public class StartupBean {
             final var expression = new ScheduleExpression();
             expression.hour("*");
             timerService.createCalendarTimer(expression, timerConfig);
+
+            // Settings may be changed by any CWS instance, so each instance
+            // will frequently check if the Settings must be reloaded.
+            final var settingsConfig = new TimerConfig();
+            settingsConfig.setInfo(SETTINGS_TIMER);
+            settingsConfig.setPersistent(false);
+            final long interval = TimeUnit.SECONDS.toMillis(Math.max(1, settings.getCacheCheckInterval()));
+            timerService.createIntervalTimer(interval, interval, settingsConfig);
+
+            // The Sanity results found when reading Data Objects are queued,
+            // and applied in batches at the same interval.
+            final var sanityConfig = new TimerConfig();
+            sanityConfig.setInfo(SANITY_TIMER);
+            sanityConfig.setPersistent(false);
+            timerService.createIntervalTimer(interval, interval, sanityConfig);
+
+            // Key Rotations are processed in the background, in batches, so
+            // each instance will frequently check if there is work to do.
+            final var rotationConfig = new TimerConfig();
+            rotationConfig.setInfo(ROTATION_TIMER);
+            rotationConfig.setPersistent(false);
+            timerService.createIntervalTimer(interval, interval, rotationConfig);
         }
     }
 
+    /**
+     * <p>Releases the resources, which are not managed by the container,
+     * when CWS is stopped.</p>
+     */
+    @PreDestroy
+    public void shutdown() {
+        ReadRouting.getInstance().close();
+    }
+
     private boolean checkDatabase() {
         var ready = false;
 
@@ -120,10 +184,80 @@ public class StartupBean {
 
     private void initializeSettings() {
         final var dao = new CommonDao(entityManager);
+        settingsRevision = dao.findRevision(Settings.REVISION);
+        circlesRevision = dao.findRevision(CommonDao.CIRCLES);
+        loadSettings(dao);
+    }
+
+    /**
+     * <p>Checks if the Settings have been changed by any CWS instance, by
+     * comparing the Revision of the Settings in the database with the one
+     * that was read, when the Settings were last loaded. If they differ,
+     * then the Settings are reloaded. The Circles and Keys are checked the
+     * same way, and are evicted from the Second Level Cache, if another CWS
+     * instance has changed them. If a replica is configured, the
+     * heartbeat is also increased, unless another instance has recently
+     * done so, see {@link ReadRouting}.</p>
+     */
+    public void refreshSettings() {
+        final var dao = new CommonDao(entityManager);
+        final long revision = dao.findRevision(Settings.REVISION);
+
+        // With a replica, the heartbeat tells how far the replica lags
+        // behind the primary database.
+        // Only the first instance to find it older than half the interval
+        // will increase it, the others are left with an update of no rows.
+        if (ReadRouting.getInstance().isEnabled()) {
+            final long halfInterval = TimeUnit.SECONDS.toMillis(settings.getCacheCheckInterval()) / 2;
+            dao.increaseRevision(ReadRouting.HEARTBEAT, Utilities.newDate().minus(halfInterval, ChronoUnit.MILLIS));
+        }
+
+        if (revision == settingsRevision) {
+            DataTypeRegistry.cacheRequests(Settings.REVISION, "hit").increment();
+        } else {
+            DataTypeRegistry.cacheRequests(Settings.REVISION, "miss").increment();
+            settingsRevision = revision;
+            dao.evict(SettingEntity.class);
+            loadSettings(dao);
+        }
+
+        final long circles = dao.findRevision(CommonDao.CIRCLES);
+        if (circles != circlesRevision) {
+            circlesRevision = circles;
+            dao.evict(CircleEntity.class);
+            dao.evict(KeyEntity.class);
+        }
+    }
+
+    /**
+     * <p>Reads all Settings from the database, and updates the Settings with
+     * the values that differ from the current. Settings which were loaded
+     * before, but no longer exists in the database, are removed. All changes
+     * are made in a single update.</p>
+     *
+     * @param dao DAO to read the Settings with
+     */
+    private void loadSettings(final CommonDao dao) {
         final List<SettingEntity> found = dao.findAllAscending(SettingEntity.class, "id");
+        final Set<String> names = new HashSet<>(found.size());
+        final Map<String, String> changes = new HashMap<>(found.size());
 
         for (final SettingEntity entity : found) {
-            settings.set(entity.getName(), entity.getSetting());
+            names.add(entity.getName());
+            if (!Objects.equals(settings.get(entity.getName()), entity.getSetting())) {
+                changes.put(entity.getName(), entity.getSetting());
+            }
+        }
+        for (final String name : persistedSettings) {
+            if (!names.contains(name)) {
+                changes.put(name, null);
+            }
+        }
+        persistedSettings = names;
+
+        if (!changes.isEmpty()) {
+            settings.update(changes);
+            LOG.log(Settings.INFO, () -> "Updated the Settings: " + changes.keySet());
         }
     }
 
@@ -133,7 +267,56 @@ public class StartupBean {
         sanitizerBean.sanitize();
     }
 
+    /**
+     * <p>Handles the Timers, either checking if the Settings must be reloaded,
+     * applying the queued Sanity results and counting the active Sessions,
+     * processing the Key Rotations or running the Sanitizer. The Timers
+     * may run concurrently, so the Settings are not blocked by a long running
+     * Sanitizer check.</p>
+     *
+     * @param timer The Timer which expired
+     */
     @Timeout
+    @Lock(LockType.READ)
+    public void timeout(final Timer timer) {
+        if (Objects.equals(SETTINGS_TIMER, timer.getInfo())) {
+            refreshSettings();
+        } else if (Objects.equals(SANITY_TIMER, timer.getInfo())) {
+            sanitizerBean.applyQueuedResults();
+            sanitizerBean.countActiveSessions();
+        } else if (Objects.equals(ROTATION_TIMER, timer.getInfo())) {
+            runRotation();
+        } else {
+            runSanitizing(timer);
+        }
+    }
+
+    /**
+     * <p>Processes the batches of the ongoing Key Rotations, until there is
+     * no more work ready, or the maximum number of batches for each run has
+     * been reached. The MasterKey rotation is processed before the Circle Key
+     * rotations. Each batch is committed separately, and only one Timer at a
+     * time will process the batches.</p>
+     */
+    public void runRotation() {
+        if (rotating.compareAndSet(false, true)) {
+            try {
+                final int maxBatches = settings.getRotationMaxBatches();
+                var batches = 0;
+                while ((batches < maxBatches) && rotationBean.rotateMasterKey()) {
+                    batches++;
+                }
+                while ((batches < maxBatches) && rotationBean.rotateCircleKeys()) {
+                    batches++;
+                }
+                final int processed = batches;
+                LOG.log(Settings.DEBUG, () -> "Processed " + processed + " Key Rotation batches.");
+            } finally {
+                rotating.set(false);
+            }
+        }
+    }
+
     public void runSanitizing(final Timer timer) {
         LOG.log(Settings.INFO, "Starting Timed Sanitizing check.");
         sanitizerBean.sanitize();
@@ -122,6 +122,21 @@ public enum Permission {
      */
     INVENTORY(TrustLevel.SYSOP, "System Inventory."),
 
+    /**
+     * The timing of the slowest requests reveals internal details about how
+     * the requests are processed, so it is only available for the System
+     * Administrator.
+     */
+    SLOW_REQUESTS(TrustLevel.SYSOP, "Read the slowest Requests."),
+
+    /**
+     * The progress of Key rotations is available for the System and Circle
+     * Administrators. The System Administrator may read all rotations, but
+     * Circle Administrators are only allowed to read the rotations of their
+     * own Circle(s).
+     */
+    ROTATIONS(TrustLevel.ADMIN, "Read the Key Rotations."),
+
     /**
      * The Sanity checks is something, which is limited to the System or Circle
      * Administrators, the System Administrator may read the information for all
@@ -0,0 +1,50 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.enums;
+
+/**
+ * <p>The phases of a Key Rotation. The rows are re-encrypted in batches, and
+ * for each phase, the Id of the last processed row is kept as a checkpoint,
+ * so the rotation can be resumed after a restart.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public enum RotationStatus {
+
+    /**
+     * The Member Salts are being re-encrypted.
+     */
+    MEMBERS,
+
+    /**
+     * The Initial Vectors of the Data Objects are being re-encrypted.
+     */
+    DATA,
+
+    /**
+     * All rows have been re-encrypted, but Sessions which were created with
+     * the previous Key are still valid, so the previous Key is kept until
+     * they have expired.
+     */
+    SESSIONS,
+
+    /**
+     * The Rotation is completed, and the previous Key is discarded.
+     */
+    COMPLETED
+}
@@ -42,6 +42,19 @@ public enum StandardSetting {
     SESSION_TIMEOUT("cws.session.timeout.minutes", "480"),
     MASTERKEY_URL("cws.masterkey.url", ""),
     CORS("cws.cors.value", "http://localhost"),
+    CACHE_CHECK_INTERVAL("cws.cache.check.interval.seconds", "5"),
+    EXPOSE_REQUEST_TIMING("cws.expose.request.timing", "false"),
+    REST_THREADS("cws.rest.threads", "8"),
+    REST_QUEUE_SIZE("cws.rest.queue.size", "64"),
+    REST_RETRY_AFTER("cws.rest.retry.after.seconds", "2"),
+    ADMISSION_ACCOUNT_RATE("cws.admission.account.per.minute", "20"),
+    ADMISSION_SOURCE_RATE("cws.admission.source.per.minute", "300"),
+    ADMISSION_ACCOUNT_TOTAL_RATE("cws.admission.account.total.per.minute", "100"),
+    REPLICA_UNIT("cws.replica.persistence.unit", ""),
+    REPLICA_MAX_LAG("cws.replica.max.lag.seconds", "5"),
+    DATA_CACHE_SIZE("cws.data.cache.size.mb", "64"),
+    ROTATION_BATCH_SIZE("cws.rotation.batch.size", "100"),
+    ROTATION_MAX_BATCHES("cws.rotation.max.batches", "10"),
     // The isReady setting is set by the StartUp bean, and thus not persisted.
     IS_READY("cws.is.ready", "true");
 
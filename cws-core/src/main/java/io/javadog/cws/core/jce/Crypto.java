@@ -18,6 +18,9 @@ package io.javadog.cws.core.jce;
 
 import io.javadog.cws.core.enums.KeyAlgorithm;
 import io.javadog.cws.core.exceptions.CryptoException;
+import io.javadog.cws.core.metrics.CryptoEvent;
+import io.javadog.cws.core.metrics.Histogram;
+import io.javadog.cws.core.metrics.Metrics;
 import io.javadog.cws.core.model.Settings;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
@@ -33,21 +36,19 @@ import java.security.Signature;
 import java.security.SignatureException;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
 import java.util.Base64;
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.KeyGenerator;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
-import javax.crypto.spec.SecretKeySpec;
 
 /**
  * <p>This library contain all the Cryptographic Operations, needed for CWS, to
@@ -77,6 +78,15 @@ import javax.crypto.spec.SecretKeySpec;
  */
 public final class Crypto {
 
+    private static final Histogram PBKDF2 = operation("pbkdf2");
+    private static final Histogram DIGEST = operation("digest");
+    private static final Histogram SIGN = operation("sign");
+    private static final Histogram VERIFY = operation("verify");
+    private static final Histogram SYMMETRIC_ENCRYPT = operation("symmetric_encrypt");
+    private static final Histogram SYMMETRIC_DECRYPT = operation("symmetric_decrypt");
+    private static final Histogram ASYMMETRIC_ENCRYPT = operation("asymmetric_encrypt");
+    private static final Histogram ASYMMETRIC_DECRYPT = operation("asymmetric_decrypt");
+
     private final MasterKey masterKey;
     private final Settings settings;
 
@@ -103,20 +113,25 @@ public final class Crypto {
      * @return Symmetric Key
      */
     public SecretCWSKey generatePasswordKey(final KeyAlgorithm algorithm, final byte[] secret, final String salt) {
+        final var event = new CryptoEvent("pbkdf2", length(secret));
         try {
+            event.setAlgorithm(algorithm.name());
             final char[] extendedSecret = convertSecret(secret);
             final byte[] secretSalt = stringToBytes(salt);
 
             final var factory = SecretKeyFactory.getInstance(algorithm.getTransformationValue());
-            final KeySpec spec = new PBEKeySpec(extendedSecret, secretSalt, settings.getPasswordIterations(), algorithm.getLength());
+            final var spec = new PBEKeySpec(extendedSecret, secretSalt, settings.getPasswordIterations(), algorithm.getLength());
             final SecretKey tmpKey = factory.generateSecret(spec);
-            final SecretKey secretKey = new SecretKeySpec(tmpKey.getEncoded(), algorithm.getName());
-            final var key = new SecretCWSKey(algorithm.getDerived(), secretKey);
+            spec.clearPassword();
+            Arrays.fill(extendedSecret, '\0');
+            final var key = new SecretCWSKey(algorithm.getDerived(), tmpKey.getEncoded());
             key.setSalt(new IVSalt(salt));
 
             return key;
         } catch (IllegalArgumentException | NoSuchAlgorithmException | InvalidKeySpecException e) {
             throw new CryptoException(e.getMessage(), e);
+        } finally {
+            event.end(PBKDF2);
         }
     }
 
@@ -144,16 +159,24 @@ public final class Crypto {
         return chars;
     }
 
+    /**
+     * <p>Generates a new Symmetric Key. An AES Key is simply random bytes, so
+     * rather than using a JCE KeyGenerator, which leaves a copy of the Key
+     * material in the generated JCE Key, the bytes are generated directly and
+     * moved to the {@link KeyVault}.</p>
+     *
+     * @param algorithm Symmetric Key Algorithm
+     * @return New Symmetric Key
+     */
     public static SecretCWSKey generateSymmetricKey(final KeyAlgorithm algorithm) {
-        try {
-            final var generator = KeyGenerator.getInstance(algorithm.getName());
-            generator.init(algorithm.getLength());
-            final SecretKey key = generator.generateKey();
-
-            return new SecretCWSKey(algorithm, key);
-        } catch (IllegalArgumentException | NoSuchAlgorithmException e) {
-            throw new CryptoException(e.getMessage(), e);
+        if (algorithm.getType() != KeyAlgorithm.Type.SYMMETRIC) {
+            throw new CryptoException("Cannot generate a Symmetric Key with the " + algorithm.getName() + " Algorithm.");
         }
+
+        final var rawKey = new byte[algorithm.getLength() / Byte.SIZE];
+        Randomness.nextBytes(rawKey);
+
+        return new SecretCWSKey(algorithm, rawKey);
     }
 
     public static CWSKeyPair generateAsymmetricKey(final KeyAlgorithm algorithm) {
@@ -169,13 +192,17 @@ public final class Crypto {
     }
 
     public String generateChecksum(final byte[] bytes) {
+        final var event = new CryptoEvent("digest", length(bytes));
         try {
+            event.setAlgorithm(settings.getHashAlgorithm().name());
             final var digest = MessageDigest.getInstance(settings.getHashAlgorithm().getAlgorithm());
             final byte[] hashed = digest.digest(bytes);
 
             return Base64.getEncoder().encodeToString(hashed);
         } catch (IllegalArgumentException | NoSuchAlgorithmException e) {
             throw new CryptoException(e.getMessage(), e);
+        } finally {
+            event.end(DIGEST);
         }
     }
 
@@ -184,7 +211,9 @@ public final class Crypto {
     // =========================================================================
 
     public byte[] sign(final PrivateKey key, final byte[] message) {
+        final var event = new CryptoEvent("sign", length(message));
         try {
+            event.setAlgorithm(settings.getSignatureAlgorithm().name());
             final var signer = Signature.getInstance(settings.getSignatureAlgorithm().getTransformationValue());
             signer.initSign(key);
             signer.update(message);
@@ -192,11 +221,15 @@ public final class Crypto {
             return signer.sign();
         } catch (NoSuchAlgorithmException | SignatureException | InvalidKeyException e) {
             throw new CryptoException(e.getMessage(), e);
+        } finally {
+            event.end(SIGN);
         }
     }
 
     public boolean verify(final PublicKey key, final byte[] message, final byte[] signature) {
+        final var event = new CryptoEvent("verify", length(message));
         try {
+            event.setAlgorithm(settings.getSignatureAlgorithm().name());
             final var verifier = Signature.getInstance(settings.getSignatureAlgorithm().getTransformationValue());
             verifier.initVerify(key);
             verifier.update(message);
@@ -204,6 +237,8 @@ public final class Crypto {
             return verifier.verify(signature);
         } catch (NoSuchAlgorithmException | SignatureException | InvalidKeyException | IllegalArgumentException e) {
             throw new CryptoException(e.getMessage(), e);
+        } finally {
+            event.end(VERIFY);
         }
     }
 
@@ -211,51 +246,97 @@ public final class Crypto {
         return encrypt(masterKey.getKey(), toEncrypt);
     }
 
+    /**
+     * <p>Encrypts the given bytes with the previous MasterKey, if the
+     * MasterKey is being rotated. This is needed to find the Sessions, which
+     * were created before the rotation was started.</p>
+     *
+     * @param toEncrypt The bytes to encrypt
+     * @return Encrypted bytes, or null if the MasterKey is not being rotated
+     */
+    public byte[] encryptWithPreviousMasterKey(final byte[] toEncrypt) {
+        final SecretCWSKey previous = masterKey.getPreviousKey();
+        return (previous != null) ? encrypt(previous, toEncrypt) : null;
+    }
+
     public String encryptWithMasterKey(final String toEncrypt) {
         final byte[] bytes = stringToBytes(toEncrypt);
-        final byte[] encrypted = encryptWithMasterKey(bytes);
-        return Base64.getEncoder().encodeToString(encrypted);
+        return masterKey.encrypt(bytes);
     }
 
     public String decryptWithMasterKey(final String toDecrypt) {
-        final byte[] encrypted = Base64.getDecoder().decode(toDecrypt);
-        final byte[] decrypted = decrypt(masterKey.getKey(), encrypted);
+        final byte[] decrypted = masterKey.decrypt(toDecrypt);
         return bytesToString(decrypted);
     }
 
+    /**
+     * <p>Re-encrypts the given value with the current MasterKey, unless it
+     * is already encrypted with it.</p>
+     *
+     * @param toReEncrypt The value to re-encrypt
+     * @return The value encrypted with the current MasterKey
+     */
+    public String reEncryptWithMasterKey(final String toReEncrypt) {
+        String result = toReEncrypt;
+
+        if (!masterKey.isCurrent(toReEncrypt)) {
+            final byte[] decrypted = masterKey.decrypt(toReEncrypt);
+            result = masterKey.encrypt(decrypted);
+            Arrays.fill(decrypted, (byte) 0);
+        }
+
+        return result;
+    }
+
     public static byte[] encrypt(final SecretCWSKey key, final byte[] toEncrypt) {
+        final var event = new CryptoEvent("symmetric_encrypt", length(toEncrypt));
         try {
+            event.setAlgorithm(key.getAlgorithm().name());
             final var cipher = prepareCipher(key, Cipher.ENCRYPT_MODE);
             return cipher.doFinal(toEncrypt);
         } catch (BadPaddingException | IllegalBlockSizeException | NoSuchPaddingException | NoSuchAlgorithmException | InvalidAlgorithmParameterException | InvalidKeyException e) {
             throw new CryptoException(e.getMessage(), e);
+        } finally {
+            event.end(SYMMETRIC_ENCRYPT);
         }
     }
 
     public static byte[] encrypt(final PublicCWSKey key, final byte[] toEncrypt) {
+        final var event = new CryptoEvent("asymmetric_encrypt", length(toEncrypt));
         try {
+            event.setAlgorithm(key.getAlgorithm().name());
             final var cipher = prepareCipher(key, Cipher.ENCRYPT_MODE);
             return cipher.doFinal(toEncrypt);
         } catch (ClassCastException | BadPaddingException | IllegalBlockSizeException | NoSuchPaddingException | NoSuchAlgorithmException | InvalidAlgorithmParameterException | InvalidKeyException e) {
             throw new CryptoException(e.getMessage(), e);
+        } finally {
+            event.end(ASYMMETRIC_ENCRYPT);
         }
     }
 
     public static byte[] decrypt(final SecretCWSKey key, final byte[] toDecrypt) {
+        final var event = new CryptoEvent("symmetric_decrypt", length(toDecrypt));
         try {
+            event.setAlgorithm(key.getAlgorithm().name());
             final var cipher = prepareCipher(key, Cipher.DECRYPT_MODE);
             return cipher.doFinal(toDecrypt);
         } catch (BadPaddingException | IllegalBlockSizeException | NoSuchPaddingException | NoSuchAlgorithmException | InvalidAlgorithmParameterException | InvalidKeyException e) {
             throw new CryptoException(e.getMessage(), e);
+        } finally {
+            event.end(SYMMETRIC_DECRYPT);
         }
     }
 
     public static byte[] decrypt(final PrivateCWSKey key, final byte[] toDecrypt) {
+        final var event = new CryptoEvent("asymmetric_decrypt", length(toDecrypt));
         try {
+            event.setAlgorithm(key.getAlgorithm().name());
             final var cipher = prepareCipher(key, Cipher.DECRYPT_MODE);
             return cipher.doFinal(toDecrypt);
         } catch (ClassCastException | BadPaddingException | IllegalBlockSizeException | NoSuchPaddingException | NoSuchAlgorithmException | InvalidAlgorithmParameterException | InvalidKeyException e) {
             throw new CryptoException(e.getMessage(), e);
+        } finally {
+            event.end(ASYMMETRIC_DECRYPT);
         }
     }
 
@@ -300,6 +381,14 @@ public final class Crypto {
         return cipher;
     }
 
+    private static Histogram operation(final String name) {
+        return Metrics.getInstance().histogram("cws_crypto_seconds", "Time spent in Cryptographic Operations.", "operation", name);
+    }
+
+    private static long length(final byte[] bytes) {
+        return (bytes != null) ? bytes.length : 0;
+    }
+
     // =========================================================================
     // Key Protection, Encrypting & Armoring - De-armoring & Decrypting Keys
     // =========================================================================
@@ -346,6 +435,7 @@ public final class Crypto {
         final var keySpec = new PKCS8EncodedKeySpec(privateKey.getEncoded());
         final byte[] rawKey = keySpec.getEncoded();
         final byte[] encryptedKey = encrypt(encryptionKey, rawKey);
+        Arrays.fill(rawKey, (byte) 0);
 
         return Base64.getEncoder().encodeToString(encryptedKey);
     }
@@ -361,6 +451,7 @@ public final class Crypto {
             final byte[] dearmored = Base64.getDecoder().decode(armoredKey);
             final byte[] rawKey = decrypt(decryptionKey, dearmored);
             final var keySpec = new PKCS8EncodedKeySpec(rawKey);
+            Arrays.fill(rawKey, (byte) 0);
 
             return keyFactory.generatePrivate(keySpec);
         } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
@@ -369,7 +460,9 @@ public final class Crypto {
     }
 
     public static String encryptAndArmorCircleKey(final PublicCWSKey publicKey, final SecretCWSKey circleKey) {
-        final byte[] encryptedCircleKey = encrypt(publicKey, circleKey.getEncoded());
+        final byte[] rawKey = circleKey.getEncoded();
+        final byte[] encryptedCircleKey = encrypt(publicKey, rawKey);
+        Arrays.fill(rawKey, (byte) 0);
 
         return Base64.getEncoder().encodeToString(encryptedCircleKey);
     }
@@ -377,9 +470,57 @@ public final class Crypto {
     public static SecretCWSKey extractCircleKey(final KeyAlgorithm algorithm, final PrivateCWSKey privateKey, final String armoredCircleKey) {
         final byte[] dearmoredCircleKey = Base64.getDecoder().decode(armoredCircleKey);
         final byte[] decryptedCircleKey = decrypt(privateKey, dearmoredCircleKey);
-        final SecretKey key = new SecretKeySpec(decryptedCircleKey, algorithm.getName());
 
-        return new SecretCWSKey(algorithm, key);
+        return new SecretCWSKey(algorithm, decryptedCircleKey);
+    }
+
+    /**
+     * <p>Wraps both the previous and the new Circle Key with the MasterKey.
+     * When a Circle Key is rotated, the Data is re-encrypted in the
+     * background, where the Private Keys of the Trustees are not available,
+     * so the Circle Keys must be kept until the rotation is completed.</p>
+     *
+     * @param previousKey The previous Circle Key
+     * @param key         The new Circle Key
+     * @return Both Keys, encrypted with the MasterKey
+     */
+    public String wrapCircleKeys(final SecretCWSKey previousKey, final SecretCWSKey key) {
+        final byte[] previous = previousKey.getEncoded();
+        final byte[] current = key.getEncoded();
+        final byte[] raw = new byte[previous.length + current.length];
+        System.arraycopy(previous, 0, raw, 0, previous.length);
+        System.arraycopy(current, 0, raw, previous.length, current.length);
+        Arrays.fill(previous, (byte) 0);
+        Arrays.fill(current, (byte) 0);
+
+        final String wrapped = masterKey.encrypt(raw);
+        Arrays.fill(raw, (byte) 0);
+
+        return wrapped;
+    }
+
+    /**
+     * <p>Unwraps the Circle Keys, which were wrapped with
+     * {@link #wrapCircleKeys(SecretCWSKey, SecretCWSKey)}.</p>
+     *
+     * @param wrapped           Both Keys, encrypted with the MasterKey
+     * @param previousAlgorithm Algorithm of the previous Circle Key
+     * @param algorithm         Algorithm of the new Circle Key
+     * @return Array with the previous Circle Key first, then the new
+     * @throws CryptoException if encrypted with an unknown MasterKey
+     */
+    public SecretCWSKey[] unwrapCircleKeys(final String wrapped, final KeyAlgorithm previousAlgorithm, final KeyAlgorithm algorithm) {
+        final byte[] raw = masterKey.decrypt(wrapped);
+        final int length = previousAlgorithm.getLength() / 8;
+        final byte[] previous = Arrays.copyOfRange(raw, 0, length);
+        final byte[] current = Arrays.copyOfRange(raw, length, raw.length);
+        Arrays.fill(raw, (byte) 0);
+
+        if (current.length != algorithm.getLength() / 8) {
+            throw new CryptoException("The wrapped Circle Keys do not match the Key Algorithms.");
+        }
+
+        return new SecretCWSKey[] { new SecretCWSKey(previousAlgorithm, previous), new SecretCWSKey(algorithm, current) };
     }
 
     /**
@@ -16,8 +16,8 @@
  */
 package io.javadog.cws.core.jce;
 
+import io.javadog.cws.core.enums.KeyAlgorithm;
 import io.javadog.cws.core.model.Settings;
-import java.security.SecureRandom;
 import java.util.Base64;
 import java.util.logging.Logger;
 
@@ -44,9 +44,10 @@ public final class IVSalt {
     public IVSalt() {
         // According to the SonarQube rule (from FindBugs/SpotBugs Security)
         // https://sonarcloud.io/coding_rules?open=squid:S3329&rule_key=squid:S3329
-        // the IV should be generated using the SecureRandom class as follows.
+        // the IV should be generated using a SecureRandom, which is what the
+        // Randomness class provides, with a generator per thread.
         final var random = new byte[IV_SIZE];
-        new SecureRandom().nextBytes(random);
+        Randomness.nextBytes(random);
         this.armored = Base64.getEncoder().encodeToString(random);
     }
 
@@ -54,6 +55,27 @@ public final class IVSalt {
         this.armored = armored;
     }
 
+    /**
+     * <p>Creates a new Initial Vector, to encrypt with the given Algorithm.
+     * GCM only requires that the Initial Vector is unique, so it is built
+     * from a counter, see {@link Randomness#newNonce(int)}, all other
+     * Algorithms uses random bytes.</p>
+     *
+     * @param algorithm The Algorithm to encrypt with
+     * @return New Initial Vector
+     */
+    public static IVSalt forEncryption(final KeyAlgorithm algorithm) {
+        final IVSalt salt;
+
+        if (algorithm.getTransformation() == KeyAlgorithm.Transformation.GCM) {
+            salt = new IVSalt(Base64.getEncoder().encodeToString(Randomness.newNonce(IV_SIZE)));
+        } else {
+            salt = new IVSalt();
+        }
+
+        return salt;
+    }
+
     public String getArmored() {
         return armored;
     }
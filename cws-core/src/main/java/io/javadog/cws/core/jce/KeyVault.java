@@ -0,0 +1,277 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.jce;
+
+import io.javadog.cws.core.exceptions.CryptoException;
+import io.javadog.cws.core.metrics.Metrics;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import javax.crypto.SecretKey;
+
+/**
+ * <p>Vault for the raw material of the Symmetric Keys. The material is kept
+ * in slots of a single direct buffer outside the Java Heap, so the Garbage
+ * Collector will never move it and leave copies behind. When a Key is
+ * destroyed, the slot is overwritten with zeros, before it is released for
+ * other Keys.</p>
+ *
+ * <p>The JCE receives a {@link SecretKey}, which holds no material of its
+ * own, but reads it from the Vault. Only when the Provider asks for the
+ * encoded Key, a copy is made, which the Provider then owns. Destroying the
+ * JCE Key overwrites the slot. This replaces the earlier destruction of the
+ * JCE Key classes via Reflection, which doesn't work with the strong
+ * encapsulation of the Java Module System.</p>
+ *
+ * <p>If a Key is larger than a slot or all slots are taken, the material is
+ * kept in an array on the Heap instead, which is also overwritten. If a Key
+ * is never destroyed, the material is overwritten and the slot released, once
+ * the Key has been garbage collected.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class KeyVault {
+
+    private static final int SLOT_SIZE = 64;
+    private static final int SLOTS = 4096;
+    private static final KeyVault INSTANCE = new KeyVault();
+
+    private final Cleaner cleaner = Cleaner.create();
+    private final ByteBuffer slab = ByteBuffer.allocateDirect(SLOT_SIZE * SLOTS);
+    private final int[] free = new int[SLOTS];
+    private int freeCount = SLOTS;
+
+    /**
+     * Private Constructor, this is a Singleton.
+     */
+    private KeyVault() {
+        for (int i = 0; i < SLOTS; i++) {
+            free[i] = SLOTS - 1 - i;
+        }
+        Metrics.getInstance().gauge("cws_key_vault_slots_used", "Slots in the Key Vault holding Key material.", this::usedSlots);
+    }
+
+    public static KeyVault getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>Stores the raw material of a Key, and overwrites the given array.
+     * The material is wiped when the returned Holder is wiped, or when the
+     * owner has been garbage collected.</p>
+     *
+     * @param owner The Key, which owns the material
+     * @param raw   The raw Key material, will be overwritten
+     * @return Holder of the Key material
+     */
+    public Holder store(final Object owner, final byte[] raw) {
+        final int slot = (raw.length <= SLOT_SIZE) ? acquire() : -1;
+        final Material material;
+
+        if (slot >= 0) {
+            final int offset = slot * SLOT_SIZE;
+            for (int i = 0; i < raw.length; i++) {
+                slab.put(offset + i, raw[i]);
+            }
+            material = new Material(this, slot, raw.length, null);
+        } else {
+            material = new Material(this, -1, raw.length, raw.clone());
+        }
+        Arrays.fill(raw, (byte) 0);
+
+        return new Holder(material, cleaner.register(owner, material));
+    }
+
+    public synchronized int usedSlots() {
+        return SLOTS - freeCount;
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private synchronized int acquire() {
+        var slot = -1;
+
+        if (freeCount > 0) {
+            freeCount--;
+            slot = free[freeCount];
+        }
+
+        return slot;
+    }
+
+    private synchronized void release(final int slot) {
+        free[freeCount] = slot;
+        freeCount++;
+    }
+
+    /**
+     * <p>Holder of the material of a single Key.</p>
+     */
+    public static final class Holder {
+
+        private final Material material;
+        private final Cleaner.Cleanable cleanable;
+
+        private Holder(final Material material, final Cleaner.Cleanable cleanable) {
+            this.material = material;
+            this.cleanable = cleanable;
+        }
+
+        /**
+         * <p>Returns a copy of the Key material, which the caller should
+         * overwrite, when it is no longer needed.</p>
+         *
+         * @return Copy of the Key material
+         * @throws CryptoException if the material has been wiped
+         */
+        public byte[] getEncoded() {
+            return material.copy();
+        }
+
+        /**
+         * <p>Creates a JCE Key, which reads the material from the Vault, so
+         * no copy of the material is made until the Provider needs it.</p>
+         *
+         * @param algorithm Name of the Key Algorithm
+         * @return JCE Key
+         * @throws CryptoException if the material has been wiped
+         */
+        public SecretKey toSecretKey(final String algorithm) {
+            if (material.wiped) {
+                throw new CryptoException("The Key has been destroyed.");
+            }
+
+            return new VaultKey(this, algorithm);
+        }
+
+        /**
+         * <p>Overwrites the Key material, the material cannot be used
+         * afterwards.</p>
+         */
+        public void wipe() {
+            cleanable.clean();
+        }
+
+        public boolean isWiped() {
+            return material.wiped;
+        }
+    }
+
+    /**
+     * <p>JCE Key backed by the material in the Vault. It is not meant to be
+     * serialized, the Holder is therefore transient.</p>
+     */
+    private static final class VaultKey implements SecretKey {
+
+        private static final long serialVersionUID = -3470213874627162419L;
+
+        private final transient Holder holder;
+        private final String algorithm;
+
+        private VaultKey(final Holder holder, final String algorithm) {
+            this.holder = holder;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        @Override
+        public String getFormat() {
+            return "RAW";
+        }
+
+        @Override
+        public byte[] getEncoded() {
+            return holder.getEncoded();
+        }
+
+        @Override
+        public void destroy() {
+            holder.wipe();
+        }
+
+        @Override
+        public boolean isDestroyed() {
+            return holder.isWiped();
+        }
+    }
+
+    /**
+     * <p>The Key material, and the logic to wipe it. The Material may not
+     * refer to the Key, as it is also the Cleaner action for it.</p>
+     */
+    private static final class Material implements Runnable {
+
+        private final KeyVault vault;
+        private final int slot;
+        private final int length;
+        private final byte[] heap;
+        private volatile boolean wiped = false;
+
+        private Material(final KeyVault vault, final int slot, final int length, final byte[] heap) {
+            this.vault = vault;
+            this.slot = slot;
+            this.length = length;
+            this.heap = heap;
+        }
+
+        private byte[] copy() {
+            final byte[] encoded = new byte[length];
+
+            if (slot >= 0) {
+                final int offset = slot * SLOT_SIZE;
+                for (int i = 0; i < length; i++) {
+                    encoded[i] = vault.slab.get(offset + i);
+                }
+            } else {
+                System.arraycopy(heap, 0, encoded, 0, length);
+            }
+
+            // Checked after copying, so a Key wiped while it was copied, is
+            // never returned.
+            if (wiped) {
+                Arrays.fill(encoded, (byte) 0);
+                throw new CryptoException("The Key has been destroyed.");
+            }
+
+            return encoded;
+        }
+
+        /**
+         * <p>Wipes the material, invoked at most once by the Cleaner.</p>
+         */
+        @Override
+        public void run() {
+            wiped = true;
+            if (slot >= 0) {
+                final int offset = slot * SLOT_SIZE;
+                for (int i = 0; i < length; i++) {
+                    vault.slab.put(offset + i, (byte) 0);
+                }
+                vault.release(slot);
+            } else {
+                Arrays.fill(heap, (byte) 0);
+            }
+        }
+    }
+}
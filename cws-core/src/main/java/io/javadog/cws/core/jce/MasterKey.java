@@ -28,13 +28,14 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
+import java.util.Arrays;
+import java.util.Base64;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
-import javax.crypto.spec.SecretKeySpec;
 
 /**
  * <p>This Singleton holds the CWS Master Key, which is set upon instantiating
@@ -45,6 +46,15 @@ import javax.crypto.spec.SecretKeySpec;
  * persisted, and will remain in memory as long as the CWS instance is
  * running.</p>
  *
+ * <p>Values encrypted with the Master Key are prefixed with a short marker,
+ * derived from the Key, so it is known which Key must be used to decrypt
+ * them. While the Master Key is being rotated, the previous Key is also kept,
+ * so values which have not yet been re-encrypted can still be read. Values
+ * without a marker were written before the markers were added, and are
+ * decrypted with the previous Key while rotating, otherwise the current.
+ * Note, that all CWS instances must be given the new Master Key, as they
+ * otherwise cannot read the values written with it.</p>
+ *
  * @author Kim Jensen
  * @since CWS 1.0
  */
@@ -68,10 +78,13 @@ public final class MasterKey {
     private static final KeyAlgorithm ALGORITHM = KeyAlgorithm.PBE_256;
     private static final Object LOCK = new Object();
     private static final int BUFFER_SIZE = 512;
-    private static MasterKey instance = null;
+    private static final int MARKER_LENGTH = 4;
+    private static final char SEPARATOR = '$';
+    private static volatile MasterKey instance = null;
 
     private final Settings settings;
-    private SecretCWSKey key;
+    private volatile Generation current;
+    private volatile Generation previous = null;
 
     private MasterKey(final Settings settings) {
         this.settings = settings;
@@ -83,17 +96,31 @@ public final class MasterKey {
         } else {
             secret = readMasterKeySecretFromUrl(url);
         }
-        key = generateMasterKey(secret);
+        current = new Generation(generateMasterKey(secret));
     }
 
+    /**
+     * <p>Returns the MasterKey instance. The lock is only taken, while the
+     * instance is not yet created, so once created, the instance is returned
+     * without any locking.</p>
+     *
+     * @param settings CWS Settings, used when creating the MasterKey
+     * @return The MasterKey instance
+     */
     public static MasterKey getInstance(final Settings settings) {
-        synchronized (LOCK) {
-            if (instance == null) {
-                instance = new MasterKey(settings);
-            }
+        MasterKey current = instance;
 
-            return instance;
+        if (current == null) {
+            synchronized (LOCK) {
+                current = instance;
+                if (current == null) {
+                    current = new MasterKey(settings);
+                    instance = current;
+                }
+            }
         }
+
+        return current;
     }
 
     public static byte[] readMasterKeySecretFromUrl(final String masterKeyUrl) {
@@ -146,11 +173,12 @@ public final class MasterKey {
             final String salt = settings.getSalt();
             final byte[] secretSalt = salt.getBytes(CHARSET);
             final var keyFactory = SecretKeyFactory.getInstance(ALGORITHM.getTransformationValue());
-            final KeySpec keySpec = new PBEKeySpec(secretChars, secretSalt, ITERATIONS, ALGORITHM.getLength());
+            final var keySpec = new PBEKeySpec(secretChars, secretSalt, ITERATIONS, ALGORITHM.getLength());
             final SecretKey tmp = keyFactory.generateSecret(keySpec);
-            final SecretKey secretKey = new SecretKeySpec(tmp.getEncoded(), ALGORITHM.getName());
+            keySpec.clearPassword();
+            Arrays.fill(secretChars, '\0');
 
-            final var newKey = new SecretCWSKey(ALGORITHM.getDerived(), secretKey);
+            final var newKey = new SecretCWSKey(ALGORITHM.getDerived(), tmp.getEncoded());
             newKey.setSalt(new IVSalt(salt));
 
             return newKey;
@@ -160,10 +188,188 @@ public final class MasterKey {
     }
 
     public void setKey(final SecretCWSKey key) {
-        this.key = key;
+        current = new Generation(key);
     }
 
     public SecretCWSKey getKey() {
+        return current.key;
+    }
+
+    /**
+     * <p>Starts the rotation of the Master Key, the current Key becomes the
+     * previous, which is kept until the rotation is completed.</p>
+     *
+     * @param key The new Master Key
+     */
+    public void rotateKey(final SecretCWSKey key) {
+        previous = current;
+        current = new Generation(key);
+    }
+
+    public void setPreviousKey(final SecretCWSKey key) {
+        previous = (key != null) ? new Generation(key) : null;
+    }
+
+    public SecretCWSKey getPreviousKey() {
+        final Generation generation = previous;
+        return (generation != null) ? generation.key : null;
+    }
+
+    /**
+     * <p>Returns the prefix of all values encrypted with the previous Master
+     * Key, i.e. the marker and the separator.</p>
+     *
+     * @return Prefix of the previous Master Key, or null if not rotating
+     */
+    public String getPreviousPrefix() {
+        final Generation generation = previous;
+        return (generation != null) ? generation.marker + SEPARATOR : null;
+    }
+
+    /**
+     * <p>Returns the previous Master Key, encrypted with the current, so it
+     * can be persisted while the Master Key is being rotated.</p>
+     *
+     * @return Encrypted previous Master Key, or null if not rotating
+     */
+    public String wrapPreviousKey() {
+        final Generation generation = previous;
+        String wrapped = null;
+
+        if (generation != null) {
+            final byte[] encoded = generation.key.getEncoded();
+            wrapped = encrypt(encoded);
+            Arrays.fill(encoded, (byte) 0);
+        }
+
+        return wrapped;
+    }
+
+    /**
+     * <p>Restores the previous Master Key from the value returned by
+     * {@link #wrapPreviousKey()}, so a rotation can be continued after a
+     * restart, or by other CWS instances.</p>
+     *
+     * @param wrapped Encrypted previous Master Key
+     * @throws CryptoException if not encrypted with the current Master Key
+     */
+    public void unwrapPreviousKey(final String wrapped) {
+        if (!isCurrent(wrapped)) {
+            throw new CryptoException("The previous MasterKey is encrypted with an unknown MasterKey.");
+        }
+
+        final var key = new SecretCWSKey(ALGORITHM.getDerived(), decrypt(wrapped));
+        key.setSalt(new IVSalt(settings.getSalt()));
+        previous = new Generation(key);
+    }
+
+    /**
+     * <p>Encrypts the given bytes with the current Master Key, and returns
+     * the armored result with the marker of the Key.</p>
+     *
+     * @param toEncrypt The bytes to encrypt
+     * @return Marked and armored encrypted bytes
+     */
+    public String encrypt(final byte[] toEncrypt) {
+        final Generation generation = current;
+        final byte[] encrypted = Crypto.encrypt(generation.key, toEncrypt);
+
+        return generation.marker + SEPARATOR + Base64.getEncoder().encodeToString(encrypted);
+    }
+
+    /**
+     * <p>Decrypts the given armored value, with the Master Key matching the
+     * marker of the value.</p>
+     *
+     * @param armored Armored value to decrypt
+     * @return Decrypted bytes
+     * @throws CryptoException if the value was encrypted with an unknown Key
+     */
+    public byte[] decrypt(final String armored) {
+        final int index = armored.indexOf(SEPARATOR);
+        final SecretCWSKey key = findKey((index > 0) ? armored.substring(0, index) : null);
+
+        return decrypt(key, armored);
+    }
+
+    /**
+     * <p>Decrypts the given armored value with the given Key, regardless of
+     * the marker of the value.</p>
+     *
+     * @param key     The Key to decrypt the value with
+     * @param armored Armored value to decrypt
+     * @return Decrypted bytes
+     */
+    public static byte[] decrypt(final SecretCWSKey key, final String armored) {
+        final int index = armored.indexOf(SEPARATOR);
+        final byte[] encrypted = Base64.getDecoder().decode(armored.substring(index + 1));
+
+        return Crypto.decrypt(key, encrypted);
+    }
+
+    /**
+     * <p>Checks if the given armored value is encrypted with the current
+     * Master Key.</p>
+     *
+     * @param armored Armored value to check
+     * @return True if encrypted with the current Key, otherwise false
+     */
+    public boolean isCurrent(final String armored) {
+        final String marker = current.marker;
+        return (armored.length() > marker.length())
+                && (armored.charAt(marker.length()) == SEPARATOR)
+                && armored.startsWith(marker);
+    }
+
+    private SecretCWSKey findKey(final String marker) {
+        final Generation now = current;
+        final Generation before = previous;
+        final SecretCWSKey key;
+
+        if (marker == null) {
+            key = (before != null) ? before.key : now.key;
+        } else if (marker.equals(now.marker)) {
+            key = now.key;
+        } else if ((before != null) && marker.equals(before.marker)) {
+            key = before.key;
+        } else {
+            throw new CryptoException("The value is encrypted with an unknown MasterKey.");
+        }
+
         return key;
     }
+
+    /**
+     * <p>A Master Key together with its marker. The marker is the first few
+     * bytes of the digest of the Key, encoded as hex, so it identifies the Key
+     * without revealing it.</p>
+     */
+    private static final class Generation {
+
+        private final SecretCWSKey key;
+        private final String marker;
+
+        private Generation(final SecretCWSKey key) {
+            this.key = key;
+            this.marker = generateMarker(key);
+        }
+
+        private static String generateMarker(final SecretCWSKey key) {
+            final byte[] encoded = key.getEncoded();
+
+            try {
+                final byte[] digest = MessageDigest.getInstance("SHA-256").digest(encoded);
+                final var builder = new StringBuilder(MARKER_LENGTH * 2);
+                for (var i = 0; i < MARKER_LENGTH; i++) {
+                    builder.append(String.format("%02x", digest[i]));
+                }
+
+                return builder.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new CryptoException(e.getMessage(), e);
+            } finally {
+                Arrays.fill(encoded, (byte) 0);
+            }
+        }
+    }
 }
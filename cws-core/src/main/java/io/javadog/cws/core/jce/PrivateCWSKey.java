@@ -17,6 +17,7 @@
 package io.javadog.cws.core.jce;
 
 import io.javadog.cws.core.enums.KeyAlgorithm;
+import io.javadog.cws.core.exceptions.CryptoException;
 import java.security.PrivateKey;
 
 /**
@@ -28,6 +29,8 @@ import java.security.PrivateKey;
  */
 public final class PrivateCWSKey extends CWSKey<PrivateKey> {
 
+    private PrivateKey key;
+
     /**
      * Default Constructor.
      *
@@ -35,7 +38,8 @@ public final class PrivateCWSKey extends CWSKey<PrivateKey> {
      * @param key       Key
      */
     public PrivateCWSKey(final KeyAlgorithm algorithm, final PrivateKey key) {
-        super(algorithm, key);
+        super(algorithm);
+        this.key = key;
     }
 
     /**
@@ -43,18 +47,36 @@ public final class PrivateCWSKey extends CWSKey<PrivateKey> {
      */
     @Override
     public PrivateKey getKey() {
+        throwIfDestroyed();
         return key;
     }
 
     /**
-     * <p>Destroys the Private Key.</p>
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] getEncoded() {
+        throwIfDestroyed();
+        return key.getEncoded();
+    }
+
+    /**
+     * <p>Destroys the Private Key. The Key consists of BigIntegers, which
+     * cannot be overwritten, so the Key is released, and can no longer be
+     * used via this instance.</p>
      */
     public void destroy() {
         if (!destroyed) {
             // Updating the flag first, so any further attempts at
             // destroying the Key will be ignored.
             destroyed = true;
-            destroyKey();
+            key = null;
+        }
+    }
+
+    private void throwIfDestroyed() {
+        if (destroyed) {
+            throw new CryptoException("The Key has been destroyed.");
         }
     }
 }
@@ -28,6 +28,8 @@ import java.security.PublicKey;
  */
 public final class PublicCWSKey extends CWSKey<PublicKey> {
 
+    private final PublicKey key;
+
     /**
      * Default Constructor.
      *
@@ -35,7 +37,8 @@ public final class PublicCWSKey extends CWSKey<PublicKey> {
      * @param key       Key
      */
     public PublicCWSKey(final KeyAlgorithm algorithm, final PublicKey key) {
-        super(algorithm, key);
+        super(algorithm);
+        this.key = key;
     }
 
     /**
@@ -45,4 +48,12 @@ public final class PublicCWSKey extends CWSKey<PublicKey> {
     public PublicKey getKey() {
         return key;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] getEncoded() {
+        return key.getEncoded();
+    }
 }
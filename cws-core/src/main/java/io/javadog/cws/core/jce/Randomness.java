@@ -0,0 +1,195 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.jce;
+
+import io.javadog.cws.core.model.Settings;
+import java.nio.ByteBuffer;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * <p>Source of the random values used in CWS; Salts, Initial Vectors and the
+ * External Ids. The default {@link SecureRandom}, which is also used by
+ * {@link UUID#randomUUID()}, is shared and synchronized, so threads adding
+ * many Objects are waiting for each other, and creating a new SecureRandom
+ * per value is costly.</p>
+ *
+ * <p>Instead, each thread has its own DRBG (NIST SP 800-90A) generator,
+ * which is reseeded with new entropy after 2 MB of random bytes or a period of
+ * 10 minutes, whichever comes first.</p>
+ *
+ * <p>For GCM, the Initial Vector (nonce) must never be repeated with the
+ * same Key, but it need not be unpredictable. Nonces are therefore built
+ * from a random prefix per generator, and a counter, as described in NIST SP
+ * 800-38D, section 8.2.1. Other transformations, i.e. CBC, require that the
+ * Initial Vector is unpredictable, so they must use random bytes.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class Randomness {
+
+    private static final Logger LOG = Logger.getLogger(Randomness.class.getName());
+    private static final int SECURITY_STRENGTH = 256;
+    private static final int COUNTER_SIZE = Long.BYTES;
+    private static final int PREFIX_SIZE = 8;
+    private static final int BUFFER_SIZE = 512;
+    private static final long RESEED_BLOCKS = 1L << 12;
+    private static final long RESEED_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final ThreadLocal<Generator> GENERATORS = ThreadLocal.withInitial(Generator::new);
+
+    private Randomness() {
+        // Private Constructor, this is a utility Class.
+    }
+
+    /**
+     * <p>Fills the given array with random bytes.</p>
+     *
+     * @param bytes The array to fill
+     */
+    public static void nextBytes(final byte[] bytes) {
+        GENERATORS.get().nextBytes(bytes);
+    }
+
+    /**
+     * <p>Generates a new random (version 4) UUID, as
+     * {@link UUID#randomUUID()}, but using the generator of the thread.</p>
+     *
+     * @return New random UUID
+     */
+    public static UUID newUUID() {
+        final var bytes = new byte[16];
+        nextBytes(bytes);
+        // Version 4, and the IETF variant, see RFC 4122, section 4.4.
+        bytes[6] = (byte) ((bytes[6] & 0x0f) | 0x40);
+        bytes[8] = (byte) ((bytes[8] & 0x3f) | 0x80);
+        final var buffer = ByteBuffer.wrap(bytes);
+
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * <p>Generates a new nonce, built from the random prefix of the generator
+     * of the thread and the next value of its counter. The nonce must be at
+     * least 16 bytes long, so the prefix is at least 64 bit.</p>
+     *
+     * @param length Length of the nonce in bytes, at least 16
+     * @return New nonce
+     */
+    public static byte[] newNonce(final int length) {
+        if (length < PREFIX_SIZE + COUNTER_SIZE) {
+            throw new IllegalArgumentException("Nonces must be at least " + (PREFIX_SIZE + COUNTER_SIZE) + " bytes long.");
+        }
+
+        return GENERATORS.get().nextNonce(length);
+    }
+
+    // =========================================================================
+    // Internal Classes
+    // =========================================================================
+
+    /**
+     * <p>The generator of a single thread, it is thus not thread safe. Each
+     * call to a DRBG has a fixed cost, which is larger than the cost of the
+     * few bytes needed for an Initial Vector or UUID, so the bytes are
+     * generated in blocks and then handed out.</p>
+     */
+    private static final class Generator {
+
+        private final SecureRandom random = createRandom();
+        private final byte[] prefix = new byte[PREFIX_SIZE];
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = BUFFER_SIZE;
+        private long blocks = 0;
+        private long reseeded = System.nanoTime();
+        private long counter = 0;
+
+        private Generator() {
+            random.nextBytes(prefix);
+        }
+
+        private void nextBytes(final byte[] bytes) {
+            int copied = 0;
+
+            while (copied < bytes.length) {
+                if (position == BUFFER_SIZE) {
+                    refill();
+                }
+                final int length = Math.min(bytes.length - copied, BUFFER_SIZE - position);
+                System.arraycopy(buffer, position, bytes, copied, length);
+                // The bytes handed out are removed from the buffer.
+                Arrays.fill(buffer, position, position + length, (byte) 0);
+                position += length;
+                copied += length;
+            }
+        }
+
+        private void refill() {
+            blocks++;
+            if ((blocks >= RESEED_BLOCKS) || ((System.nanoTime() - reseeded) >= RESEED_NANOS)) {
+                reseed();
+            }
+            random.nextBytes(buffer);
+            position = 0;
+        }
+
+        private byte[] nextNonce(final int length) {
+            final var nonce = new byte[length];
+            final int prefixLength = length - COUNTER_SIZE;
+
+            // If the nonce is longer than the minimum, then the bytes between
+            // the prefix and the counter are random.
+            if (prefixLength > PREFIX_SIZE) {
+                nextBytes(nonce);
+            }
+            System.arraycopy(prefix, 0, nonce, 0, PREFIX_SIZE);
+
+            counter++;
+            ByteBuffer.wrap(nonce, prefixLength, COUNTER_SIZE).putLong(counter);
+
+            return nonce;
+        }
+
+        private void reseed() {
+            try {
+                random.reseed();
+            } catch (UnsupportedOperationException e) {
+                LOG.log(Settings.DEBUG, e, () -> "The random generator cannot be reseeded: " + e.getMessage());
+            }
+            blocks = 0;
+            reseeded = System.nanoTime();
+        }
+
+        private static SecureRandom createRandom() {
+            SecureRandom created;
+
+            try {
+                created = SecureRandom.getInstance("DRBG", DrbgParameters.instantiation(SECURITY_STRENGTH, DrbgParameters.Capability.RESEED_ONLY, null));
+            } catch (NoSuchAlgorithmException | IllegalArgumentException e) {
+                LOG.log(Settings.WARN, e, () -> "No DRBG generator is available, using the default: " + e.getMessage());
+                created = new SecureRandom();
+            }
+
+            return created;
+        }
+    }
+}
@@ -28,16 +28,19 @@ import javax.crypto.SecretKey;
  */
 public final class SecretCWSKey extends CWSKey<SecretKey> {
 
+    private final KeyVault.Holder material;
     private IVSalt salt = null;
 
     /**
-     * Default Constructor.
+     * <p>Creates a new Key with the raw Key material, which is moved to the
+     * {@link KeyVault}, and the given array is overwritten.</p>
      *
      * @param algorithm Key Algorithm
-     * @param key       Key
+     * @param rawKey    The raw Key material, will be overwritten
      */
-    public SecretCWSKey(final KeyAlgorithm algorithm, final SecretKey key) {
-        super(algorithm, key);
+    public SecretCWSKey(final KeyAlgorithm algorithm, final byte[] rawKey) {
+        super(algorithm);
+        material = KeyVault.getInstance().store(this, rawKey);
     }
 
     public void setSalt(final IVSalt salt) {
@@ -49,19 +52,34 @@ public final class SecretCWSKey extends CWSKey<SecretKey> {
     }
 
     /**
-     * {@inheritDoc}
+     * <p>Returns a JCE Key, which reads the Key material from the
+     * {@link KeyVault}, so it holds no copy of its own.</p>
+     *
+     * @return JCE Key
+     * @throws io.javadog.cws.core.exceptions.CryptoException if destroyed
      */
     @Override
     public SecretKey getKey() {
-        return key;
+        return material.toSecretKey(getAlgorithm().getName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] getEncoded() {
+        return material.getEncoded();
     }
 
+    /**
+     * <p>Destroys the Key, by overwriting the Key material in the Vault.</p>
+     */
     public void destroy() {
         if (!destroyed) {
             // Updating the flag first, so any further attempts at
             // destroying the Key will be ignored.
             destroyed = true;
-            destroyKey();
+            material.wipe();
         }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>JDK Flight Recorder Event for a single Cryptographic Operation. The
+ * event also records the operation in the 'cws_crypto_seconds' Histogram,
+ * so the Crypto library only has to read the clock once.</p>
+ *
+ * <p>Like all CWS Events, it is disabled by default, and must be enabled in
+ * the recording settings, i.e. 'io.javadog.cws.Crypto#enabled=true'.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@Name("io.javadog.cws.Crypto")
+@Label("Crypto Operation")
+@Description("Cryptographic Operation, i.e. key derivation, digest, sign, verify, encrypt or decrypt.")
+@Category({ "CWS", "Crypto" })
+@Enabled(false)
+@StackTrace(false)
+public final class CryptoEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Algorithm")
+    private String algorithm;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    private final transient long start;
+
+    /**
+     * <p>Creates and begins a new Crypto Event.</p>
+     *
+     * @param operation The Cryptographic Operation
+     * @param bytes     The number of bytes processed
+     */
+    public CryptoEvent(final String operation, final long bytes) {
+        this.operation = operation;
+        this.bytes = bytes;
+        this.start = System.nanoTime();
+        begin();
+    }
+
+    /**
+     * <p>Sets the Algorithm, which is read from the Settings or the Key
+     * after the Event has begun, so any problems with it are handled by the
+     * Operation itself.</p>
+     *
+     * @param algorithm The Algorithm used
+     */
+    public void setAlgorithm(final String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * <p>Ends the Operation, records the duration in the given Histogram and
+     * commits the Event, if it is enabled.</p>
+     *
+     * @param histogram Histogram for the Operation
+     */
+    public void end(final Histogram histogram) {
+        histogram.recordSince(start);
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>A Gauge is a value, which can go both up and down. It is either set
+ * directly, or read from a supplier, whenever the Metrics are exported.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class Gauge {
+
+    private final AtomicLong value = new AtomicLong(0);
+    private final LongSupplier supplier;
+
+    Gauge(final LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    public void set(final long newValue) {
+        value.set(newValue);
+    }
+
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    public void decrement() {
+        value.decrementAndGet();
+    }
+
+    public long get() {
+        return (supplier != null) ? supplier.getAsLong() : value.get();
+    }
+}
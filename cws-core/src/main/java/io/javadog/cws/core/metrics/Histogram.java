@@ -0,0 +1,165 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Latency Histogram, inspired by the HdrHistogram. The values are placed
+ * in log-linear buckets, where each power of two is split into 16 linear
+ * sub-buckets. This means that any recorded value can be reproduced with a
+ * relative error of at most 1/16 (6.25%), regardless of the magnitude, and
+ * that the Histogram has a fixed size, independent of the number of values
+ * recorded.</p>
+ *
+ * <p>Recording a value is lock-free, it is a single atomic increment of the
+ * bucket, plus the updates of the count, sum and max. The percentiles are
+ * calculated from a copy of the buckets, so they may be slightly behind
+ * concurrent recordings, which is fine for monitoring purposes.</p>
+ *
+ * <p>Values are expected to be durations in nanoseconds, but the Histogram
+ * itself is unit-less.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class Histogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong(0);
+
+    Histogram() {
+        // Histograms are created via the Metrics registry.
+    }
+
+    /**
+     * <p>Records a new value, negative values are recorded as 0.</p>
+     *
+     * @param value The value to record
+     */
+    public void record(final long value) {
+        final long positive = Math.max(0, value);
+        buckets.incrementAndGet(index(positive));
+        count.increment();
+        sum.add(positive);
+        if (positive > max.get()) {
+            max.accumulateAndGet(positive, Math::max);
+        }
+    }
+
+    /**
+     * <p>Records the time elapsed since the given start, which must have been
+     * read using {@link System#nanoTime()}.</p>
+     *
+     * @param startNanos Start time in nanoseconds
+     */
+    public void recordSince(final long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * <p>Finds the value at the given percentile, i.e. 0.99 for the 99th
+     * percentile. The value returned is the highest value, which is
+     * equivalent to the recorded values in the bucket, but never more than
+     * the largest value recorded.</p>
+     *
+     * @param percentile Percentile, between 0 and 1
+     * @return Value at the percentile, or 0 if nothing was recorded
+     */
+    public long getPercentile(final double percentile) {
+        return percentiles(percentile)[0];
+    }
+
+    /**
+     * <p>Finds the values at the given percentiles, using a single copy of
+     * the buckets, so the values are consistent with each other.</p>
+     *
+     * @param percentiles Percentiles, each between 0 and 1, in ascending order
+     * @return Values at the percentiles
+     */
+    public long[] percentiles(final double... percentiles) {
+        final long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = buckets.get(i);
+            total += copy[i];
+        }
+
+        final long highest = max.get();
+        final long[] values = new long[percentiles.length];
+        var bucket = 0;
+        var seen = copy[0];
+        for (int i = 0; i < percentiles.length; i++) {
+            final long rank = Math.max(1, (long) Math.ceil(percentiles[i] * total));
+            while ((seen < rank) && (bucket < (BUCKETS - 1))) {
+                bucket++;
+                seen += copy[bucket];
+            }
+            values[i] = (total == 0) ? 0 : Math.min(highestEquivalent(bucket), highest);
+        }
+
+        return values;
+    }
+
+    static int index(final long value) {
+        final int result;
+
+        if (value < SUB_COUNT) {
+            result = (int) value;
+        } else {
+            final int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BITS;
+            final int sub = (int) (value >>> shift) - SUB_COUNT;
+            result = ((shift + 1) * SUB_COUNT) + sub;
+        }
+
+        return result;
+    }
+
+    static long highestEquivalent(final int index) {
+        final long result;
+
+        if (index < SUB_COUNT) {
+            result = index;
+        } else {
+            final int shift = (index / SUB_COUNT) - 1;
+            final long lowest = (long) (SUB_COUNT + (index % SUB_COUNT)) << shift;
+            result = lowest + ((1L << shift) - 1);
+        }
+
+        return result;
+    }
+}
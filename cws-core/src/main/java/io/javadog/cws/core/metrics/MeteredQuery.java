@@ -0,0 +1,385 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
+import javax.persistence.LockModeType;
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+
+/**
+ * <p>JPA does not expose the name of a Named Query once it has been created,
+ * so the Query is wrapped, and the wrapper remembers the name and records
+ * the time spent executing it in the Histogram 'cws_db_query_seconds'. Only
+ * the methods, which actually invoke the database, are timed, all others
+ * are simply delegated. The executions are also reported as the JDK Flight
+ * Recorder Event {@link QueryEvent}.</p>
+ *
+ * <p>Queries are created for almost every database access, so the wrapper
+ * delegates directly rather than via Reflection, and the Histogram for each
+ * Named Query is only looked up once.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class MeteredQuery implements Query {
+
+    private static final ConcurrentMap<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private final Query query;
+    private final String name;
+    private final Histogram histogram;
+
+    private MeteredQuery(final Query query, final String name) {
+        this.query = query;
+        this.name = name;
+        this.histogram = HISTOGRAMS.computeIfAbsent(name, key -> Metrics.getInstance().histogram("cws_db_query_seconds", "Time spent executing Named Queries.", "query", key));
+    }
+
+    /**
+     * <p>Creates the Named Query with the given name, wrapped so the time
+     * spent in the database is recorded.</p>
+     *
+     * @param entityManager Entity Manager to create the Query with
+     * @param name          Name of the Named Query
+     * @return Metered Query
+     */
+    public static Query createNamedQuery(final EntityManager entityManager, final String name) {
+        return new MeteredQuery(entityManager.createNamedQuery(name), name);
+    }
+
+    // =========================================================================
+    // Timed Methods, which invoke the database
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<?> getResultList() {
+        return execute(query::getResultList, List::size);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<?> getResultStream() {
+        return execute(query::getResultStream, stream -> -1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getSingleResult() {
+        return execute(query::getSingleResult, result -> 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int executeUpdate() {
+        return execute(query::executeUpdate, Integer::longValue);
+    }
+
+    // =========================================================================
+    // Delegated Methods
+    // =========================================================================
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setMaxResults(final int maxResult) {
+        query.setMaxResults(maxResult);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMaxResults() {
+        return query.getMaxResults();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setFirstResult(final int startPosition) {
+        query.setFirstResult(startPosition);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getFirstResult() {
+        return query.getFirstResult();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setHint(final String hintName, final Object value) {
+        query.setHint(hintName, value);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Object> getHints() {
+        return query.getHints();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> Query setParameter(final Parameter<T> param, final T value) {
+        query.setParameter(param, value);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setParameter(final Parameter<Calendar> param, final Calendar value, final TemporalType temporalType) {
+        query.setParameter(param, value, temporalType);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setParameter(final Parameter<Date> param, final Date value, final TemporalType temporalType) {
+        query.setParameter(param, value, temporalType);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setParameter(final String parameterName, final Object value) {
+        query.setParameter(parameterName, value);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setParameter(final String parameterName, final Calendar value, final TemporalType temporalType) {
+        query.setParameter(parameterName, value, temporalType);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setParameter(final String parameterName, final Date value, final TemporalType temporalType) {
+        query.setParameter(parameterName, value, temporalType);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setParameter(final int position, final Object value) {
+        query.setParameter(position, value);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setParameter(final int position, final Calendar value, final TemporalType temporalType) {
+        query.setParameter(position, value, temporalType);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setParameter(final int position, final Date value, final TemporalType temporalType) {
+        query.setParameter(position, value, temporalType);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Parameter<?>> getParameters() {
+        return query.getParameters();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Parameter<?> getParameter(final String parameterName) {
+        return query.getParameter(parameterName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> Parameter<T> getParameter(final String parameterName, final Class<T> type) {
+        return query.getParameter(parameterName, type);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Parameter<?> getParameter(final int position) {
+        return query.getParameter(position);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> Parameter<T> getParameter(final int position, final Class<T> type) {
+        return query.getParameter(position, type);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isBound(final Parameter<?> param) {
+        return query.isBound(param);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T getParameterValue(final Parameter<T> param) {
+        return query.getParameterValue(param);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getParameterValue(final String parameterName) {
+        return query.getParameterValue(parameterName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getParameterValue(final int position) {
+        return query.getParameterValue(position);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setFlushMode(final FlushModeType flushMode) {
+        query.setFlushMode(flushMode);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FlushModeType getFlushMode() {
+        return query.getFlushMode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Query setLockMode(final LockModeType lockMode) {
+        query.setLockMode(lockMode);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LockModeType getLockMode() {
+        return query.getLockMode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T unwrap(final Class<T> cls) {
+        return query.unwrap(cls);
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private <T> T execute(final Supplier<T> execution, final ToLongFunction<T> rows) {
+        final long start = System.nanoTime();
+        final var event = new QueryEvent();
+        event.begin();
+
+        try {
+            final T result = execution.get();
+            event.setRows(rows.applyAsLong(result));
+
+            return result;
+        } finally {
+            histogram.recordSince(start);
+            if (event.shouldCommit()) {
+                event.setQuery(name);
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.core.exceptions.CWSException;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * <p>Registry for all CWS Metrics. Each Metric is identified by its name
+ * and a set of labels, given as pairs of label names and values. Requesting
+ * the same name and labels again will return the existing Metric, so the
+ * Metrics can either be kept in constants or looked up when needed.</p>
+ *
+ * <p>The registry can be exported in the Prometheus text format (version
+ * 0.0.4). Histograms are recorded in nanoseconds, but exported as Summaries
+ * in seconds, with a fixed set of quantiles.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class Metrics {
+
+    /** Content Type of the Prometheus text format. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final ConcurrentMap<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * Private Constructor, this is a Singleton.
+     */
+    private Metrics() {
+        gauge("cws_jvm_heap_used_bytes", "Used heap memory.", () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        gauge("cws_jvm_heap_max_bytes", "Maximum heap memory.", () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax());
+        gauge("cws_jvm_threads", "Live threads.", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    public Counter counter(final String name, final String help, final String... labels) {
+        return (Counter) register(Type.COUNTER, name, help, labels, Counter::new);
+    }
+
+    public Gauge gauge(final String name, final String help, final String... labels) {
+        return (Gauge) register(Type.GAUGE, name, help, labels, () -> new Gauge(null));
+    }
+
+    /**
+     * <p>Registers a Gauge, which reads its value from the given supplier
+     * when the Metrics are exported.</p>
+     *
+     * @param name     Metric name
+     * @param help     Metric description
+     * @param supplier Supplier of the current value
+     * @return The Gauge
+     */
+    public Gauge gauge(final String name, final String help, final LongSupplier supplier) {
+        return (Gauge) register(Type.GAUGE, name, help, new String[0], () -> new Gauge(supplier));
+    }
+
+    public Histogram histogram(final String name, final String help, final String... labels) {
+        return (Histogram) register(Type.SUMMARY, name, help, labels, Histogram::new);
+    }
+
+    /**
+     * <p>Exports all Metrics in the Prometheus text format, sorted by name
+     * and labels, so the output is stable between invocations.</p>
+     *
+     * @return Metrics in Prometheus text format
+     */
+    public String scrape() {
+        final var builder = new StringBuilder(4096);
+
+        for (final Family family : new TreeMap<>(families).values()) {
+            builder.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            builder.append("# TYPE ").append(family.name).append(' ').append(family.type.name().toLowerCase(Locale.ENGLISH)).append('\n');
+            for (final Map.Entry<String, Object> entry : new TreeMap<>(family.series).entrySet()) {
+                write(builder, family, entry.getKey(), entry.getValue());
+            }
+        }
+
+        return builder.toString();
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private Object register(final Type type, final String name, final String help, final String[] labels, final Supplier<Object> creator) {
+        if ((labels.length % 2) != 0) {
+            throw new CWSException(ReturnCode.ERROR, "The labels for the Metric '" + name + "' must be given as name & value pairs.");
+        }
+
+        final Family family = families.computeIfAbsent(name, key -> new Family(type, name, help));
+        if (family.type != type) {
+            throw new CWSException(ReturnCode.ERROR, "The Metric '" + name + "' is already registered as a " + family.type + '.');
+        }
+
+        return family.series.computeIfAbsent(labelString(labels), key -> creator.get());
+    }
+
+    private static void write(final StringBuilder builder, final Family family, final String labels, final Object metric) {
+        if (metric instanceof Counter) {
+            sample(builder, family.name, labels, Long.toString(((Counter) metric).get()));
+        } else if (metric instanceof Gauge) {
+            sample(builder, family.name, labels, Long.toString(((Gauge) metric).get()));
+        } else {
+            final Histogram histogram = (Histogram) metric;
+            final long[] values = histogram.percentiles(QUANTILES);
+            for (int i = 0; i < QUANTILES.length; i++) {
+                final String quantile = "quantile=\"" + QUANTILES[i] + '"';
+                sample(builder, family.name, labels.isEmpty() ? quantile : labels + ',' + quantile, seconds(values[i]));
+            }
+            sample(builder, family.name + "_sum", labels, seconds(histogram.getSum()));
+            sample(builder, family.name + "_count", labels, Long.toString(histogram.getCount()));
+        }
+    }
+
+    private static void sample(final StringBuilder builder, final String name, final String labels, final String value) {
+        builder.append(name);
+        if (!labels.isEmpty()) {
+            builder.append('{').append(labels).append('}');
+        }
+        builder.append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(final long nanos) {
+        return Double.toString(nanos / NANOS_PER_SECOND);
+    }
+
+    private static String labelString(final String[] labels) {
+        final var builder = new StringBuilder();
+
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(labels[i]).append("=\"");
+            for (final char c : String.valueOf(labels[i + 1]).toCharArray()) {
+                if (c == '\\' || c == '"') {
+                    builder.append('\\').append(c);
+                } else if (c == '\n') {
+                    builder.append("\\n");
+                } else {
+                    builder.append(c);
+                }
+            }
+            builder.append('"');
+        }
+
+        return builder.toString();
+    }
+
+    private enum Type {
+        COUNTER, GAUGE, SUMMARY
+    }
+
+    /**
+     * <p>All Metrics with the same name, one per set of labels.</p>
+     */
+    private static final class Family {
+
+        private final ConcurrentMap<String, Object> series = new ConcurrentHashMap<>();
+        private final Type type;
+        private final String name;
+        private final String help;
+
+        private Family(final Type type, final String name, final String help) {
+            this.type = type;
+            this.name = name;
+            this.help = help;
+        }
+    }
+}
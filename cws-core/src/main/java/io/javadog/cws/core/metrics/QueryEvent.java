@@ -0,0 +1,56 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>JDK Flight Recorder Event for the execution of a Named Query. The
+ * number of rows is the size of the result list, the number of updated rows
+ * or -1 if the result is streamed.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@Name("io.javadog.cws.Query")
+@Label("Database Query")
+@Description("Execution of a Named JPA Query.")
+@Category({ "CWS", "Database" })
+@Enabled(false)
+@StackTrace(false)
+public final class QueryEvent extends Event {
+
+    @Label("Query")
+    private String query;
+
+    @Label("Rows")
+    private long rows = -1;
+
+    public void setQuery(final String query) {
+        this.query = query;
+    }
+
+    public void setRows(final long rows) {
+        this.rows = rows;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import io.javadog.cws.api.common.Utilities;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>Breakdown of the time spent in the different phases of a single
+ * request. The timer is bound to the current thread when the request begins,
+ * and the business logic records its phases via the static
+ * {@link #record(String, long)} method, which does nothing if no timer is
+ * active. Repeated phases are added together.</p>
+ *
+ * <p>When the request ends, the timer is handed to the
+ * {@link SlowRequestLog}, which keeps the slowest requests.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class RequestTimer {
+
+    private static final ThreadLocal<RequestTimer> CURRENT = new ThreadLocal<>();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final String action;
+    private final LocalDateTime started;
+    private final long start;
+    private long duration = 0;
+
+    private RequestTimer(final String action) {
+        this.action = action;
+        this.started = Utilities.newDate();
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * <p>Begins timing a new request on the current thread, replacing any
+     * timer, which was not ended properly.</p>
+     *
+     * @param action The requested action, i.e. the REST path
+     * @return New active timer
+     */
+    public static RequestTimer begin(final String action) {
+        final var timer = new RequestTimer(action);
+        CURRENT.set(timer);
+
+        return timer;
+    }
+
+    /**
+     * <p>Returns the timer active for the current thread, or null if no
+     * request is being timed.</p>
+     *
+     * @return Active timer or null
+     */
+    public static RequestTimer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * <p>Binds an existing timer to the current thread, for requests which
+     * are processed by a different thread than the one they began on. The
+     * timer must only be used by one thread at the time.</p>
+     *
+     * @param timer The timer to bind, may be null
+     */
+    public static void attach(final RequestTimer timer) {
+        if (timer != null) {
+            CURRENT.set(timer);
+        }
+    }
+
+    /**
+     * <p>Removes any timer from the current thread, without ending it.</p>
+     */
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    /**
+     * <p>Records the time spent in a phase for the request of the current
+     * thread. The returned time can be given as the start of the next phase,
+     * so consecutive phases can be recorded without reading the clock
+     * twice.</p>
+     *
+     * @param phase      Name of the phase
+     * @param startNanos Start of the phase, from {@link System#nanoTime()}
+     * @return The end time of the phase
+     */
+    public static long record(final String phase, final long startNanos) {
+        final RequestTimer timer = CURRENT.get();
+
+        return (timer != null) ? timer.recordPhase(phase, startNanos) : System.nanoTime();
+    }
+
+    /**
+     * <p>Records the time spent in a phase directly on this timer, for the
+     * phases which run outside of the thread the timer is bound to, i.e. the
+     * serialization of an asynchronous response.</p>
+     *
+     * @param phase      Name of the phase
+     * @param startNanos Start of the phase, from {@link System#nanoTime()}
+     * @return The end time of the phase
+     */
+    public long recordPhase(final String phase, final long startNanos) {
+        final long now = System.nanoTime();
+        phases.merge(phase, now - startNanos, Long::sum);
+
+        return now;
+    }
+
+    /**
+     * <p>Ends the timer, detaches it from the current thread and offers it
+     * to the {@link SlowRequestLog}.</p>
+     *
+     * @return This timer
+     */
+    public RequestTimer end() {
+        duration = System.nanoTime() - start;
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        SlowRequestLog.getInstance().offer(this);
+
+        return this;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public LocalDateTime getStarted() {
+        return started;
+    }
+
+    /**
+     * <p>Returns the total duration in nanoseconds. If the timer is still
+     * running, the time elapsed so far is returned.</p>
+     *
+     * @return Duration in nanoseconds
+     */
+    public long getDuration() {
+        return (duration > 0) ? duration : System.nanoTime() - start;
+    }
+
+    public Map<String, Long> getPhases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    /**
+     * <p>Formats the phases and the total duration as a value for the HTTP
+     * 'Server-Timing' header, with the durations in milliseconds.</p>
+     *
+     * @return Server-Timing header value
+     */
+    public String toServerTiming() {
+        final var builder = new StringBuilder(128);
+
+        for (final Map.Entry<String, Long> entry : phases.entrySet()) {
+            append(builder, entry.getKey(), entry.getValue());
+            builder.append(", ");
+        }
+        append(builder, "total", getDuration());
+
+        return builder.toString();
+    }
+
+    private static void append(final StringBuilder builder, final String name, final long nanos) {
+        builder.append(name).append(";dur=").append(String.format(Locale.ENGLISH, "%.3f", nanos / NANOS_PER_MILLI));
+    }
+}
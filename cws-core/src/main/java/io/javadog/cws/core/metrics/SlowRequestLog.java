@@ -0,0 +1,107 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import io.javadog.cws.api.common.Utilities;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * <p>Rolling, in-memory log of the slowest requests. Only the requests from
+ * the latest hour are kept, and of these only the slowest, so the log is
+ * bounded regardless of the load. Requests, which are faster than the
+ * fastest request in a full log, are discarded without locking.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class SlowRequestLog {
+
+    /** Maximum number of requests kept in the log. */
+    public static final int CAPACITY = 50;
+    private static final long WINDOW_MINUTES = 60;
+    private static final SlowRequestLog INSTANCE = new SlowRequestLog();
+
+    private final PriorityQueue<RequestTimer> slowest = new PriorityQueue<>(CAPACITY, Comparator.comparingLong(RequestTimer::getDuration));
+    private volatile long threshold = 0;
+
+    /**
+     * Private Constructor, this is a Singleton.
+     */
+    private SlowRequestLog() {
+    }
+
+    public static SlowRequestLog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>Offers a completed request to the log, if it is among the slowest
+     * requests, it is kept, otherwise it is ignored.</p>
+     *
+     * @param timer Completed Request Timer
+     */
+    public void offer(final RequestTimer timer) {
+        if (timer.getDuration() > threshold) {
+            synchronized (slowest) {
+                prune();
+                slowest.add(timer);
+                if (slowest.size() > CAPACITY) {
+                    slowest.poll();
+                }
+                threshold = (slowest.size() == CAPACITY) ? slowest.peek().getDuration() : 0;
+            }
+        }
+    }
+
+    /**
+     * <p>Reads the requests from the log, sorted with the slowest first.</p>
+     *
+     * @return Slowest requests from the latest hour
+     */
+    public List<RequestTimer> read() {
+        final List<RequestTimer> list;
+
+        synchronized (slowest) {
+            prune();
+            list = new ArrayList<>(slowest);
+        }
+        list.sort(Comparator.comparingLong(RequestTimer::getDuration).reversed());
+
+        return list;
+    }
+
+    /**
+     * <p>Removes all requests from the log.</p>
+     */
+    public void clear() {
+        synchronized (slowest) {
+            slowest.clear();
+            threshold = 0;
+        }
+    }
+
+    private void prune() {
+        final LocalDateTime limit = Utilities.newDate().minusMinutes(WINDOW_MINUTES);
+        if (slowest.removeIf(timer -> timer.getStarted().isBefore(limit))) {
+            threshold = 0;
+        }
+    }
+}
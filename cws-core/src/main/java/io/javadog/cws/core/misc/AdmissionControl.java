@@ -0,0 +1,348 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.misc;
+
+import io.javadog.cws.core.exceptions.AuthenticationException;
+import io.javadog.cws.core.metrics.Counter;
+import io.javadog.cws.core.metrics.Metrics;
+import io.javadog.cws.core.model.Settings;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>Admission Control for the password based authentication. Each attempt
+ * requires that the password key is derived, which is deliberately CPU
+ * expensive. A few clients retrying with wrong credentials may otherwise
+ * occupy all CPU cores, so before any key is derived, the attempt must be
+ * admitted.</p>
+ *
+ * <p>Attempts are limited by Token Buckets, one per Account name and one per
+ * client address (source). If the source is known, the Account bucket is
+ * kept per Account and source, so a client failing to authenticate as
+ * another Account cannot lock that Account out for everybody else. As the
+ * guesses for an Account may also be spread over many addresses, each
+ * Account also has a total bucket for all sources, with a higher limit. The
+ * total bucket is only charged a single token per failed attempt, without
+ * the progressive penalty, so it takes many failures from many sources,
+ * before the Account is locked out for everybody. A
+ * bucket holds as many tokens as the configured
+ * attempts per minute, and is refilled at the same rate. Admitting an
+ * attempt takes a token, which is returned again if the authentication
+ * succeeds. A failed attempt keeps the token, and is further penalised with
+ * a progressively growing number of tokens, doubling for each consecutive
+ * failure, so the waiting time grows, until a successful authentication
+ * resets it. Rejected attempts are refused directly, without any database
+ * lookup or key derivation.</p>
+ *
+ * <p>The buckets are held in a bounded map, ordered by their last use. When
+ * the bound is reached, only the least recently used buckets are examined,
+ * so the cost of adding a bucket does not grow with the map. Of these, the
+ * buckets which are fully refilled are removed, as they are identical to a
+ * new bucket. If there are none, the one with the fewest failures is
+ * removed, so penalised buckets are kept, and cannot be pushed out by
+ * flooding the map with new names or addresses.</p>
+ *
+ * <p>The source is bound to the current thread by the REST layer, if it is
+ * not known, only the Account is checked. Setting either limit to 0 (zero)
+ * will disable it.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class AdmissionControl {
+
+    static final int MAX_BUCKETS = 10_000;
+    private static final int EVICTION_SCAN = 16;
+    private static final int MAX_PENALTY_SHIFT = 16;
+    private static final double NANOS_PER_MINUTE = 60_000_000_000.0;
+    private static final String ACCOUNT = "account:";
+    private static final String TOTAL = "total:";
+    private static final String SOURCE = "source:";
+    private static final ThreadLocal<String> CURRENT_SOURCE = new ThreadLocal<>();
+    private static final AdmissionControl INSTANCE = new AdmissionControl();
+
+    // Access ordered, so the least recently used buckets come first. All
+    // access to the map must be synchronized on it.
+    private final Map<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75F, true);
+    private final Counter accountRejections;
+    private final Counter sourceRejections;
+
+    /**
+     * Private Constructor, this is a Singleton.
+     */
+    private AdmissionControl() {
+        final Metrics metrics = Metrics.getInstance();
+        accountRejections = metrics.counter("cws_admission_rejected_total", "Authentication attempts rejected by the Admission Control.", "key", "account");
+        sourceRejections = metrics.counter("cws_admission_rejected_total", "Authentication attempts rejected by the Admission Control.", "key", "source");
+        metrics.gauge("cws_admission_buckets", "Accounts and sources currently tracked by the Admission Control.", this::size);
+    }
+
+    public static AdmissionControl getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>Binds the address of the client to the current thread, so it can be
+     * used for the Admission Control of the request.</p>
+     *
+     * @param source Client address, may be null
+     */
+    public static void bindSource(final String source) {
+        if (source != null) {
+            CURRENT_SOURCE.set(source);
+        } else {
+            CURRENT_SOURCE.remove();
+        }
+    }
+
+    public static String currentSource() {
+        return CURRENT_SOURCE.get();
+    }
+
+    public static void releaseSource() {
+        CURRENT_SOURCE.remove();
+    }
+
+    /**
+     * <p>Admits a password based authentication attempt for the given
+     * Account from the given source. If either has no tokens left, the
+     * attempt is rejected.</p>
+     *
+     * @param account Account name
+     * @param source  Client address, may be null
+     * @throws AuthenticationException if the attempt is rejected
+     */
+    public void admit(final String account, final String source) {
+        final Settings settings = Settings.getInstance();
+        final long now = System.nanoTime();
+        final Bucket accountBucket = bucket(accountKey(account, source), settings.getAdmissionAccountRate(), true, now);
+        final Bucket totalBucket = bucket(totalKey(account, source), settings.getAdmissionAccountTotalRate(), false, now);
+        final Bucket sourceBucket = bucket(sourceKey(source), settings.getAdmissionSourceRate(), true, now);
+
+        if ((accountBucket != null) && !accountBucket.take(now)) {
+            accountRejections.increment();
+            throw new AuthenticationException("Too many authentication attempts for the Account, please try again later.");
+        }
+        if ((totalBucket != null) && !totalBucket.take(now)) {
+            refund(accountBucket);
+            accountRejections.increment();
+            throw new AuthenticationException("Too many authentication attempts for the Account, please try again later.");
+        }
+        if ((sourceBucket != null) && !sourceBucket.take(now)) {
+            refund(accountBucket);
+            refund(totalBucket);
+            sourceRejections.increment();
+            throw new AuthenticationException("Too many authentication attempts from the client, please try again later.");
+        }
+    }
+
+    /**
+     * <p>Completes an admitted attempt. If it succeeded, the token is
+     * returned and any penalty is reset, otherwise the attempt is
+     * penalised.</p>
+     *
+     * @param account Account name
+     * @param source  Client address, may be null
+     * @param failed  True if the authentication failed
+     */
+    public void complete(final String account, final String source, final boolean failed) {
+        completeBucket(accountKey(account, source), failed);
+        completeBucket(totalKey(account, source), failed);
+        completeBucket(sourceKey(source), failed);
+    }
+
+    public long getAccountRejections() {
+        return accountRejections.get();
+    }
+
+    public long getSourceRejections() {
+        return sourceRejections.get();
+    }
+
+    /**
+     * <p>Removes all buckets, i.e. all penalties are forgiven.</p>
+     */
+    public void clear() {
+        synchronized (buckets) {
+            buckets.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private static String accountKey(final String account, final String source) {
+        String key = null;
+
+        if (account != null) {
+            // The source is an address, which never contains a slash, so
+            // the key cannot be mistaken for another source and Account.
+            key = (source != null) ? ACCOUNT + source + '/' + account : ACCOUNT + account;
+        }
+
+        return key;
+    }
+
+    /**
+     * <p>Returns the key of the total bucket of the Account, for all sources.
+     * Without a known source, the Account bucket is already for all sources,
+     * so there is no total bucket.</p>
+     *
+     * @param account Account name
+     * @param source  Client address, may be null
+     * @return Key of the total bucket, or null
+     */
+    private static String totalKey(final String account, final String source) {
+        return ((account != null) && (source != null)) ? TOTAL + account : null;
+    }
+
+    private static String sourceKey(final String source) {
+        return (source != null) ? SOURCE + source : null;
+    }
+
+    private static void refund(final Bucket bucket) {
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+
+    private Bucket bucket(final String key, final int perMinute, final boolean progressive, final long now) {
+        Bucket bucket = null;
+
+        if ((key != null) && (perMinute > 0)) {
+            synchronized (buckets) {
+                bucket = buckets.get(key);
+                if (bucket == null) {
+                    if (buckets.size() >= MAX_BUCKETS) {
+                        evict(now);
+                    }
+                    bucket = new Bucket(progressive, now);
+                    buckets.put(key, bucket);
+                }
+            }
+            bucket.refill(perMinute, now);
+        }
+
+        return bucket;
+    }
+
+    private void completeBucket(final String key, final boolean failed) {
+        if (key != null) {
+            final Bucket bucket;
+            synchronized (buckets) {
+                bucket = buckets.get(key);
+            }
+            if (bucket != null) {
+                bucket.complete(failed);
+            }
+        }
+    }
+
+    /**
+     * <p>Removes the idle buckets among the least recently used, or if there
+     * are none, the one with the fewest failures. Must be invoked while
+     * holding the lock of the map.</p>
+     *
+     * @param now Current time, from {@link System#nanoTime()}
+     */
+    private void evict(final long now) {
+        final Iterator<Map.Entry<String, Bucket>> iterator = buckets.entrySet().iterator();
+        Map.Entry<String, Bucket> candidate = null;
+        boolean removed = false;
+
+        for (int i = 0; (i < EVICTION_SCAN) && iterator.hasNext(); i++) {
+            final Map.Entry<String, Bucket> entry = iterator.next();
+            if (entry.getValue().isIdle(now)) {
+                iterator.remove();
+                removed = true;
+            } else if ((candidate == null) || (entry.getValue().getFailures() < candidate.getValue().getFailures())) {
+                candidate = entry;
+            }
+        }
+
+        if (!removed && (candidate != null)) {
+            buckets.remove(candidate.getKey());
+        }
+    }
+
+    /**
+     * <p>Token Bucket for a single Account or source. The tokens may become
+     * negative as a penalty, but never below minus the capacity. Buckets
+     * without a progressive penalty only keep the token of a failed
+     * attempt.</p>
+     */
+    private static final class Bucket {
+
+        private final boolean progressive;
+        private double tokens = Double.MAX_VALUE;
+        private double capacity = 0;
+        private long updated;
+        private int failures = 0;
+
+        private Bucket(final boolean progressive, final long now) {
+            this.progressive = progressive;
+            this.updated = now;
+        }
+
+        private synchronized void refill(final int perMinute, final long now) {
+            capacity = perMinute;
+            tokens = Math.min(capacity, tokens + ((now - updated) * capacity / NANOS_PER_MINUTE));
+            updated = now;
+        }
+
+        private synchronized boolean take(final long now) {
+            final boolean admitted = tokens >= 1;
+            if (admitted) {
+                tokens--;
+            }
+            updated = now;
+
+            return admitted;
+        }
+
+        private synchronized void complete(final boolean failed) {
+            if (failed) {
+                final double penalty = progressive ? (1L << Math.min(failures, MAX_PENALTY_SHIFT)) - 1.0 : 0;
+                tokens = Math.max(-capacity, tokens - penalty);
+                failures++;
+            } else {
+                refund();
+                failures = 0;
+            }
+        }
+
+        private synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        private synchronized int getFailures() {
+            return failures;
+        }
+
+        private synchronized boolean isIdle(final long now) {
+            return (failures == 0) && ((tokens + ((now - updated) * capacity / NANOS_PER_MINUTE)) >= capacity);
+        }
+    }
+}
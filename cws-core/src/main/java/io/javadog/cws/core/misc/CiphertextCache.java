@@ -0,0 +1,267 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.misc;
+
+import io.javadog.cws.core.metrics.Counter;
+import io.javadog.cws.core.metrics.Metrics;
+import io.javadog.cws.core.model.Settings;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>Cache of the encrypted bytes of frequently read Data Objects. Reading an
+ * Object otherwise requires that the complete encrypted content is read from
+ * the database, whereas the cache only requires the small record with the
+ * checksum, which is also used to verify the access rights.</p>
+ *
+ * <p>Only the encrypted bytes are cached, so the cache contains nothing,
+ * which isn't also in the database. The bytes are kept outside the Java Heap,
+ * in a single direct buffer (slab), divided into blocks of equal size. The
+ * Objects are evicted in least recently used order, when more blocks are
+ * needed, and Objects larger than 1/16 of the cache are not cached, so a
+ * single Object cannot flush the cache.</p>
+ *
+ * <p>The entries are found by the Id of the Metadata, and are only returned
+ * if the checksum of the Data Object matches the database. As the bytes are
+ * encrypted again with a new Initial Vector, whenever the Object is changed,
+ * changes made by other instances are never read from the cache. The time of
+ * the last change is not compared, as the database may store it with a lower
+ * precision than the Entity was given.</p>
+ *
+ * <p>The size is controlled with the setting 'cws.data.cache.size.mb', where
+ * 0 disables the cache. The setting is read without holding the lock, when
+ * checking if an Object is cached, and when an Object is added.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class CiphertextCache {
+
+    private static final int BLOCK_SIZE = 4096;
+    private static final int MAX_SIZE = 1024;
+    private static final int MAX_OBJECT_FRACTION = 16;
+    private static final CiphertextCache INSTANCE = new CiphertextCache();
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter stale;
+    private final Counter evicted;
+    private ByteBuffer slab = null;
+    private int[] freeBlocks = new int[0];
+    private int freeCount = 0;
+    private volatile int size = 0;
+
+    /**
+     * Private Constructor, this is a Singleton.
+     */
+    private CiphertextCache() {
+        final Metrics metrics = Metrics.getInstance();
+        hits = metrics.counter("cws_data_cache_total", "Lookups in the Data cache by the result.", "result", "hit");
+        misses = metrics.counter("cws_data_cache_total", "Lookups in the Data cache by the result.", "result", "miss");
+        stale = metrics.counter("cws_data_cache_total", "Lookups in the Data cache by the result.", "result", "stale");
+        evicted = metrics.counter("cws_data_cache_evicted_total", "Objects evicted from the Data cache to make room.");
+        metrics.gauge("cws_data_cache_bytes", "Bytes used by the Data cache.", this::usedBytes);
+    }
+
+    public static CiphertextCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>Finds the encrypted bytes of a Data Object, if they are cached and
+     * still matches the database. A cached Object, which no longer matches,
+     * is removed.</p>
+     *
+     * @param metadataId Id of the Metadata of the Object
+     * @param checksum   Checksum of the encrypted bytes
+     * @return Copy of the encrypted bytes, or null if not cached
+     */
+    public synchronized byte[] find(final Long metadataId, final String checksum) {
+        final Entry entry = entries.get(metadataId);
+        byte[] data = null;
+
+        if (entry == null) {
+            misses.increment();
+        } else if (!Objects.equals(entry.checksum, checksum)) {
+            release(entries.remove(metadataId));
+            stale.increment();
+        } else {
+            data = read(entry);
+            hits.increment();
+        }
+
+        return data;
+    }
+
+    /**
+     * <p>Returns true if the Data Object is cached. The check does not verify
+     * if the cached Object still matches the database.</p>
+     *
+     * @param metadataId Id of the Metadata of the Object
+     * @return True if cached, otherwise false
+     */
+    public boolean contains(final Long metadataId) {
+        configure();
+        synchronized (this) {
+            return entries.containsKey(metadataId);
+        }
+    }
+
+    /**
+     * <p>Adds the encrypted bytes of a Data Object, which have been read from
+     * the database, and verified against the checksum.</p>
+     *
+     * @param metadataId Id of the Metadata of the Object
+     * @param checksum   Checksum of the encrypted bytes
+     * @param data       The encrypted bytes
+     */
+    public void put(final Long metadataId, final String checksum, final byte[] data) {
+        configure();
+        synchronized (this) {
+            store(metadataId, checksum, data);
+        }
+    }
+
+    /**
+     * <p>Removes a Data Object, which has been changed or deleted.</p>
+     *
+     * @param metadataId Id of the Metadata of the Object
+     */
+    public synchronized void invalidate(final Long metadataId) {
+        release(entries.remove(metadataId));
+    }
+
+    /**
+     * <p>Removes all cached Data Objects.</p>
+     */
+    public synchronized void clear() {
+        entries.values().forEach(this::release);
+        entries.clear();
+    }
+
+    public synchronized int count() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private synchronized long usedBytes() {
+        return (long) (freeBlocks.length - freeCount) * BLOCK_SIZE;
+    }
+
+    private void store(final Long metadataId, final String checksum, final byte[] data) {
+        release(entries.remove(metadataId));
+        final int needed = (data.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        if ((needed > 0) && (needed <= (freeBlocks.length / MAX_OBJECT_FRACTION))) {
+            final Iterator<Entry> eldest = entries.values().iterator();
+            while (freeCount < needed) {
+                release(eldest.next());
+                eldest.remove();
+                evicted.increment();
+            }
+
+            final int[] blocks = new int[needed];
+            for (int i = 0; i < needed; i++) {
+                freeCount--;
+                blocks[i] = freeBlocks[freeCount];
+                final int offset = i * BLOCK_SIZE;
+                slab.position(blocks[i] * BLOCK_SIZE);
+                slab.put(data, offset, Math.min(BLOCK_SIZE, data.length - offset));
+            }
+            entries.put(metadataId, new Entry(checksum, blocks, data.length));
+        }
+    }
+
+    /**
+     * <p>Allocates the slab with the configured size. If the size has been
+     * changed, then the cached Objects are discarded together with the
+     * existing slab. The setting is read without the lock, which is only
+     * taken if the size must be changed.</p>
+     */
+    private void configure() {
+        final int configured = Math.max(0, Math.min(MAX_SIZE, Settings.getInstance().getDataCacheSize()));
+
+        if (configured != size) {
+            synchronized (this) {
+                if (configured != size) {
+                    resize(configured);
+                }
+            }
+        }
+    }
+
+    private void resize(final int configured) {
+        entries.clear();
+        size = configured;
+        final int blocks = (int) ((long) configured * 1024 * 1024 / BLOCK_SIZE);
+        slab = (blocks > 0) ? ByteBuffer.allocateDirect(blocks * BLOCK_SIZE) : null;
+        freeBlocks = new int[blocks];
+        for (int i = 0; i < blocks; i++) {
+            freeBlocks[i] = blocks - 1 - i;
+        }
+        freeCount = blocks;
+    }
+
+    private byte[] read(final Entry entry) {
+        final byte[] data = new byte[entry.length];
+
+        for (int i = 0; i < entry.blocks.length; i++) {
+            final int offset = i * BLOCK_SIZE;
+            slab.position(entry.blocks[i] * BLOCK_SIZE);
+            slab.get(data, offset, Math.min(BLOCK_SIZE, entry.length - offset));
+        }
+
+        return data;
+    }
+
+    private void release(final Entry entry) {
+        if (entry != null) {
+            for (final int block : entry.blocks) {
+                freeBlocks[freeCount] = block;
+                freeCount++;
+            }
+        }
+    }
+
+    /**
+     * <p>The location of a cached Object in the slab, together with the
+     * information needed to verify that it matches the database.</p>
+     */
+    private static final class Entry {
+
+        private final String checksum;
+        private final int[] blocks;
+        private final int length;
+
+        private Entry(final String checksum, final int[] blocks, final int length) {
+            this.checksum = checksum;
+            this.blocks = blocks;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.misc;
+
+import io.javadog.cws.core.enums.SanityStatus;
+import io.javadog.cws.core.metrics.Counter;
+import io.javadog.cws.core.metrics.Metrics;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+
+/**
+ * <p>Queue of Sanity results, found when Data Objects are read. Reading an
+ * Object verifies its checksum, but rather than updating the Object as part
+ * of the read, which would make every read a write, the result is queued
+ * here, and later applied in batches by the
+ * {@link io.javadog.cws.core.SanitizerBean}.</p>
+ *
+ * <p>Results for the same Object are combined, so frequently read Objects
+ * only cause a single update. A failed result is kept, as it marks the
+ * Object as corrupted, unless the Object has since been altered. If the
+ * queue is full, successful results are dropped, which is harmless, as the
+ * Object will simply be checked again by the Sanitizer.</p>
+ *
+ * <p>Each result holds the time the Object was last altered, when it was
+ * read, so the Sanitizer can skip results, which are older than the
+ * Object.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class SanityQueue {
+
+    private static final int MAX_PENDING = 10_000;
+    private static final SanityQueue INSTANCE = new SanityQueue();
+
+    private final Map<Long, Result> pending = new ConcurrentHashMap<>();
+    private final Counter dropped;
+
+    /**
+     * Private Constructor, this is a Singleton.
+     */
+    private SanityQueue() {
+        final Metrics metrics = Metrics.getInstance();
+        dropped = metrics.counter("cws_sanity_queue_dropped_total", "Sanity results dropped, as the queue was full.");
+        metrics.gauge("cws_sanity_queue_pending", "Sanity results waiting to be applied.", () -> pending.size());
+    }
+
+    public static SanityQueue getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>Adds the result of a Sanity check of a Data Object.</p>
+     *
+     * @param dataId  Id of the Data Entity
+     * @param status  Result of the check
+     * @param checked Time of the check
+     * @param altered Time the Data Entity was last altered, when read
+     */
+    public void offer(final Long dataId, final SanityStatus status, final LocalDateTime checked, final LocalDateTime altered) {
+        offer(new Result(dataId, status, checked, altered), Result::combine);
+    }
+
+    /**
+     * <p>Returns results, which were drained but could not be applied, i.e.
+     * as the transaction was rolled back. Results offered since, are newer
+     * and take precedence.</p>
+     *
+     * @param results The results to return to the queue
+     */
+    public void requeue(final List<Result> results) {
+        for (final Result result : results) {
+            offer(result, (latest, previous) -> Result.combine(previous, latest));
+        }
+    }
+
+    /**
+     * <p>Removes and returns up to the given number of queued results.</p>
+     *
+     * @param max Maximum number of results to return
+     * @return List of results, may be empty
+     */
+    public List<Result> drain(final int max) {
+        final List<Result> results = new ArrayList<>(Math.min(max, pending.size()));
+        final Iterator<Map.Entry<Long, Result>> iterator = pending.entrySet().iterator();
+
+        while ((results.size() < max) && iterator.hasNext()) {
+            final Map.Entry<Long, Result> entry = iterator.next();
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                results.add(entry.getValue());
+            }
+        }
+
+        return results;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * <p>Removes all queued results, without applying them.</p>
+     */
+    public void clear() {
+        pending.clear();
+    }
+
+    private void offer(final Result result, final BinaryOperator<Result> combiner) {
+        if ((result.status != SanityStatus.FAILED) && (pending.size() >= MAX_PENDING) && !pending.containsKey(result.dataId)) {
+            dropped.increment();
+        } else {
+            pending.merge(result.dataId, result, combiner);
+        }
+    }
+
+    /**
+     * <p>Result of a Sanity check for a single Data Object.</p>
+     */
+    public static final class Result {
+
+        private final Long dataId;
+        private final SanityStatus status;
+        private final LocalDateTime checked;
+        private final LocalDateTime altered;
+
+        private Result(final Long dataId, final SanityStatus status, final LocalDateTime checked, final LocalDateTime altered) {
+            this.dataId = dataId;
+            this.status = status;
+            this.checked = checked;
+            this.altered = altered;
+        }
+
+        private static Result combine(final Result previous, final Result latest) {
+            // A failure is kept until it has been applied, even if a later
+            // check succeeds, so the corruption is registered. Unless the
+            // Object was altered in between, then the failure is outdated.
+            return ((previous.status == SanityStatus.FAILED) && (latest.status != SanityStatus.FAILED) && !latest.altered.isAfter(previous.altered))
+                    ? new Result(latest.dataId, previous.status, latest.checked, previous.altered)
+                    : latest;
+        }
+
+        public Long getDataId() {
+            return dataId;
+        }
+
+        public SanityStatus getStatus() {
+            return status;
+        }
+
+        public LocalDateTime getChecked() {
+            return checked;
+        }
+
+        public LocalDateTime getAltered() {
+            return altered;
+        }
+    }
+}
@@ -22,17 +22,20 @@ import io.javadog.cws.api.common.TrustLevel;
 import io.javadog.cws.api.common.Utilities;
 import io.javadog.cws.core.enums.StandardSetting;
 import io.javadog.cws.core.exceptions.CWSException;
+import io.javadog.cws.core.jce.Randomness;
+import io.javadog.cws.core.metrics.MeteredQuery;
 import io.javadog.cws.core.model.entities.CWSEntity;
 import io.javadog.cws.core.model.entities.CircleEntity;
 import io.javadog.cws.core.model.entities.DataTypeEntity;
 import io.javadog.cws.core.model.entities.Externable;
 import io.javadog.cws.core.model.entities.MemberEntity;
+import io.javadog.cws.core.model.entities.SessionEntity;
 import io.javadog.cws.core.model.entities.SettingEntity;
 import io.javadog.cws.core.model.entities.TrusteeEntity;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.UUID;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceException;
 import javax.persistence.Query;
@@ -48,6 +51,12 @@ import javax.persistence.criteria.Root;
  */
 public class CommonDao {
 
+    /**
+     * Name of the Revision for the Circles and their Keys, which are kept in
+     * the Second Level Cache of each CWS instance.
+     */
+    public static final String CIRCLES = "circles";
+
     protected static final String EXTERNAL_ID = "externalId";
     protected static final String PARENT_ID = "parentId";
     protected static final String MEMBER = "member";
@@ -78,7 +87,7 @@ public class CommonDao {
      */
     public void persist(final CWSEntity entity) {
         if ((entity instanceof Externable) && (((Externable) entity).getExternalId() == null)) {
-            ((Externable) entity).setExternalId(UUID.randomUUID().toString());
+            ((Externable) entity).setExternalId(Randomness.newUUID().toString());
         }
 
         if (entity.getAdded() == null) {
@@ -129,50 +138,72 @@ public class CommonDao {
         entityManager.remove(entity);
     }
 
-    public void removeSession(final MemberEntity member) {
-        member.setSessionChecksum(null);
-        member.setSessionCrypto(null);
-        member.setSessionExpire(null);
+    /**
+     * <p>Removes all Entities of the given type from the Second Level Cache.
+     * Changes made via this instance are handled by the JPA provider, but if
+     * another CWS instance has made changes, the cached Entities must be
+     * removed, so they are read again.</p>
+     *
+     * @param cwsEntity The CWS Entity to evict from the Cache
+     */
+    public void evict(final Class<? extends CWSEntity> cwsEntity) {
+        entityManager.getEntityManagerFactory().getCache().evict(cwsEntity);
+    }
 
-        persist(member);
+    public void removeSession(final SessionEntity session) {
+        entityManager.remove(session);
+    }
+
+    /**
+     * <p>Removes all Sessions for the given Member, i.e. when the Member is
+     * invalidated.</p>
+     *
+     * @param member The Member to remove all Sessions for
+     * @return Number of removed Sessions
+     */
+    public int removeSessions(final MemberEntity member) {
+        return createNamedQuery("session.deleteByMember")
+                .setParameter(MEMBER, member)
+                .executeUpdate();
     }
 
     public MemberEntity findMemberByName(final String name) {
-        final var query = entityManager
-                .createNamedQuery("member.findByName")
+        final var query = createNamedQuery("member.findByName")
                 .setParameter("name", name);
 
         return findSingleRecord(query);
     }
 
+    public List<String> findAllMemberNames() {
+        final var query = createNamedQuery("member.findAllNames");
+
+        return findList(query);
+    }
+
     public List<MemberEntity> findMemberByRole(final MemberRole role) {
-        final var query = entityManager
-                .createNamedQuery("member.findByRole")
+        final var query = createNamedQuery("member.findByRole")
                 .setParameter("role", role);
 
         return findList(query);
     }
 
     /**
-     * The checksums are not having any uniqueness assigned to them, meaning
-     * that their may exist multiple checksums with the same value - but as
-     * all checksums are fairly short-lived (hours), the problem is ignored
-     * and only of their is an actual problem with it, will it be addressed.
+     * <p>Finds the Session with the given checksum, together with the Member
+     * the Session belongs to. As the checksums are unique, there can at most
+     * be a single Session.</p>
      *
      * @param checksum Checksum of a Member SessionKey
-     * @return MemberEntity with a matching SessionKey checksum
+     * @return SessionEntity with a matching SessionKey checksum or null
      */
-    public MemberEntity findMemberByChecksum(final String checksum) {
-        final var query = entityManager
-                .createNamedQuery("member.findByChecksum")
+    public SessionEntity findSessionByChecksum(final String checksum) {
+        final var query = createNamedQuery("session.findByChecksum")
                 .setParameter("checksum", checksum);
 
         return findSingleRecord(query);
     }
 
     public MemberEntity findMemberByNameAndCircleId(final String name, final String externalCircleId) {
-        final var query = entityManager
-                .createNamedQuery("member.findByNameAndCircle")
+        final var query = createNamedQuery("member.findByNameAndCircle")
                 .setParameter("name", name)
                 .setParameter("externalCircleId", externalCircleId);
         final List<MemberEntity> found = findList(query);
@@ -186,8 +217,7 @@ public class CommonDao {
     }
 
     public List<TrusteeEntity> findTrusteesByMember(final MemberEntity member, final Set<TrustLevel> permissions) {
-        final var query = entityManager
-                .createNamedQuery("trust.findByMember")
+        final var query = createNamedQuery("trust.findByMember")
                 .setParameter(MEMBER, member)
                 .setParameter("permissions", permissions);
 
@@ -195,8 +225,7 @@ public class CommonDao {
     }
 
     public List<TrusteeEntity> findTrusteesByMemberAndCircle(final MemberEntity member, final String externalCircleId, final Set<TrustLevel> permissions) {
-        final var query = entityManager
-                .createNamedQuery("trust.findByMemberAndExternalCircleId")
+        final var query = createNamedQuery("trust.findByMemberAndExternalCircleId")
                 .setParameter(MEMBER, member)
                 .setParameter("externalCircleId", externalCircleId)
                 .setParameter("permissions", permissions);
@@ -205,15 +234,14 @@ public class CommonDao {
     }
 
     public CircleEntity findCircleByName(final String name) {
-        final var query = entityManager
-                .createNamedQuery("circle.findByName")
+        final var query = createNamedQuery("circle.findByName")
                 .setParameter("name", name);
 
         return findSingleRecord(query);
     }
 
     public List<DataTypeEntity> findAllTypes() {
-        final var query = entityManager.createNamedQuery("type.findAll");
+        final var query = createNamedQuery("type.findAll");
 
         return findList(query);
     }
@@ -227,24 +255,21 @@ public class CommonDao {
      * @throws CWSException if no unique value could be found
      */
     public DataTypeEntity findDataTypeByName(final String name) {
-        final var query = entityManager
-                .createNamedQuery("type.findByName")
+        final var query = createNamedQuery("type.findByName")
                 .setParameter("name", name);
 
         return findSingleRecord(query);
     }
 
     public long countDataTypeUsage(final DataTypeEntity dataType) {
-        final var query = entityManager
-                .createNamedQuery("type.countUsage")
+        final var query = createNamedQuery("type.countUsage")
                 .setParameter("type", dataType);
 
         return (long) query.getSingleResult();
     }
 
     public TrusteeEntity findTrusteeByCircleAndMember(final String externalCircleId, final String externalMemberId) {
-        final var query = entityManager
-                .createNamedQuery("trustee.findByCircleAndMember")
+        final var query = createNamedQuery("trustee.findByCircleAndMember")
                 .setParameter("ecid", externalCircleId)
                 .setParameter("emid", externalMemberId);
 
@@ -252,15 +277,58 @@ public class CommonDao {
     }
 
     public SettingEntity findSettingByKey(final StandardSetting setting) {
-        final var query = entityManager
-                .createNamedQuery("setting.findByName")
+        final var query = createNamedQuery("setting.findByName")
                 .setParameter("name", setting.getKey());
 
         return findSingleRecord(query);
     }
 
+    /**
+     * <p>Reads the current Revision for the given cached area. If the area is
+     * unknown, then a revision of 0 (zero) is returned.</p>
+     *
+     * @param name Name of the cached area
+     * @return Current Revision of the area
+     */
+    public long findRevision(final String name) {
+        final var query = createNamedQuery("revision.findByName")
+                .setParameter("name", name);
+        final Long revision = findSingleRecord(query);
+
+        return (revision != null) ? revision : 0L;
+    }
+
+    /**
+     * <p>Increases the Revision for the given cached area, so other CWS
+     * instances can see that their local copy is outdated.</p>
+     *
+     * @param name Name of the cached area
+     */
+    public void increaseRevision(final String name) {
+        createNamedQuery("revision.increase")
+                .setParameter("name", name)
+                .executeUpdate();
+    }
+
+    /**
+     * <p>Increases the Revision for the given area, but only if it was last
+     * increased before the given time. Used for Revisions, which are
+     * increased by all CWS instances at intervals, so only one of them will
+     * do so.</p>
+     *
+     * @param name   Name of the area
+     * @param before The Revision must be older than this
+     * @return True if the Revision was increased
+     */
+    public boolean increaseRevision(final String name, final LocalDateTime before) {
+        return createNamedQuery("revision.increaseIfOlder")
+                .setParameter("name", name)
+                .setParameter("before", before)
+                .executeUpdate() > 0;
+    }
+
     public Long countMembers() {
-        final var query = entityManager.createNamedQuery("member.countMembers");
+        final var query = createNamedQuery("member.countMembers");
         final Object obj = findSingleRecord(query);
 
         return (Long) obj;
@@ -270,6 +338,17 @@ public class CommonDao {
     // Internal Methods, handling the actual lookup to simplify error handling
     // =========================================================================
 
+    /**
+     * <p>Creates the Named Query, wrapped so the time spent in the database
+     * is recorded in the CWS Metrics.</p>
+     *
+     * @param name Name of the Named Query
+     * @return Query, ready for the parameters to be set
+     */
+    protected Query createNamedQuery(final String name) {
+        return MeteredQuery.createNamedQuery(entityManager, name);
+    }
+
     /**
      * <p>Returns the first record matching the query. If no records are found,
      * a null is returned.</p>
@@ -305,6 +384,9 @@ public class CommonDao {
      * @param <E>   Entity Type to return a list if
      * @return List of found Entities or an empty list if none were found
      */
+    // The untyped JPA Query returns a raw List, the Named Queries used all
+    // match the requested Entity Type.
+    @SuppressWarnings("unchecked")
     public static <E> List<E> findList(final Query query) {
         try {
             final var list = query.getResultList();
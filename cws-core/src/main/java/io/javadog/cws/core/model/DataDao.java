@@ -39,16 +39,54 @@ public final class DataDao extends CommonDao {
     }
 
     public DataEntity findDataByMetadata(final MetadataEntity metadata) {
-        final var query = entityManager
-                .createNamedQuery("data.findByMetadata")
+        final var query = createNamedQuery("data.findByMetadata")
                 .setParameter("metadata", metadata);
 
         return findSingleRecord(query);
     }
 
     public DataEntity findDataByMemberAndExternalId(final MemberEntity member, final String externalId) {
-        final var query = entityManager
-                .createNamedQuery("data.findByMemberAndExternalId")
+        final var query = createNamedQuery("data.findByMemberAndExternalId")
+                .setParameter(MEMBER, member)
+                .setParameter(EXTERNAL_ID, externalId)
+                .setParameter("trustLevels", EnumSet.of(TrustLevel.ADMIN, TrustLevel.WRITE, TrustLevel.READ));
+
+        return findSingleRecord(query);
+    }
+
+    /**
+     * <p>Finds the Data Record, like
+     * {@link #findDataByMemberAndExternalId(MemberEntity, String)}, but also
+     * the External Id of the Parent (folder) of the Data Record, so both are
+     * read with a single Statement.</p>
+     *
+     * @param member     The Member requesting the Data
+     * @param externalId External Id of the Data Record
+     * @return Array with the Data Entity and the Parent External Id, or null
+     */
+    public Object[] findDataWithParentByMemberAndExternalId(final MemberEntity member, final String externalId) {
+        final var query = createNamedQuery("data.findWithParentByMemberAndExternalId")
+                .setParameter(MEMBER, member)
+                .setParameter(EXTERNAL_ID, externalId)
+                .setParameter("trustLevels", EnumSet.of(TrustLevel.ADMIN, TrustLevel.WRITE, TrustLevel.READ));
+
+        return findSingleRecord(query);
+    }
+
+    /**
+     * <p>Finds the same as
+     * {@link #findDataWithParentByMemberAndExternalId(MemberEntity, String)},
+     * except for the encrypted bytes, which are instead read from the
+     * {@link io.javadog.cws.core.misc.CiphertextCache}. The Array contains the
+     * time of the latest change, the checksum, the initial vector, the Key
+     * Entity and the Parent External Id.</p>
+     *
+     * @param member     The Member requesting the Data
+     * @param externalId External Id of the Data Record
+     * @return Array with the Data header and Parent External Id, or null
+     */
+    public Object[] findDataHeaderWithParentByMemberAndExternalId(final MemberEntity member, final String externalId) {
+        final var query = createNamedQuery("data.findHeaderWithParentByMemberAndExternalId")
                 .setParameter(MEMBER, member)
                 .setParameter(EXTERNAL_ID, externalId)
                 .setParameter("trustLevels", EnumSet.of(TrustLevel.ADMIN, TrustLevel.WRITE, TrustLevel.READ));
@@ -57,8 +95,7 @@ public final class DataDao extends CommonDao {
     }
 
     public MetadataEntity findMetadataByMemberAndExternalId(final Long memberId, final String externalId) {
-        final var query = entityManager
-                .createNamedQuery("metadata.findByMemberAndExternalId")
+        final var query = createNamedQuery("metadata.findByMemberAndExternalId")
                 .setParameter("mid", memberId)
                 .setParameter("eid", externalId);
 
@@ -66,8 +103,7 @@ public final class DataDao extends CommonDao {
     }
 
     public MetadataEntity findMetadataByMemberAndName(final Long memberId, final String name) {
-        final var query = entityManager
-                .createNamedQuery("metadata.findByMemberAndName")
+        final var query = createNamedQuery("metadata.findByMemberAndName")
                 .setParameter("mid", memberId)
                 .setParameter("name", name);
 
@@ -75,8 +111,7 @@ public final class DataDao extends CommonDao {
     }
 
     public MetadataEntity findRootByMemberCircle(final Long memberId, final String circleId) {
-        final var query = entityManager
-                .createNamedQuery("metadata.findRootByMemberAndCircle")
+        final var query = createNamedQuery("metadata.findRootByMemberAndCircle")
                 .setParameter("mid", memberId)
                 .setParameter("cid", circleId);
 
@@ -84,8 +119,7 @@ public final class DataDao extends CommonDao {
     }
 
     public List<MetadataEntity> findMetadataByMemberAndFolder(final MemberEntity member, final Long parentId, final int pageNumber, final int pageSize) {
-        final var query = entityManager
-                .createNamedQuery("metadata.findByMemberAndFolder")
+        final var query = createNamedQuery("metadata.findByMemberAndFolder")
                 .setParameter(MEMBER, member)
                 .setParameter(PARENT_ID, parentId)
                 .setMaxResults(pageSize)
@@ -95,16 +129,14 @@ public final class DataDao extends CommonDao {
     }
 
     public long countFolderContent(final Long parentId) {
-        final var query = entityManager
-                .createNamedQuery("metadata.countFolderContent")
+        final var query = createNamedQuery("metadata.countFolderContent")
                 .setParameter(PARENT_ID, parentId);
 
         return (long) query.getSingleResult();
     }
 
     public boolean checkIfNameIsUsed(final Long metadataId, final String name, final Long parentId) {
-        final var query = entityManager
-                .createNamedQuery("metadata.findByNameAndFolder")
+        final var query = createNamedQuery("metadata.findByNameAndFolder")
                 .setParameter("id", metadataId)
                 .setParameter(NAME, name)
                 .setParameter(PARENT_ID, parentId);
@@ -113,8 +145,7 @@ public final class DataDao extends CommonDao {
     }
 
     public MetadataEntity findInFolder(final MemberEntity member, final Long parentId, final String name) {
-        final var query = entityManager
-                .createNamedQuery("metadata.findInFolder")
+        final var query = createNamedQuery("metadata.findInFolder")
                 .setParameter(MEMBER, member)
                 .setParameter(PARENT_ID, parentId)
                 .setParameter(NAME, name);
@@ -123,15 +154,13 @@ public final class DataDao extends CommonDao {
     }
 
     public long countInventoryRecords() {
-        final var query = entityManager
-                .createNamedQuery("metadata.countInventoryRecords");
+        final var query = createNamedQuery("metadata.countInventoryRecords");
 
         return (long) query.getSingleResult();
     }
 
     public List<MetadataEntity> readInventoryRecords(final int pageNumber, final int pageSize) {
-        final var query = entityManager
-                .createNamedQuery("metadata.readInventoryRecords")
+        final var query = createNamedQuery("metadata.readInventoryRecords")
                 .setMaxResults(pageSize)
                 .setFirstResult((pageNumber - 1) * pageSize);
 
@@ -0,0 +1,188 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model;
+
+import io.javadog.cws.core.metrics.Counter;
+import io.javadog.cws.core.metrics.Metrics;
+import io.javadog.cws.core.model.entities.DataTypeEntity;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>The Data Types are read for almost every Data request, but they are very
+ * rarely changed. Rather than looking them up in the database for each
+ * request, this registry keeps a local copy of all Data Types in memory.</p>
+ *
+ * <p>As CWS may run as a cluster of stateless instances, a change made on one
+ * instance must also be seen by the others. To achieve this, the registry
+ * remembers the Revision of the Data Types from when the copy was loaded.
+ * At most once per check interval (see the setting
+ * 'cws.cache.check.interval.seconds'), the current Revision is read from the
+ * database, and if it differs, the copy is reloaded. Local changes will
+ * invalidate the copy, once they have been committed.</p>
+ *
+ * <p>The Entities returned are detached copies, shared between all threads,
+ * so they may only be used as references and must never be altered.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class DataTypeRegistry {
+
+    /** Name of the Revision for the Data Types. */
+    public static final String REVISION = "datatypes";
+
+    private static final DataTypeRegistry INSTANCE = new DataTypeRegistry();
+    private static final Counter HITS = cacheRequests(REVISION, "hit");
+    private static final Counter MISSES = cacheRequests(REVISION, "miss");
+
+    private volatile Snapshot snapshot = null;
+
+    /**
+     * Private Constructor, this is a Singleton.
+     */
+    private DataTypeRegistry() {
+    }
+
+    public static DataTypeRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>Finds the Data Type with the given name, the lookup is case
+     * insensitive. If the local copy is outdated, then it is reloaded before
+     * the lookup is made.</p>
+     *
+     * @param dao  DAO to use, if the copy must be checked or reloaded
+     * @param name Name of the Data Type to find
+     * @return Found Data Type or null
+     */
+    public DataTypeEntity find(final CommonDao dao, final String name) {
+        final Snapshot current = check(dao);
+
+        return current.types.get(name.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * <p>Loads all Data Types from the database, replacing the current local
+     * copy. Invoked when CWS is starting up.</p>
+     *
+     * @param dao DAO to read the Data Types with
+     */
+    public void load(final CommonDao dao) {
+        snapshot = read(dao, System.nanoTime());
+    }
+
+    /**
+     * <p>Invalidates the local copy, so the next lookup will reload all Data
+     * Types from the database. Must be invoked whenever a Data Type is
+     * created, updated or deleted, after the change has been committed, so
+     * the copy is not reloaded with the previous Data Types.</p>
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private Snapshot check(final CommonDao dao) {
+        final long now = System.nanoTime();
+        Snapshot current = snapshot;
+
+        if (current == null) {
+            MISSES.increment();
+            current = read(dao, now);
+            snapshot = current;
+        } else if ((now - current.checked) >= TimeUnit.SECONDS.toNanos(Settings.getInstance().getCacheCheckInterval())) {
+            final long revision = dao.findRevision(REVISION);
+            // Revisions only increase, a lower Revision is read from a
+            // replica, which has not yet received the latest changes.
+            if (revision <= current.revision) {
+                HITS.increment();
+                current = new Snapshot(current.types, revision, now);
+            } else {
+                MISSES.increment();
+                current = read(dao, now);
+            }
+            snapshot = current;
+        } else {
+            HITS.increment();
+        }
+
+        return current;
+    }
+
+    /**
+     * <p>Returns the Counter for requests to a locally cached area, where a
+     * miss means that the local copy had to be (re)loaded.</p>
+     *
+     * @param cache  Name of the cached area
+     * @param result Either 'hit' or 'miss'
+     * @return Counter for the cache and result
+     */
+    public static Counter cacheRequests(final String cache, final String result) {
+        return Metrics.getInstance().counter("cws_cache_requests_total", "Requests to the local caches.", "cache", cache, "result", result);
+    }
+
+    private static Snapshot read(final CommonDao dao, final long now) {
+        final long revision = dao.findRevision(REVISION);
+        // The Data Types may have been changed by another instance, so the
+        // cached Entities must be removed as well.
+        dao.evict(DataTypeEntity.class);
+        final List<DataTypeEntity> found = dao.findAllTypes();
+        final Map<String, DataTypeEntity> types = new HashMap<>(found.size());
+
+        for (final DataTypeEntity entity : found) {
+            types.put(entity.getName().toLowerCase(Locale.ENGLISH), copy(entity));
+        }
+
+        return new Snapshot(types, revision, now);
+    }
+
+    private static DataTypeEntity copy(final DataTypeEntity entity) {
+        final var copy = new DataTypeEntity();
+        copy.setId(entity.getId());
+        copy.setName(entity.getName());
+        copy.setType(entity.getType());
+        copy.setAltered(entity.getAltered());
+        copy.setAdded(entity.getAdded());
+
+        return copy;
+    }
+
+    /**
+     * <p>Immutable copy of the Data Types, together with the Revision they
+     * were read with and the time of the latest Revision check.</p>
+     */
+    private static final class Snapshot {
+
+        private final Map<String, DataTypeEntity> types;
+        private final long revision;
+        private final long checked;
+
+        private Snapshot(final Map<String, DataTypeEntity> types, final long revision, final long checked) {
+            this.types = types;
+            this.revision = revision;
+            this.checked = checked;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model;
+
+import io.javadog.cws.core.metrics.Counter;
+import io.javadog.cws.core.metrics.Metrics;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Negative lookups for the authentication. Requests with an unknown
+ * Account name or an unknown Session would otherwise each require a database
+ * lookup, before they can be rejected. Under a flood of such requests, i.e.
+ * credential stuffing or a broken client, this becomes a flood of database
+ * lookups.</p>
+ *
+ * <p>The Account names are kept in a Bloom filter. If a name is not in the
+ * filter, the Account is definitely unknown, otherwise it may exist and the
+ * database must be asked. The filter is built from all Member names, and
+ * new names are added directly when Members are created or renamed. Removed
+ * names cannot be taken out of a Bloom filter, so whenever the Members are
+ * changed, the Revision 'members' is increased. As with the
+ * {@link DataTypeRegistry}, the Revision is checked at most once per check
+ * interval (see the setting 'cws.cache.check.interval.seconds'), and if it
+ * differs, the filter is rebuilt. This way, Members created on other CWS
+ * instances are also seen, at the latest one check interval later.</p>
+ *
+ * <p>Checksums of Sessions, which were not found, expired or ended, are
+ * remembered as unknown for the same check interval, so repeated requests
+ * with the same stale Session are rejected directly. A new login with the
+ * Session removes the checksum again. A login on another CWS instance is
+ * not seen, until the checksum expires, so like the Account names, the
+ * Sessions may be stale for up to one check interval. In return, neither
+ * a rejected request nor a login requires any further database access.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class LookupFilter {
+
+    /** Name of the Revision for the Members. */
+    public static final String REVISION = "members";
+
+    private static final int MAX_SESSIONS = 10_000;
+    private static final int BITS_PER_NAME = 10;
+    private static final int MIN_BITS = 1 << 12;
+    private static final int HASHES = 7;
+    private static final LookupFilter INSTANCE = new LookupFilter();
+
+    private final Map<String, Long> unknownSessions = new ConcurrentHashMap<>();
+    private final Counter rejectedAccounts;
+    private final Counter rejectedSessions;
+    private volatile Snapshot snapshot = null;
+
+    /**
+     * Private Constructor, this is a Singleton.
+     */
+    private LookupFilter() {
+        final Metrics metrics = Metrics.getInstance();
+        rejectedAccounts = metrics.counter("cws_lookup_filtered_total", "Authentications rejected without a database lookup.", "lookup", "account");
+        rejectedSessions = metrics.counter("cws_lookup_filtered_total", "Authentications rejected without a database lookup.", "lookup", "session");
+    }
+
+    public static LookupFilter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>Checks if the Account with the given name definitely does not exist.
+     * If the filter is outdated, it is rebuilt first.</p>
+     *
+     * @param dao  DAO to use, if the filter must be checked or rebuilt
+     * @param name Name of the Account
+     * @return True if no Account with the name exists
+     */
+    public boolean isUnknownAccount(final CommonDao dao, final String name) {
+        var unknown = false;
+
+        if (name != null) {
+            unknown = !check(dao).mightContain(name.toLowerCase(Locale.ENGLISH));
+            if (unknown) {
+                rejectedAccounts.increment();
+            }
+        }
+
+        return unknown;
+    }
+
+    /**
+     * <p>Builds the filter from all Member names in the database, replacing
+     * the current filter. Invoked when CWS is starting up.</p>
+     *
+     * @param dao DAO to read the Member names with
+     */
+    public void load(final CommonDao dao) {
+        snapshot = read(dao, System.nanoTime());
+    }
+
+    /**
+     * <p>Adds the name of a new or renamed Member, and increases the Revision
+     * of the Members, so other instances will rebuild their filter.</p>
+     *
+     * @param dao  DAO to increase the Revision with
+     * @param name The new Account name
+     */
+    public void addAccount(final CommonDao dao, final String name) {
+        final Snapshot current = snapshot;
+        if (current != null) {
+            current.put(name.toLowerCase(Locale.ENGLISH));
+        }
+        dao.increaseRevision(REVISION);
+    }
+
+    /**
+     * <p>Increases the Revision of the Members, when a Member is deleted, so
+     * all instances will rebuild their filter without the name.</p>
+     *
+     * @param dao DAO to increase the Revision with
+     */
+    public void removeAccount(final CommonDao dao) {
+        dao.increaseRevision(REVISION);
+    }
+
+    /**
+     * <p>Checks if the Session with the given checksum was recently found to
+     * be unknown.</p>
+     *
+     * @param checksum Checksum of the Session
+     * @return True if the Session is known not to exist
+     */
+    public boolean isUnknownSession(final String checksum) {
+        final Long expires = unknownSessions.get(checksum);
+        var unknown = false;
+
+        if (expires != null) {
+            if (System.nanoTime() - expires < 0) {
+                rejectedSessions.increment();
+                unknown = true;
+            } else {
+                unknownSessions.remove(checksum, expires);
+            }
+        }
+
+        return unknown;
+    }
+
+    /**
+     * <p>Remembers the checksum of a Session, which was not found, has
+     * expired or was ended.</p>
+     *
+     * @param checksum Checksum of the Session
+     */
+    public void addUnknownSession(final String checksum) {
+        final long now = System.nanoTime();
+        final long interval = TimeUnit.SECONDS.toNanos(Settings.getInstance().getCacheCheckInterval());
+
+        if (interval > 0) {
+            if (unknownSessions.size() >= MAX_SESSIONS) {
+                unknownSessions.values().removeIf(expires -> now - expires >= 0);
+                if (unknownSessions.size() >= MAX_SESSIONS) {
+                    unknownSessions.clear();
+                }
+            }
+            unknownSessions.put(checksum, now + interval);
+        }
+    }
+
+    /**
+     * <p>Forgets the checksum of a Session, when it is (re)created.</p>
+     *
+     * @param checksum Checksum of the Session
+     */
+    public void removeUnknownSession(final String checksum) {
+        unknownSessions.remove(checksum);
+    }
+
+    /**
+     * <p>Invalidates the filter and forgets all unknown Sessions.</p>
+     */
+    public void invalidate() {
+        snapshot = null;
+        unknownSessions.clear();
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private Snapshot check(final CommonDao dao) {
+        final long now = System.nanoTime();
+        Snapshot current = snapshot;
+
+        if (current == null) {
+            current = read(dao, now);
+            snapshot = current;
+        } else if ((now - current.checked) >= TimeUnit.SECONDS.toNanos(Settings.getInstance().getCacheCheckInterval())) {
+            final long revision = dao.findRevision(REVISION);
+            // Revisions only increase, a lower Revision is read from a
+            // replica, which has not yet received the latest changes.
+            if (revision <= current.revision) {
+                current.checked = now;
+            } else {
+                current = read(dao, now);
+                snapshot = current;
+            }
+        }
+
+        return current;
+    }
+
+    private static Snapshot read(final CommonDao dao, final long now) {
+        final long revision = dao.findRevision(REVISION);
+        final List<String> names = dao.findAllMemberNames();
+        final var current = new Snapshot(names.size(), revision, now);
+
+        for (final String name : names) {
+            current.put(name.toLowerCase(Locale.ENGLISH));
+        }
+
+        return current;
+    }
+
+    /**
+     * <p>Bloom filter of the Account names, together with the Revision it was
+     * built from and the time of the latest Revision check. With 10 bits per
+     * name and 7 hash functions, the false positive rate is about 1%.</p>
+     */
+    private static final class Snapshot {
+
+        private final AtomicLongArray bits;
+        private final long size;
+        private final long revision;
+        private volatile long checked;
+
+        private Snapshot(final int names, final long revision, final long checked) {
+            final int words = (Math.max(MIN_BITS, names * BITS_PER_NAME) + Long.SIZE - 1) / Long.SIZE;
+            this.bits = new AtomicLongArray(words);
+            this.size = (long) words * Long.SIZE;
+            this.revision = revision;
+            this.checked = checked;
+        }
+
+        private void put(final String name) {
+            final long hash = hash(name);
+            for (int i = 0; i < HASHES; i++) {
+                final long bit = index(hash, i);
+                final long mask = 1L << bit;
+                bits.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+            }
+        }
+
+        private boolean mightContain(final String name) {
+            final long hash = hash(name);
+            for (int i = 0; i < HASHES; i++) {
+                final long bit = index(hash, i);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private long index(final long hash, final int i) {
+            // Double hashing, the two halves of the 64 bit hash are combined
+            // to simulate the independent hash functions.
+            final long combined = (hash & 0xFFFFFFFFL) + i * (hash >>> 32);
+            return Math.floorMod(combined, size);
+        }
+
+        private static long hash(final String name) {
+            // 64 bit FNV-1a
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < name.length(); i++) {
+                hash ^= name.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+
+            // The final mixing step from MurmurHash3, so both halves of the
+            // hash also differ for names which only differ at the end.
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+
+            return hash;
+        }
+    }
+}
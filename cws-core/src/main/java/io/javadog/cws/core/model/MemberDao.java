@@ -36,16 +36,14 @@ public final class MemberDao extends CommonDao {
     }
 
     public List<CircleEntity> findCirclesForMember(final MemberEntity member) {
-        final var query = entityManager
-                .createNamedQuery("trustee.findCirclesByMember")
+        final var query = createNamedQuery("trustee.findCirclesByMember")
                 .setParameter(MEMBER, member);
 
         return findList(query);
     }
 
     public List<TrusteeEntity> findCirclesBothBelongTo(final MemberEntity member, final MemberEntity requested) {
-        final var query = entityManager
-                .createNamedQuery("trustee.findSharedCircles")
+        final var query = createNamedQuery("trustee.findSharedCircles")
                 .setParameter(MEMBER, member)
                 .setParameter("requested", requested);
 
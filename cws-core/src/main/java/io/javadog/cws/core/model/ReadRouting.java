@@ -0,0 +1,371 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model;
+
+import io.javadog.cws.api.common.Action;
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.common.CredentialType;
+import io.javadog.cws.api.requests.Authentication;
+import io.javadog.cws.api.requests.ProcessMemberRequest;
+import io.javadog.cws.core.metrics.Counter;
+import io.javadog.cws.core.metrics.Metrics;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.PersistenceException;
+
+/**
+ * <p>Routing of the read-only requests to a replica of the database. The
+ * Replica is optional, and is enabled by setting the name of a Persistence
+ * Unit for it in the setting 'cws.replica.persistence.unit'. The unit must
+ * be declared in the persistence.xml of the deployment, typically as a
+ * RESOURCE_LOCAL unit using a read-only datasource.</p>
+ *
+ * <p>A replica may lag behind the primary database. To measure the lag, the
+ * Revision 'heartbeat' is increased on the primary database by the first CWS
+ * instance, which finds it older than half the cache check interval, while
+ * the replica is enabled. The replica is only used, if the heartbeat it has
+ * received is no older than the check interval plus the setting
+ * 'cws.replica.max.lag.seconds'. The lag is checked at most once per check
+ * interval.</p>
+ *
+ * <p>Clients must be able to read their own writes. Whenever a request
+ * writes, the identity used by it, i.e. the Account name or Session, is
+ * remembered for the same period, and reads with the identity are made
+ * against the primary database. The same applies to the System
+ * Administrator, as the Account is created with the first request.</p>
+ *
+ * <p>Note, that the writers are only remembered by the CWS instance, which
+ * processed the write. If the requests of a client are balanced over several
+ * instances, a read following a write may be made against the replica on
+ * another instance, and see the data as it was up to the accepted lag
+ * earlier. Such clients should either be routed to the same instance, or
+ * the replica should not be used. Sessions are the exception, if a Session
+ * cannot be found on the replica, it is looked up on the primary database,
+ * before the request is rejected.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class ReadRouting {
+
+    /** Name of the Revision, used to measure the replication lag. */
+    public static final String HEARTBEAT = "heartbeat";
+
+    private static final Logger LOG = Logger.getLogger(ReadRouting.class.getName());
+    private static final int MAX_WRITERS = 10_000;
+    private static final ThreadLocal<EntityManager> PRIMARY = new ThreadLocal<>();
+    private static final ReadRouting INSTANCE = new ReadRouting();
+
+    private final Map<String, Long> writers = new ConcurrentHashMap<>();
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+    private String unit = "";
+    private EntityManagerFactory factory = null;
+    private volatile long lagChecked = 0;
+    private volatile boolean lagAccepted = false;
+
+    /**
+     * Private Constructor, this is a Singleton.
+     */
+    private ReadRouting() {
+        final Metrics metrics = Metrics.getInstance();
+        primaryReads = metrics.counter("cws_read_routing_total", "Read-only requests by the database used.", "target", "primary");
+        replicaReads = metrics.counter("cws_read_routing_total", "Read-only requests by the database used.", "target", "replica");
+    }
+
+    public static ReadRouting getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>Finds the Entity Manager to process a read-only request with. The
+     * returned Route must be closed when the request is completed.</p>
+     *
+     * @param primary The Entity Manager for the primary database
+     * @param request The read-only request
+     * @return Route with the Entity Manager to use
+     */
+    public Route route(final EntityManager primary, final Authentication request) {
+        final String identity = identity(request);
+        EntityManager replica = null;
+
+        if ((identity != null) && !isRecentWriter(identity)) {
+            replica = openReplica();
+        }
+
+        if (replica != null) {
+            replicaReads.increment();
+        } else {
+            primaryReads.increment();
+        }
+
+        return new Route(primary, replica);
+    }
+
+    /**
+     * <p>Returns the Entity Manager for the primary database, if the request
+     * processed by the current thread is routed to the replica, otherwise
+     * null. Used for the lookups, which must not be rejected only because
+     * the replica lags behind.</p>
+     *
+     * @return Primary Entity Manager or null
+     */
+    public static EntityManager currentPrimary() {
+        return PRIMARY.get();
+    }
+
+    /**
+     * <p>Remembers the identity of a request, which writes to the primary
+     * database, so the following reads with the same identity are also made
+     * against the primary. Must be invoked before the request is processed,
+     * as the Credentials are removed from the request while processing
+     * it.</p>
+     *
+     * @param request The writing request
+     */
+    public void written(final Authentication request) {
+        if (isEnabled()) {
+            remember(identity(request));
+            if (request instanceof ProcessMemberRequest) {
+                // A Login will create a new Session, which must also be
+                // read from the primary database.
+                final ProcessMemberRequest memberRequest = (ProcessMemberRequest) request;
+                if ((memberRequest.getAction() == Action.LOGIN) && (memberRequest.getNewCredential() != null)) {
+                    remember(sessionIdentity(memberRequest.getNewCredential()));
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>Returns true if a replica is configured, in which case the primary
+     * database must receive heartbeats.</p>
+     *
+     * @return True if a replica is configured
+     */
+    public boolean isEnabled() {
+        return !Settings.getInstance().getReplicaUnit().isEmpty();
+    }
+
+    /**
+     * <p>Forgets the remembered writers and the result of the latest lag
+     * check.</p>
+     */
+    public void clear() {
+        writers.clear();
+        lagChecked = 0;
+        lagAccepted = false;
+    }
+
+    /**
+     * <p>Closes the Entity Manager Factory for the replica, when CWS is
+     * stopped. If the replica is used again, a new factory is created.</p>
+     */
+    public synchronized void close() {
+        if (factory != null) {
+            factory.close();
+            factory = null;
+        }
+        unit = "";
+        lagChecked = 0;
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private static String identity(final Authentication request) {
+        String identity = null;
+
+        if ((request != null) && (request.getCredential() != null)) {
+            if (request.getCredentialType() == CredentialType.SESSION) {
+                identity = sessionIdentity(request.getCredential());
+            } else if (request.getAccountName() != null) {
+                final String account = request.getAccountName().trim().toLowerCase(Locale.ENGLISH);
+                // The Administrator Account is created with the first
+                // request, so it is always read from the primary database.
+                if (!Objects.equals(Constants.ADMIN_ACCOUNT, account)) {
+                    identity = "account:" + account;
+                }
+            }
+        }
+
+        return identity;
+    }
+
+    private static String sessionIdentity(final byte[] credential) {
+        // The identity is only kept in memory, and a collision will at most
+        // cause a read from the primary database.
+        return "session:" + Arrays.hashCode(credential);
+    }
+
+    private static long window() {
+        final Settings settings = Settings.getInstance();
+        return TimeUnit.SECONDS.toNanos((long) settings.getCacheCheckInterval() + settings.getReplicaMaxLag());
+    }
+
+    private void remember(final String identity) {
+        if (identity != null) {
+            final long now = System.nanoTime();
+            if (writers.size() >= MAX_WRITERS) {
+                writers.values().removeIf(until -> now - until >= 0);
+            }
+            writers.put(identity, now + window());
+        }
+    }
+
+    private boolean isRecentWriter(final String identity) {
+        final Long until = writers.get(identity);
+        var recent = false;
+
+        if (until != null) {
+            if (System.nanoTime() - until < 0) {
+                recent = true;
+            } else {
+                writers.remove(identity, until);
+            }
+        }
+
+        // If too many writers are remembered, then it is not certain that
+        // all are, so everything is read from the primary database.
+        return recent || (writers.size() >= MAX_WRITERS);
+    }
+
+    private EntityManager openReplica() {
+        final EntityManagerFactory current = replicaFactory();
+        EntityManager replica = null;
+
+        if (current != null) {
+            try {
+                replica = current.createEntityManager();
+                if (!checkLag(replica)) {
+                    replica.close();
+                    replica = null;
+                }
+            } catch (PersistenceException e) {
+                LOG.log(Settings.WARN, e, () -> "Cannot read from the replica, using the primary database: " + e.getMessage());
+                if (replica != null) {
+                    replica.close();
+                }
+                replica = null;
+            }
+        }
+
+        return replica;
+    }
+
+    private synchronized EntityManagerFactory replicaFactory() {
+        final String configured = Settings.getInstance().getReplicaUnit();
+
+        if (!Objects.equals(unit, configured)) {
+            if (factory != null) {
+                factory.close();
+                factory = null;
+            }
+            unit = configured;
+            lagChecked = 0;
+            if (!configured.isEmpty()) {
+                try {
+                    factory = Persistence.createEntityManagerFactory(configured);
+                    LOG.log(Settings.INFO, () -> "Read-only requests are routed to the replica unit '" + configured + "'.");
+                } catch (PersistenceException e) {
+                    // The unit is remembered, so the creation is not
+                    // attempted again, until the setting is changed.
+                    LOG.log(Settings.ERROR, e, () -> "Cannot create the replica unit '" + configured + "': " + e.getMessage());
+                }
+            }
+        }
+
+        return factory;
+    }
+
+    private boolean checkLag(final EntityManager replica) {
+        final long now = System.nanoTime();
+        final Settings settings = Settings.getInstance();
+
+        if ((lagChecked == 0) || ((now - lagChecked) >= TimeUnit.SECONDS.toNanos(settings.getCacheCheckInterval()))) {
+            final Object[] found = CommonDao.findSingleRecord(replica
+                    .createNamedQuery("revision.findHeartbeat")
+                    .setParameter("name", HEARTBEAT));
+            var accepted = false;
+            if (found != null) {
+                final long lag = toMillis(found[1]) - toMillis(found[0]);
+                accepted = lag <= TimeUnit.SECONDS.toMillis((long) settings.getCacheCheckInterval() + settings.getReplicaMaxLag());
+                if (!accepted) {
+                    LOG.log(Settings.WARN, () -> "The replica is lagging " + lag + " ms behind, using the primary database.");
+                }
+            }
+            lagAccepted = accepted;
+            lagChecked = now;
+        }
+
+        return lagAccepted;
+    }
+
+    private static long toMillis(final Object timestamp) {
+        // The Heartbeat is mapped as LocalDateTime, whereas the JPA Providers
+        // returns the current time as a java.sql.Timestamp.
+        return (timestamp instanceof LocalDateTime)
+                ? Timestamp.valueOf((LocalDateTime) timestamp).getTime()
+                : ((Date) timestamp).getTime();
+    }
+
+    /**
+     * <p>The Entity Manager to use for a single read-only request. If it
+     * was opened for the replica, it is closed together with the Route.</p>
+     */
+    public static final class Route implements AutoCloseable {
+
+        private final EntityManager primary;
+        private final EntityManager replica;
+
+        private Route(final EntityManager primary, final EntityManager replica) {
+            this.primary = primary;
+            this.replica = replica;
+            if (replica != null) {
+                PRIMARY.set(primary);
+            }
+        }
+
+        public EntityManager getEntityManager() {
+            return (replica != null) ? replica : primary;
+        }
+
+        public boolean isReplica() {
+            return replica != null;
+        }
+
+        @Override
+        public void close() {
+            if (replica != null) {
+                PRIMARY.remove();
+                replica.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model;
+
+import io.javadog.cws.api.common.Utilities;
+import io.javadog.cws.core.enums.RotationStatus;
+import io.javadog.cws.core.model.entities.CircleEntity;
+import io.javadog.cws.core.model.entities.KeyEntity;
+import io.javadog.cws.core.model.entities.RotationEntity;
+import io.javadog.cws.core.model.entities.TrusteeEntity;
+import java.util.List;
+import javax.persistence.EntityManager;
+
+/**
+ * <p>Data Access Object functionality used explicitly for Key Rotations. The
+ * rows are read and updated in batches, ordered by their Id, so the Id of the
+ * last processed row can be used as checkpoint. The updates only succeed, if
+ * the row has not been altered since it was read.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class RotationDao extends CommonDao {
+
+    /**
+     * Name of the MasterKey Rotation.
+     */
+    public static final String MASTER_KEY = "masterkey";
+
+    /**
+     * Prefix for the Name of a Circle Key Rotation, the Name is completed
+     * with the External Id of the Circle.
+     */
+    public static final String CIRCLE_KEY = "circle:";
+
+    private static final String CHECKPOINT = "checkpoint";
+    private static final String PREVIOUS = "previous";
+    private static final String PREFIX = "prefix";
+    private static final String ID = "id";
+    private static final String KEY = "key";
+
+    public RotationDao(final EntityManager entityManager) {
+        super(entityManager);
+    }
+
+    public RotationEntity findRotation(final String name) {
+        final var query = createNamedQuery("rotation.findByName")
+                .setParameter(NAME, name);
+
+        return findSingleRecord(query);
+    }
+
+    public List<Object[]> findMemberSalts(final long checkpoint, final int maxResults) {
+        final var query = createNamedQuery("member.findSaltsAfter")
+                .setParameter(CHECKPOINT, checkpoint)
+                .setMaxResults(maxResults);
+
+        return findList(query);
+    }
+
+    /**
+     * <p>Finds the Member Salts, which are encrypted with the MasterKey
+     * identified by the given prefix, regardless of the checkpoint.</p>
+     *
+     * @param prefix     Prefix of the values, i.e. marker and separator
+     * @param maxResults Max number of rows to find
+     * @return List with the Id and Salt of the Members
+     */
+    public List<Object[]> findMemberSaltsWithPrefix(final String prefix, final int maxResults) {
+        final var query = createNamedQuery("member.findSaltsWithPrefix")
+                .setParameter(PREFIX, prefix + '%')
+                .setMaxResults(maxResults);
+
+        return findList(query);
+    }
+
+    public int updateMemberSalt(final Long id, final String salt, final String previous) {
+        return createNamedQuery("member.updateSalt")
+                .setParameter(ID, id)
+                .setParameter("salt", salt)
+                .setParameter(PREVIOUS, previous)
+                .executeUpdate();
+    }
+
+    public List<Object[]> findInitialVectors(final long checkpoint, final int maxResults) {
+        final var query = createNamedQuery("data.findInitialVectorsAfter")
+                .setParameter(CHECKPOINT, checkpoint)
+                .setMaxResults(maxResults);
+
+        return findList(query);
+    }
+
+    /**
+     * <p>Finds the Initial Vectors of the Data Objects, which are encrypted
+     * with the MasterKey identified by the given prefix, regardless of the
+     * checkpoint.</p>
+     *
+     * @param prefix     Prefix of the values, i.e. marker and separator
+     * @param maxResults Max number of rows to find
+     * @return List with the Id and Initial Vector of the Data Objects
+     */
+    public List<Object[]> findInitialVectorsWithPrefix(final String prefix, final int maxResults) {
+        final var query = createNamedQuery("data.findInitialVectorsWithPrefix")
+                .setParameter(PREFIX, prefix + '%')
+                .setMaxResults(maxResults);
+
+        return findList(query);
+    }
+
+    public int updateInitialVector(final Long id, final String initialVector, final String previous) {
+        return createNamedQuery("data.updateInitialVector")
+                .setParameter(ID, id)
+                .setParameter("initialVector", initialVector)
+                .setParameter(PREVIOUS, previous)
+                .executeUpdate();
+    }
+
+    public List<RotationEntity> findActiveRotations() {
+        final var query = createNamedQuery("rotation.findActive")
+                .setParameter(STATUS, RotationStatus.COMPLETED);
+
+        return findList(query);
+    }
+
+    public List<RotationEntity> findActiveCircleRotations() {
+        final var query = createNamedQuery("rotation.findActiveForCircles")
+                .setParameter(STATUS, RotationStatus.COMPLETED);
+
+        return findList(query);
+    }
+
+    /**
+     * <p>Counts the rows, which the given Rotation has yet to process in its
+     * current phase.</p>
+     *
+     * @param rotation The Rotation to count the remaining rows for
+     * @return Number of remaining rows
+     */
+    public long countRemaining(final RotationEntity rotation) {
+        long remaining = 0;
+
+        if (rotation.getCircle() != null) {
+            remaining = countDataByKey(rotation.getPreviousKey());
+        } else if (rotation.getStatus() == RotationStatus.MEMBERS) {
+            remaining = countAfter("member.countAfter", rotation.getCheckpoint());
+        } else if (rotation.getStatus() == RotationStatus.DATA) {
+            remaining = countAfter("data.countAfter", rotation.getCheckpoint());
+        }
+
+        return remaining;
+    }
+
+    public List<TrusteeEntity> findTrusteesByCircle(final CircleEntity circle) {
+        final var query = createNamedQuery("trustee.findByCircle")
+                .setParameter("circle", circle);
+
+        return findList(query);
+    }
+
+    public int clearPreviousKeys(final CircleEntity circle) {
+        return createNamedQuery("trustee.clearPreviousKey")
+                .setParameter("circle", circle)
+                .executeUpdate();
+    }
+
+    public List<Object[]> findDataByKey(final KeyEntity key, final long checkpoint, final int maxResults) {
+        final var query = createNamedQuery("data.findByKeyAfter")
+                .setParameter(KEY, key)
+                .setParameter(CHECKPOINT, checkpoint)
+                .setMaxResults(maxResults);
+
+        return findList(query);
+    }
+
+    public long countDataByKey(final KeyEntity key) {
+        final var query = createNamedQuery("data.countByKey")
+                .setParameter(KEY, key);
+
+        return (long) query.getSingleResult();
+    }
+
+    public int updateEncryption(final Long id, final KeyEntity key, final byte[] data, final String initialVector, final String checksum, final String previous) {
+        return createNamedQuery("data.updateEncryption")
+                .setParameter(ID, id)
+                .setParameter(KEY, key)
+                .setParameter("data", data)
+                .setParameter("initialVector", initialVector)
+                .setParameter("checksum", checksum)
+                .setParameter("altered", Utilities.newDate())
+                .setParameter(PREVIOUS, previous)
+                .executeUpdate();
+    }
+
+    private long countAfter(final String namedQuery, final long checkpoint) {
+        final var query = createNamedQuery(namedQuery)
+                .setParameter(CHECKPOINT, checkpoint);
+
+        return (long) query.getSingleResult();
+    }
+}
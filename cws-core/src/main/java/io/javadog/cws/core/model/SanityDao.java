@@ -36,8 +36,7 @@ public final class SanityDao extends CommonDao {
     }
 
     public List<DataEntity> findFailedRecords(final LocalDateTime since) {
-        final var query = entityManager
-                .createNamedQuery("data.findAllWithState")
+        final var query = createNamedQuery("data.findAllWithState")
                 .setParameter(STATUS, SanityStatus.FAILED)
                 .setParameter(SINCE, since);
 
@@ -45,8 +44,7 @@ public final class SanityDao extends CommonDao {
     }
 
     public List<DataEntity> findFailedRecords(final MemberEntity circleAdministrator, final LocalDateTime since) {
-        final var query = entityManager
-                .createNamedQuery("data.findAllWithStateForMember")
+        final var query = createNamedQuery("data.findAllWithStateForMember")
                 .setParameter(STATUS, SanityStatus.FAILED)
                 .setParameter(SINCE, since)
                 .setParameter(MEMBER, circleAdministrator);
@@ -55,8 +53,7 @@ public final class SanityDao extends CommonDao {
     }
 
     public List<DataEntity> findFailedRecords(final String circleId, final LocalDateTime since) {
-        final var query = entityManager
-                .createNamedQuery("data.findAllWithStateForCircle")
+        final var query = createNamedQuery("data.findAllWithStateForCircle")
                 .setParameter(STATUS, SanityStatus.FAILED)
                 .setParameter(SINCE, since)
                 .setParameter(EXTERNAL_ID, circleId);
@@ -22,11 +22,14 @@ import io.javadog.cws.core.enums.KeyAlgorithm;
 import io.javadog.cws.core.enums.StandardSetting;
 import io.javadog.cws.core.exceptions.CWSException;
 import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.logging.Level;
 
 /**
@@ -42,8 +45,15 @@ import java.util.logging.Level;
  *
  * <p>Once a CWS system is being actively used, i.e. there exist Member Accounts
  * other than the System Administrator, then the rules regarding the
- * non-updatable values will be enforced. Updatable fields may be changed, but
- * the CWS will only use them after a restart.</p>
+ * non-updatable values will be enforced. Updatable fields may be changed, and
+ * as the Revision of the Settings is increased with each change, all CWS
+ * instances will reload them shortly after.</p>
+ *
+ * <p>The Settings are read by almost every request, often several times, but
+ * only rarely changed. Hence, the values are kept in an immutable snapshot,
+ * where the standard settings are parsed into their typed value once, when the
+ * snapshot is created. Changes will create a new snapshot, which replaces the
+ * current via a volatile reference, so reading never requires a lock.</p>
  *
  * @author Kim Jensen
  * @since CWS 1.0
@@ -58,29 +68,34 @@ public final class Settings {
     public static final Level WARN = Level.WARNING;
     /** Error log level, used if an internal error occurred. */
     public static final Level ERROR = Level.SEVERE;
+    /** Name of the Revision for the Settings. */
+    public static final String REVISION = "settings";
 
-    private static Settings instance = null;
-    private static final Object LOCK = new Object();
+    // The parsers must be initialized before the instance is created.
+    private static final Map<StandardSetting, Function<String, ?>> PARSERS = prepareParsers();
+    private static final Settings INSTANCE = new Settings();
 
-    private final Properties properties = new Properties();
+    private final Object lock = new Object();
+    private volatile Snapshot snapshot;
 
     /**
      * Private Constructor, this is a Singleton.
      */
     private Settings() {
+        final Map<String, String> defaults = new HashMap<>(32);
         for (final StandardSetting setting : StandardSetting.values()) {
-            set(setting, setting.getValue());
+            defaults.put(setting.getKey(), setting.getValue());
         }
+
+        snapshot = new Snapshot(defaults);
     }
 
-    public static Settings getInstance() {
-        synchronized (LOCK) {
-            if (instance == null) {
-                instance = new Settings();
-            }
+    private Settings(final Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
 
-            return instance;
-        }
+    public static Settings getInstance() {
+        return INSTANCE;
     }
 
     // =========================================================================
@@ -92,29 +107,63 @@ public final class Settings {
     }
 
     public void set(final String key, final String value) {
-        properties.setProperty(key, value);
+        update(Collections.singletonMap(key, value));
     }
 
     public String get(final String key) {
-        return properties.getProperty(key);
+        return snapshot.values.get(key);
     }
 
     public Map<String, String> get() {
-        final Map<String, String> copy = new ConcurrentHashMap<>(16);
-
-        for (final String key : keys()) {
-            copy.put(key, get(key));
-        }
-
-        return copy;
+        return new ConcurrentHashMap<>(snapshot.values);
     }
 
     public Set<String> keys() {
-        return properties.stringPropertyNames();
+        return snapshot.values.keySet();
     }
 
     public void remove(final String key) {
-        properties.remove(key);
+        update(Collections.singletonMap(key, null));
+    }
+
+    /**
+     * <p>Updates the Settings with all the given changes, and publishes them
+     * as a single new snapshot. Meaning that other threads will either see all
+     * or none of the changes. If a value is null, then the setting is
+     * removed.</p>
+     *
+     * @param changes Map with the settings to change
+     */
+    public void update(final Map<String, String> changes) {
+        synchronized (lock) {
+            snapshot = apply(snapshot, changes);
+        }
+    }
+
+    /**
+     * <p>Returns a detached copy of the Settings with the given changes, the
+     * Settings themselves are left unaltered. The copy is used to prepare
+     * changes, which may first be published once they have been persisted.</p>
+     *
+     * @param changes Map with the settings to change
+     * @return New Settings instance, with the changes applied
+     */
+    public Settings copyWith(final Map<String, String> changes) {
+        return new Settings(apply(snapshot, changes));
+    }
+
+    private static Snapshot apply(final Snapshot current, final Map<String, String> changes) {
+        final Map<String, String> values = new HashMap<>(current.values);
+
+        for (final Map.Entry<String, String> entry : changes.entrySet()) {
+            if (entry.getValue() == null) {
+                values.remove(entry.getKey());
+            } else {
+                values.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return new Snapshot(values);
     }
 
     // =========================================================================
@@ -122,74 +171,220 @@ public final class Settings {
     // =========================================================================
 
     public KeyAlgorithm getSymmetricAlgorithm() {
-        return KeyAlgorithm.valueOf(get(StandardSetting.SYMMETRIC_ALGORITHM.getKey()));
+        return typed(StandardSetting.SYMMETRIC_ALGORITHM);
     }
 
     public KeyAlgorithm getAsymmetricAlgorithm() {
-        return KeyAlgorithm.valueOf(get(StandardSetting.ASYMMETRIC_ALGORITHM.getKey()));
+        return typed(StandardSetting.ASYMMETRIC_ALGORITHM);
     }
 
     public KeyAlgorithm getSignatureAlgorithm() {
-        return KeyAlgorithm.valueOf(get(StandardSetting.SIGNATURE_ALGORITHM.getKey()));
+        return typed(StandardSetting.SIGNATURE_ALGORITHM);
     }
 
     public KeyAlgorithm getPasswordAlgorithm() {
-        return KeyAlgorithm.valueOf(get(StandardSetting.PBE_ALGORITHM.getKey()));
+        return typed(StandardSetting.PBE_ALGORITHM);
     }
 
     public Integer getPasswordIterations() {
-        return Integer.valueOf(get(StandardSetting.PBE_ITERATIONS.getKey()).trim());
+        return typed(StandardSetting.PBE_ITERATIONS);
     }
 
     public HashAlgorithm getHashAlgorithm() {
-        return HashAlgorithm.valueOf(get(StandardSetting.HASH_ALGORITHM.getKey()));
+        return typed(StandardSetting.HASH_ALGORITHM);
     }
 
     public String getSalt() {
-        return get(StandardSetting.CWS_SALT.getKey());
+        return typed(StandardSetting.CWS_SALT);
     }
 
     public Locale getLocale() {
-        return Locale.forLanguageTag(get(StandardSetting.CWS_LOCALE.getKey()));
+        return typed(StandardSetting.CWS_LOCALE);
     }
 
     public Charset getCharset() {
-        try {
-            return Charset.forName(get(StandardSetting.CWS_CHARSET.getKey()));
-        } catch (IllegalArgumentException e) {
-            throw new CWSException(ReturnCode.SETTING_ERROR, e);
-        }
+        return typed(StandardSetting.CWS_CHARSET);
     }
 
     public boolean hasShowAllCircles() {
-        return Boolean.parseBoolean(get(StandardSetting.SHOW_CIRCLES.getKey()).trim());
+        return typed(StandardSetting.SHOW_CIRCLES);
     }
 
     public boolean hasShareTrustees() {
-        return Boolean.parseBoolean(get(StandardSetting.SHOW_TRUSTEES.getKey()).trim());
+        return typed(StandardSetting.SHOW_TRUSTEES);
     }
 
     public boolean hasSanityStartup() {
-        return Boolean.parseBoolean(get(StandardSetting.SANITY_STARTUP.getKey()).trim());
+        return typed(StandardSetting.SANITY_STARTUP);
     }
 
     public Integer getSanityInterval() {
-        return Integer.valueOf(get(StandardSetting.SANITY_INTERVAL.getKey()).trim());
+        return typed(StandardSetting.SANITY_INTERVAL);
     }
 
     public Integer getSessionTimeout() {
-        return Integer.valueOf(get(StandardSetting.SESSION_TIMEOUT.getKey()).trim());
+        return typed(StandardSetting.SESSION_TIMEOUT);
     }
 
     public String getMasterKeyURL() {
-        return get(StandardSetting.MASTERKEY_URL.getKey()).trim();
+        return typed(StandardSetting.MASTERKEY_URL);
     }
 
     public String getCORS() {
-        return get(StandardSetting.CORS.getKey()).trim();
+        return typed(StandardSetting.CORS);
+    }
+
+    public Integer getCacheCheckInterval() {
+        return typed(StandardSetting.CACHE_CHECK_INTERVAL);
+    }
+
+    public boolean hasExposeRequestTiming() {
+        return typed(StandardSetting.EXPOSE_REQUEST_TIMING);
+    }
+
+    public Integer getRestThreads() {
+        return typed(StandardSetting.REST_THREADS);
+    }
+
+    public Integer getRestQueueSize() {
+        return typed(StandardSetting.REST_QUEUE_SIZE);
+    }
+
+    public Integer getRestRetryAfter() {
+        return typed(StandardSetting.REST_RETRY_AFTER);
+    }
+
+    public Integer getAdmissionAccountRate() {
+        return typed(StandardSetting.ADMISSION_ACCOUNT_RATE);
+    }
+
+    public Integer getAdmissionSourceRate() {
+        return typed(StandardSetting.ADMISSION_SOURCE_RATE);
+    }
+
+    public Integer getAdmissionAccountTotalRate() {
+        return typed(StandardSetting.ADMISSION_ACCOUNT_TOTAL_RATE);
+    }
+
+    public String getReplicaUnit() {
+        return typed(StandardSetting.REPLICA_UNIT);
+    }
+
+    public Integer getReplicaMaxLag() {
+        return typed(StandardSetting.REPLICA_MAX_LAG);
+    }
+
+    public Integer getDataCacheSize() {
+        return typed(StandardSetting.DATA_CACHE_SIZE);
+    }
+
+    public Integer getRotationBatchSize() {
+        return typed(StandardSetting.ROTATION_BATCH_SIZE);
+    }
+
+    public Integer getRotationMaxBatches() {
+        return typed(StandardSetting.ROTATION_MAX_BATCHES);
     }
 
     public boolean isReady() {
-        return Boolean.parseBoolean(get(StandardSetting.IS_READY.getKey()).trim());
+        return typed(StandardSetting.IS_READY);
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    /**
+     * <p>Returns the typed value of the Standard Setting from the current
+     * snapshot. If the value could not be parsed when the snapshot was made,
+     * then it is parsed again, so the caller gets the same error as if the
+     * value was read directly.</p>
+     *
+     * @param setting The Standard Setting to read
+     * @param <T>     The type of the parsed Setting
+     * @return The parsed value
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T typed(final StandardSetting setting) {
+        final Snapshot current = snapshot;
+        final Object value = current.parsed.get(setting);
+
+        return (T) ((value != null) ? value : PARSERS.get(setting).apply(current.values.get(setting.getKey())));
+    }
+
+    private static Map<StandardSetting, Function<String, ?>> prepareParsers() {
+        final Function<String, KeyAlgorithm> algorithm = KeyAlgorithm::valueOf;
+        final Function<String, Integer> number = value -> Integer.valueOf(value.trim());
+        final Function<String, Boolean> bool = value -> Boolean.parseBoolean(value.trim());
+        final Function<String, String> trimmed = String::trim;
+
+        final Map<StandardSetting, Function<String, ?>> parsers = new EnumMap<>(StandardSetting.class);
+        parsers.put(StandardSetting.SYMMETRIC_ALGORITHM, algorithm);
+        parsers.put(StandardSetting.ASYMMETRIC_ALGORITHM, algorithm);
+        parsers.put(StandardSetting.SIGNATURE_ALGORITHM, algorithm);
+        parsers.put(StandardSetting.PBE_ALGORITHM, algorithm);
+        parsers.put(StandardSetting.PBE_ITERATIONS, number);
+        parsers.put(StandardSetting.HASH_ALGORITHM, HashAlgorithm::valueOf);
+        parsers.put(StandardSetting.CWS_SALT, Function.identity());
+        parsers.put(StandardSetting.CWS_LOCALE, Locale::forLanguageTag);
+        parsers.put(StandardSetting.CWS_CHARSET, Settings::parseCharset);
+        parsers.put(StandardSetting.SHOW_CIRCLES, bool);
+        parsers.put(StandardSetting.SHOW_TRUSTEES, bool);
+        parsers.put(StandardSetting.SANITY_STARTUP, bool);
+        parsers.put(StandardSetting.SANITY_INTERVAL, number);
+        parsers.put(StandardSetting.SESSION_TIMEOUT, number);
+        parsers.put(StandardSetting.MASTERKEY_URL, trimmed);
+        parsers.put(StandardSetting.CORS, trimmed);
+        parsers.put(StandardSetting.CACHE_CHECK_INTERVAL, number);
+        parsers.put(StandardSetting.EXPOSE_REQUEST_TIMING, bool);
+        parsers.put(StandardSetting.REST_THREADS, number);
+        parsers.put(StandardSetting.REST_QUEUE_SIZE, number);
+        parsers.put(StandardSetting.REST_RETRY_AFTER, number);
+        parsers.put(StandardSetting.ADMISSION_ACCOUNT_RATE, number);
+        parsers.put(StandardSetting.ADMISSION_SOURCE_RATE, number);
+        parsers.put(StandardSetting.ADMISSION_ACCOUNT_TOTAL_RATE, number);
+        parsers.put(StandardSetting.REPLICA_UNIT, trimmed);
+        parsers.put(StandardSetting.REPLICA_MAX_LAG, number);
+        parsers.put(StandardSetting.DATA_CACHE_SIZE, number);
+        parsers.put(StandardSetting.ROTATION_BATCH_SIZE, number);
+        parsers.put(StandardSetting.ROTATION_MAX_BATCHES, number);
+        parsers.put(StandardSetting.IS_READY, bool);
+
+        return parsers;
+    }
+
+    private static Charset parseCharset(final String value) {
+        try {
+            return Charset.forName(value);
+        } catch (IllegalArgumentException e) {
+            throw new CWSException(ReturnCode.SETTING_ERROR, e);
+        }
+    }
+
+    /**
+     * <p>Immutable snapshot of the Settings, with the Standard Settings parsed
+     * into their typed values. Values which cannot be parsed are left out of
+     * the parsed map.</p>
+     */
+    private static final class Snapshot {
+
+        private final Map<String, String> values;
+        private final Map<StandardSetting, Object> parsed = new EnumMap<>(StandardSetting.class);
+
+        private Snapshot(final Map<String, String> values) {
+            this.values = Collections.unmodifiableMap(values);
+
+            for (final Map.Entry<StandardSetting, Function<String, ?>> entry : PARSERS.entrySet()) {
+                final String value = values.get(entry.getKey().getKey());
+                if (value != null) {
+                    try {
+                        parsed.put(entry.getKey(), entry.getValue().apply(value));
+                    } catch (RuntimeException e) {
+                        // Invalid values are parsed again when read, so the
+                        // error is reported to the caller.
+                    }
+                }
+            }
+        }
     }
 }
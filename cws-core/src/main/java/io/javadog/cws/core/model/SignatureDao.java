@@ -35,16 +35,14 @@ public final class SignatureDao extends CommonDao {
     }
 
     public SignatureEntity findByChecksum(final String checksum) {
-        final var query = entityManager
-                .createNamedQuery("signature.findByChecksum")
+        final var query = createNamedQuery("signature.findByChecksum")
                 .setParameter("checksum", checksum);
 
         return findSingleRecord(query);
     }
 
     public List<SignatureEntity> findAllSignatures(final MemberEntity member) {
-        final var query = entityManager
-                .createNamedQuery("signature.findByMember")
+        final var query = createNamedQuery("signature.findByMember")
                 .setParameter(MEMBER, member);
 
         return findList(query);
@@ -34,8 +34,7 @@ public final class TrusteeDao extends CommonDao {
     }
 
     public List<TrusteeEntity> findTrusteesByMemberAndCircle(final String externalMemberId, final String externalCircleId) {
-        final var query = entityManager
-                .createNamedQuery("trustee.findByCircleAndMember")
+        final var query = createNamedQuery("trustee.findByCircleAndMember")
                 .setParameter("emid", externalMemberId)
                 .setParameter("ecid", externalCircleId);
 
@@ -43,16 +42,14 @@ public final class TrusteeDao extends CommonDao {
     }
 
     public List<TrusteeEntity> findTrusteesByMember(final String externalMemberId) {
-        final var query = entityManager
-                .createNamedQuery("trustee.findByExternalMemberId")
+        final var query = createNamedQuery("trustee.findByExternalMemberId")
                 .setParameter("externalMemberId", externalMemberId);
 
         return findList(query);
     }
 
     public List<TrusteeEntity> findTrusteesByCircle(final String externalCircleId) {
-        final var query = entityManager
-                .createNamedQuery("trustee.findByExternalCircleId")
+        final var query = createNamedQuery("trustee.findByExternalCircleId")
                 .setParameter("externalCircleId", externalCircleId);
 
         return findList(query);
@@ -18,6 +18,7 @@ package io.javadog.cws.core.model.entities;
 
 import io.javadog.cws.api.common.Constants;
 import io.javadog.cws.api.common.Utilities;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.NamedQuery;
@@ -30,6 +31,7 @@ import javax.persistence.Table;
  * @since CWS 1.0
  */
 @Entity
+@Cacheable
 @Table(name = "cws_circles")
 @NamedQuery(name = "circle.findByName",
         query = "select c from CircleEntity c " +
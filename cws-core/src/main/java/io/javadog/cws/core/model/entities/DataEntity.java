@@ -68,12 +68,84 @@ import javax.persistence.Table;
                 "  and d.metadata.externalId = :externalId" +
                 "  and t.member = :member" +
                 "  and t.trustLevel in :trustLevels")
+@NamedQuery(name = "data.findWithParentByMemberAndExternalId",
+        query = "select d, p.externalId " +
+                "from DataEntity d" +
+                "  join fetch d.key," +
+                "     MetadataEntity p," +
+                "     TrusteeEntity t " +
+                "where d.metadata.circle.id = t.circle.id" +
+                "  and p.id = d.metadata.parentId" +
+                "  and d.metadata.externalId = :externalId" +
+                "  and t.member = :member" +
+                "  and t.trustLevel in :trustLevels")
+@NamedQuery(name = "data.findHeaderWithParentByMemberAndExternalId",
+        query = "select d.altered, d.checksum, d.initialVector, k, p.externalId " +
+                "from DataEntity d" +
+                "  join d.key k," +
+                "     MetadataEntity p," +
+                "     TrusteeEntity t " +
+                "where d.metadata.circle.id = t.circle.id" +
+                "  and p.id = d.metadata.parentId" +
+                "  and d.metadata.externalId = :externalId" +
+                "  and t.member = :member" +
+                "  and t.trustLevel in :trustLevels")
 @NamedQuery(name = "data.findIdsForSanityCheck",
         query = "select d.id " +
                 "from DataEntity d " +
                 "where d.sanityStatus = :status" +
                 "  and d.sanityChecked <= :date " +
                 "order by d.id asc")
+@NamedQuery(name = "data.updateSanity",
+        query = "update DataEntity d set " +
+                "  d.sanityStatus = :status," +
+                "  d.sanityChecked = :checked " +
+                "where d.id in :ids" +
+                "  and d.altered <= :checked")
+@NamedQuery(name = "data.updateSanityIfUnaltered",
+        query = "update DataEntity d set " +
+                "  d.sanityStatus = :status," +
+                "  d.sanityChecked = :checked " +
+                "where d.id = :id" +
+                "  and d.altered <= :altered")
+@NamedQuery(name = "data.findInitialVectorsAfter",
+        query = "select d.id, d.initialVector " +
+                "from DataEntity d " +
+                "where d.id > :checkpoint " +
+                "order by d.id asc")
+@NamedQuery(name = "data.findInitialVectorsWithPrefix",
+        query = "select d.id, d.initialVector " +
+                "from DataEntity d " +
+                "where d.initialVector like :prefix " +
+                "order by d.id asc")
+@NamedQuery(name = "data.countAfter",
+        query = "select count(d.id) " +
+                "from DataEntity d " +
+                "where d.id > :checkpoint")
+@NamedQuery(name = "data.updateInitialVector",
+        query = "update DataEntity set" +
+                "  initialVector = :initialVector " +
+                "where id = :id" +
+                "  and initialVector = :previous")
+@NamedQuery(name = "data.findByKeyAfter",
+        query = "select d.id, d.metadata.id, d.initialVector, d.data " +
+                "from DataEntity d " +
+                "where d.key = :key" +
+                "  and d.id > :checkpoint " +
+                "order by d.id asc")
+@NamedQuery(name = "data.countByKey",
+        query = "select count(d.id) " +
+                "from DataEntity d " +
+                "where d.key = :key")
+@NamedQuery(name = "data.updateEncryption",
+        query = "update DataEntity set" +
+                "  key = :key," +
+                "  data = :data," +
+                "  initialVector = :initialVector," +
+                "  checksum = :checksum," +
+                "  altered = :altered " +
+                "where id = :id" +
+                "  and initialVector = :previous")
 @Table(name = "cws_data")
 public class DataEntity extends CWSEntity {
 
@@ -82,7 +154,7 @@ public class DataEntity extends CWSEntity {
     private MetadataEntity metadata = null;
 
     @ManyToOne(targetEntity = KeyEntity.class, fetch = FetchType.EAGER, optional = false)
-    @JoinColumn(name = "key_id", referencedColumnName = "id", nullable = false, updatable = false)
+    @JoinColumn(name = "key_id", referencedColumnName = "id", nullable = false)
     private KeyEntity key = null;
 
     @Column(name = "encrypted_data", nullable = false)
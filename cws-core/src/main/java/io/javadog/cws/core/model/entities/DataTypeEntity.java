@@ -17,6 +17,7 @@
 package io.javadog.cws.core.model.entities;
 
 import io.javadog.cws.api.common.Constants;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.NamedQuery;
@@ -29,6 +30,7 @@ import javax.persistence.Table;
  * @since CWS 1.0
  */
 @Entity
+@Cacheable
 @NamedQuery(name = "type.findAll",
         query = "select d " +
                 "from DataTypeEntity d " +
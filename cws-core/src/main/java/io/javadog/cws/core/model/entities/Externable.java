@@ -17,6 +17,7 @@
 package io.javadog.cws.core.model.entities;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.MappedSuperclass;
 
 /**
@@ -24,13 +25,17 @@ import javax.persistence.MappedSuperclass;
  * identify the Objects will all extend this Class, as it contain the common
  * Externable Id, which differs from the internal Id.</p>
  *
+ * <p>The Externable Id is stored as a native UUID, but is converted to and
+ * from the String form, which is also used by the API.</p>
+ *
  * @author Kim Jensen
  * @since CWS 1.0
  */
 @MappedSuperclass
 public class Externable extends CWSEntity {
 
-    @Column(name = "external_id", unique = true, nullable = false, updatable = false, length = 36)
+    @Convert(converter = ExternalIdConverter.class)
+    @Column(name = "external_id", unique = true, nullable = false, updatable = false)
     private String externalId = null;
 
     // =========================================================================
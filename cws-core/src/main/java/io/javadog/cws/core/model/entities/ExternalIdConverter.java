@@ -0,0 +1,67 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model.entities;
+
+import java.util.UUID;
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * <p>The External Id's are all UUIDs, so rather than storing them as 36
+ * character long Strings, they are stored in the native UUID type of the
+ * database, which is 16 bytes. Internally and via the API, the Id's are
+ * still handled as Strings, the conversion is handled by this Converter.</p>
+ *
+ * <p>The API only verifies that an External Id looks like a UUID, meaning
+ * that it may still contain characters which are not hexadecimal. As such
+ * an Id can never have been generated by CWS, it is mapped to the nil UUID,
+ * which is never generated either, so lookups with it simply find nothing.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@Converter
+public class ExternalIdConverter implements AttributeConverter<String, UUID> {
+
+    private static final UUID NIL = new UUID(0L, 0L);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UUID convertToDatabaseColumn(final String attribute) {
+        UUID uuid = null;
+
+        if (attribute != null) {
+            try {
+                uuid = UUID.fromString(attribute);
+            } catch (IllegalArgumentException e) {
+                uuid = NIL;
+            }
+        }
+
+        return uuid;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String convertToEntityAttribute(final UUID dbData) {
+        return (dbData != null) ? dbData.toString() : null;
+    }
+}
@@ -19,6 +19,7 @@ package io.javadog.cws.core.model.entities;
 import io.javadog.cws.core.enums.KeyAlgorithm;
 import io.javadog.cws.core.enums.Status;
 import java.time.LocalDateTime;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -32,6 +33,7 @@ import javax.persistence.Table;
  * @since CWS 1.0
  */
 @Entity
+@Cacheable
 @Table(name = "cws_keys")
 public class KeyEntity extends CWSEntity {
 
@@ -19,7 +19,6 @@ package io.javadog.cws.core.model.entities;
 import io.javadog.cws.api.common.Constants;
 import io.javadog.cws.api.common.MemberRole;
 import io.javadog.cws.core.enums.KeyAlgorithm;
-import java.time.LocalDateTime;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -41,10 +40,9 @@ import javax.persistence.Table;
         query = "select m " +
                 "from MemberEntity m " +
                 "where lower(m.name) = lower(:name)")
-@NamedQuery(name = "member.findByChecksum",
-        query = "select m " +
-                "from MemberEntity m " +
-                "where m.sessionChecksum = :checksum")
+@NamedQuery(name = "member.findAllNames",
+        query = "select m.name " +
+                "from MemberEntity m")
 @NamedQuery(name = "member.findByRole",
         query = "select m " +
                 "from MemberEntity m " +
@@ -55,12 +53,25 @@ import javax.persistence.Table;
                 "from TrusteeEntity e " +
                 "where lower(e.member.name) = lower(:name)" +
                 "  and e.circle.externalId = :externalCircleId")
-@NamedQuery(name = "member.removeExpiredSessions",
+@NamedQuery(name = "member.findSaltsAfter",
+        query = "select m.id, m.salt " +
+                "from MemberEntity m " +
+                "where m.id > :checkpoint " +
+                "order by m.id asc")
+@NamedQuery(name = "member.findSaltsWithPrefix",
+        query = "select m.id, m.salt " +
+                "from MemberEntity m " +
+                "where m.salt like :prefix " +
+                "order by m.id asc")
+@NamedQuery(name = "member.countAfter",
+        query = "select count(m.id) " +
+                "from MemberEntity m " +
+                "where m.id > :checkpoint")
+@NamedQuery(name = "member.updateSalt",
         query = "update MemberEntity set" +
-                "  sessionChecksum = null," +
-                "  sessionCrypto = null," +
-                "  sessionExpire = null " +
-                "where sessionExpire > current_timestamp")
+                "  salt = :salt " +
+                "where id = :id" +
+                "  and salt = :previous")
 @Table(name = "cws_members")
 public class MemberEntity extends Externable {
 
@@ -91,15 +102,6 @@ public class MemberEntity extends Externable {
     @Column(name = "member_role", nullable = false, length = 10)
     private MemberRole memberRole = null;
 
-    @Column(name = "session_checksum", length = 256)
-    private String sessionChecksum = null;
-
-    @Column(name = "session_crypto", length = 16384)
-    private String sessionCrypto = null;
-
-    @Column(name = "session_expire")
-    private LocalDateTime sessionExpire = null;
-
     // =========================================================================
     // Entity Setters & Getters
     // =========================================================================
@@ -167,28 +169,4 @@ public class MemberEntity extends Externable {
     public MemberRole getMemberRole() {
         return memberRole;
     }
-
-    public void setSessionChecksum(final String sessionChecksum) {
-        this.sessionChecksum = sessionChecksum;
-    }
-
-    public String getSessionChecksum() {
-        return sessionChecksum;
-    }
-
-    public void setSessionCrypto(final String sessionCrypto) {
-        this.sessionCrypto = sessionCrypto;
-    }
-
-    public String getSessionCrypto() {
-        return sessionCrypto;
-    }
-
-    public void setSessionExpire(final LocalDateTime sessionExpire) {
-        this.sessionExpire = sessionExpire;
-    }
-
-    public LocalDateTime getSessionExpire() {
-        return sessionExpire;
-    }
 }
@@ -0,0 +1,80 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+/**
+ * <p>CWS Revision Entity, maps the Revision table from the Database. The
+ * Revisions are used by the CWS instances to see if locally cached
+ * information is outdated.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@Entity
+@NamedQuery(name = "revision.findByName",
+        query = "select r.revision " +
+                "from RevisionEntity r " +
+                "where r.name = :name")
+@NamedQuery(name = "revision.findHeartbeat",
+        query = "select r.altered, current_timestamp " +
+                "from RevisionEntity r " +
+                "where r.name = :name")
+@NamedQuery(name = "revision.increase",
+        query = "update RevisionEntity set" +
+                "  revision = revision + 1," +
+                "  altered = current_timestamp " +
+                "where name = :name")
+@NamedQuery(name = "revision.increaseIfOlder",
+        query = "update RevisionEntity set" +
+                "  revision = revision + 1," +
+                "  altered = current_timestamp " +
+                "where name = :name" +
+                "  and altered < :before")
+@Table(name = "cws_revisions")
+public class RevisionEntity extends CWSEntity {
+
+    @Column(name = "name", unique = true, nullable = false)
+    private String name = null;
+
+    @Column(name = "revision", nullable = false)
+    private Long revision = 0L;
+
+    // =========================================================================
+    // Entity Setters & Getters
+    // =========================================================================
+
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setRevision(final Long revision) {
+        this.revision = revision;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model.entities;
+
+import io.javadog.cws.core.enums.RotationStatus;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+/**
+ * <p>CWS Rotation Entity, maps the Rotation table from the Database. A
+ * Rotation holds the progress of re-encrypting the rows with a new Key, so
+ * any CWS instance can continue it, also after a restart.</p>
+ *
+ * <p>Rotations of a Circle Key also refer to the Circle, and to both the
+ * previous and the new Key of it.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@Entity
+@NamedQuery(name = "rotation.findByName",
+        query = "select r " +
+                "from RotationEntity r " +
+                "where r.name = :name")
+@NamedQuery(name = "rotation.findActive",
+        query = "select r " +
+                "from RotationEntity r " +
+                "where r.status <> :status " +
+                "order by r.id asc")
+@NamedQuery(name = "rotation.findActiveForCircles",
+        query = "select r " +
+                "from RotationEntity r " +
+                "where r.circle is not null" +
+                "  and r.status <> :status " +
+                "order by r.id asc")
+@Table(name = "cws_rotations")
+public class RotationEntity extends CWSEntity {
+
+    @Column(name = "name", unique = true, nullable = false)
+    private String name = null;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private RotationStatus status = RotationStatus.MEMBERS;
+
+    @Column(name = "checkpoint", nullable = false)
+    private Long checkpoint = 0L;
+
+    @Column(name = "processed", nullable = false)
+    private Long processed = 0L;
+
+    @ManyToOne(targetEntity = CircleEntity.class, fetch = FetchType.EAGER)
+    @JoinColumn(name = "circle_id", referencedColumnName = "id")
+    private CircleEntity circle = null;
+
+    @ManyToOne(targetEntity = KeyEntity.class, fetch = FetchType.EAGER)
+    @JoinColumn(name = "key_id", referencedColumnName = "id")
+    private KeyEntity key = null;
+
+    @ManyToOne(targetEntity = KeyEntity.class, fetch = FetchType.EAGER)
+    @JoinColumn(name = "previous_key_id", referencedColumnName = "id")
+    private KeyEntity previousKey = null;
+
+    @Column(name = "secret")
+    private String secret = null;
+
+    // =========================================================================
+    // Entity Setters & Getters
+    // =========================================================================
+
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setStatus(final RotationStatus status) {
+        this.status = status;
+    }
+
+    public RotationStatus getStatus() {
+        return status;
+    }
+
+    public void setCheckpoint(final Long checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public Long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setProcessed(final Long processed) {
+        this.processed = processed;
+    }
+
+    public Long getProcessed() {
+        return processed;
+    }
+
+    public void setCircle(final CircleEntity circle) {
+        this.circle = circle;
+    }
+
+    public CircleEntity getCircle() {
+        return circle;
+    }
+
+    public void setKey(final KeyEntity key) {
+        this.key = key;
+    }
+
+    public KeyEntity getKey() {
+        return key;
+    }
+
+    public void setPreviousKey(final KeyEntity previousKey) {
+        this.previousKey = previousKey;
+    }
+
+    public KeyEntity getPreviousKey() {
+        return previousKey;
+    }
+
+    public void setSecret(final String secret) {
+        this.secret = secret;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+}
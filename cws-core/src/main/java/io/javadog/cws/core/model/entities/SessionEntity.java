@@ -0,0 +1,107 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model.entities;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+/**
+ * <p>CWS Session Entity, maps the Session table from the Database. A Member
+ * may have multiple Sessions at the same time.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@Entity
+@NamedQuery(name = "session.findByChecksum",
+        query = "select s " +
+                "from SessionEntity s" +
+                "  join fetch s.member " +
+                "where s.checksum = :checksum")
+@NamedQuery(name = "session.findExpired",
+        query = "select s.id " +
+                "from SessionEntity s " +
+                "where s.expires <= :now " +
+                "order by s.id asc")
+@NamedQuery(name = "session.countActive",
+        query = "select count(s.id) " +
+                "from SessionEntity s " +
+                "where s.expires > :now")
+@NamedQuery(name = "session.deleteByIds",
+        query = "delete from SessionEntity s " +
+                "where s.id in :ids")
+@NamedQuery(name = "session.deleteByMember",
+        query = "delete from SessionEntity s " +
+                "where s.member = :member")
+@Table(name = "cws_sessions")
+public class SessionEntity extends CWSEntity {
+
+    @ManyToOne(targetEntity = MemberEntity.class, fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "member_id", referencedColumnName = "id", nullable = false, updatable = false)
+    private MemberEntity member = null;
+
+    @Column(name = "checksum", unique = true, nullable = false, length = 256)
+    private String checksum = null;
+
+    @Column(name = "crypto", nullable = false, length = 16384)
+    private String crypto = null;
+
+    @Column(name = "expires", nullable = false)
+    private LocalDateTime expires = null;
+
+    // =========================================================================
+    // Entity Setters & Getters
+    // =========================================================================
+
+    public void setMember(final MemberEntity member) {
+        this.member = member;
+    }
+
+    public MemberEntity getMember() {
+        return member;
+    }
+
+    public void setChecksum(final String checksum) {
+        this.checksum = checksum;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setCrypto(final String crypto) {
+        this.crypto = crypto;
+    }
+
+    public String getCrypto() {
+        return crypto;
+    }
+
+    public void setExpires(final LocalDateTime expires) {
+        this.expires = expires;
+    }
+
+    public LocalDateTime getExpires() {
+        return expires;
+    }
+}
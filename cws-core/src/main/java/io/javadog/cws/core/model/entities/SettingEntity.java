@@ -16,6 +16,7 @@
  */
 package io.javadog.cws.core.model.entities;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.NamedQuery;
@@ -28,6 +29,7 @@ import javax.persistence.Table;
  * @since CWS 1.0
  */
 @Entity
+@Cacheable
 @NamedQuery(name = "setting.readAll",
         query = "select s from SettingEntity s " +
                 "order by s.name asc")
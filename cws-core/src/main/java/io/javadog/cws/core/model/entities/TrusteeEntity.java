@@ -30,38 +30,60 @@ import javax.persistence.Table;
 /**
  * <p>CWS Trustee Entity, maps the Trustee table from the Database.</p>
  *
+ * <p>The Trustee relations are all eagerly loaded, so the queries, which
+ * return Trustees, are fetch joining them. Otherwise, each Trustee found will
+ * require additional lookups for the Member, Circle and Key.</p>
+ *
+ * <p>While the Circle Key is being rotated, the Trustee also holds the
+ * previous Key, so Data which is not yet re-encrypted can still be read. The
+ * previous Key is only needed for this, so it is lazily loaded.</p>
+ *
  * @author Kim Jensen
  * @since CWS 1.0
  */
 @Entity
 @NamedQuery(name = "trust.findByMember",
         query = "select t " +
-                "from TrusteeEntity t " +
+                "from TrusteeEntity t" +
+                "  join fetch t.circle" +
+                "  join fetch t.key " +
                 "where t.member = :member" +
                 "  and t.trustLevel in :permissions " +
                 "order by t.id asc")
 @NamedQuery(name = "trust.findByMemberAndExternalCircleId",
         query = "select t " +
-                "from TrusteeEntity t " +
+                "from TrusteeEntity t" +
+                "  join fetch t.member m" +
+                "  join fetch t.circle c" +
+                "  join fetch t.key " +
                 "where t.member = :member" +
-                "  and t.circle.externalId = :externalCircleId " +
+                "  and c.externalId = :externalCircleId " +
                 "  and t.trustLevel in :permissions " +
-                "order by t.member.name asc")
+                "order by m.name asc")
 @NamedQuery(name = "trustee.findByCircleAndMember",
         query = "select t " +
-                "from TrusteeEntity t " +
-                "where t.circle.externalId = :ecid" +
-                "  and t.member.externalId = :emid")
+                "from TrusteeEntity t" +
+                "  join fetch t.member m" +
+                "  join fetch t.circle c" +
+                "  join fetch t.key " +
+                "where c.externalId = :ecid" +
+                "  and m.externalId = :emid")
 @NamedQuery(name = "trustee.findByExternalMemberId",
         query = "select t " +
-                "from TrusteeEntity t " +
-                "where t.member.externalId = :externalMemberId " +
-                "order by t.circle.name asc")
+                "from TrusteeEntity t" +
+                "  join fetch t.member m" +
+                "  join fetch t.circle c" +
+                "  join fetch t.key " +
+                "where m.externalId = :externalMemberId " +
+                "order by c.name asc")
 @NamedQuery(name = "trustee.findByExternalCircleId",
         query = "select t " +
-                "from TrusteeEntity t " +
-                "where t.circle.externalId = :externalCircleId " +
-                "order by t.member.name asc")
+                "from TrusteeEntity t" +
+                "  join fetch t.member m" +
+                "  join fetch t.circle c" +
+                "  join fetch t.key " +
+                "where c.externalId = :externalCircleId " +
+                "order by m.name asc")
 @NamedQuery(name = "trustee.findCirclesByMember",
         query = "select t.circle " +
                 "from TrusteeEntity t " +
@@ -69,17 +91,26 @@ import javax.persistence.Table;
                 "order by t.circle.name asc")
 @NamedQuery(name = "trustee.findSharedCircles",
         query = "select t1 " +
-                "from TrusteeEntity t1," +
+                "from TrusteeEntity t1" +
+                "  join fetch t1.circle c" +
+                "  join fetch t1.key," +
                 "     TrusteeEntity t2 " +
-                "where t1.circle.id = t2.circle.id" +
+                "where c.id = t2.circle.id" +
                 "  and t1.member = :member" +
                 "  and t2.member = :requested " +
-                "order by t1.circle.name asc")
+                "order by c.name asc")
 @NamedQuery(name = "trustee.findByCircle",
         query = "select t " +
-                "from TrusteeEntity t " +
+                "from TrusteeEntity t" +
+                "  join fetch t.member m" +
+                "  join fetch t.key " +
                 "where t.circle = :circle " +
-                "order by t.member.name asc")
+                "order by m.name asc")
+@NamedQuery(name = "trustee.clearPreviousKey",
+        query = "update TrusteeEntity set" +
+                "  previousKey = null," +
+                "  previousCircleKey = null " +
+                "where circle = :circle")
 @Table(name = "cws_trustees")
 public class TrusteeEntity extends CWSEntity {
 
@@ -92,7 +123,7 @@ public class TrusteeEntity extends CWSEntity {
     private CircleEntity circle = null;
 
     @ManyToOne(targetEntity = KeyEntity.class, fetch = FetchType.EAGER, optional = false)
-    @JoinColumn(name = "key_id", referencedColumnName = "id", nullable = false, updatable = false)
+    @JoinColumn(name = "key_id", referencedColumnName = "id", nullable = false)
     private KeyEntity key = null;
 
     @Column(name = "trust_level", nullable = false)
@@ -102,6 +133,13 @@ public class TrusteeEntity extends CWSEntity {
     @Column(name = "circle_key", nullable = false)
     private String circleKey = null;
 
+    @ManyToOne(targetEntity = KeyEntity.class, fetch = FetchType.LAZY)
+    @JoinColumn(name = "previous_key_id", referencedColumnName = "id")
+    private KeyEntity previousKey = null;
+
+    @Column(name = "previous_circle_key")
+    private String previousCircleKey = null;
+
     // =========================================================================
     // Entity Setters & Getters
     // =========================================================================
@@ -145,4 +183,20 @@ public class TrusteeEntity extends CWSEntity {
     public String getCircleKey() {
         return circleKey;
     }
+
+    public void setPreviousKey(final KeyEntity previousKey) {
+        this.previousKey = previousKey;
+    }
+
+    public KeyEntity getPreviousKey() {
+        return previousKey;
+    }
+
+    public void setPreviousCircleKey(final String armoredKey) {
+        this.previousCircleKey = armoredKey;
+    }
+
+    public String getPreviousCircleKey() {
+        return previousCircleKey;
+    }
 }
@@ -17,6 +17,7 @@
 package io.javadog.cws.core.model.entities;
 
 import java.time.LocalDateTime;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
@@ -30,6 +31,7 @@ import javax.persistence.Table;
  * @since CWS 1.0
  */
 @Entity
+@Cacheable
 @NamedQuery(name = "version.findAll",
         query = "select v from VersionEntity v " +
                 "order by v.id desc")
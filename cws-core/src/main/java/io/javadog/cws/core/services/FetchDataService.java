@@ -25,11 +25,17 @@ import io.javadog.cws.api.responses.FetchDataResponse;
 import io.javadog.cws.core.enums.Permission;
 import io.javadog.cws.core.enums.SanityStatus;
 import io.javadog.cws.core.exceptions.CWSException;
+import io.javadog.cws.core.metrics.RequestTimer;
+import io.javadog.cws.core.misc.CiphertextCache;
+import io.javadog.cws.core.misc.SanityQueue;
 import io.javadog.cws.core.model.DataDao;
+import io.javadog.cws.core.model.DataTypeRegistry;
 import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.model.entities.DataEntity;
 import io.javadog.cws.core.model.entities.DataTypeEntity;
+import io.javadog.cws.core.model.entities.KeyEntity;
 import io.javadog.cws.core.model.entities.MetadataEntity;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -64,21 +70,26 @@ public final class FetchDataService extends Serviceable<DataDao, FetchDataRespon
         // Object it should be compared against is first read out - since this
         // will help overriding the proxying.
         //   See: https://github.com/JavaDogs/cws/issues/45
+        long mark = System.nanoTime();
         final MetadataEntity root = findRootMetadata(request);
+        mark = RequestTimer.record("findRootMetadata", mark);
 
         if (root == null) {
             throw new CWSException(ReturnCode.IDENTIFICATION_WARNING, "No information could be found for the given Id.");
         }
 
-        final DataTypeEntity folder = dao.findDataTypeByName(Constants.FOLDER_TYPENAME);
+        final DataTypeEntity folder = DataTypeRegistry.getInstance().find(dao, Constants.FOLDER_TYPENAME);
         final FetchDataResponse response;
 
-        if (Objects.equals(folder, root.getType())) {
+        // The folder is a detached copy from the registry, so the comparison
+        // is made using the Id rather than the Entity.
+        if (Objects.equals(folder.getId(), root.getType().getId())) {
             final int pageNumber = request.getPageNumber();
             final int pageSize = request.getPageSize();
             final List<MetadataEntity> found = dao.findMetadataByMemberAndFolder(member, root.getId(), pageNumber, pageSize);
             final long count = dao.countFolderContent(root.getId());
             response = prepareResponse(root.getExternalId(), found, count);
+            RequestTimer.record("readFolder", mark);
         } else {
             response = readCompleteDataObject(root);
         }
@@ -120,42 +131,68 @@ public final class FetchDataService extends Serviceable<DataDao, FetchDataRespon
         // Following Query will read out a specific Data Record with meta data
         // information, if the person is allowed, which includes checks for
         // Circle Membership and right TrustLevel of the Member. If no Entity
-        // is found, then there can be multiple reasons.
-        final DataEntity entity = dao.findDataByMemberAndExternalId(member, metadata.getExternalId());
+        // is found, then there can be multiple reasons. The External Id of the
+        // Parent is read together with the Data, to save a lookup. If the
+        // encrypted bytes are cached, then the same checks are made, but
+        // without reading the encrypted bytes from the database.
+        long mark = System.nanoTime();
+        final var cache = CiphertextCache.getInstance();
+        Object[] found = findCachedData(cache, metadata);
+        final boolean cached = found != null;
+        if (!cached) {
+            found = dao.findDataWithParentByMemberAndExternalId(member, metadata.getExternalId());
+        }
+        final DataEntity entity = (found != null) ? (DataEntity) found[0] : null;
+        final String parentId = (found != null) ? (String) found[1] : dao.find(MetadataEntity.class, metadata.getParentId()).getExternalId();
         final var response = new FetchDataResponse();
-        final MetadataEntity parent = dao.find(MetadataEntity.class, metadata.getParentId());
-        final var metaData = DataDao.convert(metadata, parent.getExternalId());
+        final var metaData = DataDao.convert(metadata, parentId);
         final List<Metadata> metadataList = new ArrayList<>(1);
         metadataList.add(metaData);
 
-        if (entity != null) {
-            final String checksum = crypto.generateChecksum(entity.getData());
+        mark = RequestTimer.record("findData", mark);
+
+        if (cached) {
+            // The cached bytes were verified against the checksum, before
+            // they were cached, and the checksum still matches the database.
+            // As the bytes in the database have not been read, there is no
+            // Sanity result to queue.
+            response.setMetadata(metadataList);
+            response.setRecords(1L);
+            response.setData(decryptData(entity));
+            RequestTimer.record("decrypt", mark);
+        } else if (entity != null) {
+            final SanityStatus status;
+            final byte[] encrypted = entity.getData();
+            final String checksum = crypto.generateChecksum(encrypted);
+            mark = RequestTimer.record("checksum", mark);
             if (Objects.equals(checksum, entity.getChecksum())) {
                 final byte[] bytes = decryptData(entity);
+                RequestTimer.record("decrypt", mark);
+                cache.put(metadata.getId(), checksum, encrypted);
 
                 // The Object may have the Status Failed, but was corrected. But
                 // as we're going to update the Object anyway, let's just update
                 // it with an Ok flag also.
-                entity.setSanityStatus(SanityStatus.OK);
+                status = SanityStatus.OK;
                 response.setMetadata(metadataList);
                 response.setRecords(1L);
                 response.setData(bytes);
             } else {
                 // Let's update the DB with the information that the data is
                 // invalid, and return the error.
-                entity.setSanityStatus(SanityStatus.FAILED);
+                status = SanityStatus.FAILED;
 
-                // Note, no Exception is thrown here, since the DB changes have
-                // not yet been completed.
+                // Note, no Exception is thrown here, since the result must
+                // still be queued.
                 response.setReturnCode(ReturnCode.INTEGRITY_ERROR);
                 response.setReturnMessage("The Encrypted Data Checksum is invalid, the data appears to have been corrupted.");
             }
 
             // Regardless what the Status is, let's update the Object, so the
             // information is persisted. This will also prevent that the Object
-            // is checked too soon.
-            entity.setSanityChecked(Utilities.newDate());
-            dao.persist(entity);
+            // is checked too soon. The update is queued, so the read itself
+            // remains free of writes, see the SanityQueue.
+            SanityQueue.getInstance().offer(entity.getId(), status, Utilities.newDate(), entity.getAltered());
         } else {
             response.setMetadata(metadataList);
         }
@@ -163,6 +200,39 @@ public final class FetchDataService extends Serviceable<DataDao, FetchDataRespon
         return response;
     }
 
+    /**
+     * <p>If the encrypted bytes of the Data Object are cached, then the rest
+     * of the Data record is read, and if it still matches the cached bytes,
+     * a Data Entity is built from the two. The Entity is only used to decrypt
+     * the bytes, and is not managed by the Entity Manager.</p>
+     *
+     * @param cache    The Ciphertext Cache
+     * @param metadata The Metadata of the Object
+     * @return Array with Data Entity and Parent External Id, or null
+     */
+    private Object[] findCachedData(final CiphertextCache cache, final MetadataEntity metadata) {
+        Object[] found = null;
+
+        if (cache.contains(metadata.getId())) {
+            final Object[] header = dao.findDataHeaderWithParentByMemberAndExternalId(member, metadata.getExternalId());
+            if (header != null) {
+                final byte[] encrypted = cache.find(metadata.getId(), (String) header[1]);
+                if (encrypted != null) {
+                    final var entity = new DataEntity();
+                    entity.setMetadata(metadata);
+                    entity.setAltered((LocalDateTime) header[0]);
+                    entity.setChecksum((String) header[1]);
+                    entity.setInitialVector((String) header[2]);
+                    entity.setKey((KeyEntity) header[3]);
+                    entity.setData(encrypted);
+                    found = new Object[] { entity, header[4] };
+                }
+            }
+        }
+
+        return found;
+    }
+
     private static FetchDataResponse prepareResponse(final String folderId, final Collection<MetadataEntity> records, final long count) {
         final List<Metadata> list = new ArrayList<>(records.size());
 
@@ -22,17 +22,17 @@ import io.javadog.cws.api.common.ReturnCode;
 import io.javadog.cws.api.requests.Authentication;
 import io.javadog.cws.api.requests.MasterKeyRequest;
 import io.javadog.cws.api.responses.MasterKeyResponse;
+import io.javadog.cws.core.enums.RotationStatus;
 import io.javadog.cws.core.enums.StandardSetting;
 import io.javadog.cws.core.exceptions.AuthenticationException;
 import io.javadog.cws.core.exceptions.CryptoException;
-import io.javadog.cws.core.jce.Crypto;
 import io.javadog.cws.core.jce.MasterKey;
 import io.javadog.cws.core.jce.SecretCWSKey;
-import io.javadog.cws.core.model.CommonDao;
+import io.javadog.cws.core.model.RotationDao;
 import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.model.entities.MemberEntity;
+import io.javadog.cws.core.model.entities.RotationEntity;
 import io.javadog.cws.core.model.entities.SettingEntity;
-import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 import java.util.logging.Logger;
@@ -44,12 +44,12 @@ import javax.persistence.EntityManager;
  * @author Kim Jensen
  * @since CWS 1.0
  */
-public final class MasterKeyService extends Serviceable<CommonDao, MasterKeyResponse, MasterKeyRequest> {
+public final class MasterKeyService extends Serviceable<RotationDao, MasterKeyResponse, MasterKeyRequest> {
 
     private static final Logger LOG = Logger.getLogger(MasterKeyService.class.getName());
 
     public MasterKeyService(final Settings settings, final EntityManager entityManager) {
-        super(settings, new CommonDao(entityManager));
+        super(settings, new RotationDao(entityManager));
     }
 
     /**
@@ -86,15 +86,19 @@ public final class MasterKeyService extends Serviceable<CommonDao, MasterKeyResp
         // works, the Key should be updated. If both fails ... tough!
         if (checkCredentials(newMasterKey, admin, request.getCredential())) {
             // Default check, new MasterKey is correct, updating the Key to
-            // reflect this.
+            // reflect this. If a rotation was in progress, the previous Key
+            // is restored, so the rotation can continue.
             masterKey.setKey(newMasterKey);
+            resumeRotation(masterKey);
             response = new MasterKeyResponse(ReturnCode.SUCCESS, "MasterKey unlocked.");
         } else if (checkCredentials(oldMasterKey, admin, request.getCredential())) {
-            throwConditionalException(dao.countMembers() != 1,
-                    ReturnCode.ILLEGAL_ACTION, "Cannot alter the MasterKey, as Member Accounts exists.");
-            masterKey.setKey(newMasterKey);
-            updateMemberPassword(admin, request.getCredential());
-            response = new MasterKeyResponse(ReturnCode.SUCCESS, "MasterKey updated.");
+            if (dao.countMembers() == 1) {
+                masterKey.setKey(newMasterKey);
+                updateMemberPassword(admin, request.getCredential());
+                response = new MasterKeyResponse(ReturnCode.SUCCESS, "MasterKey updated.");
+            } else {
+                response = startRotation(masterKey, newMasterKey, admin);
+            }
         } else {
             // Neither keys worked, throw Authentication Exception
             throw new AuthenticationException("Invalid credentials.");
@@ -103,6 +107,64 @@ public final class MasterKeyService extends Serviceable<CommonDao, MasterKeyResp
         return response;
     }
 
+    /**
+     * <p>Starts the rotation of the MasterKey. The new Key is used for all
+     * new values immediately, while the existing values are re-encrypted in
+     * the background, see {@link io.javadog.cws.core.RotationBean}. The Salt
+     * of the System Administrator is re-encrypted at once, so the new Key
+     * can be used to unlock the CWS, also before the rotation is completed.
+     * The same goes for the Circle Keys of ongoing Circle Key rotations.
+     * The previous Key is persisted, encrypted with the new Key, so the
+     * rotation can be continued after a restart.</p>
+     *
+     * @param masterKey    The MasterKey instance
+     * @param newMasterKey The new MasterKey
+     * @param admin        The System Administrator
+     * @return Response for the request
+     */
+    private MasterKeyResponse startRotation(final MasterKey masterKey, final SecretCWSKey newMasterKey, final MemberEntity admin) {
+        RotationEntity rotation = dao.findRotation(RotationDao.MASTER_KEY);
+        throwConditionalException((rotation != null) && (rotation.getStatus() != RotationStatus.COMPLETED),
+                ReturnCode.ILLEGAL_ACTION, "Cannot alter the MasterKey, as a MasterKey rotation is in progress.");
+
+        masterKey.rotateKey(newMasterKey);
+        admin.setSalt(crypto.reEncryptWithMasterKey(admin.getSalt()));
+        dao.persist(admin);
+
+        // Rotations of Circle Keys keep the Circle Keys encrypted with the
+        // MasterKey, as there are only a few, they are re-encrypted at once.
+        for (final RotationEntity circleRotation : dao.findActiveRotations()) {
+            if (circleRotation.getCircle() != null) {
+                circleRotation.setSecret(crypto.reEncryptWithMasterKey(circleRotation.getSecret()));
+                dao.persist(circleRotation);
+            }
+        }
+
+        if (rotation == null) {
+            rotation = new RotationEntity();
+            rotation.setName(RotationDao.MASTER_KEY);
+        }
+        rotation.setStatus(RotationStatus.MEMBERS);
+        rotation.setCheckpoint(0L);
+        rotation.setProcessed(0L);
+        rotation.setSecret(masterKey.wrapPreviousKey());
+        dao.persist(rotation);
+
+        return new MasterKeyResponse(ReturnCode.SUCCESS, "MasterKey rotation started.");
+    }
+
+    private void resumeRotation(final MasterKey masterKey) {
+        final RotationEntity rotation = dao.findRotation(RotationDao.MASTER_KEY);
+
+        if ((rotation != null) && (rotation.getStatus() != RotationStatus.COMPLETED)) {
+            if (masterKey.getPreviousKey() == null) {
+                masterKey.unwrapPreviousKey(rotation.getSecret());
+            }
+        } else {
+            masterKey.setPreviousKey(null);
+        }
+    }
+
     private SecretCWSKey prepareNewMasterKey(final MasterKey masterKey, final MasterKeyRequest request) {
         byte[] rawSecret = request.getSecret();
 
@@ -135,8 +197,7 @@ public final class MasterKeyService extends Serviceable<CommonDao, MasterKeyResp
 
         try {
             // First, decrypt the Salt for the Administrator, using the "MasterKey".
-            final byte[] encrypted = Base64.getDecoder().decode(admin.getSalt());
-            final byte[] decrypted = Crypto.decrypt(masterKey, encrypted);
+            final byte[] decrypted = MasterKey.decrypt(masterKey, admin.getSalt());
             final var salt = crypto.bytesToString(decrypted);
 
             // With the decrypted Salt, we can try to unlock the Private Key, if it
@@ -24,19 +24,23 @@ import io.javadog.cws.api.requests.ProcessCircleRequest;
 import io.javadog.cws.api.responses.ProcessCircleResponse;
 import io.javadog.cws.core.enums.KeyAlgorithm;
 import io.javadog.cws.core.enums.Permission;
+import io.javadog.cws.core.enums.RotationStatus;
 import io.javadog.cws.core.enums.Status;
 import io.javadog.cws.core.exceptions.AuthorizationException;
 import io.javadog.cws.core.exceptions.IllegalActionException;
 import io.javadog.cws.core.jce.Crypto;
+import io.javadog.cws.core.jce.IVSalt;
 import io.javadog.cws.core.jce.PublicCWSKey;
 import io.javadog.cws.core.jce.SecretCWSKey;
 import io.javadog.cws.core.model.CommonDao;
+import io.javadog.cws.core.model.RotationDao;
 import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.model.entities.CircleEntity;
 import io.javadog.cws.core.model.entities.DataTypeEntity;
 import io.javadog.cws.core.model.entities.KeyEntity;
 import io.javadog.cws.core.model.entities.MemberEntity;
 import io.javadog.cws.core.model.entities.MetadataEntity;
+import io.javadog.cws.core.model.entities.RotationEntity;
 import io.javadog.cws.core.model.entities.TrusteeEntity;
 import java.util.Arrays;
 import java.util.Objects;
@@ -45,13 +49,18 @@ import javax.persistence.EntityManager;
 /**
  * <p>Business Logic implementation for the CWS ProcessCircle request.</p>
  *
+ * <p>Circles and their Keys are kept in the Second Level Cache, so whenever
+ * an existing Circle or Key is changed, the Circle Revision is increased,
+ * and the other CWS instances will evict them, see
+ * {@link io.javadog.cws.core.StartupBean#refreshSettings()}.</p>
+ *
  * @author Kim Jensen
  * @since CWS 1.0
  */
-public final class ProcessCircleService extends Serviceable<CommonDao, ProcessCircleResponse, ProcessCircleRequest> {
+public final class ProcessCircleService extends Serviceable<RotationDao, ProcessCircleResponse, ProcessCircleRequest> {
 
     public ProcessCircleService(final Settings settings, final EntityManager entityManager) {
-        super(settings, new CommonDao(entityManager));
+        super(settings, new RotationDao(entityManager));
     }
 
     /**
@@ -187,6 +196,9 @@ public final class ProcessCircleService extends Serviceable<CommonDao, ProcessCi
             case DELETE:
                 response = deleteCircle(request);
                 break;
+            case ROTATE:
+                response = rotateCircleKey();
+                break;
             default:
                 // Unreachable Code by design.
                 throw new IllegalActionException("Unsupported Action.");
@@ -217,6 +229,7 @@ public final class ProcessCircleService extends Serviceable<CommonDao, ProcessCi
         entity.setCircleKey(updateExternalCircleKey(request.getCircleKey()));
         checkAndUpdateCircleName(entity, request.getCircleName());
         dao.persist(entity);
+        dao.increaseRevision(CommonDao.CIRCLES);
 
         return new ProcessCircleResponse(theCircle(entity) + " was successfully updated.");
     }
@@ -261,10 +274,91 @@ public final class ProcessCircleService extends Serviceable<CommonDao, ProcessCi
         throwConditionalException(entity == null,
                 ReturnCode.IDENTIFICATION_WARNING, "No Circle could be found with the given Id.");
         dao.delete(entity);
+        dao.increaseRevision(CommonDao.CIRCLES);
 
         return new ProcessCircleResponse(theCircle(entity) + " has successfully been removed from CWS.");
     }
 
+    /**
+     * <p>Rotating the Circle Key, means that the Circle is given a new Key,
+     * which all Trustees are given at once, so new Data Objects are encrypted
+     * with it. The Trustees also keep the previous Key, so the existing Data
+     * Objects can still be read, until they have been re-encrypted in the
+     * background, see {@link io.javadog.cws.core.RotationBean}. As the
+     * Private Keys of the Trustees are not available there, both Keys are
+     * kept encrypted with the MasterKey, until the rotation is completed.</p>
+     *
+     * <p>The Circle Key must be extracted with the Private Key of a Trustee,
+     * so only a Circle Administrator may rotate it.</p>
+     *
+     * @return Response Object with error information
+     */
+    private ProcessCircleResponse rotateCircleKey() {
+        throwConditionalException(trustees.isEmpty() || (trustees.get(0).getTrustLevel() != TrustLevel.ADMIN),
+                ReturnCode.AUTHORIZATION_WARNING, "Only a Circle Administrator may rotate the Circle Key.");
+
+        final TrusteeEntity admin = trustees.get(0);
+        final CircleEntity circle = admin.getCircle();
+        final String name = RotationDao.CIRCLE_KEY + circle.getExternalId();
+        RotationEntity rotation = dao.findRotation(name);
+        throwConditionalException((rotation != null) && (rotation.getStatus() != RotationStatus.COMPLETED),
+                ReturnCode.ILLEGAL_ACTION, "Cannot rotate the Circle Key, as a rotation is already in progress.");
+
+        final KeyEntity previousKeyEntity = admin.getKey();
+        final SecretCWSKey previousKey = Crypto.extractCircleKey(previousKeyEntity.getAlgorithm(), keyPair.getPrivate(), admin.getCircleKey());
+        final KeyAlgorithm algorithm = settings.getSymmetricAlgorithm();
+        final SecretCWSKey key = Crypto.generateSymmetricKey(algorithm);
+
+        final var keyEntity = new KeyEntity();
+        keyEntity.setAlgorithm(algorithm);
+        keyEntity.setStatus(Status.ACTIVE);
+        dao.persist(keyEntity);
+        previousKeyEntity.setStatus(Status.DEPRECATED);
+        dao.persist(previousKeyEntity);
+
+        circle.setCircleKey(reEncryptExternalKey(circle, previousKey, key));
+        dao.persist(circle);
+        dao.increaseRevision(CommonDao.CIRCLES);
+
+        for (final TrusteeEntity trustee : dao.findTrusteesByCircle(circle)) {
+            final var publicKey = crypto.dearmoringPublicKey(trustee.getMember().getPublicKey());
+            final var cwsPublicKey = new PublicCWSKey(trustee.getMember().getRsaAlgorithm(), publicKey);
+            trustee.setPreviousKey(trustee.getKey());
+            trustee.setPreviousCircleKey(trustee.getCircleKey());
+            trustee.setKey(keyEntity);
+            trustee.setCircleKey(Crypto.encryptAndArmorCircleKey(cwsPublicKey, key));
+            dao.persist(trustee);
+        }
+
+        if (rotation == null) {
+            rotation = new RotationEntity();
+            rotation.setName(name);
+        }
+        rotation.setCircle(circle);
+        rotation.setKey(keyEntity);
+        rotation.setPreviousKey(previousKeyEntity);
+        rotation.setStatus(RotationStatus.DATA);
+        rotation.setCheckpoint(0L);
+        rotation.setProcessed(0L);
+        rotation.setSecret(crypto.wrapCircleKeys(previousKey, key));
+        dao.persist(rotation);
+
+        return new ProcessCircleResponse(theCircle(circle) + " has been given a new Key, the Data is being re-encrypted in the background.");
+    }
+
+    private byte[] reEncryptExternalKey(final CircleEntity circle, final SecretCWSKey previousKey, final SecretCWSKey key) {
+        final byte[] encryptedKey = circle.getCircleKey();
+        byte[] reEncrypted = null;
+
+        if (encryptedKey != null) {
+            previousKey.setSalt(new IVSalt(settings.getSalt()));
+            final String externalKey = crypto.bytesToString(Crypto.decrypt(previousKey, encryptedKey));
+            reEncrypted = encryptExternalKey(key, externalKey);
+        }
+
+        return reEncrypted;
+    }
+
     /**
      * <p>Wrapper method to ensure that the circle is always presented the
      * same way. The method simply returns the Circle + circle name.</p>
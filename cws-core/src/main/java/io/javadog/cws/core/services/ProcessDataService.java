@@ -30,7 +30,10 @@ import io.javadog.cws.core.exceptions.IllegalActionException;
 import io.javadog.cws.core.jce.Crypto;
 import io.javadog.cws.core.jce.IVSalt;
 import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.metrics.RequestTimer;
+import io.javadog.cws.core.misc.CiphertextCache;
 import io.javadog.cws.core.model.DataDao;
+import io.javadog.cws.core.model.DataTypeRegistry;
 import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.model.entities.DataEntity;
 import io.javadog.cws.core.model.entities.DataTypeEntity;
@@ -148,6 +151,7 @@ public final class ProcessDataService extends Serviceable<DataDao, ProcessDataRe
         final var metadataEntity = findMetadataEntity(request.getDataId());
         final String externalDataId = copyDataToTargetCircle(targetTrustee, metadataEntity, request);
         dao.delete(metadataEntity);
+        CiphertextCache.getInstance().invalidate(metadataEntity.getId());
 
         return buildProcessDataResponse(externalDataId, theDataObject(metadataEntity) + " was successfully moved from '" + metadataEntity.getCircle().getName() + "' to '" + targetTrustee.getCircle().getName() + "'.");
     }
@@ -186,6 +190,8 @@ public final class ProcessDataService extends Serviceable<DataDao, ProcessDataRe
         }
 
         dao.delete(entity);
+        CiphertextCache.getInstance().invalidate(entity.getId());
+
         return new ProcessDataResponse(theDataObject(entity) + " has been removed from the Circle '" + entity.getCircle().getName() + "'.");
     }
 
@@ -233,15 +239,17 @@ public final class ProcessDataService extends Serviceable<DataDao, ProcessDataRe
             final TrusteeEntity trustee = findTrustee(metadata.getCircle().getExternalId());
             final var dataEntity = dao.findDataByMetadata(metadata);
             encryptAndSaveData(trustee, metadata, dataEntity, bytes);
+            CiphertextCache.getInstance().invalidate(metadata.getId());
         }
     }
 
     private void encryptAndSaveData(final TrusteeEntity trustee, final MetadataEntity metadataEntity, final DataEntity oldDataEntity, final byte[] bytes) {
         if (bytes != null) {
+            long mark = System.nanoTime();
             final var keyEntity = trustee.getKey();
             final KeyAlgorithm algorithm = keyEntity.getAlgorithm();
             final SecretCWSKey key = Crypto.extractCircleKey(algorithm, keyPair.getPrivate(), trustee.getCircleKey());
-            key.setSalt(new IVSalt());
+            key.setSalt(IVSalt.forEncryption(algorithm));
             final String armored = key.getSalt().getArmored();
 
             final DataEntity toSave = (oldDataEntity != null) ? oldDataEntity : new DataEntity();
@@ -249,7 +257,9 @@ public final class ProcessDataService extends Serviceable<DataDao, ProcessDataRe
             toSave.setKey(keyEntity);
             toSave.setData(Crypto.encrypt(key, bytes));
             toSave.setInitialVector(crypto.encryptWithMasterKey(armored));
+            mark = RequestTimer.record("encrypt", mark);
             toSave.setChecksum(crypto.generateChecksum(toSave.getData()));
+            RequestTimer.record("checksum", mark);
             toSave.setSanityStatus(SanityStatus.OK);
             toSave.setSanityChecked(Utilities.newDate());
             dao.persist(toSave);
@@ -264,14 +274,14 @@ public final class ProcessDataService extends Serviceable<DataDao, ProcessDataRe
         DataTypeEntity entity = null;
 
         if (typeName != null) {
-            entity = dao.findDataTypeByName(typeName);
+            entity = DataTypeRegistry.getInstance().find(dao, typeName);
             if (entity == null) {
                 throw new CWSException(ReturnCode.INTEGRITY_WARNING, "Cannot find a matching DataType for the Object.");
             }
         }
 
         if (entity == null) {
-            entity = dao.findDataTypeByName(Constants.DATA_TYPENAME);
+            entity = DataTypeRegistry.getInstance().find(dao, Constants.DATA_TYPENAME);
         }
 
         return entity;
@@ -301,7 +311,7 @@ public final class ProcessDataService extends Serviceable<DataDao, ProcessDataRe
 
     private ProcessDataResponse createFolder(final TrusteeEntity trustee, final ProcessDataRequest request) {
         final MetadataEntity parent = findParent(request.getCircleId(), request.getFolderId());
-        final DataTypeEntity folderType = dao.findDataTypeByName(Constants.FOLDER_TYPENAME);
+        final DataTypeEntity folderType = DataTypeRegistry.getInstance().find(dao, Constants.FOLDER_TYPENAME);
         final MetadataEntity folder = createMetadata(trustee, request.getDataName(), parent.getId(), folderType);
 
         final var response = new ProcessDataResponse("The Folder '" + request.getDataName() + "' was successfully added to the Circle '" + trustee.getCircle().getName() + "'.");
@@ -24,6 +24,7 @@ import io.javadog.cws.api.responses.ProcessDataTypeResponse;
 import io.javadog.cws.core.enums.Permission;
 import io.javadog.cws.core.exceptions.IllegalActionException;
 import io.javadog.cws.core.model.CommonDao;
+import io.javadog.cws.core.model.DataTypeRegistry;
 import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.model.entities.DataTypeEntity;
 import java.util.Arrays;
@@ -38,6 +39,8 @@ import javax.persistence.EntityManager;
  */
 public final class ProcessDataTypeService extends Serviceable<CommonDao, ProcessDataTypeResponse, ProcessDataTypeRequest> {
 
+    private boolean changed = false;
+
     public ProcessDataTypeService(final Settings settings, final EntityManager entityManager) {
         super(settings, new CommonDao(entityManager));
     }
@@ -86,6 +89,7 @@ public final class ProcessDataTypeService extends Serviceable<CommonDao, Process
             entity.setName(name);
             entity.setType(type);
             dao.persist(entity);
+            updateRevision();
         } else {
             entity = found;
             throwConditionalException(Objects.equals(Constants.FOLDER_TYPENAME, entity.getName()) || Objects.equals(Constants.DATA_TYPENAME, entity.getName()),
@@ -94,6 +98,7 @@ public final class ProcessDataTypeService extends Serviceable<CommonDao, Process
             if (!Objects.equals(type, entity.getType())) {
                 entity.setType(type);
                 dao.persist(entity);
+                updateRevision();
             }
         }
 
@@ -120,10 +125,33 @@ public final class ProcessDataTypeService extends Serviceable<CommonDao, Process
         throwConditionalException(records > 0,
                 ReturnCode.ILLEGAL_ACTION, theDataType(entity) + " cannot be deleted, as it is being actively used.");
         dao.delete(entity);
+        updateRevision();
 
         return new ProcessDataTypeResponse(theDataType(entity) + " was successfully deleted.");
     }
 
+    /**
+     * <p>Returns true if a Data Type was created, updated or deleted, in
+     * which case the local {@link DataTypeRegistry} must be invalidated, once
+     * the changes have been committed.</p>
+     *
+     * @return True if the Data Types were changed
+     */
+    public boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * <p>The Data Types are kept in a registry by all CWS instances, so when
+     * changed, the Revision is increased, which tells the other instances to
+     * reload their copy. The local registry is invalidated by the caller,
+     * after the transaction has been committed, see {@link #isChanged()}.</p>
+     */
+    private void updateRevision() {
+        dao.increaseRevision(DataTypeRegistry.REVISION);
+        changed = true;
+    }
+
     /**
      * <p>Wrapper method to ensure that the data type is always presented the
      * same way. The method simply returns the Data Type + type name.</p>
@@ -35,17 +35,20 @@ import io.javadog.cws.core.exceptions.VerificationException;
 import io.javadog.cws.core.jce.CWSKeyPair;
 import io.javadog.cws.core.jce.Crypto;
 import io.javadog.cws.core.jce.IVSalt;
+import io.javadog.cws.core.jce.Randomness;
 import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.model.LookupFilter;
 import io.javadog.cws.core.model.MemberDao;
 import io.javadog.cws.core.model.Settings;
+import io.javadog.cws.core.model.entities.KeyEntity;
 import io.javadog.cws.core.model.entities.MemberEntity;
+import io.javadog.cws.core.model.entities.SessionEntity;
 import io.javadog.cws.core.model.entities.TrusteeEntity;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 import javax.persistence.EntityManager;
 
 /**
@@ -155,7 +158,7 @@ public final class ProcessMemberService extends Serviceable<MemberDao, ProcessMe
             throw new CWSException(ReturnCode.CONSTRAINT_ERROR, "Cannot create an invitation, as the account already exists.");
         }
 
-        final var uuid = UUID.randomUUID().toString();
+        final var uuid = Randomness.newUUID().toString();
         final byte[] signature = crypto.sign(keyPair.getPrivate().getKey(), crypto.stringToBytes(uuid));
 
         final var entity = new MemberEntity();
@@ -167,6 +170,7 @@ public final class ProcessMemberService extends Serviceable<MemberDao, ProcessMe
         entity.setPublicKey(Base64.getEncoder().encodeToString(signature));
         entity.setMemberRole(whichRole(request));
         dao.persist(entity);
+        LookupFilter.getInstance().addAccount(dao, memberName);
 
         final var response = new ProcessMemberResponse("An invitation was successfully issued for '" + memberName + "'.");
         response.setMemberId(entity.getExternalId());
@@ -200,10 +204,25 @@ public final class ProcessMemberService extends Serviceable<MemberDao, ProcessMe
         final String privateKey = Crypto.armoringPrivateKey(key, keyPair.getPrivate().getKey());
         final String checksum = crypto.generateChecksum(masterEncrypted);
 
-        member.setSessionChecksum(checksum);
-        member.setSessionCrypto(privateKey);
-        member.setSessionExpire(Utilities.newDate().plusMinutes(settings.getSessionTimeout()));
-        dao.persist(member);
+        // Each login creates a new Session, so the Member may have several
+        // active Sessions, i.e. from different devices. Only if the same
+        // SessionKey is used again, the existing Session is renewed. The
+        // checksum is unique, so a SessionKey which is in use by another
+        // Member is rejected, unless the other Session has expired, in which
+        // case it is taken over.
+        SessionEntity entity = dao.findSessionByChecksum(checksum);
+        if (entity == null) {
+            entity = new SessionEntity();
+            entity.setChecksum(checksum);
+        } else if (!Objects.equals(entity.getMember().getId(), member.getId()) && Utilities.newDate().isBefore(entity.getExpires())) {
+            key.destroy();
+            throw new CWSException(ReturnCode.ILLEGAL_ACTION, "The Session Key is already in use, please login with a different Session Key.");
+        }
+        entity.setMember(member);
+        entity.setCrypto(privateKey);
+        entity.setExpires(Utilities.newDate().plusMinutes(settings.getSessionTimeout()));
+        dao.persist(entity);
+        LookupFilter.getInstance().removeUnknownSession(checksum);
 
         // Key's no longer being used, must be destroyed.
         key.destroy();
@@ -212,7 +231,14 @@ public final class ProcessMemberService extends Serviceable<MemberDao, ProcessMe
     }
 
     private ProcessMemberResponse logoutMember() {
-        dao.removeSession(member);
+        // If the request was made with a Session, then only this Session is
+        // ended, otherwise all Sessions for the Member are ended.
+        if (session != null) {
+            dao.removeSession(session);
+            LookupFilter.getInstance().addUnknownSession(session.getChecksum());
+        } else {
+            dao.removeSessions(member);
+        }
         return new ProcessMemberResponse();
     }
 
@@ -257,6 +283,7 @@ public final class ProcessMemberService extends Serviceable<MemberDao, ProcessMe
             }
 
             member.setName(newAccountName);
+            LookupFilter.getInstance().addAccount(dao, newAccountName);
         }
     }
 
@@ -276,6 +303,12 @@ public final class ProcessMemberService extends Serviceable<MemberDao, ProcessMe
                 final SecretCWSKey circleKey = Crypto.extractCircleKey(algorithm, keyPair.getPrivate(), trustee.getCircleKey());
                 trustee.setCircleKey(Crypto.encryptAndArmorCircleKey(pair.getPublic(), circleKey));
 
+                final KeyEntity previousKey = trustee.getPreviousKey();
+                if (previousKey != null) {
+                    final SecretCWSKey previousCircleKey = Crypto.extractCircleKey(previousKey.getAlgorithm(), keyPair.getPrivate(), trustee.getPreviousCircleKey());
+                    trustee.setPreviousCircleKey(Crypto.encryptAndArmorCircleKey(pair.getPublic(), previousCircleKey));
+                }
+
                 dao.persist(trustee);
             }
         }
@@ -305,7 +338,7 @@ public final class ProcessMemberService extends Serviceable<MemberDao, ProcessMe
             throw new IllegalActionException("The System Administrator Account may not be invalidated.");
         }
 
-        dao.removeSession(member);
+        dao.removeSessions(member);
         updateMemberPassword(member, request.getCredential());
 
         final var response = new ProcessMemberResponse();
@@ -326,6 +359,7 @@ public final class ProcessMemberService extends Serviceable<MemberDao, ProcessMe
         } else {
             // Deleting self
             dao.delete(member);
+            LookupFilter.getInstance().removeAccount(dao);
             response = new ProcessMemberResponse(ReturnCode.SUCCESS, theMember(member) + " has been successfully deleted.");
         }
 
@@ -343,6 +377,7 @@ public final class ProcessMemberService extends Serviceable<MemberDao, ProcessMe
         }
 
         dao.delete(found);
+        LookupFilter.getInstance().removeAccount(dao);
         return new ProcessMemberResponse(ReturnCode.SUCCESS, theMember(found) + " has successfully been deleted.");
     }
 
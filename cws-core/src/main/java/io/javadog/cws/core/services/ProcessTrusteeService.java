@@ -29,6 +29,7 @@ import io.javadog.cws.core.jce.PublicCWSKey;
 import io.javadog.cws.core.jce.SecretCWSKey;
 import io.javadog.cws.core.model.CommonDao;
 import io.javadog.cws.core.model.Settings;
+import io.javadog.cws.core.model.entities.KeyEntity;
 import io.javadog.cws.core.model.entities.MemberEntity;
 import io.javadog.cws.core.model.entities.TrusteeEntity;
 import java.util.Arrays;
@@ -101,12 +102,10 @@ public final class ProcessTrusteeService extends Serviceable<CommonDao, ProcessT
             throw new CWSException(ReturnCode.IDENTIFICATION_WARNING, "The Member is already a trustee of the requested Circle.");
         }
 
-        // Please be aware, that during re-key requests - there will
-        // exist 2 Trustee entities, one with the old Key and one with
-        // the new. In the unlikely event that someone is being added
-        // during this - the logic should also reflect it. However, as
-        // re-key is not supported in version 1.0, support for multiple
-        // Keys can wait until this is also supported.
+        // Please be aware, that while the Circle Key is being rotated, the
+        // Circle Administrator also holds the previous Circle Key. The new
+        // Trustee must also be given it, as the Data is otherwise not
+        // readable until the rotation has been completed.
         final TrusteeEntity admin = trustees.get(0);
         final var trustLevel = request.getTrustLevel();
         final var trustee = new TrusteeEntity();
@@ -120,6 +119,13 @@ public final class ProcessTrusteeService extends Serviceable<CommonDao, ProcessT
         final var cwsPublicKey = new PublicCWSKey(newTrusteeMember.getRsaAlgorithm(), publicKey);
         trustee.setCircleKey(Crypto.encryptAndArmorCircleKey(cwsPublicKey, circleKey));
 
+        final KeyEntity previousKey = admin.getPreviousKey();
+        if (previousKey != null) {
+            final SecretCWSKey previousCircleKey = Crypto.extractCircleKey(previousKey.getAlgorithm(), keyPair.getPrivate(), admin.getPreviousCircleKey());
+            trustee.setPreviousKey(previousKey);
+            trustee.setPreviousCircleKey(Crypto.encryptAndArmorCircleKey(cwsPublicKey, previousCircleKey));
+        }
+
         dao.persist(trustee);
         return new ProcessTrusteeResponse("The Member '" + trustee.getMember().getName() + "' was successfully added as trustee to '" + trustee.getCircle().getName() + "'.");
     }
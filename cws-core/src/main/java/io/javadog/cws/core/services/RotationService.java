@@ -0,0 +1,88 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.services;
+
+import io.javadog.cws.api.common.MemberRole;
+import io.javadog.cws.api.dtos.Rotation;
+import io.javadog.cws.api.requests.Authentication;
+import io.javadog.cws.api.responses.RotationResponse;
+import io.javadog.cws.core.enums.Permission;
+import io.javadog.cws.core.model.RotationDao;
+import io.javadog.cws.core.model.Settings;
+import io.javadog.cws.core.model.entities.RotationEntity;
+import io.javadog.cws.core.model.entities.TrusteeEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.EntityManager;
+
+/**
+ * <p>Business Logic implementation for the CWS Rotations request.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class RotationService extends Serviceable<RotationDao, RotationResponse, Authentication> {
+
+    public RotationService(final Settings settings, final EntityManager entityManager) {
+        super(settings, new RotationDao(entityManager));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RotationResponse perform(final Authentication request) {
+        // Pre-checks, & destruction of credentials
+        verifyRequest(request, Permission.ROTATIONS);
+        Arrays.fill(request.getCredential(), (byte) 0);
+
+        // The System Administrator is allowed to see all rotations, the
+        // Circle Administrators only the rotations of their own Circles.
+        final boolean sysop = member.getMemberRole() == MemberRole.ADMIN;
+        final Set<Long> circleIds = new HashSet<>(trustees.size());
+        for (final TrusteeEntity trustee : trustees) {
+            circleIds.add(trustee.getCircle().getId());
+        }
+
+        final List<Rotation> rotations = new ArrayList<>();
+        for (final RotationEntity entity : dao.findActiveRotations()) {
+            if (sysop || ((entity.getCircle() != null) && circleIds.contains(entity.getCircle().getId()))) {
+                rotations.add(convert(entity));
+            }
+        }
+
+        final var response = new RotationResponse();
+        response.setRotations(rotations);
+
+        return response;
+    }
+
+    private Rotation convert(final RotationEntity entity) {
+        final var rotation = new Rotation();
+        rotation.setCircleId((entity.getCircle() != null) ? entity.getCircle().getExternalId() : null);
+        rotation.setStatus(entity.getStatus().name());
+        rotation.setProcessed(entity.getProcessed());
+        rotation.setRemaining(dao.countRemaining(entity));
+        rotation.setStarted(entity.getAdded());
+        rotation.setChanged(entity.getAltered());
+
+        return rotation;
+    }
+}
@@ -38,17 +38,25 @@ import io.javadog.cws.core.jce.CWSKeyPair;
 import io.javadog.cws.core.jce.Crypto;
 import io.javadog.cws.core.jce.IVSalt;
 import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.metrics.RequestTimer;
+import io.javadog.cws.core.metrics.ServiceEvent;
+import io.javadog.cws.core.misc.AdmissionControl;
 import io.javadog.cws.core.model.CommonDao;
+import io.javadog.cws.core.model.LookupFilter;
+import io.javadog.cws.core.model.ReadRouting;
 import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.model.entities.CircleEntity;
 import io.javadog.cws.core.model.entities.DataEntity;
+import io.javadog.cws.core.model.entities.KeyEntity;
 import io.javadog.cws.core.model.entities.MemberEntity;
+import io.javadog.cws.core.model.entities.SessionEntity;
 import io.javadog.cws.core.model.entities.TrusteeEntity;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import javax.persistence.EntityManager;
 
 /**
  * <p>Common Business Logic, used by the Business Logic classes.</p>
@@ -64,6 +72,7 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
 
     protected List<TrusteeEntity> trustees = new ArrayList<>(0);
     protected MemberEntity member = null;
+    protected SessionEntity session = null;
     protected CWSKeyPair keyPair = null;
 
     protected Serviceable(final Settings settings, final D dao) {
@@ -86,6 +95,37 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
      */
     public abstract R perform(A request);
 
+    /**
+     * <p>Performs the request, and reports it as the JDK Flight Recorder
+     * Event {@link ServiceEvent}, with the Return Code of the response or of
+     * the Exception thrown. The CWS Beans should use this method rather than
+     * invoking {@link #perform(Authentication)} directly.</p>
+     *
+     * @param request Request Object to perform
+     * @return Response Object with the result of the processing
+     */
+    public final R process(final A request) {
+        final var event = new ServiceEvent();
+        event.begin();
+        var returnCode = ReturnCode.ERROR.getCode();
+
+        try {
+            final R response = perform(request);
+            returnCode = response.getReturnCode();
+
+            return response;
+        } catch (CWSException e) {
+            returnCode = e.getReturnCode().getCode();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.setService(getClass().getSimpleName());
+                event.setReturnCode(returnCode);
+                event.commit();
+            }
+        }
+    }
+
     /**
      * <p>To ensure that sensitive data (keys) have as short a lifespan in the
      * memory as possible, they must be destroyed, which this method will
@@ -117,6 +157,7 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
         // it is also the logical place to have a check to see if the system is
         // ready to be used. If not, then an Exception is thrown.
         throwIfSystemIsNotReady();
+        long mark = System.nanoTime();
 
         // If available, let's extract the CircleId so it can be used to improve
         // accuracy of the checks and reduce the amount of data fetched from the
@@ -130,6 +171,7 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
         //         request. If not sufficient, no need to continue and involve
         //         the DB, so an Exception will be thrown.
         verify(authentication);
+        mark = RequestTimer.record("validate", mark);
 
         // Step 2; Authentication. This part is a bit more tricky, since CWS
         //         supports that members can come in either with a username
@@ -158,13 +200,30 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
             //     searched and also allow the checks to end earlier.
             //     However, equally important, this check is a premature
             //     check and will *not* count in the final Business Logic!
-            verifyAccount(authentication, circleId);
-
-            //     Check if the Member is valid, i.e. if the given
-            //     Credentials can correctly decrypt the Private Key for
-            //     the Account. If not, then an Exception is thrown.
-            checkCredentials(member, authentication.getCredential(), member.getPrivateKey());
+            //       Before anything else, the attempt must be admitted, so
+            //     clients retrying with wrong Credentials cannot exhaust
+            //     the CPU with password key derivations.
+            final String account = trim(authentication.getAccountName());
+            final String source = AdmissionControl.currentSource();
+            final AdmissionControl admission = AdmissionControl.getInstance();
+            admission.admit(account, source);
+            var failed = false;
+
+            try {
+                verifyAccount(authentication, circleId);
+
+                //     Check if the Member is valid, i.e. if the given
+                //     Credentials can correctly decrypt the Private Key for
+                //     the Account. If not, then an Exception is thrown.
+                checkCredentials(member, authentication.getCredential(), member.getPrivateKey());
+            } catch (AuthenticationException e) {
+                failed = true;
+                throw e;
+            } finally {
+                admission.complete(account, source, failed);
+            }
         }
+        mark = RequestTimer.record("authenticate", mark);
 
         // Step 3; Final check, ensure that the Member is having the correct
         //         level of Access to any Circle - which doesn't necessarily
@@ -175,6 +234,7 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
         //         check is only a premature check and will not count against
         //         the final checks in the Business Logic.
         checkAuthorization(action, circleId);
+        RequestTimer.record("authorize", mark);
     }
 
     /**
@@ -230,20 +290,70 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
     private void verifySession(final A authentication, final String circleId) {
         final byte[] masterEncrypted = crypto.encryptWithMasterKey(authentication.getCredential());
         final String checksum = crypto.generateChecksum(masterEncrypted);
-        final var memberEntity = dao.findMemberByChecksum(checksum);
 
-        if (memberEntity != null) {
-            if (Utilities.newDate().isBefore(memberEntity.getSessionExpire())) {
-                checkCredentials(memberEntity, masterEncrypted, memberEntity.getSessionCrypto());
+        // If the request is read from a replica, a Session created or
+        // renewed on another instance may not yet have been replicated. So
+        // the Session is then also looked up on the primary database, before
+        // it is rejected, and only the primary database is used to decide if
+        // the Session is unknown or to remove it.
+        final EntityManager primary = ReadRouting.currentPrimary();
+        final CommonDao primaryDao = (primary != null) ? new CommonDao(primary) : dao;
+        final LookupFilter filter = LookupFilter.getInstance();
+        if (filter.isUnknownSession(checksum)) {
+            throw new AuthenticationException("No Session could be found.");
+        }
+
+        var sessionEntity = findSession(dao, authentication.getCredential(), checksum);
+        if ((primary != null) && ((sessionEntity == null) || isExpired(sessionEntity))) {
+            sessionEntity = findSession(primaryDao, authentication.getCredential(), checksum);
+        }
+
+        if (sessionEntity != null) {
+            if (!isExpired(sessionEntity)) {
+                // While the MasterKey is being rotated, the Sessions created
+                // before the rotation was started are found with the
+                // previous MasterKey.
+                final byte[] sessionEncrypted = Objects.equals(checksum, sessionEntity.getChecksum())
+                        ? masterEncrypted
+                        : crypto.encryptWithPreviousMasterKey(authentication.getCredential());
+                checkCredentials(sessionEntity.getMember(), sessionEncrypted, sessionEntity.getCrypto());
             } else {
-                dao.removeSession(memberEntity);
+                primaryDao.removeSession(sessionEntity);
+                filter.addUnknownSession(checksum);
                 throw new AuthenticationException("The Session has expired.");
             }
         } else {
+            filter.addUnknownSession(checksum);
             throw new AuthenticationException("No Session could be found.");
         }
 
-        checkMemberAccount(memberEntity, circleId);
+        session = sessionEntity;
+        checkMemberAccount(sessionEntity.getMember(), circleId);
+    }
+
+    /**
+     * Finds the Session with the given checksum, or while the MasterKey is
+     * being rotated, with the Credential encrypted by the previous
+     * MasterKey.
+     *
+     * @param sessionDao The DAO to look up the Session with
+     * @param credential The Session Credential
+     * @param checksum   Checksum of the Credential, with the MasterKey
+     * @return The found Session or null
+     */
+    private SessionEntity findSession(final CommonDao sessionDao, final byte[] credential, final String checksum) {
+        var sessionEntity = sessionDao.findSessionByChecksum(checksum);
+
+        final byte[] previousEncrypted = (sessionEntity == null) ? crypto.encryptWithPreviousMasterKey(credential) : null;
+        if (previousEncrypted != null) {
+            sessionEntity = sessionDao.findSessionByChecksum(crypto.generateChecksum(previousEncrypted));
+        }
+
+        return sessionEntity;
+    }
+
+    private static boolean isExpired(final SessionEntity sessionEntity) {
+        return !Utilities.newDate().isBefore(sessionEntity.getExpires());
     }
 
     /**
@@ -255,7 +365,13 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
      */
     private void verifyAccount(final A authentication, final String circleId) {
         final String account = trim(authentication.getAccountName());
-        var memberEntity = dao.findMemberByName(account);
+        MemberEntity memberEntity = null;
+
+        // Unknown Accounts are rejected without a database lookup, except the
+        // Administrator, which is created with the first request.
+        if (Objects.equals(Constants.ADMIN_ACCOUNT, account) || !LookupFilter.getInstance().isUnknownAccount(dao, account)) {
+            memberEntity = dao.findMemberByName(account);
+        }
 
         if (memberEntity == null) {
             if (Objects.equals(Constants.ADMIN_ACCOUNT, account)) {
@@ -290,6 +406,7 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
         account.setName(accountName);
         account.setMemberRole(role);
         updateMemberPassword(account, credential);
+        LookupFilter.getInstance().addAccount(dao, accountName);
 
         return account;
     }
@@ -306,10 +423,25 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
      * @return The new Asymmetric Key
      */
     protected final CWSKeyPair updateMemberPassword(final MemberEntity member, final byte[] password) {
-        final KeyAlgorithm pbeAlgorithm = settings.getPasswordAlgorithm();
-        final KeyAlgorithm rsaAlgorithm = settings.getAsymmetricAlgorithm();
+        return updateMemberPassword(member, password, settings);
+    }
+
+    /**
+     * <p>Updates the Member Password and Asymmetric Key, using the given
+     * Settings for the Password Key. This is needed, if the Settings for
+     * the Password Key are being changed, but not yet published.</p>
+     *
+     * @param member           The Member to update the Asymmetric Key &amp; Password for
+     * @param password         The new Password
+     * @param passwordSettings The Settings to generate the Password Key with
+     * @return The new Asymmetric Key
+     */
+    protected final CWSKeyPair updateMemberPassword(final MemberEntity member, final byte[] password, final Settings passwordSettings) {
+        final Crypto passwordCrypto = (passwordSettings == settings) ? crypto : new Crypto(passwordSettings);
+        final KeyAlgorithm pbeAlgorithm = passwordSettings.getPasswordAlgorithm();
+        final KeyAlgorithm rsaAlgorithm = passwordSettings.getAsymmetricAlgorithm();
         final var salt = new IVSalt();
-        final SecretCWSKey key = crypto.generatePasswordKey(pbeAlgorithm, password, salt.getArmored());
+        final SecretCWSKey key = passwordCrypto.generatePasswordKey(pbeAlgorithm, password, salt.getArmored());
         key.setSalt(salt);
 
         final CWSKeyPair pair = Crypto.generateAsymmetricKey(rsaAlgorithm);
@@ -372,10 +504,25 @@ public abstract class Serviceable<D extends CommonDao, R extends CwsResponse, A
         }
     }
 
+    /**
+     * <p>Extracts the Circle Key, which the Data Object is encrypted with.
+     * While the Circle Key is being rotated, the Data Object may still be
+     * encrypted with the previous Circle Key, which the Trustee also holds
+     * until the rotation is completed.</p>
+     *
+     * @param entity Data Entity to find the Circle Key for
+     * @return The Circle Key, which the Data Object is encrypted with
+     */
     private SecretCWSKey extractCircleKey(final DataEntity entity) {
         final TrusteeEntity trustee = findTrustee(entity.getMetadata().getCircle().getExternalId());
+        final KeyEntity previousKey = trustee.getPreviousKey();
+        String armoredKey = trustee.getCircleKey();
+
+        if ((previousKey != null) && Objects.equals(entity.getKey().getId(), previousKey.getId())) {
+            armoredKey = trustee.getPreviousCircleKey();
+        }
 
-        return Crypto.extractCircleKey(entity.getKey().getAlgorithm(), keyPair.getPrivate(), trustee.getCircleKey());
+        return Crypto.extractCircleKey(entity.getKey().getAlgorithm(), keyPair.getPrivate(), armoredKey);
     }
 
     protected byte[] decryptData(final DataEntity entity) {
@@ -30,6 +30,7 @@ import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -63,6 +64,8 @@ public final class SettingService extends Serviceable<CommonDao, SettingResponse
 
     private static final Pattern PATTERN_NUMBER = Pattern.compile("\\d+");
 
+    private Map<String, String> updates = new HashMap<>(0);
+
     public SettingService(final Settings settings, final EntityManager entityManager) {
         super(settings, new CommonDao(entityManager));
     }
@@ -86,14 +89,15 @@ public final class SettingService extends Serviceable<CommonDao, SettingResponse
         final Map<String, String> changedEntries = findChangedEntries(request);
 
         // All issues should've been covered, meaning that we can now safely
-        // update the settings in the DB & the Settings Object.
-        processCheckedSettings(request, changedEntries);
+        // update the settings in the DB. The Settings Object is first updated
+        // once the changes have been committed, see getUpdates().
+        final Settings updated = processCheckedSettings(request, changedEntries);
 
         // All corrections have been made, now we can destroy the credentials
         Arrays.fill(request.getCredential(), (byte) 0);
 
         final var response = new SettingResponse();
-        response.setSettings(convert(settings));
+        response.setSettings(convert(updated));
 
         return response;
     }
@@ -117,14 +121,45 @@ public final class SettingService extends Serviceable<CommonDao, SettingResponse
         return map;
     }
 
-    private void processCheckedSettings(final SettingRequest request, final Map<String, String> changedEntries) {
+    /**
+     * <p>Returns the changes made to the Settings. They must be applied to
+     * the Settings Object, once the transaction has been committed, so the
+     * Settings are never altered, if the changes are rolled back.</p>
+     *
+     * @return Map with the changed Settings, null values are removed
+     */
+    public Map<String, String> getUpdates() {
+        return updates;
+    }
+
+    private Settings processCheckedSettings(final SettingRequest request, final Map<String, String> changedEntries) {
         final Map<String, SettingEntity> existing = convertSettings(dao.findAllAscending(SettingEntity.class, "id"));
+
+        // The changes are collected in a detached copy of the Settings, as
+        // changing the Salt or the PBE Iterations will require the new values,
+        // when updating the System Administrator.
+        final Map<String, String> changes = new HashMap<>(changedEntries.size());
         for (final Map.Entry<String, String> entry : changedEntries.entrySet()) {
-            processSettingRecord(request, existing, entry);
+            final String key = trim(entry.getKey());
+            final String value = trim(entry.getValue());
+            changes.put(key, ((existing.get(key) != null) && isEmpty(value)) ? null : value);
         }
+        final Settings updated = settings.copyWith(changes);
+
+        for (final Map.Entry<String, String> entry : changedEntries.entrySet()) {
+            processSettingRecord(request, updated, existing, entry);
+        }
+
+        // Other CWS instances must also reload the changed Settings.
+        if (!changedEntries.isEmpty()) {
+            dao.increaseRevision(Settings.REVISION);
+        }
+        updates = changes;
+
+        return updated;
     }
 
-    private void processSettingRecord(final SettingRequest request, final Map<String, SettingEntity> existing, final Map.Entry<String, String> entry) {
+    private void processSettingRecord(final SettingRequest request, final Settings updated, final Map<String, SettingEntity> existing, final Map.Entry<String, String> entry) {
         final String key = trim(entry.getKey());
         final SettingEntity existingSetting = existing.get(key);
         final String value = trim(entry.getValue());
@@ -133,11 +168,11 @@ public final class SettingService extends Serviceable<CommonDao, SettingResponse
             if (isEmpty(value)) {
                 deleteSetting(existingSetting);
             } else {
-                persistAndUpdateSetting(request, existingSetting, key, value);
+                persistAndUpdateSetting(request, updated, existingSetting, key, value);
             }
         } else {
             final var entity = new SettingEntity();
-            persistAndUpdateSetting(request, entity, key, value);
+            persistAndUpdateSetting(request, updated, entity, key, value);
         }
     }
 
@@ -177,6 +212,7 @@ public final class SettingService extends Serviceable<CommonDao, SettingResponse
                 checkCharset(setting, value);
                 break;
             case SANITY_INTERVAL:
+            case CACHE_CHECK_INTERVAL:
                 checkNumber(setting, value);
                 break;
             case CWS_SALT:
@@ -252,16 +288,14 @@ public final class SettingService extends Serviceable<CommonDao, SettingResponse
     }
 
     private void deleteSetting(final SettingEntity entity) {
-        settings.remove(entity.getName());
         dao.delete(entity);
     }
 
-    private void persistAndUpdateSetting(final SettingRequest request, final SettingEntity entity, final String key, final String value) {
+    private void persistAndUpdateSetting(final SettingRequest request, final Settings updated, final SettingEntity entity, final String key, final String value) {
         // First, just update the setting.
         entity.setName(key);
         entity.setSetting(value);
         dao.persist(entity);
-        settings.set(key, value);
 
         // Now the tricky part - if we have a critical setting (Salt or PBE
         // Iterations), which can only be updated when no members exist, we
@@ -272,7 +306,7 @@ public final class SettingService extends Serviceable<CommonDao, SettingResponse
             // As the System Administrator is not having any Circles, the
             // newly generated Asymmetric Key for the updated account can be
             // ignored.
-            updateMemberPassword(member, request.getCredential());
+            updateMemberPassword(member, request.getCredential(), updated);
         }
     }
 
@@ -287,11 +321,8 @@ public final class SettingService extends Serviceable<CommonDao, SettingResponse
     }
 
     public static Map<String, String> convert(final Settings settings) {
-        final Map<String, String> map = new ConcurrentHashMap<>(16);
-        for (final String key : settings.keys()) {
-            map.put(key, settings.get(key));
-        }
-
-        return map;
+        // Reading all settings at once, ensures that they are all taken from
+        // the same snapshot.
+        return settings.get();
     }
 }
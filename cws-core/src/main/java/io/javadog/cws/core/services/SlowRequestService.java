@@ -0,0 +1,82 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.services;
+
+import io.javadog.cws.api.dtos.SlowRequest;
+import io.javadog.cws.api.requests.Authentication;
+import io.javadog.cws.api.responses.SlowRequestResponse;
+import io.javadog.cws.core.enums.Permission;
+import io.javadog.cws.core.metrics.RequestTimer;
+import io.javadog.cws.core.metrics.SlowRequestLog;
+import io.javadog.cws.core.model.CommonDao;
+import io.javadog.cws.core.model.Settings;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+
+/**
+ * <p>Business Logic implementation for the CWS SlowRequests request.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class SlowRequestService extends Serviceable<CommonDao, SlowRequestResponse, Authentication> {
+
+    public SlowRequestService(final Settings settings, final EntityManager entityManager) {
+        super(settings, new CommonDao(entityManager));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SlowRequestResponse perform(final Authentication request) {
+        // Pre-checks, & destruction of credentials
+        verifyRequest(request, Permission.SLOW_REQUESTS);
+        Arrays.fill(request.getCredential(), (byte) 0);
+
+        final List<RequestTimer> timers = SlowRequestLog.getInstance().read();
+        final List<SlowRequest> requests = new ArrayList<>(timers.size());
+        for (final RequestTimer timer : timers) {
+            requests.add(convert(timer));
+        }
+
+        final var response = new SlowRequestResponse();
+        response.setRequests(requests);
+
+        return response;
+    }
+
+    private static SlowRequest convert(final RequestTimer timer) {
+        final Map<String, Long> phases = new LinkedHashMap<>();
+        for (final Map.Entry<String, Long> entry : timer.getPhases().entrySet()) {
+            phases.put(entry.getKey(), TimeUnit.NANOSECONDS.toMicros(entry.getValue()));
+        }
+
+        final var request = new SlowRequest();
+        request.setAction(timer.getAction());
+        request.setStarted(timer.getStarted());
+        request.setDuration(TimeUnit.NANOSECONDS.toMicros(timer.getDuration()));
+        request.setPhases(phases);
+
+        return request;
+    }
+}
@@ -96,6 +96,23 @@ final class ManagementBeanAuthenticatedTest extends DatabaseSetup {
         assertEquals("Cannot authenticate the Account from the given Credentials.", response.getReturnMessage());
     }
 
+    @Test
+    void testRepeatedInvalidPasswordsAreRejected() {
+        final ManagementBean bean = prepareManagementBean();
+        final SettingRequest request = new SettingRequest();
+        request.setAccountName(Constants.ADMIN_ACCOUNT);
+        request.setCredential(crypto.stringToBytes("Invalid Credentials"));
+
+        // Each failed attempt is penalised progressively, so with the default
+        // of 20 attempts per minute, the 6th attempt is refused.
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Cannot authenticate the Account from the given Credentials.", bean.settings(request).getReturnMessage());
+        }
+        final SettingResponse response = bean.settings(request);
+        assertEquals(ReturnCode.AUTHENTICATION_WARNING.getCode(), response.getReturnCode());
+        assertEquals("Too many authentication attempts for the Account, please try again later.", response.getReturnMessage());
+    }
+
     @Test
     void testAccessSettingsAsMember() {
         final ManagementBean bean = prepareManagementBean();
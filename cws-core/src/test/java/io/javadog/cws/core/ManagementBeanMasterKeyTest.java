@@ -16,20 +16,37 @@
  */
 package io.javadog.cws.core;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.javadog.cws.api.common.Action;
 import io.javadog.cws.api.common.Constants;
 import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.api.requests.FetchCircleRequest;
+import io.javadog.cws.api.requests.FetchDataRequest;
 import io.javadog.cws.api.requests.MasterKeyRequest;
+import io.javadog.cws.api.requests.ProcessMemberRequest;
+import io.javadog.cws.api.responses.FetchCircleResponse;
+import io.javadog.cws.api.responses.FetchDataResponse;
 import io.javadog.cws.api.responses.MasterKeyResponse;
+import io.javadog.cws.api.responses.ProcessDataResponse;
+import io.javadog.cws.core.enums.RotationStatus;
 import io.javadog.cws.core.enums.StandardSetting;
 import io.javadog.cws.core.exceptions.CWSException;
 import io.javadog.cws.core.jce.MasterKey;
+import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.model.RotationDao;
 import io.javadog.cws.core.model.Settings;
+import io.javadog.cws.core.model.entities.DataEntity;
 import io.javadog.cws.core.model.entities.MemberEntity;
+import io.javadog.cws.core.model.entities.RotationEntity;
 import io.javadog.cws.core.setup.DatabaseSetup;
+import io.javadog.cws.core.setup.fakes.FakeTransactionRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
@@ -38,8 +55,10 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import javax.transaction.Status;
 
 /**
  * <p>This Test Class, is testing the following Service Classes in one, as they
@@ -47,6 +66,7 @@ import java.util.UUID;
  *
  * <ul>
  *   <li>MasterKeyService</li>
+ *   <li>RotationBean</li>
  * </ul>
  *
  * <p>Note that this test class is not working under Windows, as the expected
@@ -198,22 +218,150 @@ final class ManagementBeanMasterKeyTest extends DatabaseSetup {
 
         Files.write(Paths.get(file), Constants.ADMIN_ACCOUNT.getBytes(settings.getCharset()));
         final MasterKey masterKey1 = newMasterKey(mySettings);
-        assertEquals(masterKey1.getKey().getKey(), defaultMasterKey.getKey().getKey());
+        assertArrayEquals(masterKey1.getKey().getEncoded(), defaultMasterKey.getKey().getEncoded());
 
         Files.write(Paths.get(file), UUID.randomUUID().toString().getBytes(settings.getCharset()));
         final MasterKey masterKey2 = newMasterKey(mySettings);
-        assertNotEquals(masterKey2.getKey().getKey(), defaultMasterKey.getKey().getKey());
+        assertFalse(Arrays.equals(masterKey2.getKey().getEncoded(), defaultMasterKey.getKey().getEncoded()));
     }
 
     @Test
     void testUpdateMasterKeyWhenMembersExist() {
+        final MasterKey masterKey = MasterKey.getInstance(settings);
+        final SecretCWSKey originalKey = masterKey.getKey();
+        final String sessionKey = UUID.randomUUID().toString();
         final ManagementBean bean = prepareManagementBean();
+        final ShareBean shareBean = prepareShareBean();
+
+        try {
+            // Before the rotation, a Session is created and some Data added.
+            final ProcessMemberRequest login = prepareRequest(ProcessMemberRequest.class, MEMBER_1);
+            login.setAction(Action.LOGIN);
+            login.setNewCredential(crypto.stringToBytes(sessionKey));
+            assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(login).getReturnCode());
+            final String before = addData(shareBean, "before");
+            final DataEntity beforeEntity = dao.findAllAscending(DataEntity.class, "id").get(0);
+            final Long staleId = beforeEntity.getId();
+            final String staleVector = beforeEntity.getInitialVector();
+
+            final MasterKeyRequest request = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
+            request.setSecret("MasterKey".getBytes(Charset.defaultCharset()));
+            final MasterKeyResponse response = bean.masterKey(request);
+            assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+            assertEquals("MasterKey rotation started.", response.getReturnMessage());
+
+            // Only a single rotation may be in progress
+            final MasterKeyRequest another = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
+            another.setSecret("Another MasterKey".getBytes(Charset.defaultCharset()));
+            final MasterKeyResponse anotherResponse = bean.masterKey(another);
+            assertEquals(ReturnCode.ILLEGAL_ACTION.getCode(), anotherResponse.getReturnCode());
+            assertEquals("Cannot alter the MasterKey, as a MasterKey rotation is in progress.", anotherResponse.getReturnMessage());
+
+            // While rotating, both old and new values can be read
+            final String during = addData(shareBean, "during");
+            assertDataReadable(shareBean, before, during);
+            assertSessionValid(bean, sessionKey, true);
+
+            // Processing the rotation in small batches, where the previous
+            // MasterKey is forgotten half way, as if the CWS was restarted.
+            final Settings mySettings = newSettings();
+            mySettings.set(StandardSetting.ROTATION_BATCH_SIZE.getKey(), "2");
+            final RotationBean rotationBean = prepareRotationBean(mySettings);
+            assertTrue(rotationBean.rotateMasterKey());
+            masterKey.setPreviousKey(null);
+            var batches = 1;
+            while (rotationBean.rotateMasterKey()) {
+                batches++;
+            }
+            assertTrue(batches > 3);
+            entityManager.flush();
+            entityManager.clear();
+
+            for (final MemberEntity member : dao.findAllAscending(MemberEntity.class, "id")) {
+                assertTrue(masterKey.isCurrent(member.getSalt()));
+            }
+            for (final DataEntity data : dao.findAllAscending(DataEntity.class, "id")) {
+                assertTrue(masterKey.isCurrent(data.getInitialVector()));
+            }
+            assertDataReadable(shareBean, before, during);
+
+            // The previous MasterKey is kept, until the Sessions created
+            // with it, have expired.
+            final RotationEntity rotation = new RotationDao(entityManager).findRotation(RotationDao.MASTER_KEY);
+            assertEquals(RotationStatus.SESSIONS, rotation.getStatus());
+            assertSessionValid(bean, sessionKey, true);
+
+            // A CWS instance, which has not yet been given the new MasterKey,
+            // writes a value with the previous, behind the checkpoint. The
+            // value is re-encrypted, and the waiting starts over.
+            entityManager.createQuery("update DataEntity set initialVector = :initialVector where id = :id")
+                    .setParameter("initialVector", staleVector)
+                    .setParameter("id", staleId)
+                    .executeUpdate();
+            rotation.setAltered(rotation.getAltered().minusMinutes(settings.getSessionTimeout() + 1L));
+            entityManager.flush();
+            assertFalse(rotationBean.rotateMasterKey());
+            assertEquals(RotationStatus.SESSIONS, rotation.getStatus());
+            assertTrue(masterKey.isCurrent((String) entityManager
+                    .createQuery("select d.initialVector from DataEntity d where d.id = :id")
+                    .setParameter("id", staleId)
+                    .getSingleResult()));
+            assertDataReadable(shareBean, before, during);
+
+            rotation.setAltered(rotation.getAltered().minusMinutes(settings.getSessionTimeout() + 1L));
+            entityManager.flush();
+            assertFalse(rotationBean.rotateMasterKey());
+            assertEquals(RotationStatus.COMPLETED, rotation.getStatus());
+            assertNull(rotation.getSecret());
+            assertNull(masterKey.getPreviousKey());
+            assertSessionValid(bean, sessionKey, false);
+            assertDataReadable(shareBean, before, during);
+        } finally {
+            masterKey.setKey(originalKey);
+            masterKey.setPreviousKey(null);
+        }
+    }
+
+    @Test
+    void testMasterKeyIsRestoredAfterRollback() {
+        final MasterKey masterKey = MasterKey.getInstance(settings);
+        final SecretCWSKey originalKey = masterKey.getKey();
+        final FakeTransactionRegistry registry = new FakeTransactionRegistry();
+        final ManagementBean bean = prepareManagementBean();
+        inject(bean, registry);
+
+        try {
+            final MasterKeyRequest request = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
+            request.setSecret("MasterKey".getBytes(Charset.defaultCharset()));
+            final MasterKeyResponse response = bean.masterKey(request);
+            assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+            assertEquals("MasterKey rotation started.", response.getReturnMessage());
+            assertNotEquals(originalKey, masterKey.getKey());
+
+            registry.complete(Status.STATUS_ROLLEDBACK);
+            assertEquals(originalKey, masterKey.getKey());
+            assertNull(masterKey.getPreviousKey());
+        } finally {
+            masterKey.setKey(originalKey);
+            masterKey.setPreviousKey(null);
+        }
+    }
+
+    @Test
+    void testFailedRequestIsRolledBack() {
+        final MasterKey masterKey = MasterKey.getInstance(settings);
+        final SecretCWSKey originalKey = masterKey.getKey();
+        final FakeTransactionRegistry registry = new FakeTransactionRegistry();
+        final ManagementBean bean = prepareManagementBean();
+        inject(bean, registry);
+
         final MasterKeyRequest request = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setCredential(crypto.stringToBytes("Wrong Credentials"));
         request.setSecret("MasterKey".getBytes(Charset.defaultCharset()));
-
         final MasterKeyResponse response = bean.masterKey(request);
-        assertEquals(ReturnCode.ILLEGAL_ACTION.getCode(), response.getReturnCode());
-        assertEquals("Cannot alter the MasterKey, as Member Accounts exists.", response.getReturnMessage());
+        assertEquals(ReturnCode.AUTHENTICATION_WARNING.getCode(), response.getReturnCode());
+        assertTrue(registry.getRollbackOnly());
+        assertEquals(originalKey, masterKey.getKey());
     }
 
     @Test
@@ -243,6 +391,36 @@ final class ManagementBeanMasterKeyTest extends DatabaseSetup {
     // Internal helper methods
     // =========================================================================
 
+    private RotationBean prepareRotationBean(final Settings settings) {
+        final RotationBean bean = new RotationBean();
+        inject(bean, entityManager);
+        inject(bean, settings);
+
+        return bean;
+    }
+
+    private static String addData(final ShareBean bean, final String name) {
+        final ProcessDataResponse response = bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, name, 512));
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+
+        return response.getDataId();
+    }
+
+    private static void assertDataReadable(final ShareBean bean, final String... dataIds) {
+        for (final String dataId : dataIds) {
+            final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+            request.setDataId(dataId);
+            final FetchDataResponse response = bean.fetchData(request);
+            assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+            assertEquals(512, response.getData().length);
+        }
+    }
+
+    private static void assertSessionValid(final ManagementBean bean, final String sessionKey, final boolean valid) {
+        final FetchCircleResponse response = bean.fetchCircles(prepareSessionRequest(FetchCircleRequest.class, sessionKey));
+        assertEquals(valid ? ReturnCode.SUCCESS.getCode() : ReturnCode.AUTHENTICATION_WARNING.getCode(), response.getReturnCode());
+    }
+
     private static String tempDir() {
         return System.getProperty("java.io.tmpdir") + File.separator;
     }
@@ -454,6 +454,53 @@ final class ManagementBeanProcessMemberTest extends DatabaseSetup {
         assertEquals("The Session has expired.", logoutResponse.getReturnMessage());
     }
 
+    @Test
+    void testMultipleSessions() {
+        final String firstSessionKey = UUID.randomUUID().toString();
+        final String secondSessionKey = UUID.randomUUID().toString();
+        final ManagementBean bean = prepareManagementBean();
+        assertTrue(bean.processMember(prepareLoginRequest(MEMBER_1, firstSessionKey)).isOk());
+        assertTrue(bean.processMember(prepareLoginRequest(MEMBER_1, secondSessionKey)).isOk());
+
+        // Both Sessions must be usable at the same time
+        assertTrue(bean.fetchMembers(prepareSessionRequest(FetchMemberRequest.class, firstSessionKey)).isOk());
+        assertTrue(bean.fetchMembers(prepareSessionRequest(FetchMemberRequest.class, secondSessionKey)).isOk());
+
+        // Logging out of the first Session must not affect the second
+        assertTrue(bean.processMember(prepareLogoutRequest(firstSessionKey)).isOk());
+        final FetchMemberResponse firstResponse = bean.fetchMembers(prepareSessionRequest(FetchMemberRequest.class, firstSessionKey));
+        assertEquals(ReturnCode.AUTHENTICATION_WARNING.getCode(), firstResponse.getReturnCode());
+        assertEquals("No Session could be found.", firstResponse.getReturnMessage());
+        assertTrue(bean.fetchMembers(prepareSessionRequest(FetchMemberRequest.class, secondSessionKey)).isOk());
+    }
+
+    @Test
+    void testLoginWithSessionKeyOfOtherMember() {
+        final String sessionKey = UUID.randomUUID().toString();
+        final ManagementBean bean = prepareManagementBean();
+        assertTrue(bean.processMember(prepareLoginRequest(MEMBER_1, sessionKey)).isOk());
+
+        final ProcessMemberResponse response = bean.processMember(prepareLoginRequest(MEMBER_2, sessionKey));
+        assertEquals(ReturnCode.ILLEGAL_ACTION.getCode(), response.getReturnCode());
+        assertEquals("The Session Key is already in use, please login with a different Session Key.", response.getReturnMessage());
+
+        // The Session of the first Member must remain intact
+        assertTrue(bean.fetchMembers(prepareSessionRequest(FetchMemberRequest.class, sessionKey)).isOk());
+    }
+
+    @Test
+    void testLoginWithExpiredSessionKeyOfOtherMember() {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.SESSION_TIMEOUT.getKey(), "-1");
+        final String sessionKey = UUID.randomUUID().toString();
+        assertTrue(prepareManagementBean(mySettings).processMember(prepareLoginRequest(MEMBER_1, sessionKey)).isOk());
+
+        // The expired Session is taken over by the second Member
+        final ManagementBean bean = prepareManagementBean();
+        assertTrue(bean.processMember(prepareLoginRequest(MEMBER_2, sessionKey)).isOk());
+        assertTrue(bean.fetchMembers(prepareSessionRequest(FetchMemberRequest.class, sessionKey)).isOk());
+    }
+
     @Test
     void testProcessSelf() {
         final String newName = "Supreme Member";
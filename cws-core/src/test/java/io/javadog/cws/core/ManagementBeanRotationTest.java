@@ -0,0 +1,302 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.common.Action;
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.api.common.TrustLevel;
+import io.javadog.cws.api.dtos.Rotation;
+import io.javadog.cws.api.requests.Authentication;
+import io.javadog.cws.api.requests.FetchDataRequest;
+import io.javadog.cws.api.requests.ProcessCircleRequest;
+import io.javadog.cws.api.requests.ProcessTrusteeRequest;
+import io.javadog.cws.api.responses.FetchDataResponse;
+import io.javadog.cws.api.responses.ProcessCircleResponse;
+import io.javadog.cws.api.responses.ProcessDataResponse;
+import io.javadog.cws.api.responses.ProcessTrusteeResponse;
+import io.javadog.cws.api.responses.RotationResponse;
+import io.javadog.cws.core.enums.RotationStatus;
+import io.javadog.cws.core.enums.StandardSetting;
+import io.javadog.cws.core.model.RotationDao;
+import io.javadog.cws.core.model.Settings;
+import io.javadog.cws.core.model.entities.CircleEntity;
+import io.javadog.cws.core.model.entities.DataEntity;
+import io.javadog.cws.core.model.entities.KeyEntity;
+import io.javadog.cws.core.model.entities.RotationEntity;
+import io.javadog.cws.core.model.entities.TrusteeEntity;
+import io.javadog.cws.core.setup.DatabaseSetup;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+/**
+ * <p>Testing the online rotation of Circle Keys, i.e. the ROTATE action of
+ * the ProcessCircleService, the RotationService and the background
+ * re-encryption in the RotationBean.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class ManagementBeanRotationTest extends DatabaseSetup {
+
+    @Test
+    void testRotateCircleKeyAsSystemAdministrator() {
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessCircleResponse response = bean.processCircle(prepareRotateRequest(Constants.ADMIN_ACCOUNT));
+
+        assertEquals(ReturnCode.AUTHORIZATION_WARNING.getCode(), response.getReturnCode());
+        assertNull(new RotationDao(entityManager).findRotation(RotationDao.CIRCLE_KEY + CIRCLE_1_ID));
+    }
+
+    @Test
+    void testRotateCircleKeyAsTrustee() {
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessCircleResponse response = bean.processCircle(prepareRotateRequest(MEMBER_2));
+
+        assertEquals(ReturnCode.AUTHORIZATION_WARNING.getCode(), response.getReturnCode());
+        assertNull(new RotationDao(entityManager).findRotation(RotationDao.CIRCLE_KEY + CIRCLE_1_ID));
+    }
+
+    @Test
+    void testRotationsAsTrustee() {
+        final ManagementBean bean = prepareManagementBean();
+        final RotationResponse response = bean.rotations(prepareRequest(Authentication.class, MEMBER_2));
+
+        assertEquals(ReturnCode.AUTHORIZATION_WARNING.getCode(), response.getReturnCode());
+    }
+
+    @Test
+    void testRotateCircleKey() {
+        final ManagementBean bean = prepareManagementBean();
+        final ShareBean shareBean = prepareShareBean();
+        final String before = addData(shareBean, "before");
+        for (var i = 0; i < 4; i++) {
+            addData(shareBean, "more" + i);
+        }
+        final KeyEntity previousKey = findTrustee(MEMBER_1).getKey();
+
+        final ProcessCircleResponse response = bean.processCircle(prepareRotateRequest(MEMBER_1));
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+        assertEquals("The Circle 'circle1' has been given a new Key, the Data is being re-encrypted in the background.", response.getReturnMessage());
+
+        // Only a single rotation of a Circle Key may be in progress
+        final ProcessCircleResponse another = bean.processCircle(prepareRotateRequest(MEMBER_1));
+        assertEquals(ReturnCode.ILLEGAL_ACTION.getCode(), another.getReturnCode());
+        assertEquals("Cannot rotate the Circle Key, as a rotation is already in progress.", another.getReturnMessage());
+
+        // While rotating, both old and new Data can be read, also by the
+        // other Trustees and by Trustees added during the rotation.
+        final String during = addData(shareBean, "during");
+        assertDataReadable(shareBean, MEMBER_1, before, during);
+        assertDataReadable(shareBean, MEMBER_3, before, during);
+        addTrustee(bean, MEMBER_5_ID);
+        assertDataReadable(shareBean, MEMBER_5, before, during);
+
+        final RotationResponse progress = bean.rotations(prepareRequest(Authentication.class, MEMBER_1));
+        assertEquals(ReturnCode.SUCCESS.getCode(), progress.getReturnCode());
+        assertEquals(1, progress.getRotations().size());
+        final Rotation rotation = progress.getRotations().get(0);
+        assertEquals(CIRCLE_1_ID, rotation.getCircleId());
+        assertEquals(RotationStatus.DATA.name(), rotation.getStatus());
+        assertTrue(rotation.getRemaining() > 0);
+
+        // Processing the rotation in small batches
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.ROTATION_BATCH_SIZE.getKey(), "2");
+        final RotationBean rotationBean = prepareRotationBean(mySettings);
+        var batches = 0;
+        while (rotationBean.rotateCircleKeys()) {
+            batches++;
+        }
+        assertTrue(batches > 2);
+        entityManager.flush();
+        entityManager.clear();
+
+        final CircleEntity circle = dao.find(CircleEntity.class, CIRCLE_1_ID);
+        final RotationDao rotationDao = new RotationDao(entityManager);
+        for (final TrusteeEntity trustee : rotationDao.findTrusteesByCircle(circle)) {
+            assertNotEquals(previousKey.getId(), trustee.getKey().getId());
+            assertNull(trustee.getPreviousKey());
+            assertNull(trustee.getPreviousCircleKey());
+        }
+        assertEquals(0, rotationDao.countDataByKey(previousKey));
+        for (final DataEntity data : dao.findAllAscending(DataEntity.class, "id")) {
+            if (data.getMetadata().getCircle().getId().equals(circle.getId())) {
+                assertNotEquals(previousKey.getId(), data.getKey().getId());
+            }
+        }
+
+        final RotationEntity completed = rotationDao.findRotation(RotationDao.CIRCLE_KEY + CIRCLE_1_ID);
+        assertEquals(RotationStatus.COMPLETED, completed.getStatus());
+        assertNull(completed.getSecret());
+        assertFalse(rotationBean.rotateCircleKeys());
+        assertDataReadable(shareBean, MEMBER_1, before, during);
+        assertDataReadable(shareBean, MEMBER_3, before, during);
+        assertDataReadable(shareBean, MEMBER_5, before, during);
+
+        final RotationResponse done = bean.rotations(prepareRequest(Authentication.class, Constants.ADMIN_ACCOUNT));
+        assertEquals(ReturnCode.SUCCESS.getCode(), done.getReturnCode());
+        assertTrue(done.getRotations().isEmpty());
+    }
+
+    @Test
+    void testDataBehindCheckpointIsReEncrypted() {
+        final ManagementBean bean = prepareManagementBean();
+        final ShareBean shareBean = prepareShareBean();
+        final String before = addData(shareBean, "before");
+        for (var i = 0; i < 4; i++) {
+            addData(shareBean, "more" + i);
+        }
+        final KeyEntity previousKey = findTrustee(MEMBER_1).getKey();
+        final DataEntity stale = dao.findAllAscending(DataEntity.class, "id").get(0);
+        final Long staleId = stale.getId();
+        final String staleVector = stale.getInitialVector();
+        final String staleChecksum = stale.getChecksum();
+        final byte[] staleData = stale.getData();
+
+        final ProcessCircleResponse response = bean.processCircle(prepareRotateRequest(MEMBER_1));
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.ROTATION_BATCH_SIZE.getKey(), "2");
+        final RotationBean rotationBean = prepareRotationBean(mySettings);
+        assertTrue(rotationBean.rotateCircleKeys());
+
+        // A request, which read the Trustee before the rotation was started,
+        // updates an Object behind the checkpoint with the previous Key.
+        entityManager.flush();
+        entityManager.createQuery("update DataEntity set key = :key, initialVector = :initialVector, data = :data, checksum = :checksum where id = :id")
+                .setParameter("key", previousKey)
+                .setParameter("initialVector", staleVector)
+                .setParameter("data", staleData)
+                .setParameter("checksum", staleChecksum)
+                .setParameter("id", staleId)
+                .executeUpdate();
+        entityManager.clear();
+
+        while (rotationBean.rotateCircleKeys()) {
+            entityManager.flush();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        final RotationDao rotationDao = new RotationDao(entityManager);
+        assertEquals(RotationStatus.COMPLETED, rotationDao.findRotation(RotationDao.CIRCLE_KEY + CIRCLE_1_ID).getStatus());
+        assertEquals(0, rotationDao.countDataByKey(previousKey));
+        assertDataReadable(shareBean, MEMBER_1, before);
+    }
+
+    @Test
+    void testUnreadableRotationDoesNotBlockOthers() {
+        final ManagementBean bean = prepareManagementBean();
+        final ShareBean shareBean = prepareShareBean();
+        final String before = addData(shareBean, "before");
+        final KeyEntity previousKey = findTrustee(MEMBER_1).getKey();
+
+        // The first rotation has Circle Keys encrypted with a MasterKey,
+        // which this CWS instance has not been given.
+        final RotationEntity unreadable = new RotationEntity();
+        unreadable.setName(RotationDao.CIRCLE_KEY + CIRCLE_2_ID);
+        unreadable.setCircle(dao.find(CircleEntity.class, CIRCLE_2_ID));
+        unreadable.setStatus(RotationStatus.DATA);
+        unreadable.setKey(previousKey);
+        unreadable.setPreviousKey(previousKey);
+        unreadable.setSecret("00000000$AAAAAAAAAAAAAAAAAAAAAA==");
+        dao.persist(unreadable);
+
+        final ProcessCircleResponse response = bean.processCircle(prepareRotateRequest(MEMBER_1));
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+
+        final RotationBean rotationBean = prepareRotationBean(newSettings());
+        var batches = 0;
+        while (rotationBean.rotateCircleKeys()) {
+            batches++;
+        }
+        assertTrue(batches > 0);
+
+        final RotationDao rotationDao = new RotationDao(entityManager);
+        assertEquals(RotationStatus.COMPLETED, rotationDao.findRotation(RotationDao.CIRCLE_KEY + CIRCLE_1_ID).getStatus());
+        assertEquals(RotationStatus.DATA, rotationDao.findRotation(RotationDao.CIRCLE_KEY + CIRCLE_2_ID).getStatus());
+        assertEquals(0, rotationDao.countDataByKey(previousKey));
+        assertDataReadable(shareBean, MEMBER_1, before);
+    }
+
+    // =========================================================================
+    // Internal helper methods
+    // =========================================================================
+
+    private RotationBean prepareRotationBean(final Settings settings) {
+        final RotationBean bean = new RotationBean();
+        inject(bean, entityManager);
+        inject(bean, settings);
+
+        return bean;
+    }
+
+    private TrusteeEntity findTrustee(final String account) {
+        final CircleEntity circle = dao.find(CircleEntity.class, CIRCLE_1_ID);
+        final List<TrusteeEntity> trustees = new RotationDao(entityManager).findTrusteesByCircle(circle);
+        TrusteeEntity found = null;
+        for (final TrusteeEntity trustee : trustees) {
+            if (account.equals(trustee.getMember().getName())) {
+                found = trustee;
+            }
+        }
+
+        return found;
+    }
+
+    private static ProcessCircleRequest prepareRotateRequest(final String account) {
+        final ProcessCircleRequest request = prepareRequest(ProcessCircleRequest.class, account);
+        request.setAction(Action.ROTATE);
+        request.setCircleId(CIRCLE_1_ID);
+
+        return request;
+    }
+
+    private static void addTrustee(final ManagementBean bean, final String memberId) {
+        final ProcessTrusteeRequest request = prepareRequest(ProcessTrusteeRequest.class, MEMBER_1);
+        request.setAction(Action.ADD);
+        request.setCircleId(CIRCLE_1_ID);
+        request.setMemberId(memberId);
+        request.setTrustLevel(TrustLevel.READ);
+        final ProcessTrusteeResponse response = bean.processTrustee(request);
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+    }
+
+    private static String addData(final ShareBean bean, final String name) {
+        final ProcessDataResponse response = bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, name, 512));
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+
+        return response.getDataId();
+    }
+
+    private static void assertDataReadable(final ShareBean bean, final String account, final String... dataIds) {
+        for (final String dataId : dataIds) {
+            final FetchDataRequest request = prepareRequest(FetchDataRequest.class, account);
+            request.setDataId(dataId);
+            final FetchDataResponse response = bean.fetchData(request);
+            assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+            assertEquals(512, response.getData().length);
+        }
+    }
+}
@@ -24,14 +24,17 @@ import io.javadog.cws.api.common.Constants;
 import io.javadog.cws.api.common.ReturnCode;
 import io.javadog.cws.api.requests.SettingRequest;
 import io.javadog.cws.api.responses.SettingResponse;
+import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.setup.DatabaseSetup;
 import io.javadog.cws.core.enums.KeyAlgorithm;
 import io.javadog.cws.core.enums.StandardSetting;
 import io.javadog.cws.core.model.entities.MemberEntity;
+import io.javadog.cws.core.setup.fakes.FakeTransactionRegistry;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javax.transaction.Status;
 
 import org.junit.jupiter.api.Test;
 
@@ -211,11 +214,13 @@ final class ManagementBeanSettingsTest extends DatabaseSetup {
         final Map<String, String> mySettings = new HashMap<>();
         mySettings.put("my.setting.key", "value");
         request.setSettings(mySettings);
+        final long revision = dao.findRevision(Settings.REVISION);
 
         final SettingResponse update = bean.settings(request);
         assertEquals(ReturnCode.SUCCESS.getCode(), update.getReturnCode());
         assertEquals("Ok", update.getReturnMessage());
         assertEquals(StandardSetting.values().length + 1, update.getSettings().size());
+        assertEquals(revision + 1, dao.findRevision(Settings.REVISION));
     }
 
     @Test
@@ -369,4 +374,47 @@ final class ManagementBeanSettingsTest extends DatabaseSetup {
         assertEquals(ReturnCode.SETTING_WARNING.getCode(), response.getReturnCode());
         assertEquals("The setting cws.masterkey.url may not be changed with this request.", response.getReturnMessage());
     }
+
+    @Test
+    void testSettingsArePublishedAfterCommit() {
+        final Settings mySettings = newSettings();
+        final FakeTransactionRegistry registry = new FakeTransactionRegistry();
+        final ManagementBean bean = prepareManagementBean(mySettings);
+        inject(bean, registry);
+
+        final SettingResponse response = bean.settings(prepareUpdateRequest("ISO-8859-15"));
+        assertTrue(response.isOk());
+        assertEquals("ISO-8859-15", response.getSettings().get(StandardSetting.CWS_CHARSET.getKey()));
+        assertEquals("UTF-8", mySettings.get(StandardSetting.CWS_CHARSET.getKey()));
+
+        registry.complete(Status.STATUS_COMMITTED);
+        assertEquals("ISO-8859-15", mySettings.get(StandardSetting.CWS_CHARSET.getKey()));
+    }
+
+    @Test
+    void testSettingsAreNotPublishedAfterRollback() {
+        final Settings mySettings = newSettings();
+        final FakeTransactionRegistry registry = new FakeTransactionRegistry();
+        final ManagementBean bean = prepareManagementBean(mySettings);
+        inject(bean, registry);
+
+        final SettingResponse response = bean.settings(prepareUpdateRequest("UTF-16"));
+        assertTrue(response.isOk());
+
+        registry.complete(Status.STATUS_ROLLEDBACK);
+        assertEquals("UTF-8", mySettings.get(StandardSetting.CWS_CHARSET.getKey()));
+    }
+
+    // =========================================================================
+    // Internal helper methods
+    // =========================================================================
+
+    private static SettingRequest prepareUpdateRequest(final String charset) {
+        final SettingRequest request = prepareRequest(SettingRequest.class, Constants.ADMIN_ACCOUNT);
+        final Map<String, String> changes = new HashMap<>();
+        changes.put(StandardSetting.CWS_CHARSET.getKey(), charset);
+        request.setSettings(changes);
+
+        return request;
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.api.dtos.SlowRequest;
+import io.javadog.cws.api.requests.Authentication;
+import io.javadog.cws.api.requests.FetchDataRequest;
+import io.javadog.cws.api.responses.FetchDataResponse;
+import io.javadog.cws.api.responses.ProcessDataResponse;
+import io.javadog.cws.api.responses.SlowRequestResponse;
+import io.javadog.cws.core.metrics.RequestTimer;
+import io.javadog.cws.core.metrics.SlowRequestLog;
+import io.javadog.cws.core.setup.DatabaseSetup;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class ManagementBeanSlowRequestTest extends DatabaseSetup {
+
+    @Test
+    void testSlowRequestsContainPhases() {
+        SlowRequestLog.getInstance().clear();
+        final ShareBean shareBean = prepareShareBean();
+        final ProcessDataResponse added = shareBean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Data", 1024));
+        final FetchDataRequest fetchRequest = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        fetchRequest.setDataId(added.getDataId());
+
+        final RequestTimer timer = RequestTimer.begin(Constants.REST_DATA_FETCH);
+        final FetchDataResponse fetched = shareBean.fetchData(fetchRequest);
+        timer.end();
+        assertTrue(fetched.isOk());
+        assertTrue(timer.toServerTiming().startsWith("validate;dur="));
+        assertTrue(timer.toServerTiming().contains(", total;dur="));
+
+        final ManagementBean bean = prepareManagementBean();
+        final SlowRequestResponse response = bean.slowRequests(prepareRequest(Authentication.class, Constants.ADMIN_ACCOUNT));
+        assertTrue(response.isOk());
+
+        final List<SlowRequest> requests = response.getRequests();
+        assertEquals(1, requests.size());
+        assertEquals(Constants.REST_DATA_FETCH, requests.get(0).getAction());
+        assertEquals(Set.of("validate", "authenticate", "authorize", "findRootMetadata", "findData", "checksum", "decrypt"), requests.get(0).getPhases().keySet());
+    }
+
+    @Test
+    void testSlowRequestsAsMember() {
+        final ManagementBean bean = prepareManagementBean();
+
+        final SlowRequestResponse response = bean.slowRequests(prepareRequest(Authentication.class, MEMBER_1));
+        assertEquals(ReturnCode.AUTHORIZATION_WARNING.getCode(), response.getReturnCode());
+    }
+}
@@ -20,23 +20,35 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.javadog.cws.api.common.Action;
 import io.javadog.cws.api.common.ReturnCode;
 import io.javadog.cws.api.common.Utilities;
+import io.javadog.cws.api.requests.FetchDataRequest;
+import io.javadog.cws.api.requests.ProcessDataRequest;
 import io.javadog.cws.api.responses.ProcessDataResponse;
 import io.javadog.cws.core.enums.SanityStatus;
 import io.javadog.cws.core.enums.StandardSetting;
 import io.javadog.cws.core.exceptions.CWSException;
+import io.javadog.cws.core.metrics.Metrics;
+import io.javadog.cws.core.misc.SanityQueue;
+import io.javadog.cws.core.model.CommonDao;
 import io.javadog.cws.core.model.Settings;
+import io.javadog.cws.core.model.entities.CircleEntity;
 import io.javadog.cws.core.model.entities.DataEntity;
+import io.javadog.cws.core.model.entities.MemberEntity;
+import io.javadog.cws.core.model.entities.SessionEntity;
 import io.javadog.cws.core.services.ProcessDataService;
 import io.javadog.cws.core.setup.DatabaseSetup;
 import io.javadog.cws.core.setup.fakes.FakeEntityManager;
 import io.javadog.cws.core.setup.fakes.FakeTimer;
 import io.javadog.cws.core.setup.fakes.FakeTimerService;
+import io.javadog.cws.core.setup.fakes.FakeTransactionRegistry;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDateTime;
 import java.util.List;
+import javax.persistence.Cache;
+import javax.transaction.Status;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -99,6 +111,48 @@ final class SanitizerBeanTest extends DatabaseSetup {
         assertTrue(idsAfter.isEmpty());
     }
 
+    @Test
+    void testStartupBeanEvictsChangedCircles() {
+        final StartupBean bean = prepareStartupBean("false");
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+        clearCaches();
+        final Long circleId = dao.find(CircleEntity.class, 1L).getId();
+        assertTrue(cache.contains(CircleEntity.class, circleId));
+
+        // Until another CWS instance has increased the Revision, the cached
+        // Circles are kept.
+        bean.refreshSettings();
+        assertTrue(cache.contains(CircleEntity.class, circleId));
+
+        dao.increaseRevision(CommonDao.CIRCLES);
+        bean.refreshSettings();
+        assertFalse(cache.contains(CircleEntity.class, circleId));
+    }
+
+    @Test
+    void testStartupBeanRefreshSettings() {
+        final StartupBean bean = prepareStartupBean("false");
+        final Settings beanSettings = getBeanSettings(bean);
+        assertEquals(Integer.valueOf(480), beanSettings.getSessionTimeout());
+
+        // Another CWS instance updates the Setting, but until the Revision
+        // has been increased, the Settings should not be reloaded.
+        entityManager
+                .createQuery("update SettingEntity set setting = :setting where name = :name")
+                .setParameter("name", StandardSetting.SESSION_TIMEOUT.getKey())
+                .setParameter("setting", "60")
+                .executeUpdate();
+        // The Settings were read by the Bean, so they must be cleared, as a
+        // new Persistence Context is used for each Timer invocation.
+        entityManager.clear();
+        bean.refreshSettings();
+        assertEquals(Integer.valueOf(480), beanSettings.getSessionTimeout());
+
+        dao.increaseRevision(Settings.REVISION);
+        bean.refreshSettings();
+        assertEquals(Integer.valueOf(60), beanSettings.getSessionTimeout());
+    }
+
     @Test
     void testStartupBeanWithDatabaseProblem() {
         final Settings settings = newSettings();
@@ -129,6 +183,98 @@ final class SanitizerBeanTest extends DatabaseSetup {
         assertTrue(idsAfter.isEmpty());
     }
 
+    @Test
+    void testSanitizeBeanRemovesExpiredSessions() {
+        final SanitizerBean bean = prepareSanitizeBean();
+        final MemberEntity member = find(MemberEntity.class, 1L);
+        final LocalDateTime now = Utilities.newDate();
+        for (int i = 0; i < 250; i++) {
+            persistSession(member, "expired" + i, now.minusMinutes(1));
+        }
+        persistSession(member, "active", now.plusMinutes(10));
+
+        bean.sanitize();
+
+        final List<SessionEntity> sessions = dao.findAllAscending(SessionEntity.class, "id");
+        assertEquals(1, sessions.size());
+        assertEquals("active", sessions.get(0).getChecksum());
+    }
+
+    @Test
+    void testCountActiveSessions() {
+        final SanitizerBean bean = prepareSanitizeBean();
+        final long before = bean.countActiveSessions();
+        final MemberEntity member = find(MemberEntity.class, 1L);
+        final LocalDateTime now = Utilities.newDate();
+        persistSession(member, "expired", now.minusMinutes(1));
+        persistSession(member, "active1", now.plusMinutes(10));
+        persistSession(member, "active2", now.plusMinutes(10));
+
+        final long count = bean.countActiveSessions();
+        assertEquals(before + 2, count);
+        assertTrue(Metrics.getInstance().scrape().contains("\ncws_sessions_active " + count + '\n'));
+    }
+
+    @Test
+    void testQueuedResultsAreApplied() {
+        final ShareBean shareBean = prepareShareBean();
+        final ProcessDataResponse added = shareBean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Queued Data", 1024));
+        falsifyChecksum(added, Utilities.newDate(), SanityStatus.OK);
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        request.setDataId(added.getDataId());
+
+        // Reading the Object must not update it, the result is queued.
+        assertEquals(ReturnCode.INTEGRITY_ERROR.getCode(), shareBean.fetchData(request).getReturnCode());
+        assertEquals(SanityStatus.OK, findData(added.getDataId()).getSanityStatus());
+        assertEquals(1, SanityQueue.getInstance().size());
+
+        final SanitizerBean bean = prepareSanitizeBean();
+        assertEquals(1, bean.applyQueuedResults());
+        assertEquals(0, SanityQueue.getInstance().size());
+        assertEquals(SanityStatus.FAILED, findData(added.getDataId()).getSanityStatus());
+    }
+
+    @Test
+    void testQueuedFailureIsSkippedForUpdatedData() {
+        final ShareBean shareBean = prepareShareBean();
+        final ProcessDataResponse added = shareBean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Updated Data", 1024));
+        falsifyChecksum(added, Utilities.newDate(), SanityStatus.OK);
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        request.setDataId(added.getDataId());
+        assertEquals(ReturnCode.INTEGRITY_ERROR.getCode(), shareBean.fetchData(request).getReturnCode());
+
+        // The Object is replaced after the failure was queued, so the
+        // failure no longer applies to it.
+        final ProcessDataRequest update = prepareRequest(ProcessDataRequest.class, MEMBER_1);
+        update.setAction(Action.UPDATE);
+        update.setCircleId(CIRCLE_1_ID);
+        update.setDataId(added.getDataId());
+        update.setData(generateData(512));
+        assertEquals(ReturnCode.SUCCESS.getCode(), shareBean.processData(update).getReturnCode());
+
+        final SanitizerBean bean = prepareSanitizeBean();
+        assertEquals(1, bean.applyQueuedResults());
+        assertEquals(SanityStatus.OK, findData(added.getDataId()).getSanityStatus());
+    }
+
+    @Test
+    void testQueuedResultsAreRequeuedAfterRollback() {
+        final FakeTransactionRegistry registry = new FakeTransactionRegistry();
+        final SanitizerBean bean = prepareSanitizeBean();
+        inject(bean, registry);
+        final SanityQueue queue = SanityQueue.getInstance();
+
+        queue.offer(1L, SanityStatus.OK, Utilities.newDate(), Utilities.newDate());
+        assertEquals(1, bean.applyQueuedResults());
+        assertEquals(0, queue.size());
+        registry.complete(Status.STATUS_ROLLEDBACK);
+        assertEquals(1, queue.size());
+
+        assertEquals(1, bean.applyQueuedResults());
+        registry.complete(Status.STATUS_COMMITTED);
+        assertEquals(0, queue.size());
+    }
+
     @Test
     void testSanitizeBeanWithDatabaseProblem() {
         final SanitizerBean bean = prepareFlawedSanitizeBean();
@@ -192,6 +338,15 @@ final class SanitizerBeanTest extends DatabaseSetup {
         }
     }
 
+    private void persistSession(final MemberEntity member, final String checksum, final LocalDateTime expires) {
+        final SessionEntity session = new SessionEntity();
+        session.setMember(member);
+        session.setChecksum(checksum);
+        session.setCrypto(checksum);
+        session.setExpires(expires);
+        dao.persist(session);
+    }
+
     private SanitizerBean prepareSanitizeBean() {
         try {
             final SanitizerBean bean = SanitizerBean.class.getConstructor().newInstance();
@@ -230,6 +385,16 @@ final class SanitizerBeanTest extends DatabaseSetup {
         }
     }
 
+    private DataEntity findData(final String dataId) {
+        entityManager.flush();
+        entityManager.clear();
+
+        return (DataEntity) entityManager
+                .createQuery("select d from DataEntity d where d.metadata.externalId = :eid")
+                .setParameter("eid", dataId)
+                .getSingleResult();
+    }
+
     private void prepareInvalidData() {
         final ProcessDataService service = new ProcessDataService(settings, entityManager);
         timeWarpChecksum(service.perform(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Valid Data1", 1048576)), Utilities.newDate(1L));
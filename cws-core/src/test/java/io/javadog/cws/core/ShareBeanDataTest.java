@@ -33,6 +33,7 @@ import io.javadog.cws.api.requests.ProcessDataRequest;
 import io.javadog.cws.api.responses.FetchDataResponse;
 import io.javadog.cws.api.responses.ProcessDataResponse;
 import io.javadog.cws.core.enums.SanityStatus;
+import io.javadog.cws.core.misc.CiphertextCache;
 import io.javadog.cws.core.setup.DatabaseSetup;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
@@ -170,6 +171,36 @@ final class ShareBeanDataTest extends DatabaseSetup {
         assertEquals(updateContent, new String(fetchResponse.getData(), StandardCharsets.UTF_8));
     }
 
+    @Test
+    void testUpdatingCachedData() {
+        final ShareBean bean = prepareShareBean();
+        final ProcessDataResponse saveResponse = bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Cached Data", 2048));
+        assertEquals(ReturnCode.SUCCESS.getCode(), saveResponse.getReturnCode());
+
+        final FetchDataRequest fetchRequest = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        fetchRequest.setDataId(saveResponse.getDataId());
+        final FetchDataResponse fetchResponse1 = bean.fetchData(fetchRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse1.getReturnCode());
+        assertEquals(1, CiphertextCache.getInstance().count());
+
+        final FetchDataRequest cachedRequest = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        cachedRequest.setDataId(saveResponse.getDataId());
+        final FetchDataResponse fetchResponse2 = bean.fetchData(cachedRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse2.getReturnCode());
+        assertArrayEquals(fetchResponse1.getData(), fetchResponse2.getData());
+
+        final ProcessDataRequest updateRequest = prepareUpdateRequest(MEMBER_1, saveResponse.getDataId());
+        updateRequest.setData("Updated".getBytes(StandardCharsets.UTF_8));
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processData(updateRequest).getReturnCode());
+        assertEquals(0, CiphertextCache.getInstance().count());
+
+        final FetchDataRequest updatedRequest = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        updatedRequest.setDataId(saveResponse.getDataId());
+        final FetchDataResponse fetchResponse3 = bean.fetchData(updatedRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse3.getReturnCode());
+        assertEquals("Updated", new String(fetchResponse3.getData(), StandardCharsets.UTF_8));
+    }
+
     @Test
     void testAddingAndFetchingData() {
         final ShareBean bean = prepareShareBean();
@@ -0,0 +1,346 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.common.Action;
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.api.common.TrustLevel;
+import io.javadog.cws.api.requests.Authentication;
+import io.javadog.cws.api.requests.FetchCircleRequest;
+import io.javadog.cws.api.requests.FetchDataRequest;
+import io.javadog.cws.api.requests.FetchDataTypeRequest;
+import io.javadog.cws.api.requests.FetchMemberRequest;
+import io.javadog.cws.api.requests.FetchSignatureRequest;
+import io.javadog.cws.api.requests.FetchTrusteeRequest;
+import io.javadog.cws.api.requests.InventoryRequest;
+import io.javadog.cws.api.requests.MasterKeyRequest;
+import io.javadog.cws.api.requests.ProcessCircleRequest;
+import io.javadog.cws.api.requests.ProcessDataRequest;
+import io.javadog.cws.api.requests.ProcessDataTypeRequest;
+import io.javadog.cws.api.requests.ProcessMemberRequest;
+import io.javadog.cws.api.requests.ProcessTrusteeRequest;
+import io.javadog.cws.api.requests.SanityRequest;
+import io.javadog.cws.api.requests.SettingRequest;
+import io.javadog.cws.api.requests.SignRequest;
+import io.javadog.cws.api.requests.VerifyRequest;
+import io.javadog.cws.api.responses.CwsResponse;
+import io.javadog.cws.api.responses.FetchDataResponse;
+import io.javadog.cws.api.responses.FetchTrusteeResponse;
+import io.javadog.cws.api.responses.MasterKeyResponse;
+import io.javadog.cws.api.responses.ProcessDataResponse;
+import io.javadog.cws.api.responses.SignResponse;
+import io.javadog.cws.api.responses.VerifyResponse;
+import io.javadog.cws.core.misc.CiphertextCache;
+import io.javadog.cws.core.setup.DatabaseSetup;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>Each request is given a budget for the number of SQL Statements it may
+ * use, when it is invoked with empty caches. The budgets are deliberately
+ * tight, so a change to the queries or the Entity mappings, which will cause
+ * additional lookups (N+1 selects), will make the build fail. If a change
+ * requires more Statements, then the budget must be raised explicitly.</p>
+ *
+ * <p>All operations of the Share and Management Beans must have a budget.
+ * The budget tests are named after the operation, optionally followed by
+ * 'For' and the variant, i.e. testFetchTrusteesForCircle, so it can be
+ * verified that no operation is without a budget.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class StatementBudgetTest extends DatabaseSetup {
+
+    @Test
+    void testFetchDataTypes() {
+        final ShareBean bean = prepareShareBean();
+        final FetchDataTypeRequest request = prepareRequest(FetchDataTypeRequest.class, MEMBER_1);
+
+        assertOk(assertStatementBudget("FetchDataTypes", 3, () -> bean.fetchDataTypes(request)));
+    }
+
+    @Test
+    void testAllOperationsHaveBudget() {
+        final Set<String> tests = Arrays.stream(StatementBudgetTest.class.getDeclaredMethods())
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+
+        for (final Class<?> bean : List.of(ShareBean.class, ManagementBean.class)) {
+            for (final Method method : bean.getDeclaredMethods()) {
+                if (Modifier.isPublic(method.getModifiers()) && CwsResponse.class.isAssignableFrom(method.getReturnType())) {
+                    final String name = method.getName();
+                    final String test = "test" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+                    assertTrue(tests.stream().anyMatch(t -> t.equals(test) || t.startsWith(test + "For")), "The " + bean.getSimpleName() + '.' + name + " operation has no Statement budget.");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testProcessDataTypeForAdd() {
+        final ShareBean bean = prepareShareBean();
+        final ProcessDataTypeRequest request = prepareRequest(ProcessDataTypeRequest.class, MEMBER_1);
+        request.setType("MyDataType");
+        request.setTypeName("The Data Type");
+
+        assertOk(assertStatementBudget("ProcessDataType (Add)", 5, () -> bean.processDataType(request)));
+    }
+
+    @Test
+    void testFetchDataForFolder() {
+        final ShareBean bean = prepareShareBean();
+        for (int i = 0; i < 5; i++) {
+            assertOk(bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Data " + i, 128)));
+        }
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        request.setCircleId(CIRCLE_1_ID);
+
+        final FetchDataResponse response = assertStatementBudget("FetchData (Folder)", 6, () -> bean.fetchData(request));
+        assertOk(response);
+        assertEquals(5, response.getMetadata().size());
+    }
+
+    @Test
+    void testFetchDataForObject() {
+        final ShareBean bean = prepareShareBean();
+        final ProcessDataResponse added = bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Data", 1024));
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        request.setDataId(added.getDataId());
+
+        final FetchDataResponse response = assertStatementBudget("FetchData (Object)", 4, () -> bean.fetchData(request));
+        assertOk(response);
+        assertEquals(1024, response.getData().length);
+    }
+
+    @Test
+    void testFetchDataForCachedObject() {
+        final ShareBean bean = prepareShareBean();
+        final ProcessDataResponse added = bean.processData(prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Data", 1024));
+        final FetchDataRequest first = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        first.setDataId(added.getDataId());
+        assertOk(bean.fetchData(first));
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        request.setDataId(added.getDataId());
+
+        // The encrypted bytes are read from the cache, but the access is
+        // still checked with the same number of Statements.
+        final long hits = CiphertextCache.getInstance().hits();
+        final FetchDataResponse response = assertStatementBudget("FetchData (Cached)", 4, () -> bean.fetchData(request));
+        assertOk(response);
+        assertEquals(1024, response.getData().length);
+        assertEquals(hits + 1, CiphertextCache.getInstance().hits());
+    }
+
+    @Test
+    void testProcessDataForAdd() {
+        final ShareBean bean = prepareShareBean();
+        final ProcessDataRequest request = prepareAddDataRequest(MEMBER_1, CIRCLE_1_ID, "Data", 1024);
+
+        assertOk(assertStatementBudget("ProcessData (Add)", 7, () -> bean.processData(request)));
+    }
+
+    @Test
+    void testSign() {
+        final ShareBean bean = prepareShareBean();
+        final SignRequest request = prepareRequest(SignRequest.class, MEMBER_1);
+        request.setData(generateData(1024));
+
+        assertOk(assertStatementBudget("Sign", 4, () -> bean.sign(request)));
+    }
+
+    @Test
+    void testVerify() {
+        final ShareBean bean = prepareShareBean();
+        final byte[] data = generateData(1024);
+        final SignRequest signRequest = prepareRequest(SignRequest.class, MEMBER_1);
+        signRequest.setData(data);
+        final SignResponse signed = bean.sign(signRequest);
+        assertOk(signed);
+        final VerifyRequest request = prepareRequest(VerifyRequest.class, MEMBER_2);
+        request.setData(data);
+        request.setSignature(signed.getSignature());
+
+        final VerifyResponse response = assertStatementBudget("Verify", 4, () -> bean.verify(request));
+        assertOk(response);
+        assertTrue(response.isVerified());
+    }
+
+    @Test
+    void testFetchSignatures() {
+        final ShareBean bean = prepareShareBean();
+        final FetchSignatureRequest request = prepareRequest(FetchSignatureRequest.class, MEMBER_1);
+
+        assertOk(assertStatementBudget("FetchSignatures", 3, () -> bean.fetchSignatures(request)));
+    }
+
+    @Test
+    void testVersion() {
+        final ManagementBean bean = prepareManagementBean();
+
+        assertOk(assertStatementBudget("Version", 0, bean::version));
+    }
+
+    @Test
+    void testSettings() {
+        final ManagementBean bean = prepareManagementBean();
+        final SettingRequest request = prepareRequest(SettingRequest.class, Constants.ADMIN_ACCOUNT);
+
+        assertOk(assertStatementBudget("Settings", 3, () -> bean.settings(request)));
+    }
+
+    @Test
+    void testMasterKeyForMember() {
+        final ManagementBean bean = prepareManagementBean();
+        final MasterKeyRequest request = prepareRequest(MasterKeyRequest.class, MEMBER_1);
+        request.setSecret(generateData(16));
+
+        // Only the System Administrator may change the MasterKey, so a
+        // Member is rejected before any lookups are made.
+        final MasterKeyResponse response = assertStatementBudget("MasterKey (Member)", 0, () -> bean.masterKey(request));
+        assertEquals(ReturnCode.AUTHENTICATION_WARNING.getCode(), response.getReturnCode());
+    }
+
+    @Test
+    void testSanity() {
+        final ManagementBean bean = prepareManagementBean();
+        final SanityRequest request = prepareRequest(SanityRequest.class, Constants.ADMIN_ACCOUNT);
+
+        assertOk(assertStatementBudget("Sanity", 3, () -> bean.sanity(request)));
+    }
+
+    @Test
+    void testInventory() {
+        final ManagementBean bean = prepareManagementBean();
+        final InventoryRequest request = prepareRequest(InventoryRequest.class, Constants.ADMIN_ACCOUNT);
+
+        assertOk(assertStatementBudget("Inventory", 4, () -> bean.inventory(request)));
+    }
+
+    @Test
+    void testAuthenticated() {
+        final ManagementBean bean = prepareManagementBean();
+        final Authentication request = prepareRequest(Authentication.class, MEMBER_1);
+
+        assertOk(assertStatementBudget("Authenticated", 2, () -> bean.authenticated(request)));
+    }
+
+    @Test
+    void testSlowRequests() {
+        final ManagementBean bean = prepareManagementBean();
+        final Authentication request = prepareRequest(Authentication.class, Constants.ADMIN_ACCOUNT);
+
+        assertOk(assertStatementBudget("SlowRequests", 2, () -> bean.slowRequests(request)));
+    }
+
+    @Test
+    void testRotations() {
+        final ManagementBean bean = prepareManagementBean();
+        final Authentication request = prepareRequest(Authentication.class, Constants.ADMIN_ACCOUNT);
+
+        assertOk(assertStatementBudget("Rotations", 3, () -> bean.rotations(request)));
+    }
+
+    @Test
+    void testFetchMembers() {
+        final ManagementBean bean = prepareManagementBean();
+        final FetchMemberRequest request = prepareRequest(FetchMemberRequest.class, MEMBER_1);
+
+        assertOk(assertStatementBudget("FetchMembers", 3, () -> bean.fetchMembers(request)));
+    }
+
+    @Test
+    void testProcessMemberForCreate() {
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessMemberRequest request = prepareRequest(ProcessMemberRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setAction(Action.CREATE);
+        request.setNewAccountName("Created Member");
+        request.setNewCredential(crypto.stringToBytes("Created Member"));
+
+        assertOk(assertStatementBudget("ProcessMember (Create)", 5, () -> bean.processMember(request)));
+    }
+
+    @Test
+    void testFetchCircles() {
+        final ManagementBean bean = prepareManagementBean();
+        final FetchCircleRequest request = prepareRequest(FetchCircleRequest.class, Constants.ADMIN_ACCOUNT);
+
+        assertOk(assertStatementBudget("FetchCircles", 3, () -> bean.fetchCircles(request)));
+    }
+
+    @Test
+    void testProcessCircleForCreate() {
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessCircleRequest request = prepareRequest(ProcessCircleRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setAction(Action.CREATE);
+        request.setMemberId(MEMBER_1_ID);
+        request.setCircleName("New Circle");
+
+        assertOk(assertStatementBudget("ProcessCircle (Create)", 8, () -> bean.processCircle(request)));
+    }
+
+    @Test
+    void testFetchTrusteesForCircle() {
+        final ManagementBean bean = prepareManagementBean();
+        final FetchTrusteeRequest request = prepareRequest(FetchTrusteeRequest.class, MEMBER_1);
+        request.setCircleId(CIRCLE_1_ID);
+
+        final FetchTrusteeResponse response = assertStatementBudget("FetchTrustees (Circle)", 4, () -> bean.fetchTrustees(request));
+        assertOk(response);
+        assertEquals(3, response.getTrustees().size());
+    }
+
+    @Test
+    void testFetchTrusteesForMember() {
+        final ManagementBean bean = prepareManagementBean();
+        final FetchTrusteeRequest request = prepareRequest(FetchTrusteeRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setMemberId(MEMBER_1_ID);
+
+        final FetchTrusteeResponse response = assertStatementBudget("FetchTrustees (Member)", 3, () -> bean.fetchTrustees(request));
+        assertOk(response);
+        assertEquals(2, response.getTrustees().size());
+    }
+
+    @Test
+    void testProcessTrusteeForAdd() {
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessTrusteeRequest request = prepareRequest(ProcessTrusteeRequest.class, MEMBER_1);
+        request.setAction(Action.ADD);
+        request.setCircleId(CIRCLE_1_ID);
+        request.setMemberId(MEMBER_5_ID);
+        request.setTrustLevel(TrustLevel.WRITE);
+
+        assertOk(assertStatementBudget("ProcessTrustee (Add)", 6, () -> bean.processTrustee(request)));
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private static void assertOk(final CwsResponse response) {
+        assertTrue(response.isOk(), response.getReturnMessage());
+    }
+}
@@ -28,6 +28,7 @@ import io.javadog.cws.core.setup.DatabaseSetup;
 import io.javadog.cws.core.enums.KeyAlgorithm;
 import io.javadog.cws.core.enums.StandardSetting;
 import io.javadog.cws.core.exceptions.CWSException;
+import io.javadog.cws.core.exceptions.CryptoException;
 import io.javadog.cws.core.model.Settings;
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
@@ -63,6 +64,26 @@ final class CryptoTest extends DatabaseSetup {
         assertEquals(clearText, decrypted);
     }
 
+    @Test
+    void testMasterKeyMarkedValues() {
+        final String clearText = UUID.randomUUID().toString();
+        final String encrypted = crypto.encryptWithMasterKey(clearText);
+        assertTrue(MasterKey.getInstance(settings).isCurrent(encrypted));
+        assertEquals(encrypted, crypto.reEncryptWithMasterKey(encrypted));
+        assertEquals(clearText, crypto.decryptWithMasterKey(encrypted));
+
+        // Values written before the markers were added, has no marker
+        final String unmarked = encrypted.substring(encrypted.indexOf('$') + 1);
+        assertFalse(MasterKey.getInstance(settings).isCurrent(unmarked));
+        assertEquals(clearText, crypto.decryptWithMasterKey(unmarked));
+
+        // Values encrypted with an unknown MasterKey cannot be decrypted
+        final MasterKey masterKey = newMasterKey(settings);
+        masterKey.setKey(masterKey.generateMasterKey(crypto.stringToBytes("Unknown MasterKey")));
+        final CryptoException cause = assertThrows(CryptoException.class, () -> masterKey.decrypt(encrypted));
+        assertEquals("The value is encrypted with an unknown MasterKey.", cause.getMessage());
+    }
+
     @Test
     void testShaEncryption() {
         final KeyAlgorithm algorithm = KeyAlgorithm.SHA_256;
@@ -104,7 +125,7 @@ final class CryptoTest extends DatabaseSetup {
     void testGeneratingSymmetricKeyWithInvalidAlgorithm() {
         final CWSException cause = assertThrows(CWSException.class, () -> Crypto.generateSymmetricKey(KeyAlgorithm.RSA_2048));
         assertEquals(ReturnCode.CRYPTO_ERROR, cause.getReturnCode());
-        assertEquals("RSA KeyGenerator not available", cause.getMessage());
+        assertEquals("Cannot generate a Symmetric Key with the RSA Algorithm.", cause.getMessage());
     }
 
     @Test
@@ -261,7 +282,7 @@ final class CryptoTest extends DatabaseSetup {
 
         // Destroy the key and try to decrypt. Should fail!
         key.destroy();
-        assertThrows(NullPointerException.class, () -> Crypto.decrypt(key, encrypted));
+        assertThrows(CryptoException.class, () -> Crypto.decrypt(key, encrypted));
     }
 
     /**
@@ -378,7 +399,7 @@ final class CryptoTest extends DatabaseSetup {
 
         final CWSException cause = assertThrows(CWSException.class, () -> Crypto.encrypt(key, data));
         assertEquals(ReturnCode.CRYPTO_ERROR, cause.getReturnCode());
-        assertEquals("No installed provider supports this key: javax.crypto.spec.SecretKeySpec", cause.getMessage());
+        assertEquals("No installed provider supports this key: io.javadog.cws.core.jce.KeyVault$VaultKey", cause.getMessage());
     }
 
     @Test
@@ -388,7 +409,7 @@ final class CryptoTest extends DatabaseSetup {
 
         final CWSException cause = assertThrows(CWSException.class, () -> Crypto.decrypt(key, data));
         assertEquals(ReturnCode.CRYPTO_ERROR, cause.getReturnCode());
-        assertEquals("No installed provider supports this key: javax.crypto.spec.SecretKeySpec", cause.getMessage());
+        assertEquals("No installed provider supports this key: io.javadog.cws.core.jce.KeyVault$VaultKey", cause.getMessage());
     }
 
     @Test
@@ -465,7 +486,7 @@ final class CryptoTest extends DatabaseSetup {
         generator.init(algorithm.getLength());
 
         final SecretKey secretKey = generator.generateKey();
-        final SecretCWSKey key = new SecretCWSKey(settings.getAsymmetricAlgorithm(), secretKey);
+        final SecretCWSKey key = new SecretCWSKey(settings.getAsymmetricAlgorithm(), secretKey.getEncoded());
         key.setSalt(new IVSalt(UUID.randomUUID().toString()));
 
         return key;
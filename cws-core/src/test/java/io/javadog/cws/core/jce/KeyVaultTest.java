@@ -0,0 +1,98 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.jce;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.core.exceptions.CryptoException;
+import javax.crypto.SecretKey;
+import javax.security.auth.DestroyFailedException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class KeyVaultTest {
+
+    private final KeyVault vault = KeyVault.getInstance();
+
+    @Test
+    void testStoreMovesMaterial() {
+        final byte[] raw = generateMaterial(32);
+        final byte[] expected = raw.clone();
+        final KeyVault.Holder holder = vault.store(this, raw);
+
+        assertArrayEquals(new byte[32], raw);
+        assertArrayEquals(expected, holder.getEncoded());
+        final SecretKey key = holder.toSecretKey("AES");
+        assertEquals("AES", key.getAlgorithm());
+        assertArrayEquals(expected, key.getEncoded());
+        holder.wipe();
+    }
+
+    @Test
+    void testWipedMaterialCannotBeUsed() {
+        final KeyVault.Holder holder = vault.store(this, generateMaterial(16));
+        assertFalse(holder.isWiped());
+
+        // Wiping is only done once, as the slot may since have been reused.
+        holder.wipe();
+        holder.wipe();
+        assertTrue(holder.isWiped());
+        assertThrows(CryptoException.class, holder::getEncoded);
+        assertThrows(CryptoException.class, () -> holder.toSecretKey("AES"));
+    }
+
+    @Test
+    void testDestroyingJceKeyWipesMaterial() throws DestroyFailedException {
+        final KeyVault.Holder holder = vault.store(this, generateMaterial(32));
+        final SecretKey key = holder.toSecretKey("AES");
+        assertEquals("RAW", key.getFormat());
+        assertFalse(key.isDestroyed());
+
+        key.destroy();
+        assertTrue(key.isDestroyed());
+        assertTrue(holder.isWiped());
+        assertThrows(CryptoException.class, key::getEncoded);
+    }
+
+    @Test
+    void testLargeMaterialIsKeptOnHeap() {
+        final byte[] raw = generateMaterial(128);
+        final byte[] expected = raw.clone();
+        final KeyVault.Holder holder = vault.store(this, raw);
+
+        assertArrayEquals(new byte[128], raw);
+        assertArrayEquals(expected, holder.getEncoded());
+        holder.wipe();
+        assertThrows(CryptoException.class, holder::getEncoded);
+    }
+
+    private static byte[] generateMaterial(final int length) {
+        final byte[] material = new byte[length];
+        for (int i = 0; i < length; i++) {
+            material[i] = (byte) (i + 1);
+        }
+
+        return material;
+    }
+}
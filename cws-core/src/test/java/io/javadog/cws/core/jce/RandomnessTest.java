@@ -0,0 +1,101 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.jce;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.javadog.cws.core.enums.KeyAlgorithm;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class RandomnessTest {
+
+    @Test
+    void testUUIDs() {
+        final Set<UUID> uuids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            final UUID uuid = Randomness.newUUID();
+            assertEquals(4, uuid.version());
+            assertEquals(2, uuid.variant());
+            assertEquals(uuid, UUID.fromString(uuid.toString()));
+            uuids.add(uuid);
+        }
+
+        assertEquals(1000, uuids.size());
+    }
+
+    @Test
+    void testNoncesUseCounter() {
+        final byte[] first = Randomness.newNonce(16);
+        final byte[] second = Randomness.newNonce(16);
+
+        assertArrayEquals(Arrays.copyOf(first, 8), Arrays.copyOf(second, 8));
+        assertEquals(ByteBuffer.wrap(first, 8, 8).getLong() + 1, ByteBuffer.wrap(second, 8, 8).getLong());
+        assertEquals(24, Randomness.newNonce(24).length);
+        assertThrows(IllegalArgumentException.class, () -> Randomness.newNonce(12));
+    }
+
+    @Test
+    void testNoncesAreUniqueAcrossThreads() throws Exception {
+        final Set<String> nonces = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<?>[] futures = new Future<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        nonces.add(Arrays.toString(Randomness.newNonce(16)));
+                    }
+                });
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(4000, nonces.size());
+    }
+
+    @Test
+    void testInitialVectorForAlgorithm() {
+        final IVSalt gcm1 = IVSalt.forEncryption(KeyAlgorithm.AES_GCM_128);
+        final IVSalt gcm2 = IVSalt.forEncryption(KeyAlgorithm.AES_GCM_128);
+        final IVSalt cbc = IVSalt.forEncryption(KeyAlgorithm.AES_CBC_128);
+
+        assertEquals(24, gcm1.getArmored().length());
+        assertEquals(24, cbc.getArmored().length());
+        assertNotEquals(gcm1.getArmored(), gcm2.getArmored());
+        assertArrayEquals(Arrays.copyOf(gcm1.getBytes(), 8), Arrays.copyOf(gcm2.getBytes(), 8));
+    }
+}
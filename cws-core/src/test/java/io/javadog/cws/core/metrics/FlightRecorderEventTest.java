@@ -0,0 +1,82 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.api.requests.FetchDataTypeRequest;
+import io.javadog.cws.api.responses.FetchDataTypeResponse;
+import io.javadog.cws.core.ShareBean;
+import io.javadog.cws.core.setup.DatabaseSetup;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class FlightRecorderEventTest extends DatabaseSetup {
+
+    @Test
+    void testEventsAreDisabledByDefault() {
+        assertFalse(new CryptoEvent("digest", 0).isEnabled());
+        assertFalse(new QueryEvent().isEnabled());
+        assertFalse(new ServiceEvent().isEnabled());
+        assertFalse(new SanitizerEvent().isEnabled());
+    }
+
+    @Test
+    void testEventsAreRecorded() throws IOException {
+        final ShareBean bean = prepareShareBean();
+        final FetchDataTypeRequest request = prepareRequest(FetchDataTypeRequest.class, MEMBER_1);
+        final Path file = Files.createTempFile("cws", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(CryptoEvent.class);
+            recording.enable(QueryEvent.class);
+            recording.enable(ServiceEvent.class);
+            recording.start();
+            final FetchDataTypeResponse response = bean.fetchDataTypes(request);
+            recording.stop();
+            recording.dump(file);
+            assertTrue(response.isOk());
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        final Set<String> names = new HashSet<>();
+        for (final RecordedEvent event : events) {
+            names.add(event.getEventType().getName());
+            if ("io.javadog.cws.Service".equals(event.getEventType().getName())) {
+                assertEquals("FetchDataTypeService", event.getString("service"));
+                assertEquals(ReturnCode.SUCCESS.getCode(), event.getInt("returnCode"));
+            }
+        }
+        assertTrue(names.containsAll(Set.of("io.javadog.cws.Crypto", "io.javadog.cws.Query", "io.javadog.cws.Service")), names::toString);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class HistogramTest {
+
+    @Test
+    void testEmptyHistogram() {
+        final Histogram histogram = new Histogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        final Histogram histogram = new Histogram();
+        for (long i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(10, histogram.getCount());
+        assertEquals(55, histogram.getSum());
+        assertEquals(5, histogram.getPercentile(0.5));
+        assertEquals(10, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void testPercentilesAreWithinPrecision() {
+        final Histogram histogram = new Histogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1_000);
+        }
+
+        final long[] values = histogram.percentiles(0.5, 0.9, 0.99, 0.999);
+        assertWithinPrecision(50_000_000L, values[0]);
+        assertWithinPrecision(90_000_000L, values[1]);
+        assertWithinPrecision(99_000_000L, values[2]);
+        assertWithinPrecision(99_900_000L, values[3]);
+        assertEquals(100_000_000L, histogram.getMax());
+    }
+
+    @Test
+    void testExtremeValues() {
+        final Histogram histogram = new Histogram();
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void testBucketBoundaries() {
+        for (long value = 1; value > 0; value <<= 1) {
+            final int index = Histogram.index(value);
+            assertTrue(Histogram.highestEquivalent(index) >= value);
+            assertTrue(Histogram.highestEquivalent(index) <= value + (value >>> 4));
+        }
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private static void assertWithinPrecision(final long expected, final long actual) {
+        // With 16 sub-buckets, each value is at most 1/16 (6.25%) too high.
+        assertTrue(actual >= expected && actual <= expected + (expected / 16), "Expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.core.exceptions.CWSException;
+import io.javadog.cws.core.setup.DatabaseSetup;
+import java.util.List;
+import javax.persistence.Query;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class MetricsTest extends DatabaseSetup {
+
+    private final Metrics metrics = Metrics.getInstance();
+
+    @Test
+    void testSameMetricIsReturned() {
+        final Counter counter = metrics.counter("cws_test_same_total", "Test Counter.", "label", "value");
+
+        assertSame(counter, metrics.counter("cws_test_same_total", "Test Counter.", "label", "value"));
+    }
+
+    @Test
+    void testTypeMismatch() {
+        metrics.counter("cws_test_mismatch", "Test Counter.");
+
+        final CWSException cause = assertThrows(CWSException.class, () -> metrics.gauge("cws_test_mismatch", "Test Gauge."));
+        assertEquals(ReturnCode.ERROR, cause.getReturnCode());
+    }
+
+    @Test
+    void testUnevenLabels() {
+        final CWSException cause = assertThrows(CWSException.class, () -> metrics.counter("cws_test_labels_total", "Test Counter.", "label"));
+        assertEquals(ReturnCode.ERROR, cause.getReturnCode());
+    }
+
+    @Test
+    void testScrapeFormat() {
+        metrics.counter("cws_test_scrape_total", "Test Counter.", "label", "a \"quoted\" value").add(3);
+        metrics.gauge("cws_test_scrape_gauge", "Test Gauge.", () -> 42);
+        metrics.histogram("cws_test_scrape_seconds", "Test Histogram.").record(1_500_000_000L);
+
+        final String scraped = metrics.scrape();
+        assertTrue(scraped.contains("# TYPE cws_test_scrape_total counter\n"));
+        assertTrue(scraped.contains("cws_test_scrape_total{label=\"a \\\"quoted\\\" value\"} 3\n"));
+        assertTrue(scraped.contains("# TYPE cws_test_scrape_gauge gauge\ncws_test_scrape_gauge 42\n"));
+        assertTrue(scraped.contains("# TYPE cws_test_scrape_seconds summary\n"));
+        assertTrue(scraped.contains("cws_test_scrape_seconds{quantile=\"0.5\"} 1.5\n"));
+        assertTrue(scraped.contains("cws_test_scrape_seconds_sum 1.5\n"));
+        assertTrue(scraped.contains("cws_test_scrape_seconds_count 1\n"));
+        assertTrue(scraped.contains("# TYPE cws_jvm_heap_used_bytes gauge\n"));
+    }
+
+    @Test
+    void testMeteredQuery() {
+        final Histogram histogram = metrics.histogram("cws_db_query_seconds", "Time spent executing Named Queries.", "query", "type.findByName");
+        final long before = histogram.getCount();
+
+        final Query query = MeteredQuery.createNamedQuery(entityManager, "type.findByName")
+                .setParameter("name", "folder");
+        final List<?> found = query.getResultList();
+
+        assertEquals(1, found.size());
+        assertEquals(before + 1, histogram.getCount());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class SlowRequestLogTest {
+
+    @Test
+    void testOnlySlowestRequestsAreKept() throws InterruptedException {
+        final SlowRequestLog log = SlowRequestLog.getInstance();
+        log.clear();
+
+        for (int i = 0; i < SlowRequestLog.CAPACITY * 2; i++) {
+            final RequestTimer timer = RequestTimer.begin("request" + i);
+            if (i == 7) {
+                Thread.sleep(20);
+            }
+            timer.end();
+        }
+
+        final List<RequestTimer> requests = log.read();
+        assertEquals(SlowRequestLog.CAPACITY, requests.size());
+        assertEquals("request7", requests.get(0).getAction());
+        for (int i = 1; i < requests.size(); i++) {
+            assertTrue(requests.get(i - 1).getDuration() >= requests.get(i).getDuration());
+        }
+    }
+
+    @Test
+    void testTimerIsBoundToThread() {
+        final RequestTimer timer = RequestTimer.begin("request");
+        assertSame(timer, RequestTimer.current());
+
+        RequestTimer.record("phase", System.nanoTime());
+        RequestTimer.record("phase", System.nanoTime());
+        timer.end();
+
+        assertNull(RequestTimer.current());
+        assertEquals(1, timer.getPhases().size());
+        assertTrue(timer.getPhases().containsKey("phase"));
+    }
+
+    @Test
+    void testPhaseIsRecordedOnDetachedTimer() {
+        final RequestTimer timer = RequestTimer.begin("request");
+        RequestTimer.detach();
+
+        // With the timer detached, i.e. when the response is written by
+        // another thread, only the phases recorded on the timer are kept.
+        RequestTimer.record("lost", System.nanoTime());
+        timer.recordPhase("serialize", System.nanoTime());
+        timer.end();
+
+        assertNull(RequestTimer.current());
+        assertEquals(1, timer.getPhases().size());
+        assertTrue(timer.getPhases().containsKey("serialize"));
+    }
+}
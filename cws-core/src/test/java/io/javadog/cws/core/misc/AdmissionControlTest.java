@@ -0,0 +1,175 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.misc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.javadog.cws.core.enums.StandardSetting;
+import io.javadog.cws.core.exceptions.AuthenticationException;
+import io.javadog.cws.core.model.Settings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class AdmissionControlTest {
+
+    private static final String ACCOUNT = "account";
+    private static final String SOURCE = "127.0.0.1";
+
+    private final Settings settings = Settings.getInstance();
+    private final AdmissionControl admission = AdmissionControl.getInstance();
+
+    @BeforeEach
+    void setup() {
+        admission.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        settings.set(StandardSetting.ADMISSION_ACCOUNT_RATE, StandardSetting.ADMISSION_ACCOUNT_RATE.getValue());
+        settings.set(StandardSetting.ADMISSION_SOURCE_RATE, StandardSetting.ADMISSION_SOURCE_RATE.getValue());
+        settings.set(StandardSetting.ADMISSION_ACCOUNT_TOTAL_RATE, StandardSetting.ADMISSION_ACCOUNT_TOTAL_RATE.getValue());
+        admission.clear();
+    }
+
+    @Test
+    void testProgressivePenaltyForFailures() {
+        settings.set(StandardSetting.ADMISSION_ACCOUNT_RATE, "5");
+        final long rejected = admission.getAccountRejections();
+
+        // The penalties are 0, 1 and 3 tokens, so after 3 failed attempts,
+        // the bucket of 5 tokens is empty.
+        for (int i = 0; i < 3; i++) {
+            admission.admit(ACCOUNT, SOURCE);
+            admission.complete(ACCOUNT, SOURCE, true);
+        }
+
+        final AuthenticationException cause = assertThrows(AuthenticationException.class, () -> admission.admit(ACCOUNT, SOURCE));
+        assertEquals("Too many authentication attempts for the Account, please try again later.", cause.getMessage());
+        assertEquals(rejected + 1, admission.getAccountRejections());
+
+        // Other Accounts are not affected
+        admission.admit("other", SOURCE);
+    }
+
+    @Test
+    void testFailuresDoNotLockOutOtherSources() {
+        settings.set(StandardSetting.ADMISSION_ACCOUNT_RATE, "5");
+
+        for (int i = 0; i < 3; i++) {
+            admission.admit(ACCOUNT, SOURCE);
+            admission.complete(ACCOUNT, SOURCE, true);
+        }
+        assertThrows(AuthenticationException.class, () -> admission.admit(ACCOUNT, SOURCE));
+
+        // The same Account from another client is still admitted
+        admission.admit(ACCOUNT, "127.0.0.2");
+    }
+
+    @Test
+    void testAccountIsLimitedOverAllSources() {
+        settings.set(StandardSetting.ADMISSION_ACCOUNT_TOTAL_RATE, "5");
+        settings.set(StandardSetting.ADMISSION_SOURCE_RATE, "0");
+        final long rejected = admission.getAccountRejections();
+
+        // Each source only fails once, so the buckets per source are never
+        // penalised, but the total bucket of the Account is emptied.
+        for (int i = 0; i < 5; i++) {
+            final String source = "10.0.0." + i;
+            admission.admit(ACCOUNT, source);
+            admission.complete(ACCOUNT, source, true);
+        }
+
+        final AuthenticationException cause = assertThrows(AuthenticationException.class, () -> admission.admit(ACCOUNT, "10.0.1.1"));
+        assertEquals("Too many authentication attempts for the Account, please try again later.", cause.getMessage());
+        assertEquals(rejected + 1, admission.getAccountRejections());
+
+        // Other Accounts are not affected
+        admission.admit("other", "10.0.1.1");
+    }
+
+    @Test
+    void testPenalisedBucketsAreNotEvicted() {
+        settings.set(StandardSetting.ADMISSION_ACCOUNT_RATE, "5");
+        settings.set(StandardSetting.ADMISSION_SOURCE_RATE, "0");
+
+        for (int i = 0; i < 3; i++) {
+            admission.admit(ACCOUNT, SOURCE);
+            admission.complete(ACCOUNT, SOURCE, true);
+        }
+
+        // Flooding the map with new Accounts will evict the unused buckets,
+        // but not the penalised one, even if it is the least recently used.
+        for (int i = 0; i < AdmissionControl.MAX_BUCKETS * 2; i++) {
+            admission.admit("account" + i, SOURCE);
+        }
+
+        assertEquals(AdmissionControl.MAX_BUCKETS, admission.size());
+        assertThrows(AuthenticationException.class, () -> admission.admit(ACCOUNT, SOURCE));
+    }
+
+    @Test
+    void testSuccessReturnsToken() {
+        settings.set(StandardSetting.ADMISSION_ACCOUNT_RATE, "2");
+
+        for (int i = 0; i < 10; i++) {
+            admission.admit(ACCOUNT, SOURCE);
+            admission.complete(ACCOUNT, SOURCE, false);
+        }
+    }
+
+    @Test
+    void testSourceLimit() {
+        settings.set(StandardSetting.ADMISSION_ACCOUNT_RATE, "0");
+        settings.set(StandardSetting.ADMISSION_SOURCE_RATE, "2");
+        final long rejected = admission.getSourceRejections();
+
+        admission.admit("account1", SOURCE);
+        admission.admit("account2", SOURCE);
+        final AuthenticationException cause = assertThrows(AuthenticationException.class, () -> admission.admit("account3", SOURCE));
+        assertEquals("Too many authentication attempts from the client, please try again later.", cause.getMessage());
+        assertEquals(rejected + 1, admission.getSourceRejections());
+
+        // Without a known source, only the Account is checked
+        admission.admit("account4", null);
+    }
+
+    @Test
+    void testDisabledLimits() {
+        settings.set(StandardSetting.ADMISSION_ACCOUNT_RATE, "0");
+        settings.set(StandardSetting.ADMISSION_SOURCE_RATE, "0");
+
+        for (int i = 0; i < 100; i++) {
+            admission.admit(ACCOUNT, SOURCE);
+            admission.complete(ACCOUNT, SOURCE, true);
+        }
+    }
+
+    @Test
+    void testBindSource() {
+        AdmissionControl.bindSource(SOURCE);
+        assertEquals(SOURCE, AdmissionControl.currentSource());
+        AdmissionControl.releaseSource();
+        assertNull(AdmissionControl.currentSource());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.misc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.core.enums.StandardSetting;
+import io.javadog.cws.core.model.Settings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class CiphertextCacheTest {
+
+    private static final String CHECKSUM = "checksum";
+
+    private final CiphertextCache cache = CiphertextCache.getInstance();
+    private final Settings settings = Settings.getInstance();
+
+    @BeforeEach
+    void setup() {
+        // 1 MB allows Objects of up to 64 KB.
+        settings.set(StandardSetting.DATA_CACHE_SIZE, "1");
+        cache.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        settings.set(StandardSetting.DATA_CACHE_SIZE, StandardSetting.DATA_CACHE_SIZE.getValue());
+        cache.clear();
+    }
+
+    @Test
+    void testFindVerifiesChanges() {
+        final byte[] data = generateData(10_000);
+        cache.put(1L, CHECKSUM, data);
+        assertTrue(cache.contains(1L));
+        final long hits = cache.hits();
+        assertArrayEquals(data, cache.find(1L, CHECKSUM));
+        assertEquals(hits + 1, cache.hits());
+
+        assertNull(cache.find(1L, "other checksum"));
+        assertFalse(cache.contains(1L));
+        assertNull(cache.find(1L, CHECKSUM));
+    }
+
+    @Test
+    void testReplaceAndInvalidate() {
+        final byte[] updated = generateData(5_000);
+        cache.put(1L, CHECKSUM, generateData(9_000));
+        cache.put(1L, "updated", updated);
+        assertEquals(1, cache.count());
+        assertArrayEquals(updated, cache.find(1L, "updated"));
+
+        cache.invalidate(1L);
+        assertEquals(0, cache.count());
+    }
+
+    @Test
+    void testLeastRecentlyUsedAreEvicted() {
+        cache.put(0L, CHECKSUM, generateData(60_000));
+        for (long i = 1; i < 20; i++) {
+            cache.put(i, CHECKSUM, generateData(60_000));
+            // Keeps the first Object in use.
+            assertNotNull(cache.find(0L, CHECKSUM));
+        }
+
+        assertTrue(cache.count() < 20);
+        assertTrue(cache.contains(0L));
+        assertFalse(cache.contains(1L));
+        assertTrue(cache.contains(19L));
+    }
+
+    @Test
+    void testLargeObjectsAreNotCached() {
+        cache.put(1L, CHECKSUM, generateData(70_000));
+        assertFalse(cache.contains(1L));
+    }
+
+    @Test
+    void testDisabledCache() {
+        settings.set(StandardSetting.DATA_CACHE_SIZE, "0");
+        cache.put(1L, CHECKSUM, generateData(1_000));
+        assertEquals(0, cache.count());
+    }
+
+    private static byte[] generateData(final int length) {
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31 + length);
+        }
+
+        return data;
+    }
+}
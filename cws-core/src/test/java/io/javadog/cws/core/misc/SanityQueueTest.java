@@ -0,0 +1,110 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.misc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.common.Utilities;
+import io.javadog.cws.core.enums.SanityStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class SanityQueueTest {
+
+    private final SanityQueue queue = SanityQueue.getInstance();
+
+    @BeforeEach
+    void setup() {
+        queue.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.clear();
+    }
+
+    @Test
+    void testResultsAreCombined() {
+        final LocalDateTime first = Utilities.newDate(1L);
+        final LocalDateTime second = Utilities.newDate(2L);
+        queue.offer(1L, SanityStatus.OK, first, first);
+        queue.offer(1L, SanityStatus.OK, second, first);
+        queue.offer(2L, SanityStatus.FAILED, first, first);
+        queue.offer(2L, SanityStatus.OK, second, first);
+        assertEquals(2, queue.size());
+
+        final List<SanityQueue.Result> results = queue.drain(10);
+        assertEquals(2, results.size());
+        assertEquals(0, queue.size());
+        for (final SanityQueue.Result result : results) {
+            assertEquals(second, result.getChecked());
+            assertEquals((result.getDataId() == 1L) ? SanityStatus.OK : SanityStatus.FAILED, result.getStatus());
+        }
+    }
+
+    @Test
+    void testDrainInBlocks() {
+        for (long i = 0; i < 25; i++) {
+            queue.offer(i, SanityStatus.OK, Utilities.newDate(), Utilities.newDate(1L));
+        }
+
+        assertEquals(10, queue.drain(10).size());
+        assertEquals(10, queue.drain(10).size());
+        assertEquals(5, queue.drain(10).size());
+        assertTrue(queue.drain(10).isEmpty());
+    }
+
+    @Test
+    void testFailureIsReplacedForAlteredObject() {
+        final LocalDateTime first = Utilities.newDate(1L);
+        final LocalDateTime second = Utilities.newDate(2L);
+        queue.offer(1L, SanityStatus.FAILED, first, first);
+        queue.offer(1L, SanityStatus.OK, second, second);
+
+        final List<SanityQueue.Result> results = queue.drain(10);
+        assertEquals(1, results.size());
+        assertEquals(SanityStatus.OK, results.get(0).getStatus());
+        assertEquals(second, results.get(0).getAltered());
+    }
+
+    @Test
+    void testRequeuedResultsAreOlder() {
+        final LocalDateTime first = Utilities.newDate(1L);
+        final LocalDateTime second = Utilities.newDate(2L);
+        queue.offer(1L, SanityStatus.OK, first, first);
+        queue.offer(2L, SanityStatus.OK, first, first);
+        final List<SanityQueue.Result> drained = queue.drain(10);
+
+        // Object 1 was read again, while the drained results were applied
+        queue.offer(1L, SanityStatus.OK, second, first);
+        queue.requeue(drained);
+
+        final List<SanityQueue.Result> results = queue.drain(10);
+        assertEquals(2, results.size());
+        for (final SanityQueue.Result result : results) {
+            assertEquals((result.getDataId() == 1L) ? second : first, result.getChecked());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.javadog.cws.api.common.Action;
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.api.requests.ProcessDataTypeRequest;
+import io.javadog.cws.api.responses.ProcessDataTypeResponse;
+import io.javadog.cws.core.ShareBean;
+import io.javadog.cws.core.model.entities.DataTypeEntity;
+import io.javadog.cws.core.setup.DatabaseSetup;
+import io.javadog.cws.core.setup.fakes.FakeTransactionRegistry;
+import javax.transaction.Status;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class DataTypeRegistryTest extends DatabaseSetup {
+
+    @Test
+    void testFindDefaultDataTypes() {
+        final DataTypeRegistry registry = DataTypeRegistry.getInstance();
+        registry.load(dao);
+
+        final DataTypeEntity folder = registry.find(dao, Constants.FOLDER_TYPENAME);
+        assertNotNull(folder);
+        assertEquals(1L, folder.getId());
+        assertEquals(Constants.FOLDER_TYPENAME, folder.getName());
+
+        final DataTypeEntity data = registry.find(dao, "DATA");
+        assertNotNull(data);
+        assertEquals(Constants.DATA_TYPENAME, data.getName());
+        assertNull(registry.find(dao, "unknown"));
+    }
+
+    @Test
+    void testRegistryIsUpdatedWhenDataTypeIsProcessed() {
+        final DataTypeRegistry registry = DataTypeRegistry.getInstance();
+        final long revision = dao.findRevision(DataTypeRegistry.REVISION);
+        assertNull(registry.find(dao, "registryType"));
+
+        final ShareBean bean = prepareShareBean();
+        final ProcessDataTypeRequest request = prepareRequest(ProcessDataTypeRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setAction(Action.PROCESS);
+        request.setTypeName("registryType");
+        request.setType("Registry Type");
+        final ProcessDataTypeResponse response = bean.processDataType(request);
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+
+        assertEquals(revision + 1, dao.findRevision(DataTypeRegistry.REVISION));
+        final DataTypeEntity found = registry.find(dao, "registryType");
+        assertNotNull(found);
+        assertEquals("Registry Type", found.getType());
+
+        final ProcessDataTypeRequest deleteRequest = prepareRequest(ProcessDataTypeRequest.class, Constants.ADMIN_ACCOUNT);
+        deleteRequest.setAction(Action.DELETE);
+        deleteRequest.setTypeName("registryType");
+        final ProcessDataTypeResponse deleteResponse = bean.processDataType(deleteRequest);
+        assertEquals(ReturnCode.SUCCESS.getCode(), deleteResponse.getReturnCode());
+
+        assertEquals(revision + 2, dao.findRevision(DataTypeRegistry.REVISION));
+        assertNull(registry.find(dao, "registryType"));
+    }
+
+    @Test
+    void testRegistryIsInvalidatedAfterCommit() {
+        final DataTypeRegistry registry = DataTypeRegistry.getInstance();
+        registry.load(dao);
+
+        final FakeTransactionRegistry transaction = new FakeTransactionRegistry();
+        final ShareBean bean = prepareShareBean();
+        inject(bean, transaction);
+        final ProcessDataTypeRequest request = prepareRequest(ProcessDataTypeRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setAction(Action.PROCESS);
+        request.setTypeName("committedType");
+        request.setType("Committed Type");
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processDataType(request).getReturnCode());
+
+        // Until the transaction is committed, the local copy is kept
+        assertNull(registry.find(dao, "committedType"));
+        transaction.complete(Status.STATUS_COMMITTED);
+        assertNotNull(registry.find(dao, "committedType"));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.common.Action;
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.common.MemberRole;
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.api.requests.FetchCircleRequest;
+import io.javadog.cws.api.requests.ProcessMemberRequest;
+import io.javadog.cws.api.responses.FetchCircleResponse;
+import io.javadog.cws.api.responses.ProcessMemberResponse;
+import io.javadog.cws.core.ManagementBean;
+import io.javadog.cws.core.enums.StandardSetting;
+import io.javadog.cws.core.setup.DatabaseSetup;
+import java.util.Locale;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class LookupFilterTest extends DatabaseSetup {
+
+    @Test
+    void testKnownAndUnknownAccounts() {
+        final LookupFilter filter = LookupFilter.getInstance();
+        filter.load(dao);
+
+        assertFalse(filter.isUnknownAccount(dao, Constants.ADMIN_ACCOUNT));
+        assertFalse(filter.isUnknownAccount(dao, MEMBER_1));
+        assertFalse(filter.isUnknownAccount(dao, MEMBER_1.toUpperCase(Locale.ENGLISH)));
+        assertTrue(filter.isUnknownAccount(dao, "unknown account"));
+        assertFalse(filter.isUnknownAccount(dao, null));
+    }
+
+    @Test
+    void testUnknownAccountIsRejectedWithoutLookup() {
+        final ManagementBean bean = prepareManagementBean();
+        final FetchCircleRequest request = prepareRequest(FetchCircleRequest.class, "unknown account");
+        LookupFilter.getInstance().load(dao);
+        clearCaches();
+
+        final FetchCircleResponse[] response = new FetchCircleResponse[1];
+        assertEquals(0, countStatements(() -> response[0] = bean.fetchCircles(request)));
+        assertEquals(ReturnCode.AUTHENTICATION_WARNING.getCode(), response[0].getReturnCode());
+        assertEquals("Could not uniquely identify an account for 'unknown account'.", response[0].getReturnMessage());
+    }
+
+    @Test
+    void testCreatedMemberIsAdded() {
+        final LookupFilter filter = LookupFilter.getInstance();
+        final long revision = dao.findRevision(LookupFilter.REVISION);
+        assertTrue(filter.isUnknownAccount(dao, "filtered member"));
+
+        final ManagementBean bean = prepareManagementBean();
+        final ProcessMemberRequest request = prepareRequest(ProcessMemberRequest.class, Constants.ADMIN_ACCOUNT);
+        request.setAction(Action.CREATE);
+        request.setNewAccountName("filtered member");
+        request.setNewCredential(crypto.stringToBytes("filtered member"));
+        final ProcessMemberResponse response = bean.processMember(request);
+        assertEquals(ReturnCode.SUCCESS.getCode(), response.getReturnCode());
+
+        assertEquals(revision + 1, dao.findRevision(LookupFilter.REVISION));
+        assertFalse(filter.isUnknownAccount(dao, "filtered member"));
+        final FetchCircleResponse fetchResponse = bean.fetchCircles(prepareRequest(FetchCircleRequest.class, "filtered member"));
+        assertEquals(ReturnCode.SUCCESS.getCode(), fetchResponse.getReturnCode());
+    }
+
+    @Test
+    void testMemberCreatedByOtherInstanceIsFoundAfterCheckInterval() {
+        final LookupFilter filter = LookupFilter.getInstance();
+        filter.load(dao);
+        assertTrue(filter.isUnknownAccount(dao, "remote member"));
+
+        // Another instance creates the Member and increases the Revision,
+        // which is seen when the check interval has passed.
+        prepareMember(UUID.randomUUID().toString(), "remote member", settings.getAsymmetricAlgorithm(), "public key", "private key", MemberRole.STANDARD);
+        dao.increaseRevision(LookupFilter.REVISION);
+        try {
+            settings.set(StandardSetting.CACHE_CHECK_INTERVAL, "0");
+            assertFalse(filter.isUnknownAccount(dao, "remote member"));
+        } finally {
+            settings.set(StandardSetting.CACHE_CHECK_INTERVAL, StandardSetting.CACHE_CHECK_INTERVAL.getValue());
+        }
+    }
+
+    @Test
+    void testUnknownSessionIsRememberedUntilLogin() {
+        final String sessionKey = "filtered session key";
+        final String checksum = crypto.generateChecksum(crypto.encryptWithMasterKey(crypto.stringToBytes(sessionKey)));
+        final LookupFilter filter = LookupFilter.getInstance();
+        final ManagementBean bean = prepareManagementBean();
+
+        final FetchCircleResponse unknown = bean.fetchCircles(prepareSessionRequest(FetchCircleRequest.class, sessionKey));
+        assertEquals("No Session could be found.", unknown.getReturnMessage());
+        assertTrue(filter.isUnknownSession(checksum));
+
+        final ProcessMemberRequest login = prepareRequest(ProcessMemberRequest.class, MEMBER_1);
+        login.setAction(Action.LOGIN);
+        login.setNewCredential(crypto.stringToBytes(sessionKey));
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(login).getReturnCode());
+        assertFalse(filter.isUnknownSession(checksum));
+
+        final FetchCircleResponse known = bean.fetchCircles(prepareSessionRequest(FetchCircleRequest.class, sessionKey));
+        assertEquals(ReturnCode.SUCCESS.getCode(), known.getReturnCode());
+
+        final ProcessMemberRequest logout = prepareSessionRequest(ProcessMemberRequest.class, sessionKey);
+        logout.setAction(Action.LOGOUT);
+        assertEquals(ReturnCode.SUCCESS.getCode(), bean.processMember(logout).getReturnCode());
+        assertTrue(filter.isUnknownSession(checksum));
+    }
+}
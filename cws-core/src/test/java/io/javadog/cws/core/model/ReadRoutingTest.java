@@ -0,0 +1,195 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.common.Action;
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.api.dtos.Circle;
+import io.javadog.cws.api.requests.FetchCircleRequest;
+import io.javadog.cws.api.requests.ProcessMemberRequest;
+import io.javadog.cws.api.responses.FetchCircleResponse;
+import io.javadog.cws.api.responses.ProcessMemberResponse;
+import io.javadog.cws.core.ManagementBean;
+import io.javadog.cws.core.enums.StandardSetting;
+import io.javadog.cws.core.setup.DatabaseSetup;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>The replica is a separate in-memory database, with the same initial
+ * content as the primary, but without any replication. Changes made to the
+ * primary are thus only seen, if the primary is read.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class ReadRoutingTest extends DatabaseSetup {
+
+    private static final String REPLICA_UNIT = "io.javadog.cws.jpa.replica";
+    private static final String CIRCLE_NAME = "Primary Circle";
+
+    private final ReadRouting routing = ReadRouting.getInstance();
+
+    @BeforeEach
+    void enableReplica() {
+        settings.set(StandardSetting.REPLICA_UNIT, REPLICA_UNIT);
+        updateHeartbeat(LocalDateTime.now());
+        prepareCircle(UUID.randomUUID().toString(), CIRCLE_NAME);
+    }
+
+    @AfterEach
+    void disableReplica() {
+        settings.set(StandardSetting.REPLICA_UNIT, StandardSetting.REPLICA_UNIT.getValue());
+        settings.set(StandardSetting.REPLICA_MAX_LAG, StandardSetting.REPLICA_MAX_LAG.getValue());
+        routing.clear();
+    }
+
+    @Test
+    void testReadIsRoutedToReplica() {
+        assertFalse(containsCircle(fetchCircles(MEMBER_1)));
+    }
+
+    @Test
+    void testReadWithoutReplica() {
+        settings.set(StandardSetting.REPLICA_UNIT, "");
+        assertTrue(containsCircle(fetchCircles(MEMBER_1)));
+    }
+
+    @Test
+    void testAdministratorReadsFromPrimary() {
+        assertTrue(containsCircle(fetchCircles(Constants.ADMIN_ACCOUNT)));
+    }
+
+    @Test
+    void testWriterReadsOwnWrites() {
+        routing.written(prepareRequest(FetchCircleRequest.class, MEMBER_1));
+
+        assertTrue(containsCircle(fetchCircles(MEMBER_1)));
+        assertFalse(containsCircle(fetchCircles(MEMBER_2)));
+    }
+
+    @Test
+    void testLaggingReplicaIsNotUsed() {
+        updateHeartbeat(LocalDateTime.now().minusMinutes(1));
+
+        assertTrue(containsCircle(fetchCircles(MEMBER_1)));
+    }
+
+    @Test
+    void testPrimaryIsKnownWhileReplicaIsUsed() {
+        try (ReadRouting.Route route = routing.route(entityManager, prepareRequest(FetchCircleRequest.class, MEMBER_1))) {
+            assertTrue(route.isReplica());
+            assertSame(entityManager, ReadRouting.currentPrimary());
+        }
+
+        assertNull(ReadRouting.currentPrimary());
+    }
+
+    @Test
+    void testSessionIsFoundOnPrimary() {
+        final String sessionKey = UUID.randomUUID().toString();
+        final ProcessMemberRequest loginRequest = prepareRequest(ProcessMemberRequest.class, MEMBER_1);
+        loginRequest.setAction(Action.LOGIN);
+        loginRequest.setNewCredential(crypto.stringToBytes(sessionKey));
+        final ProcessMemberResponse loginResponse = prepareManagementBean().processMember(loginRequest);
+        assertTrue(loginResponse.isOk(), loginResponse.getReturnMessage());
+        routing.clear();
+
+        // The Session only exists in the primary database, and the Circle
+        // list is still read from the replica.
+        final ManagementBean bean = prepareManagementBean();
+        final FetchCircleResponse response = bean.fetchCircles(prepareSessionRequest(FetchCircleRequest.class, sessionKey));
+        assertTrue(response.isOk(), response.getReturnMessage());
+        assertFalse(containsCircle(response));
+    }
+
+    @Test
+    void testCloseReleasesReplica() {
+        routing.close();
+
+        // The replica is opened again, when it is next used.
+        try (ReadRouting.Route route = routing.route(entityManager, prepareRequest(FetchCircleRequest.class, MEMBER_1))) {
+            assertTrue(route.isReplica());
+        }
+    }
+
+    @Test
+    void testHeartbeatIsOnlyIncreasedWhenOlder() {
+        final CommonDao dao = new CommonDao(entityManager);
+        final LocalDateTime now = LocalDateTime.now();
+        entityManager.createQuery("update RevisionEntity set altered = :altered where name = :name")
+                .setParameter("altered", now)
+                .setParameter("name", ReadRouting.HEARTBEAT)
+                .executeUpdate();
+
+        assertFalse(dao.increaseRevision(ReadRouting.HEARTBEAT, now.minusSeconds(30)));
+        assertTrue(dao.increaseRevision(ReadRouting.HEARTBEAT, now.plusSeconds(30)));
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    private FetchCircleResponse fetchCircles(final String account) {
+        final ManagementBean bean = prepareManagementBean();
+        final FetchCircleResponse response = bean.fetchCircles(prepareRequest(FetchCircleRequest.class, account));
+        assertTrue(response.isOk(), response.getReturnMessage());
+
+        return response;
+    }
+
+    private static boolean containsCircle(final FetchCircleResponse response) {
+        return response.getCircles().stream().map(Circle::getCircleName).anyMatch(CIRCLE_NAME::equals);
+    }
+
+    /**
+     * <p>Sets the time of the latest heartbeat received by the replica. The
+     * replica is opened with an unlimited lag, as the heartbeat may be too
+     * old, before it is updated.</p>
+     *
+     * @param received Time of the heartbeat
+     */
+    private void updateHeartbeat(final LocalDateTime received) {
+        settings.set(StandardSetting.REPLICA_MAX_LAG, String.valueOf(Integer.MAX_VALUE / 2));
+        routing.clear();
+
+        try (ReadRouting.Route route = routing.route(entityManager, prepareRequest(FetchCircleRequest.class, MEMBER_1))) {
+            assertTrue(route.isReplica());
+            final EntityManager replica = route.getEntityManager();
+            replica.getTransaction().begin();
+            replica.createQuery("update RevisionEntity set altered = :altered where name = :name")
+                    .setParameter("altered", received)
+                    .setParameter("name", ReadRouting.HEARTBEAT)
+                    .executeUpdate();
+            replica.getTransaction().commit();
+        }
+
+        settings.set(StandardSetting.REPLICA_MAX_LAG, StandardSetting.REPLICA_MAX_LAG.getValue());
+        routing.clear();
+        assertSame(entityManager, routing.route(entityManager, null).getEntityManager());
+    }
+}
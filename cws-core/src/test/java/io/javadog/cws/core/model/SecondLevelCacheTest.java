@@ -0,0 +1,162 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.requests.FetchCircleRequest;
+import io.javadog.cws.api.requests.FetchDataRequest;
+import io.javadog.cws.core.ManagementBean;
+import io.javadog.cws.core.ShareBean;
+import io.javadog.cws.core.model.entities.CWSEntity;
+import io.javadog.cws.core.model.entities.CircleEntity;
+import io.javadog.cws.core.model.entities.DataTypeEntity;
+import io.javadog.cws.core.model.entities.KeyEntity;
+import io.javadog.cws.core.model.entities.MemberEntity;
+import io.javadog.cws.core.setup.DatabaseSetup;
+import java.util.function.Consumer;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+/**
+ * <p>Verifies that the rarely changed Entities are kept in the Second Level
+ * Cache, so they can be read again by other Persistence Contexts without any
+ * SQL Statements. The Cache only allows a Session to read Entities, which
+ * were cached before the Session began, so the warm lookups are made with a
+ * new Entity Manager.</p>
+ *
+ * <p>The Bean invocations are counted the same way, first with an empty
+ * cache and then again with a new Entity Manager, to show the drop in
+ * database round trips.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class SecondLevelCacheTest extends DatabaseSetup {
+
+    @Test
+    void testCircleIsReadFromCache() {
+        clearCaches();
+        final long cold = countStatements(() -> assertNotNull(find(CircleEntity.class, 1L)));
+        final long warm = countStatements(() -> assertNotNull(findWithNewEntityManager(CircleEntity.class)));
+
+        assertEquals(1, cold);
+        assertEquals(0, warm);
+    }
+
+    @Test
+    void testKeyIsReadFromCache() {
+        clearCaches();
+        final long cold = countStatements(() -> assertNotNull(find(KeyEntity.class, 1L)));
+        final long warm = countStatements(() -> assertNotNull(findWithNewEntityManager(KeyEntity.class)));
+
+        assertEquals(1, cold);
+        assertEquals(0, warm);
+    }
+
+    @Test
+    void testMemberIsNotCached() {
+        clearCaches();
+        assertNotNull(find(MemberEntity.class, 1L));
+        final long statements = countStatements(() -> assertNotNull(findWithNewEntityManager(MemberEntity.class)));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testEvictRemovesCachedDataTypes() {
+        clearCaches();
+        final DataTypeEntity dataType = dao.findDataTypeByName("folder");
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+        assertTrue(cache.contains(DataTypeEntity.class, dataType.getId()));
+
+        dao.evict(DataTypeEntity.class);
+        assertFalse(cache.contains(DataTypeEntity.class, dataType.getId()));
+    }
+
+    @Test
+    void testFetchCirclesUsesCache() {
+        clearCaches();
+        final long cold = countBeanStatements(SecondLevelCacheTest::fetchCircles);
+        final long warm = countBeanStatements(SecondLevelCacheTest::fetchCircles);
+
+        assertTrue(warm < cold, "FetchCircles prepared " + cold + " Statements with a cold cache and " + warm + " with a warm cache.");
+    }
+
+    @Test
+    void testFetchFolderUsesCache() {
+        clearCaches();
+        final long cold = countBeanStatements(SecondLevelCacheTest::fetchFolder);
+        final long warm = countBeanStatements(SecondLevelCacheTest::fetchFolder);
+
+        assertTrue(warm < cold, "FetchData prepared " + cold + " Statements with a cold cache and " + warm + " with a warm cache.");
+    }
+
+    // =========================================================================
+    // Internal Helper Methods
+    // =========================================================================
+
+    /**
+     * <p>Counts the Statements of a Bean invocation, made with a new Entity
+     * Manager, so the Persistence Context of the previous invocation cannot
+     * be used, only the Second Level Cache.</p>
+     *
+     * @param invocation The Bean invocation, given the new Entity Manager
+     * @return Number of prepared Statements
+     */
+    private long countBeanStatements(final Consumer<EntityManager> invocation) {
+        final EntityManager other = entityManager.getEntityManagerFactory().createEntityManager();
+        try {
+            other.getTransaction().begin();
+            return countStatements(() -> invocation.accept(other));
+        } finally {
+            other.getTransaction().rollback();
+            other.close();
+        }
+    }
+
+    private static void fetchCircles(final EntityManager other) {
+        final ManagementBean bean = new ManagementBean();
+        inject(bean, other);
+        inject(bean, Settings.getInstance());
+
+        assertTrue(bean.fetchCircles(prepareRequest(FetchCircleRequest.class, MEMBER_1)).isOk());
+    }
+
+    private static void fetchFolder(final EntityManager other) {
+        final ShareBean bean = new ShareBean();
+        inject(bean, other);
+        inject(bean, Settings.getInstance());
+        final FetchDataRequest request = prepareRequest(FetchDataRequest.class, MEMBER_1);
+        request.setCircleId(CIRCLE_1_ID);
+
+        assertTrue(bean.fetchData(request).isOk());
+    }
+
+    private <E extends CWSEntity> E findWithNewEntityManager(final Class<E> cwsEntity) {
+        final EntityManager other = entityManager.getEntityManagerFactory().createEntityManager();
+        try {
+            return other.find(cwsEntity, 1L);
+        } finally {
+            other.close();
+        }
+    }
+}
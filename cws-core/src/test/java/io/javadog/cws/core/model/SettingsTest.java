@@ -25,9 +25,16 @@ import io.javadog.cws.core.enums.HashAlgorithm;
 import io.javadog.cws.core.enums.KeyAlgorithm;
 import io.javadog.cws.core.enums.StandardSetting;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -128,6 +135,44 @@ final class SettingsTest extends DatabaseSetup {
         assertFalse(mySettings.hasShareTrustees());
     }
 
+    @Test
+    void testConcurrentReadsSeeCompleteUpdates() throws InterruptedException {
+        final Settings mySettings = newSettings();
+        mySettings.set(StandardSetting.SANITY_INTERVAL, "480");
+        final int threads = 64;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        final AtomicInteger inconsistencies = new AtomicInteger(0);
+        final CountDownLatch done = new CountDownLatch(threads);
+
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    final Map<String, String> current = mySettings.get();
+                    if (!Objects.equals(current.get(StandardSetting.SANITY_INTERVAL.getKey()), current.get(StandardSetting.SESSION_TIMEOUT.getKey()))) {
+                        inconsistencies.incrementAndGet();
+                    }
+                    mySettings.getPasswordIterations();
+                    mySettings.getCharset();
+                }
+                done.countDown();
+            });
+        }
+        executor.execute(() -> {
+            for (int j = 0; done.getCount() > 0; j++) {
+                final Map<String, String> changes = new HashMap<>();
+                changes.put(StandardSetting.SANITY_INTERVAL.getKey(), String.valueOf(j));
+                changes.put(StandardSetting.SESSION_TIMEOUT.getKey(), String.valueOf(j));
+                mySettings.update(changes);
+            }
+        });
+
+        assertTrue(done.await(1, TimeUnit.MINUTES));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(0, inconsistencies.get());
+        assertEquals(mySettings.getSanityInterval(), mySettings.getSessionTimeout());
+    }
+
     // =========================================================================
     // Internal methods
     // =========================================================================
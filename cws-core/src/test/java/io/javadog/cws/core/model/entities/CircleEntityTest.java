@@ -20,8 +20,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import io.javadog.cws.core.model.CommonDao;
 import io.javadog.cws.core.setup.DatabaseSetup;
 import java.util.UUID;
+import javax.persistence.Query;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -39,6 +41,7 @@ final class CircleEntityTest extends DatabaseSetup {
         final CircleEntity found = find(CircleEntity.class, entity.getId());
         assertNotNull(found);
         assertEquals(entity.getName(), found.getName());
+        assertEquals(entity.getExternalId(), found.getExternalId());
 
         found.setName("Circle 2");
         persist(found);
@@ -49,4 +52,17 @@ final class CircleEntityTest extends DatabaseSetup {
         assertNotNull(updated);
         assertNotEquals(entity.getName(), updated.getName());
     }
+
+    @Test
+    void testExternalIdLookup() {
+        final Query query = entityManager.createNamedQuery("member.findByNameAndCircle");
+        query.setParameter("name", "member1");
+        query.setParameter("externalCircleId", CIRCLE_1_ID);
+        assertEquals(1, CommonDao.findList(query).size());
+
+        // External Id's which passes the API validation, but is not a UUID,
+        // must not fail, but simply not be found.
+        query.setParameter("externalCircleId", "zzzzzzzz-zzzz-zzzz-zzzz-zzzzzzzzzzzz");
+        assertEquals(0, CommonDao.findList(query).size());
+    }
 }
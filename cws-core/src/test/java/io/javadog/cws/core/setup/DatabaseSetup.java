@@ -16,6 +16,8 @@
  */
 package io.javadog.cws.core.setup;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import io.javadog.cws.api.common.Action;
 import io.javadog.cws.api.common.Constants;
 import io.javadog.cws.api.common.CredentialType;
@@ -37,7 +39,13 @@ import io.javadog.cws.core.jce.Crypto;
 import io.javadog.cws.core.jce.IVSalt;
 import io.javadog.cws.core.jce.MasterKey;
 import io.javadog.cws.core.jce.SecretCWSKey;
+import io.javadog.cws.core.misc.AdmissionControl;
+import io.javadog.cws.core.misc.CiphertextCache;
+import io.javadog.cws.core.misc.SanityQueue;
 import io.javadog.cws.core.model.CommonDao;
+import io.javadog.cws.core.model.DataTypeRegistry;
+import io.javadog.cws.core.model.LookupFilter;
+import io.javadog.cws.core.model.ReadRouting;
 import io.javadog.cws.core.model.Settings;
 import io.javadog.cws.core.model.entities.CWSEntity;
 import io.javadog.cws.core.model.entities.CircleEntity;
@@ -53,9 +61,12 @@ import java.lang.reflect.InvocationTargetException;
 import java.security.SecureRandom;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 import javax.annotation.Resource;
@@ -66,6 +77,9 @@ import javax.persistence.EntityTransaction;
 import javax.persistence.Persistence;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
+import javax.transaction.TransactionSynchronizationRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 
@@ -123,6 +137,12 @@ public class DatabaseSetup {
             transaction.begin();
         }
         settings.set(StandardSetting.IS_READY.getKey(), "true");
+        AdmissionControl.getInstance().clear();
+        LookupFilter.getInstance().invalidate();
+        SanityQueue.getInstance().clear();
+        ReadRouting.getInstance().clear();
+        CiphertextCache.getInstance().clear();
+        MasterKey.getInstance(settings).setPreviousKey(null);
     }
 
     @AfterEach
@@ -297,6 +317,62 @@ public class DatabaseSetup {
         return entity;
     }
 
+    /**
+     * <p>Counts the number of JDBC Statements, which were prepared while
+     * running the given logic. The counting is made using the Hibernate
+     * Statistics, which is enabled for the tests.</p>
+     *
+     * @param runnable The logic to count the Statements for
+     * @return Number of prepared Statements
+     */
+    protected static long countStatements(final Runnable runnable) {
+        final Statistics statistics = FACTORY.unwrap(SessionFactory.class).getStatistics();
+        final long before = statistics.getPrepareStatementCount();
+        runnable.run();
+
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    /**
+     * <p>Clears both the current Persistence Context and the Second Level
+     * Cache, so the next lookups are all made against the database.</p>
+     */
+    protected void clearCaches() {
+        entityManager.flush();
+        entityManager.clear();
+        FACTORY.getCache().evictAll();
+    }
+
+    /**
+     * <p>Runs the given logic against empty caches, and asserts that it did
+     * not prepare more JDBC Statements than the declared budget. Changes made
+     * by the logic are flushed as part of the counting, so the Statements
+     * which are normally issued at commit are also counted.</p>
+     *
+     * <p>The Data Type Registry and the Lookup Filter are reloaded before
+     * counting, so they will not check their Revision while the logic is
+     * running.</p>
+     *
+     * @param operation Name of the Operation, used in the assertion message
+     * @param budget    The maximum number of Statements permitted
+     * @param supplier  The logic to run, typically a Bean invocation
+     * @param <T>       Type of the result from the logic
+     * @return Result of the logic
+     */
+    protected <T> T assertStatementBudget(final String operation, final long budget, final Supplier<T> supplier) {
+        clearCaches();
+        DataTypeRegistry.getInstance().load(dao);
+        LookupFilter.getInstance().load(dao);
+        final List<T> result = new ArrayList<>(1);
+        final long statements = countStatements(() -> {
+            result.add(supplier.get());
+            entityManager.flush();
+        });
+
+        assertTrue(statements <= budget, "The " + operation + " request prepared " + statements + " Statements, but the budget is " + budget + '.');
+        return result.get(0);
+    }
+
     protected <E extends CWSEntity> void persist(final E entity) {
         dao.persist(entity);
     }
@@ -374,7 +450,7 @@ public class DatabaseSetup {
                     if ((annotation instanceof PersistenceContext) && ((value instanceof EntityManager))) {
                         setField(instance, field, value);
                     } else if (annotation instanceof Resource) {
-                        if ((value instanceof  TimerService) || (value instanceof ThreadFactory)) {
+                        if ((value instanceof  TimerService) || (value instanceof ThreadFactory) || (value instanceof TransactionSynchronizationRegistry)) {
                             setField(instance, field, value);
                         }
                     }
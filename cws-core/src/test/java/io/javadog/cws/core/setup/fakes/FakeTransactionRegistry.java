@@ -0,0 +1,106 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.core.setup.fakes;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * This test Stub simulates an active JTA transaction, which is first
+ * completed, when the test invokes {@link #complete(int)}.
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public final class FakeTransactionRegistry implements TransactionSynchronizationRegistry {
+
+    private final List<Synchronization> synchronizations = new ArrayList<>(1);
+    private boolean rollbackOnly = false;
+
+    /**
+     * Completes the simulated transaction, with the given status.
+     *
+     * @param status Transaction Status, see {@link Status}
+     */
+    public void complete(final int status) {
+        for (final Synchronization synchronization : synchronizations) {
+            synchronization.beforeCompletion();
+            synchronization.afterCompletion(status);
+        }
+        synchronizations.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getTransactionKey() {
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void putResource(final Object key, final Object value) {
+        // Resources are not needed for the tests.
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getResource(final Object key) {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void registerInterposedSynchronization(final Synchronization sync) {
+        synchronizations.add(sync);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getTransactionStatus() {
+        return Status.STATUS_ACTIVE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setRollbackOnly() {
+        // The rollback itself is simulated via complete().
+        rollbackOnly = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean getRollbackOnly() {
+        return rollbackOnly;
+    }
+}
@@ -29,6 +29,19 @@ INSERT INTO cws_settings (name, setting) VALUES
     ('cws.session.timeout.minutes', '480'),
     ('cws.masterkey.url', ''),
     ('cws.cors.value', '*'),
+    ('cws.cache.check.interval.seconds', '5'),
+    ('cws.expose.request.timing', 'false'),
+    ('cws.rest.threads', '8'),
+    ('cws.rest.queue.size', '64'),
+    ('cws.rest.retry.after.seconds', '2'),
+    ('cws.admission.account.per.minute', '20'),
+    ('cws.admission.source.per.minute', '300'),
+    ('cws.admission.account.total.per.minute', '100'),
+    ('cws.replica.persistence.unit', ''),
+    ('cws.replica.max.lag.seconds', '5'),
+    ('cws.data.cache.size.mb', '64'),
+    ('cws.rotation.batch.size', '100'),
+    ('cws.rotation.max.batches', '10'),
     ('cws.is.ready', 'true');
 
 -- Default Administrator User, it is set at the first request to the System, and
@@ -5,8 +5,10 @@
 --  * System Specific tables
 --     o version    -  Simple Version information, to correlate CWS & DB version
 --     o settings   -  Settings for this instance of CWS
+--     o revisions  -  Revisions of cached information, shared in a cluster
 --  * Accounts & Relations for access control
 --     o members    -  Members who may access CWS
+--     o sessions   -  Active Sessions for the Members
 --     o circles    -  Circles of Trust that members may use for sharing data
 --     o keys       -  Symmetric Keys, used by Circles for sharing data
 --     o trustees   -  Relation information for each Member & Circle
@@ -60,6 +62,8 @@ INSERT INTO cws_versions(schema_version, cws_version, db_vendor) VALUES (2, '1.1
 INSERT INTO cws_versions(schema_version, cws_version, db_vendor) VALUES (3, '1.2.0', 'H2');
 -- Java Version upgrade (8->11), breaks backwards compatibility, CWS 2.x
 INSERT INTO cws_versions(schema_version, cws_version, db_vendor) VALUES (4, '2.0.0', 'H2');
+-- External Id's are stored as native UUIDs rather than 36 character Strings
+INSERT INTO cws_versions(schema_version, cws_version, db_vendor) VALUES (5, '2.0.0', 'H2');
 
 -- =============================================================================
 -- The CWS is configured via a set of property values, which are all stored in
@@ -94,6 +98,41 @@ CREATE TABLE cws_settings (
   CONSTRAINT setting_notnull_added          CHECK (added IS NOT NULL)
 );
 
+-- =============================================================================
+-- CWS may run as a cluster of stateless instances, where each instance keeps
+-- a local copy of rarely changing information, such as the Settings and the
+-- Data Types. To know when a local copy is outdated, a revision counter is
+-- kept for each cached area. Whenever the content is altered, the revision is
+-- increased, so the other instances can compare their revision with a single
+-- cheap lookup.
+-- =============================================================================
+CREATE TABLE cws_revisions (
+  id               INTEGER AUTO_INCREMENT,
+  name             VARCHAR(75),
+  revision         BIGINT DEFAULT 0,
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT revision_pk                    PRIMARY KEY (id),
+
+  /* Unique Constraints */
+  CONSTRAINT revision_unique_name           UNIQUE (name),
+
+  /* Not Null Constraints */
+  CONSTRAINT revision_notnull_id            CHECK (id IS NOT NULL),
+  CONSTRAINT revision_notnull_name          CHECK (name IS NOT NULL),
+  CONSTRAINT revision_notnull_revision      CHECK (revision IS NOT NULL),
+  CONSTRAINT revision_notnull_altered       CHECK (altered IS NOT NULL),
+  CONSTRAINT revision_notnull_added         CHECK (added IS NOT NULL)
+);
+INSERT INTO cws_revisions (name) VALUES
+    ('settings'),
+    ('datatypes'),
+    ('circles'),
+    ('members'),
+    ('heartbeat');
+
 -- =============================================================================
 -- This is the Account table for all Members. By default it is empty, and the
 -- first record to be added must be the System Administrator, called "admin".
@@ -116,19 +155,11 @@ CREATE TABLE cws_settings (
 -- the entire Application Layer.
 --   The Member Role is giving a pointer towards what kinds of permissions that
 -- a member has, it can be either admin, standard, session or guest.
---   Sessions are important for websites, where a user is logging in, and then
--- just works with a session onwards. To better integrate CWS into websites, it
--- is important CWS also supports Sessions. This is done by having 3 fields in
--- this table, the session_checksum, which is generated using the MasterKey, and
--- used to find the member account. Secondly, the member's private key encrypted
--- using both a PBKDF2 symmetric key and the MasterKey. And finally, the expire
--- flag, which is pre-calculated with the "login time" and the maximum life time
--- of a session. So a Timed service can stop any existing sessions which have
--- not been logged out.
+--   Sessions for the Members are stored in the separate Sessions table.
 -- =============================================================================
 CREATE TABLE cws_members (
   id               INTEGER AUTO_INCREMENT,
-  external_id      VARCHAR(36),
+  external_id      UUID,
   name             VARCHAR_IGNORECASE(75), -- Member Authentication information
   salt             VARCHAR(256),
   pbe_algorithm    VARCHAR(10) DEFAULT 'PBE_256',
@@ -137,9 +168,6 @@ CREATE TABLE cws_members (
   public_key       VARCHAR(3072),  -- Public Key, stored armored
   private_key      VARCHAR(16384), -- Private Key, stored encrypted & armored
   member_role      VARCHAR(10) DEFAULT 'STANDARD',
-  session_checksum VARCHAR(256),   -- MasterKey Checksum of the given Session
-  session_crypto   VARCHAR(16384), -- Private Key, stored encrypted & armored
-  session_expire   TIMESTAMP,      -- Time, when the Session expires
   altered          TIMESTAMP DEFAULT now(),
   added            TIMESTAMP DEFAULT now(),
 
@@ -150,7 +178,6 @@ CREATE TABLE cws_members (
   CONSTRAINT member_unique_external_id      UNIQUE (external_id),
   CONSTRAINT member_unique_name             UNIQUE (name),
   CONSTRAINT member_unique_salt             UNIQUE (salt),
-  CONSTRAINT member_unique_session_checksum UNIQUE (session_checksum),
 
   /* Not Null Constraints */
   CONSTRAINT member_notnull_id              CHECK (id IS NOT NULL),
@@ -166,6 +193,47 @@ CREATE TABLE cws_members (
   CONSTRAINT member_notnull_added           CHECK (added IS NOT NULL)
 );
 
+-- =============================================================================
+-- Sessions are important for websites, where a user is logging in, and then
+-- just works with a session onwards. To better integrate CWS into websites, it
+-- is important CWS also supports Sessions. A Member may have multiple Sessions
+-- at the same time, i.e. from different devices, and each is stored here.
+--   The checksum is generated using the MasterKey, and used to find the Session
+-- and thus the Member. The crypto is the Member's Private Key, encrypted using
+-- both a PBKDF2 symmetric key and the MasterKey. And finally, the expires is
+-- pre-calculated with the "login time" and the maximum life time of a Session,
+-- so a Timed service can remove the Sessions which have not been logged out.
+--   The Sessions are kept apart from the Members, so logging in & out does not
+-- require rewriting the Member records.
+-- =============================================================================
+CREATE TABLE cws_sessions (
+  id               INTEGER AUTO_INCREMENT,
+  member_id        INTEGER,
+  checksum         VARCHAR(256),   -- MasterKey Checksum of the given Session
+  crypto           VARCHAR(16384), -- Private Key, stored encrypted & armored
+  expires          TIMESTAMP,      -- Time, when the Session expires
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT session_pk                     PRIMARY KEY (id),
+  CONSTRAINT session_member_fk              FOREIGN KEY (member_id) REFERENCES cws_members (id) ON DELETE CASCADE,
+
+  /* Unique Constraints */
+  CONSTRAINT session_unique_checksum        UNIQUE (checksum),
+
+  /* Not Null Constraints */
+  CONSTRAINT session_notnull_id             CHECK (id IS NOT NULL),
+  CONSTRAINT session_notnull_member_id      CHECK (member_id IS NOT NULL),
+  CONSTRAINT session_notnull_checksum       CHECK (checksum IS NOT NULL),
+  CONSTRAINT session_notnull_crypto         CHECK (crypto IS NOT NULL),
+  CONSTRAINT session_notnull_expires        CHECK (expires IS NOT NULL),
+  CONSTRAINT session_notnull_altered        CHECK (altered IS NOT NULL),
+  CONSTRAINT session_notnull_added          CHECK (added IS NOT NULL)
+);
+CREATE INDEX cws_sessions_member_index ON cws_sessions (member_id);
+CREATE INDEX cws_sessions_expires_index ON cws_sessions (expires);
+
 -- =============================================================================
 -- Circles act as groupings for a collection of Members sharing data. A Circle
 -- is thus having an identifying name and nothing else really.
@@ -175,7 +243,7 @@ CREATE TABLE cws_members (
 -- =============================================================================
 CREATE TABLE cws_circles (
   id               INTEGER AUTO_INCREMENT,
-  external_id      VARCHAR(36),
+  external_id      UUID,
   name             VARCHAR_IGNORECASE(75),
   external_key     LONGVARBINARY,  -- External Circle Key, with unknown length
   altered          TIMESTAMP DEFAULT now(),
@@ -292,6 +360,8 @@ CREATE TABLE cws_keys (
 --   A Member can only belong to a Circle with Access to the Key. the actual Key
 -- is stored with the relation and not within the Key table. For Guests, the Key
 -- stored is simply "Not Applicable".
+--   While the Circle Key is being rotated, the previous Key is also kept with
+-- the relation, so the Data which is not yet re-encrypted can still be read.
 -- =============================================================================
 CREATE TABLE cws_trustees (
   id               INTEGER AUTO_INCREMENT,
@@ -300,6 +370,8 @@ CREATE TABLE cws_trustees (
   key_id           INTEGER,
   trust_level      VARCHAR(10),
   circle_key       VARCHAR(8192) DEFAULT 'Not Applicable',
+  previous_key_id  INTEGER,
+  previous_circle_key VARCHAR(8192),
   altered          TIMESTAMP     DEFAULT now(),
   added            TIMESTAMP     DEFAULT now(),
 
@@ -308,6 +380,7 @@ CREATE TABLE cws_trustees (
   CONSTRAINT trustee_member_fk              FOREIGN KEY (member_id) REFERENCES cws_members (id) ON DELETE CASCADE,
   CONSTRAINT trustee_circle_fk              FOREIGN KEY (circle_id) REFERENCES cws_circles (id) ON DELETE CASCADE,
   CONSTRAINT trustee_key_fk                 FOREIGN KEY (key_id) REFERENCES cws_keys (id),
+  CONSTRAINT trustee_previous_key_fk        FOREIGN KEY (previous_key_id) REFERENCES cws_keys (id),
 
   /* Unique Constraints */
   CONSTRAINT trustee_unique_fks             UNIQUE (member_id, circle_id, key_id),
@@ -389,7 +462,7 @@ INSERT INTO cws_datatypes (datatype_name, datatype_value) VALUES
 -- =============================================================================
 CREATE TABLE cws_metadata (
   id               INTEGER AUTO_INCREMENT,
-  external_id      VARCHAR(36),
+  external_id      UUID,
   parent_id        INTEGER,
   circle_id        INTEGER,
   datatype_id      INTEGER,
@@ -483,3 +556,46 @@ CREATE TABLE cws_signatures (
   CONSTRAINT signarure_notnull_altered      CHECK (altered IS NOT NULL),
   CONSTRAINT signarure_notnull_added        CHECK (added IS NOT NULL)
 );
+
+-- =============================================================================
+-- Rotating a Key means that all rows encrypted with it, must be re-encrypted
+-- with the new Key. This is done in the background, in smaller batches, so the
+-- CWS can continue to work while the rotation is ongoing. The progress is kept
+-- in this table, where the checkpoint is the Id of the last processed row, so
+-- any CWS instance can continue the rotation, also after a restart.
+--   For the MasterKey, the secret is the previous Key, encrypted with the new
+-- Key, so the rows which are not yet re-encrypted can still be read. For the
+-- Circle Keys, the secret is the previous and the new Circle Key, encrypted
+-- with the MasterKey. The secret is removed, once the rotation is completed.
+-- =============================================================================
+CREATE TABLE cws_rotations (
+  id               INTEGER AUTO_INCREMENT,
+  name             VARCHAR(75),
+  status           VARCHAR(10),
+  checkpoint       BIGINT DEFAULT 0,
+  processed        BIGINT DEFAULT 0,
+  circle_id        INTEGER,
+  key_id           INTEGER,
+  previous_key_id  INTEGER,
+  secret           VARCHAR(256),
+  altered          TIMESTAMP DEFAULT now(),
+  added            TIMESTAMP DEFAULT now(),
+
+  /* Primary & Foreign Keys */
+  CONSTRAINT rotation_pk                    PRIMARY KEY (id),
+  CONSTRAINT rotation_circle_fk             FOREIGN KEY (circle_id) REFERENCES cws_circles (id) ON DELETE CASCADE,
+  CONSTRAINT rotation_key_fk                FOREIGN KEY (key_id) REFERENCES cws_keys (id),
+  CONSTRAINT rotation_previous_key_fk       FOREIGN KEY (previous_key_id) REFERENCES cws_keys (id),
+
+  /* Unique Constraints */
+  CONSTRAINT rotation_unique_name           UNIQUE (name),
+
+  /* Not Null Constraints */
+  CONSTRAINT rotation_notnull_id            CHECK (id IS NOT NULL),
+  CONSTRAINT rotation_notnull_name          CHECK (name IS NOT NULL),
+  CONSTRAINT rotation_notnull_status        CHECK (status IS NOT NULL),
+  CONSTRAINT rotation_notnull_checkpoint    CHECK (checkpoint IS NOT NULL),
+  CONSTRAINT rotation_notnull_processed     CHECK (processed IS NOT NULL),
+  CONSTRAINT rotation_notnull_altered       CHECK (altered IS NOT NULL),
+  CONSTRAINT rotation_notnull_added         CHECK (added IS NOT NULL)
+);
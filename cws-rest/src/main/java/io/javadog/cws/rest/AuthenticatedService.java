@@ -30,6 +30,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -50,7 +52,11 @@ public class AuthenticatedService {
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response authenticated(@NotNull final Authentication request) {
+    public void authenticated(@Suspended final AsyncResponse asyncResponse, @NotNull final Authentication request) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> authenticated(request));
+    }
+
+    private Response authenticated(final Authentication request) {
         final long startTime = System.nanoTime();
         CwsResponse response;
 
@@ -0,0 +1,272 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.rest;
+
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.api.responses.CwsResponse;
+import io.javadog.cws.core.metrics.Counter;
+import io.javadog.cws.core.metrics.Gauge;
+import io.javadog.cws.core.metrics.Metrics;
+import io.javadog.cws.core.metrics.RequestTimer;
+import io.javadog.cws.core.misc.AdmissionControl;
+import io.javadog.cws.core.model.Settings;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+/**
+ * <p>The REST requests are not processed by the container threads, but are
+ * handed over to one of the Bulkheads, each with its own bounded thread
+ * pool and queue. This way, CPU heavy requests, like logins with password
+ * key derivation or the creation of new Members with new key pairs, can
+ * only occupy the threads of their own Bulkhead, and cannot starve the
+ * cheap Data reads.</p>
+ *
+ * <p>If all threads of a Bulkhead are busy and the queue is full, the
+ * request is rejected directly with HTTP status 503 (Service Unavailable),
+ * a 'Retry-After' header and a CWS Response with the error, rather than
+ * being left waiting. The size of the thread pools and queues are read from
+ * the Settings, the first time a Bulkhead is used. The thread pools are
+ * shut down by the {@link BulkheadListener}, when the application is
+ * undeployed. Requests still waiting in the queue when the thread pool is
+ * stopped, are likewise resumed with HTTP status 503.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+public enum Bulkhead {
+
+    /** Authentication, Member, Circle, Trustee and System Management. */
+    MANAGEMENT("management"),
+    /** Reading Data Objects, Folders and Data Types. */
+    DATA_READ("data-read"),
+    /** Adding, updating and removing Data Objects and Data Types. */
+    DATA_WRITE("data-write"),
+    /** Signing and verifying documents. */
+    SIGNATURES("signatures");
+
+    private static final Logger LOG = Logger.getLogger(Bulkhead.class.getName());
+    private static final String MANAGED_THREAD_FACTORY = "java:comp/DefaultManagedThreadFactory";
+    private static final long SHUTDOWN_SECONDS = 10;
+
+    private final String label;
+    private final Counter rejected;
+    private final Gauge queued;
+    private volatile ThreadPoolExecutor executor = null;
+
+    Bulkhead(final String label) {
+        this.label = label;
+        this.rejected = Metrics.getInstance().counter("cws_rest_rejected_total", "REST requests rejected, as the Bulkhead was saturated.", "bulkhead", label);
+        this.queued = Metrics.getInstance().gauge("cws_rest_queued_requests", "REST requests waiting for a thread in the Bulkhead.", "bulkhead", label);
+    }
+
+    /**
+     * <p>Submits the request to the thread pool of this Bulkhead. The
+     * response from the given task is used to resume the suspended request.
+     * If the Bulkhead is saturated, the request is resumed directly with
+     * HTTP status 503.</p>
+     *
+     * <p>The request timer and the client address are moved to the thread
+     * processing the request, and the time spent waiting in the queue is
+     * recorded as a phase.</p>
+     *
+     * @param asyncResponse The suspended request
+     * @param task          The processing of the request
+     */
+    public void submit(final AsyncResponse asyncResponse, final Supplier<Response> task) {
+        final RequestTimer timer = RequestTimer.current();
+        final String source = AdmissionControl.currentSource();
+        final long submitted = System.nanoTime();
+        final ThreadPoolExecutor pool = executor();
+
+        try {
+            queued.increment();
+            pool.execute(new QueuedRequest(asyncResponse, task, timer, source, submitted));
+        } catch (RejectedExecutionException e) {
+            queued.decrement();
+            rejected.increment();
+            LOG.log(Settings.DEBUG, () -> "The " + label + " Bulkhead is saturated, request rejected.");
+            asyncResponse.resume(unavailable());
+        } finally {
+            // The timer now belongs to the processing thread, so it must
+            // not be left behind on the container thread.
+            RequestTimer.detach();
+            AdmissionControl.releaseSource();
+        }
+    }
+
+    /**
+     * <p>Shuts down the thread pool of this Bulkhead, when the application
+     * is undeployed. The requests already accepted are given a short while
+     * to complete, before the remaining threads are interrupted. The
+     * requests which never left the queue are resumed with HTTP status 503,
+     * so the clients are not left waiting. If the Bulkhead is used again, a
+     * new thread pool is created.</p>
+     */
+    public void shutdown() {
+        final ThreadPoolExecutor current;
+        synchronized (this) {
+            current = executor;
+            executor = null;
+        }
+
+        if (current != null) {
+            current.shutdown();
+            try {
+                if (!current.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                    resumeDrained(current.shutdownNow());
+                }
+            } catch (InterruptedException e) {
+                resumeDrained(current.shutdownNow());
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    // =========================================================================
+    // Internal Methods
+    // =========================================================================
+
+    private void process(final AsyncResponse asyncResponse, final Supplier<Response> task, final RequestTimer timer, final String source, final long submitted) {
+        queued.decrement();
+        RequestTimer.attach(timer);
+        AdmissionControl.bindSource(source);
+
+        try {
+            RequestTimer.record("queue", submitted);
+            asyncResponse.resume(task.get());
+        } catch (RuntimeException e) {
+            asyncResponse.resume(e);
+        } finally {
+            RequestTimer.detach();
+            AdmissionControl.releaseSource();
+        }
+    }
+
+    private void resumeDrained(final List<Runnable> drained) {
+        for (final Runnable runnable : drained) {
+            if (runnable instanceof QueuedRequest) {
+                queued.decrement();
+                ((QueuedRequest) runnable).asyncResponse.resume(unavailable());
+            }
+        }
+        LOG.log(Settings.DEBUG, () -> "The " + label + " Bulkhead was stopped, " + drained.size() + " queued requests rejected.");
+    }
+
+    private static Response unavailable() {
+        final int retryAfter = Settings.getInstance().getRestRetryAfter();
+
+        return Response
+                .status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfter)
+                .type(RestUtils.PRODUCES)
+                .entity(new CwsResponse(ReturnCode.ERROR, "The Server is busy, please retry the request after " + retryAfter + " seconds."))
+                .build();
+    }
+
+    private ThreadPoolExecutor executor() {
+        ThreadPoolExecutor current = executor;
+
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    final Settings settings = Settings.getInstance();
+                    final int threads = settings.getRestThreads();
+                    current = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                            new ArrayBlockingQueue<>(settings.getRestQueueSize()),
+                            prepareThreadFactory(label),
+                            new ThreadPoolExecutor.AbortPolicy());
+                    current.allowCoreThreadTimeOut(true);
+                    executor = current;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * <p>Inside the container, the threads are created by the default
+     * Managed Thread Factory, so the Beans invoked by the requests have the
+     * container context available. Outside of it, i.e. in tests, plain
+     * daemon threads are used.</p>
+     *
+     * @param label The name of the Bulkhead
+     * @return Thread Factory for the Bulkhead
+     */
+    private static ThreadFactory prepareThreadFactory(final String label) {
+        try {
+            return (ThreadFactory) new InitialContext().lookup(MANAGED_THREAD_FACTORY);
+        } catch (NamingException e) {
+            LOG.log(Settings.WARN, () -> "No Managed Thread Factory found for the " + label + " Bulkhead, using plain threads without the container context: " + e.getMessage());
+            final AtomicInteger counter = new AtomicInteger(0);
+
+            return runnable -> {
+                final var thread = new Thread(runnable, "cws-" + label + '-' + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    /**
+     * <p>A request waiting in the queue of the Bulkhead. It keeps the
+     * suspended request, so it can still be resumed, if the thread pool is
+     * stopped before the request is processed.</p>
+     */
+    private final class QueuedRequest implements Runnable {
+
+        private final AsyncResponse asyncResponse;
+        private final Supplier<Response> task;
+        private final RequestTimer timer;
+        private final String source;
+        private final long submitted;
+
+        private QueuedRequest(final AsyncResponse asyncResponse, final Supplier<Response> task, final RequestTimer timer, final String source, final long submitted) {
+            this.asyncResponse = asyncResponse;
+            this.task = task;
+            this.timer = timer;
+            this.source = source;
+            this.submitted = submitted;
+        }
+
+        @Override
+        public void run() {
+            process(asyncResponse, task, timer, source, submitted);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.rest;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * <p>The thread pools of the Bulkheads are not managed by the container, so
+ * they must be shut down explicitly when the application is undeployed, or
+ * the threads will keep the class loader of the application alive.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@WebListener
+public final class BulkheadListener implements ServletContextListener {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void contextInitialized(final ServletContextEvent sce) {
+        // Nothing to do here, the thread pools are created when needed.
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void contextDestroyed(final ServletContextEvent sce) {
+        for (final Bulkhead bulkhead : Bulkhead.values()) {
+            bulkhead.shutdown();
+        }
+    }
+}
@@ -33,6 +33,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -54,31 +56,43 @@ public class CircleService {
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_CIRCLES_CREATE)
-    public Response create(@NotNull final ProcessCircleRequest createCircleRequest) {
-        return processCircle(createCircleRequest, Action.CREATE, Constants.REST_CIRCLES_CREATE);
+    public void create(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessCircleRequest createCircleRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processCircle(createCircleRequest, Action.CREATE, Constants.REST_CIRCLES_CREATE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_CIRCLES_UPDATE)
-    public Response update(@NotNull final ProcessCircleRequest updateCircleRequest) {
-        return processCircle(updateCircleRequest, Action.UPDATE, Constants.REST_CIRCLES_UPDATE);
+    public void update(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessCircleRequest updateCircleRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processCircle(updateCircleRequest, Action.UPDATE, Constants.REST_CIRCLES_UPDATE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_CIRCLES_DELETE)
-    public Response delete(@NotNull final ProcessCircleRequest deleteCircleRequest) {
-        return processCircle(deleteCircleRequest, Action.DELETE, Constants.REST_CIRCLES_DELETE);
+    public void delete(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessCircleRequest deleteCircleRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processCircle(deleteCircleRequest, Action.DELETE, Constants.REST_CIRCLES_DELETE));
+    }
+
+    @POST
+    @Consumes(RestUtils.CONSUMES)
+    @Produces(RestUtils.PRODUCES)
+    @Path(Constants.REST_CIRCLES_ROTATE)
+    public void rotate(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessCircleRequest rotateCircleKeyRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processCircle(rotateCircleKeyRequest, Action.ROTATE, Constants.REST_CIRCLES_ROTATE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_CIRCLES_FETCH)
-    public Response fetch(@NotNull final FetchCircleRequest fetchCirclesRequest) {
+    public void fetch(@Suspended final AsyncResponse asyncResponse, @NotNull final FetchCircleRequest fetchCirclesRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> fetch(fetchCirclesRequest));
+    }
+
+    private Response fetch(final FetchCircleRequest fetchCirclesRequest) {
         final String restAction = Constants.REST_CIRCLES_BASE + Constants.REST_CIRCLES_FETCH;
         final long startTime = System.nanoTime();
         FetchCircleResponse response;
@@ -45,10 +45,15 @@ public class CwsApplication extends Application {
         set.add(DataTypeService.class);
         set.add(MasterKeyService.class);
         set.add(MemberService.class);
+        set.add(MetricsFilter.class);
+        set.add(MetricsService.class);
+        set.add(RotationService.class);
         set.add(SanityService.class);
         set.add(SettingService.class);
         set.add(InventoryService.class);
         set.add(SignatureService.class);
+        set.add(SlowRequestService.class);
+        set.add(SourceFilter.class);
         set.add(TrusteeService.class);
         set.add(VersionService.class);
 
@@ -33,6 +33,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -54,47 +56,51 @@ public class DataService {
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_DATA_ADD)
-    public Response add(@NotNull final ProcessDataRequest addDataRequest) {
-        return processData(addDataRequest, Action.ADD, Constants.REST_DATA_ADD);
+    public void add(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessDataRequest addDataRequest) {
+        Bulkhead.DATA_WRITE.submit(asyncResponse, () -> processData(addDataRequest, Action.ADD, Constants.REST_DATA_ADD));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_DATA_COPY)
-    public Response copy(@NotNull final ProcessDataRequest updateDataRequest) {
-        return processData(updateDataRequest, Action.COPY, Constants.REST_DATA_COPY);
+    public void copy(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessDataRequest updateDataRequest) {
+        Bulkhead.DATA_WRITE.submit(asyncResponse, () -> processData(updateDataRequest, Action.COPY, Constants.REST_DATA_COPY));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_DATA_MOVE)
-    public Response move(@NotNull final ProcessDataRequest updateDataRequest) {
-        return processData(updateDataRequest, Action.MOVE, Constants.REST_DATA_MOVE);
+    public void move(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessDataRequest updateDataRequest) {
+        Bulkhead.DATA_WRITE.submit(asyncResponse, () -> processData(updateDataRequest, Action.MOVE, Constants.REST_DATA_MOVE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_DATA_UPDATE)
-    public Response update(@NotNull final ProcessDataRequest updateDataRequest) {
-        return processData(updateDataRequest, Action.UPDATE, Constants.REST_DATA_UPDATE);
+    public void update(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessDataRequest updateDataRequest) {
+        Bulkhead.DATA_WRITE.submit(asyncResponse, () -> processData(updateDataRequest, Action.UPDATE, Constants.REST_DATA_UPDATE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_DATA_DELETE)
-    public Response delete(@NotNull final ProcessDataRequest deleteDataRequest) {
-        return processData(deleteDataRequest, Action.DELETE, Constants.REST_DATA_DELETE);
+    public void delete(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessDataRequest deleteDataRequest) {
+        Bulkhead.DATA_WRITE.submit(asyncResponse, () -> processData(deleteDataRequest, Action.DELETE, Constants.REST_DATA_DELETE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_DATA_FETCH)
-    public Response fetch(@NotNull final FetchDataRequest fetchDataRequest) {
+    public void fetch(@Suspended final AsyncResponse asyncResponse, @NotNull final FetchDataRequest fetchDataRequest) {
+        Bulkhead.DATA_READ.submit(asyncResponse, () -> fetch(fetchDataRequest));
+    }
+
+    private Response fetch(final FetchDataRequest fetchDataRequest) {
         final String restAction = Constants.REST_DATA_BASE + Constants.REST_DATA_FETCH;
         final long startTime = System.nanoTime();
         FetchDataResponse response;
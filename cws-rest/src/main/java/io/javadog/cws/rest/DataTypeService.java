@@ -33,6 +33,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -54,23 +56,27 @@ public class DataTypeService {
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_DATATYPES_PROCESS)
-    public Response process(@NotNull final ProcessDataTypeRequest processDataTypeRequest) {
-        return processDataType(processDataTypeRequest, Action.PROCESS, Constants.REST_DATATYPES_PROCESS);
+    public void process(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessDataTypeRequest processDataTypeRequest) {
+        Bulkhead.DATA_WRITE.submit(asyncResponse, () -> processDataType(processDataTypeRequest, Action.PROCESS, Constants.REST_DATATYPES_PROCESS));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_DATATYPES_DELETE)
-    public Response delete(@NotNull final ProcessDataTypeRequest deleteDataTypeRequest) {
-        return processDataType(deleteDataTypeRequest, Action.DELETE, Constants.REST_DATATYPES_DELETE);
+    public void delete(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessDataTypeRequest deleteDataTypeRequest) {
+        Bulkhead.DATA_WRITE.submit(asyncResponse, () -> processDataType(deleteDataTypeRequest, Action.DELETE, Constants.REST_DATATYPES_DELETE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_DATATYPES_FETCH)
-    public Response fetch(@NotNull final FetchDataTypeRequest fetchDataTypesRequest) {
+    public void fetch(@Suspended final AsyncResponse asyncResponse, @NotNull final FetchDataTypeRequest fetchDataTypesRequest) {
+        Bulkhead.DATA_READ.submit(asyncResponse, () -> fetch(fetchDataTypesRequest));
+    }
+
+    private Response fetch(final FetchDataTypeRequest fetchDataTypesRequest) {
         final String restAction = Constants.REST_DATATYPES_BASE + Constants.REST_DATATYPES_FETCH;
         final long startTime = System.nanoTime();
         FetchDataTypeResponse response;
@@ -30,6 +30,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -50,7 +52,11 @@ public class InventoryService {
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response inventory(@NotNull final InventoryRequest request) {
+    public void inventory(@Suspended final AsyncResponse asyncResponse, @NotNull final InventoryRequest request) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> inventory(request));
+    }
+
+    private Response inventory(final InventoryRequest request) {
         final long startTime = System.nanoTime();
         InventoryResponse response;
 
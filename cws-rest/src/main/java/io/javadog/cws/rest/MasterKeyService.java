@@ -30,6 +30,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -50,7 +52,11 @@ public class MasterKeyService {
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response masterKey(@NotNull final MasterKeyRequest masterKeyRequest) {
+    public void masterKey(@Suspended final AsyncResponse asyncResponse, @NotNull final MasterKeyRequest masterKeyRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> masterKey(masterKeyRequest));
+    }
+
+    private Response masterKey(final MasterKeyRequest masterKeyRequest) {
         final long startTime = System.nanoTime();
         MasterKeyResponse response;
 
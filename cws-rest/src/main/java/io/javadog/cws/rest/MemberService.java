@@ -33,6 +33,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -54,71 +56,75 @@ public class MemberService {
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_MEMBERS_CREATE)
-    public Response create(@NotNull final ProcessMemberRequest createMemberRequest) {
-        return processMember(createMemberRequest, Action.CREATE, Constants.REST_MEMBERS_CREATE);
+    public void create(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessMemberRequest createMemberRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processMember(createMemberRequest, Action.CREATE, Constants.REST_MEMBERS_CREATE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_MEMBERS_INVITE)
-    public Response invite(@NotNull final ProcessMemberRequest inviteMemberRequest) {
-        return processMember(inviteMemberRequest, Action.INVITE, Constants.REST_MEMBERS_INVITE);
+    public void invite(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessMemberRequest inviteMemberRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processMember(inviteMemberRequest, Action.INVITE, Constants.REST_MEMBERS_INVITE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_MEMBERS_LOGIN)
-    public Response login(@NotNull final ProcessMemberRequest updateMemberRequest) {
-        return processMember(updateMemberRequest, Action.LOGIN, Constants.REST_MEMBERS_LOGIN);
+    public void login(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessMemberRequest updateMemberRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processMember(updateMemberRequest, Action.LOGIN, Constants.REST_MEMBERS_LOGIN));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_MEMBERS_LOGOUT)
-    public Response logout(@NotNull final ProcessMemberRequest updateMemberRequest) {
-        return processMember(updateMemberRequest, Action.LOGOUT, Constants.REST_MEMBERS_LOGOUT);
+    public void logout(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessMemberRequest updateMemberRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processMember(updateMemberRequest, Action.LOGOUT, Constants.REST_MEMBERS_LOGOUT));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_MEMBERS_ALTER)
-    public Response alter(@NotNull final ProcessMemberRequest updateMemberRequest) {
-        return processMember(updateMemberRequest, Action.ALTER, Constants.REST_MEMBERS_ALTER);
+    public void alter(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessMemberRequest updateMemberRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processMember(updateMemberRequest, Action.ALTER, Constants.REST_MEMBERS_ALTER));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_MEMBERS_UPDATE)
-    public Response update(@NotNull final ProcessMemberRequest updateMemberRequest) {
-        return processMember(updateMemberRequest, Action.UPDATE, Constants.REST_MEMBERS_UPDATE);
+    public void update(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessMemberRequest updateMemberRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processMember(updateMemberRequest, Action.UPDATE, Constants.REST_MEMBERS_UPDATE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_MEMBERS_INVALIDATE)
-    public Response invalidate(@NotNull final ProcessMemberRequest invalidateRequest) {
-        return processMember(invalidateRequest, Action.INVALIDATE, Constants.REST_MEMBERS_INVALIDATE);
+    public void invalidate(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessMemberRequest invalidateRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processMember(invalidateRequest, Action.INVALIDATE, Constants.REST_MEMBERS_INVALIDATE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_MEMBERS_DELETE)
-    public Response delete(@NotNull final ProcessMemberRequest deleteMemberRequest) {
-        return processMember(deleteMemberRequest, Action.DELETE, Constants.REST_MEMBERS_DELETE);
+    public void delete(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessMemberRequest deleteMemberRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processMember(deleteMemberRequest, Action.DELETE, Constants.REST_MEMBERS_DELETE));
     }
 
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
     @Path(Constants.REST_MEMBERS_FETCH)
-    public Response fetch(@NotNull final FetchMemberRequest fetchMembersRequest) {
+    public void fetch(@Suspended final AsyncResponse asyncResponse, @NotNull final FetchMemberRequest fetchMembersRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> fetch(fetchMembersRequest));
+    }
+
+    private Response fetch(final FetchMemberRequest fetchMembersRequest) {
         final String restAction = Constants.REST_MEMBERS_BASE + Constants.REST_MEMBERS_FETCH;
         final long startTime = System.nanoTime();
         FetchMemberResponse response;
@@ -0,0 +1,128 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.rest;
+
+import io.javadog.cws.api.responses.CwsResponse;
+import io.javadog.cws.core.metrics.Gauge;
+import io.javadog.cws.core.metrics.Metrics;
+import io.javadog.cws.core.metrics.RequestTimer;
+import io.javadog.cws.core.model.Settings;
+import java.io.IOException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * <p>Records the duration of all REST requests, labelled with the requested
+ * path and the CWS Return Code. As all responses from CWS are returned with
+ * HTTP status 200 (see {@link RestUtils#buildResponse(CwsResponse)}), the
+ * Return Code is read from the response entity, and only if there is none,
+ * the HTTP status is used instead.</p>
+ *
+ * <p>Each request is also given a {@link RequestTimer}, which collects the
+ * time spent in the different phases of the request, including the JSON
+ * serialization of the response. If the setting 'cws.expose.request.timing'
+ * is enabled, the phases are returned in the 'Server-Timing' header. As the
+ * header is written before the response body, it cannot contain the
+ * serialization, which is only found in the Slow Request log.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@Provider
+public final class MetricsFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    /** HTTP Header with the phases of the request. */
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final String START_TIME = "cws.metrics.start";
+    private static final String ACTION = "cws.metrics.action";
+    private static final String TIMER = "cws.metrics.timer";
+    private static final String UNMATCHED = "unmatched";
+    private static final Gauge IN_FLIGHT = Metrics.getInstance().gauge("cws_rest_requests_in_flight", "REST requests currently being processed.");
+    private final Settings settings = Settings.getInstance();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void filter(final ContainerRequestContext requestContext) {
+        // Unknown paths are grouped together, so arbitrary requests
+        // cannot create an unbounded number of Metrics.
+        final String action = requestContext.getUriInfo().getMatchedURIs().isEmpty()
+                ? UNMATCHED
+                : '/' + requestContext.getUriInfo().getPath(true).replaceFirst("^/", "");
+
+        IN_FLIGHT.increment();
+        requestContext.setProperty(ACTION, action);
+        requestContext.setProperty(TIMER, RequestTimer.begin(action));
+        requestContext.setProperty(START_TIME, System.nanoTime());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void filter(final ContainerRequestContext requestContext, final ContainerResponseContext responseContext) {
+        final Object start = requestContext.getProperty(START_TIME);
+
+        // If the request was rejected before reaching the request filter,
+        // i.e. by the container, then there is nothing to record.
+        if (start instanceof Long) {
+            IN_FLIGHT.decrement();
+            final Object entity = responseContext.getEntity();
+            final int code = (entity instanceof CwsResponse) ? ((CwsResponse) entity).getReturnCode() : responseContext.getStatus();
+
+            Metrics.getInstance()
+                    .histogram("cws_rest_request_seconds", "Duration of the REST requests.", "action", (String) requestContext.getProperty(ACTION), "code", String.valueOf(code))
+                    .recordSince((Long) start);
+
+            final var timer = (RequestTimer) requestContext.getProperty(TIMER);
+            if (settings.hasExposeRequestTiming()) {
+                responseContext.getHeaders().putSingle(SERVER_TIMING, timer.toServerTiming());
+            }
+            if (entity == null) {
+                timer.end();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void aroundWriteTo(final WriterInterceptorContext context) throws IOException {
+        final Object timer = context.getProperty(TIMER);
+        final long start = System.nanoTime();
+
+        try {
+            context.proceed();
+        } finally {
+            // The response may be written by a different thread than the
+            // one the timer is bound to, so the timer from the request is
+            // used directly rather than the one of the current thread.
+            if (timer instanceof RequestTimer) {
+                ((RequestTimer) timer).recordPhase("serialize", start);
+                ((RequestTimer) timer).end();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.rest;
+
+import io.javadog.cws.api.common.Constants;
+import io.javadog.cws.core.metrics.Metrics;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+/**
+ * <p>REST interface for the Metrics, exported in the Prometheus text format,
+ * so they can be scraped directly. The Metrics do not contain any Member
+ * information, only counts and durations.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@Path(Constants.REST_METRICS)
+public class MetricsService {
+
+    @GET
+    @Produces(Metrics.CONTENT_TYPE)
+    public Response metrics() {
+        return Response
+                .ok()
+                .type(Metrics.CONTENT_TYPE)
+                .entity(Metrics.getInstance().scrape())
+                .build();
+    }
+}
@@ -30,6 +30,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -50,7 +52,11 @@ public class SanityService {
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response sanitized(@NotNull final SanityRequest sanitizedRequest) {
+    public void sanitized(@Suspended final AsyncResponse asyncResponse, @NotNull final SanityRequest sanitizedRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> sanitized(sanitizedRequest));
+    }
+
+    private Response sanitized(final SanityRequest sanitizedRequest) {
         final long startTime = System.nanoTime();
         SanityResponse response;
 
@@ -30,6 +30,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -50,7 +52,11 @@ public class SettingService {
     @POST
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response settings(@NotNull final SettingRequest settingRequest) {
+    public void settings(@Suspended final AsyncResponse asyncResponse, @NotNull final SettingRequest settingRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> settings(settingRequest));
+    }
+
+    private Response settings(final SettingRequest settingRequest) {
         final long startTime = System.nanoTime();
         SettingResponse response;
 
@@ -34,6 +34,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -55,7 +57,11 @@ public class SignatureService {
     @Path(Constants.REST_SIGNATURES_SIGN)
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response sign(@NotNull final SignRequest signDocumentRequest) {
+    public void sign(@Suspended final AsyncResponse asyncResponse, @NotNull final SignRequest signDocumentRequest) {
+        Bulkhead.SIGNATURES.submit(asyncResponse, () -> sign(signDocumentRequest));
+    }
+
+    private Response sign(final SignRequest signDocumentRequest) {
         final String restAction = Constants.REST_SIGNATURES_BASE + Constants.REST_SIGNATURES_SIGN;
         final long startTime = System.nanoTime();
         SignResponse response;
@@ -75,7 +81,11 @@ public class SignatureService {
     @Path(Constants.REST_SIGNATURES_VERIFY)
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response verify(@NotNull final VerifyRequest verifySignatureRequest) {
+    public void verify(@Suspended final AsyncResponse asyncResponse, @NotNull final VerifyRequest verifySignatureRequest) {
+        Bulkhead.SIGNATURES.submit(asyncResponse, () -> verify(verifySignatureRequest));
+    }
+
+    private Response verify(final VerifyRequest verifySignatureRequest) {
         final String restAction = Constants.REST_SIGNATURES_BASE + Constants.REST_SIGNATURES_VERIFY;
         final long startTime = System.nanoTime();
         VerifyResponse response;
@@ -95,7 +105,11 @@ public class SignatureService {
     @Path(Constants.REST_SIGNATURES_FETCH)
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response fetch(@NotNull final FetchSignatureRequest fetchSignaturesRequest) {
+    public void fetch(@Suspended final AsyncResponse asyncResponse, @NotNull final FetchSignatureRequest fetchSignaturesRequest) {
+        Bulkhead.SIGNATURES.submit(asyncResponse, () -> fetch(fetchSignaturesRequest));
+    }
+
+    private Response fetch(final FetchSignatureRequest fetchSignaturesRequest) {
         final String restAction = Constants.REST_SIGNATURES_BASE + Constants.REST_SIGNATURES_FETCH;
         final long startTime = System.nanoTime();
         FetchSignatureResponse response;
@@ -0,0 +1,58 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.rest;
+
+import io.javadog.cws.core.misc.AdmissionControl;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * <p>Binds the address of the client to the request, so the Admission
+ * Control can limit the authentication attempts per client, see
+ * {@link AdmissionControl}. The address is the one of the direct peer, any
+ * forwarding headers are ignored, as they are set by the client.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+@Provider
+public final class SourceFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    @Context
+    private HttpServletRequest servletRequest;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void filter(final ContainerRequestContext requestContext) {
+        AdmissionControl.bindSource((servletRequest != null) ? servletRequest.getRemoteAddr() : null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void filter(final ContainerRequestContext requestContext, final ContainerResponseContext responseContext) {
+        AdmissionControl.releaseSource();
+    }
+}
@@ -33,6 +33,8 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 
 /**
@@ -54,31 +56,35 @@ public class TrusteeService {
     @Path(Constants.REST_TRUSTEES_ADD)
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response add(@NotNull final ProcessTrusteeRequest addTrusteeRequest) {
-        return processTrustee(addTrusteeRequest, Action.ADD, Constants.REST_TRUSTEES_ADD);
+    public void add(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessTrusteeRequest addTrusteeRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processTrustee(addTrusteeRequest, Action.ADD, Constants.REST_TRUSTEES_ADD));
     }
 
     @POST
     @Path(Constants.REST_TRUSTEES_ALTER)
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response alter(@NotNull final ProcessTrusteeRequest alterTrusteeRequest) {
-        return processTrustee(alterTrusteeRequest, Action.ALTER, Constants.REST_TRUSTEES_ALTER);
+    public void alter(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessTrusteeRequest alterTrusteeRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processTrustee(alterTrusteeRequest, Action.ALTER, Constants.REST_TRUSTEES_ALTER));
     }
 
     @POST
     @Path(Constants.REST_TRUSTEES_REMOVE)
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response remove(@NotNull final ProcessTrusteeRequest removeTrusteeRequest) {
-        return processTrustee(removeTrusteeRequest, Action.REMOVE, Constants.REST_TRUSTEES_REMOVE);
+    public void remove(@Suspended final AsyncResponse asyncResponse, @NotNull final ProcessTrusteeRequest removeTrusteeRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> processTrustee(removeTrusteeRequest, Action.REMOVE, Constants.REST_TRUSTEES_REMOVE));
     }
 
     @POST
     @Path(Constants.REST_TRUSTEES_FETCH)
     @Consumes(RestUtils.CONSUMES)
     @Produces(RestUtils.PRODUCES)
-    public Response fetch(@NotNull final FetchTrusteeRequest fetchTrusteeRequest) {
+    public void fetch(@Suspended final AsyncResponse asyncResponse, @NotNull final FetchTrusteeRequest fetchTrusteeRequest) {
+        Bulkhead.MANAGEMENT.submit(asyncResponse, () -> fetch(fetchTrusteeRequest));
+    }
+
+    private Response fetch(final FetchTrusteeRequest fetchTrusteeRequest) {
         final String restAction = Constants.REST_TRUSTEES_BASE + Constants.REST_TRUSTEES_FETCH;
         final long startTime = System.nanoTime();
         FetchTrusteeResponse response;
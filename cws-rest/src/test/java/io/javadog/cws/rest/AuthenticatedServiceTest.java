@@ -34,7 +34,7 @@ final class AuthenticatedServiceTest extends BeanSetup {
         final AuthenticatedService service = prepareAuthenticatedService(settings, entityManager);
         final Authentication request = new Authentication();
 
-        final Response response = service.authenticated(request);
+        final Response response = invoke(asyncResponse -> service.authenticated(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -43,7 +43,7 @@ final class AuthenticatedServiceTest extends BeanSetup {
         final AuthenticatedService service = prepareAuthenticatedService();
         final Authentication request = new Authentication();
 
-        final Response response = service.authenticated(request);
+        final Response response = invoke(asyncResponse -> service.authenticated(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }
@@ -23,6 +23,9 @@ import io.javadog.cws.core.ShareBean;
 import io.javadog.cws.core.exceptions.CWSException;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.function.Consumer;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
 
 /**
  * @author Kim Jensen
@@ -160,6 +163,23 @@ class BeanSetup extends DatabaseSetup {
         return prepareService(SignatureService.class, ShareBean.class, objects);
     }
 
+    /**
+     * <p>Prepares a Slow Request Service instance. If the given Objects are
+     * present, then an internal Management Bean is set and so is the given
+     * resources. If no Objects are given, an empty service instance is
+     * returned without any bean or other settings set.</p>
+     *
+     * @param objects Resources to be injected into Service instance
+     * @return New Service instance with given resources injected
+     */
+    protected static RotationService prepareRotationService(final Object... objects) {
+        return prepareService(RotationService.class, ManagementBean.class, objects);
+    }
+
+    protected static SlowRequestService prepareSlowRequestService(final Object... objects) {
+        return prepareService(SlowRequestService.class, ManagementBean.class, objects);
+    }
+
     /**
      * <p>Prepares a Trustee Service instance. If the given Objects are
      * present, then an internal Management Bean is set and so is the given
@@ -186,6 +206,20 @@ class BeanSetup extends DatabaseSetup {
         return prepareService(VersionService.class, ManagementBean.class, objects);
     }
 
+    /**
+     * <p>Invokes an asynchronous REST method, and waits for the Response,
+     * which is processed by one of the Bulkhead threads.</p>
+     *
+     * @param invocation The invocation of the REST method
+     * @return The Response from the REST method
+     */
+    protected static Response invoke(final Consumer<AsyncResponse> invocation) {
+        final TestAsyncResponse asyncResponse = new TestAsyncResponse();
+        invocation.accept(asyncResponse);
+
+        return asyncResponse.await();
+    }
+
     private static <S, B> S prepareService(final Class<S> serviceClass, final Class<B> beanClass, final Object... objects) {
         try {
             final S service = serviceClass.getConstructor().newInstance();
@@ -0,0 +1,168 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.api.responses.CwsResponse;
+import io.javadog.cws.core.metrics.RequestTimer;
+import io.javadog.cws.core.model.Settings;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class BulkheadTest {
+
+    @Test
+    void testRequestIsProcessedWithTimer() {
+        final RequestTimer timer = RequestTimer.begin("/bulkhead");
+        final AtomicReference<RequestTimer> processingTimer = new AtomicReference<>();
+        final TestAsyncResponse asyncResponse = new TestAsyncResponse();
+
+        Bulkhead.DATA_READ.submit(asyncResponse, () -> {
+            processingTimer.set(RequestTimer.current());
+            return Response.ok().build();
+        });
+
+        assertEquals(Response.Status.OK.getStatusCode(), asyncResponse.await().getStatus());
+        assertSame(timer, processingTimer.get());
+        assertTrue(timer.getPhases().containsKey("queue"));
+        assertNull(RequestTimer.current());
+    }
+
+    @Test
+    void testSaturatedBulkheadRejectsRequests() throws InterruptedException {
+        final Settings settings = Settings.getInstance();
+        final int threads = settings.getRestThreads();
+        final int capacity = threads + settings.getRestQueueSize();
+        final CountDownLatch started = new CountDownLatch(threads);
+        final CountDownLatch released = new CountDownLatch(1);
+        final List<TestAsyncResponse> accepted = new ArrayList<>(capacity);
+        final long rejected = Bulkhead.SIGNATURES.getRejected();
+
+        try {
+            // First occupy all threads, idle threads from other tests may
+            // otherwise still be waking up, while the queue is filled.
+            for (int i = 0; i < threads; i++) {
+                accepted.add(submit(() -> {
+                    started.countDown();
+                    return awaitRelease(released);
+                }));
+            }
+            assertTrue(started.await(30, TimeUnit.SECONDS));
+            for (int i = threads; i < capacity; i++) {
+                accepted.add(submit(() -> awaitRelease(released)));
+            }
+
+            final TestAsyncResponse asyncResponse = new TestAsyncResponse();
+            Bulkhead.SIGNATURES.submit(asyncResponse, () -> Response.ok().build());
+            final Response response = asyncResponse.await();
+            assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+            assertEquals(settings.getRestRetryAfter().toString(), response.getHeaderString(HttpHeaders.RETRY_AFTER));
+            final CwsResponse error = (CwsResponse) response.getEntity();
+            assertEquals(ReturnCode.ERROR.getCode(), error.getReturnCode());
+            assertNotNull(error.getReturnMessage());
+            assertEquals(rejected + 1, Bulkhead.SIGNATURES.getRejected());
+            assertFalse(accepted.get(0).isResumed());
+        } finally {
+            released.countDown();
+        }
+
+        for (final TestAsyncResponse asyncResponse : accepted) {
+            assertEquals(Response.Status.OK.getStatusCode(), asyncResponse.await().getStatus());
+        }
+    }
+
+    @Test
+    void testBulkheadIsRecreatedAfterShutdown() {
+        final TestAsyncResponse before = new TestAsyncResponse();
+        Bulkhead.DATA_WRITE.submit(before, () -> Response.ok().build());
+        assertEquals(Response.Status.OK.getStatusCode(), before.await().getStatus());
+
+        new BulkheadListener().contextDestroyed(null);
+
+        final TestAsyncResponse after = new TestAsyncResponse();
+        Bulkhead.DATA_WRITE.submit(after, () -> Response.ok().build());
+        assertEquals(Response.Status.OK.getStatusCode(), after.await().getStatus());
+    }
+
+    @Test
+    void testQueuedRequestsAreResumedAtShutdown() throws InterruptedException {
+        final int threads = Settings.getInstance().getRestThreads();
+        final CountDownLatch started = new CountDownLatch(threads);
+        final CountDownLatch released = new CountDownLatch(1);
+        final long queued = Bulkhead.MANAGEMENT.getQueued();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                Bulkhead.MANAGEMENT.submit(new TestAsyncResponse(), () -> {
+                    started.countDown();
+                    return awaitRelease(released);
+                });
+            }
+            assertTrue(started.await(30, TimeUnit.SECONDS));
+            final TestAsyncResponse waiting = new TestAsyncResponse();
+            Bulkhead.MANAGEMENT.submit(waiting, () -> Response.ok().build());
+            assertEquals(queued + 1, Bulkhead.MANAGEMENT.getQueued());
+
+            // An interrupted caller stops the thread pool without waiting
+            Thread.currentThread().interrupt();
+            Bulkhead.MANAGEMENT.shutdown();
+            assertTrue(Thread.interrupted());
+
+            final Response response = waiting.await();
+            assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), response.getStatus());
+            assertEquals(ReturnCode.ERROR.getCode(), ((CwsResponse) response.getEntity()).getReturnCode());
+            assertEquals(queued, Bulkhead.MANAGEMENT.getQueued());
+        } finally {
+            released.countDown();
+        }
+    }
+
+    private static TestAsyncResponse submit(final Supplier<Response> task) {
+        final TestAsyncResponse asyncResponse = new TestAsyncResponse();
+        Bulkhead.SIGNATURES.submit(asyncResponse, task);
+
+        return asyncResponse;
+    }
+
+    private static Response awaitRelease(final CountDownLatch released) {
+        try {
+            released.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return Response.ok().build();
+    }
+}
@@ -35,7 +35,7 @@ final class CircleServiceTest extends BeanSetup {
         final CircleService service = prepareCircleService(settings, entityManager);
         final ProcessCircleRequest request = new ProcessCircleRequest();
 
-        final Response response = service.create(request);
+        final Response response = invoke(asyncResponse -> service.create(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -44,7 +44,7 @@ final class CircleServiceTest extends BeanSetup {
         final CircleService service = prepareCircleService();
         final ProcessCircleRequest request = new ProcessCircleRequest();
 
-        final Response response = service.create(request);
+        final Response response = invoke(asyncResponse -> service.create(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -53,7 +53,7 @@ final class CircleServiceTest extends BeanSetup {
         final CircleService service = prepareCircleService(settings, entityManager);
         final ProcessCircleRequest request = new ProcessCircleRequest();
 
-        final Response response = service.update(request);
+        final Response response = invoke(asyncResponse -> service.update(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -62,7 +62,7 @@ final class CircleServiceTest extends BeanSetup {
         final CircleService service = prepareCircleService();
         final ProcessCircleRequest request = new ProcessCircleRequest();
 
-        final Response response = service.update(request);
+        final Response response = invoke(asyncResponse -> service.update(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -71,7 +71,7 @@ final class CircleServiceTest extends BeanSetup {
         final CircleService service = prepareCircleService(settings, entityManager);
         final ProcessCircleRequest request = new ProcessCircleRequest();
 
-        final Response response = service.delete(request);
+        final Response response = invoke(asyncResponse -> service.delete(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -80,7 +80,25 @@ final class CircleServiceTest extends BeanSetup {
         final CircleService service = prepareCircleService();
         final ProcessCircleRequest request = new ProcessCircleRequest();
 
-        final Response response = service.delete(request);
+        final Response response = invoke(asyncResponse -> service.delete(asyncResponse, request));
+        assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
+    }
+
+    @Test
+    void testRotate() {
+        final CircleService service = prepareCircleService(settings, entityManager);
+        final ProcessCircleRequest request = new ProcessCircleRequest();
+
+        final Response response = invoke(asyncResponse -> service.rotate(asyncResponse, request));
+        assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
+    }
+
+    @Test
+    void testFlawedRotate() {
+        final CircleService service = prepareCircleService();
+        final ProcessCircleRequest request = new ProcessCircleRequest();
+
+        final Response response = invoke(asyncResponse -> service.rotate(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -89,7 +107,7 @@ final class CircleServiceTest extends BeanSetup {
         final CircleService service = prepareCircleService(settings, entityManager);
         final FetchCircleRequest request = new FetchCircleRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -98,7 +116,7 @@ final class CircleServiceTest extends BeanSetup {
         final CircleService service = prepareCircleService();
         final FetchCircleRequest request = new FetchCircleRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }
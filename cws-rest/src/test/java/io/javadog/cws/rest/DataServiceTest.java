@@ -35,7 +35,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService(settings, entityManager);
         final ProcessDataRequest request = new ProcessDataRequest();
 
-        final Response response = service.add(request);
+        final Response response = invoke(asyncResponse -> service.add(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -44,7 +44,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService();
         final ProcessDataRequest request = new ProcessDataRequest();
 
-        final Response response = service.add(request);
+        final Response response = invoke(asyncResponse -> service.add(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -53,7 +53,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService(settings, entityManager);
         final ProcessDataRequest request = new ProcessDataRequest();
 
-        final Response response = service.copy(request);
+        final Response response = invoke(asyncResponse -> service.copy(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -62,7 +62,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService();
         final ProcessDataRequest request = new ProcessDataRequest();
 
-        final Response response = service.copy(request);
+        final Response response = invoke(asyncResponse -> service.copy(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -71,7 +71,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService(settings, entityManager);
         final ProcessDataRequest request = new ProcessDataRequest();
 
-        final Response response = service.move(request);
+        final Response response = invoke(asyncResponse -> service.move(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -80,7 +80,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService();
         final ProcessDataRequest request = new ProcessDataRequest();
 
-        final Response response = service.move(request);
+        final Response response = invoke(asyncResponse -> service.move(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -89,7 +89,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService(settings, entityManager);
         final ProcessDataRequest request = new ProcessDataRequest();
 
-        final Response response = service.update(request);
+        final Response response = invoke(asyncResponse -> service.update(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -98,7 +98,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService();
         final ProcessDataRequest request = new ProcessDataRequest();
 
-        final Response response = service.update(request);
+        final Response response = invoke(asyncResponse -> service.update(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -107,7 +107,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService(settings, entityManager);
         final ProcessDataRequest request = new ProcessDataRequest();
 
-        final Response response = service.delete(request);
+        final Response response = invoke(asyncResponse -> service.delete(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -116,7 +116,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService();
         final ProcessDataRequest request = new ProcessDataRequest();
 
-        final Response response = service.delete(request);
+        final Response response = invoke(asyncResponse -> service.delete(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -125,7 +125,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService(settings, entityManager);
         final FetchDataRequest request = new FetchDataRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -134,7 +134,7 @@ final class DataServiceTest extends BeanSetup {
         final DataService service = prepareDataService();
         final FetchDataRequest request = new FetchDataRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }
@@ -35,7 +35,7 @@ final class DataTypeServiceTest extends BeanSetup {
         final DataTypeService service = prepareDataTypeService(settings, entityManager);
         final ProcessDataTypeRequest request = new ProcessDataTypeRequest();
 
-        final Response response = service.process(request);
+        final Response response = invoke(asyncResponse -> service.process(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -44,7 +44,7 @@ final class DataTypeServiceTest extends BeanSetup {
         final DataTypeService service = prepareDataTypeService();
         final ProcessDataTypeRequest request = new ProcessDataTypeRequest();
 
-        final Response response = service.process(request);
+        final Response response = invoke(asyncResponse -> service.process(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -53,7 +53,7 @@ final class DataTypeServiceTest extends BeanSetup {
         final DataTypeService service = prepareDataTypeService(settings, entityManager);
         final ProcessDataTypeRequest request = new ProcessDataTypeRequest();
 
-        final Response response = service.delete(request);
+        final Response response = invoke(asyncResponse -> service.delete(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -62,7 +62,7 @@ final class DataTypeServiceTest extends BeanSetup {
         final DataTypeService service = prepareDataTypeService();
         final ProcessDataTypeRequest request = new ProcessDataTypeRequest();
 
-        final Response response = service.delete(request);
+        final Response response = invoke(asyncResponse -> service.delete(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -71,7 +71,7 @@ final class DataTypeServiceTest extends BeanSetup {
         final DataTypeService service = prepareDataTypeService(settings, entityManager);
         final FetchDataTypeRequest request = new FetchDataTypeRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -80,7 +80,7 @@ final class DataTypeServiceTest extends BeanSetup {
         final DataTypeService service = prepareDataTypeService();
         final FetchDataTypeRequest request = new FetchDataTypeRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }
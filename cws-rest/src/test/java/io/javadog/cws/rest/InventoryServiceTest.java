@@ -35,7 +35,7 @@ final class InventoryServiceTest extends BeanSetup {
         final InventoryService service = prepareInventoryService(settings, entityManager);
         final InventoryRequest request = prepareRequest(InventoryRequest.class, Constants.ADMIN_ACCOUNT);
 
-        final Response response = service.inventory(request);
+        final Response response = invoke(asyncResponse -> service.inventory(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -44,7 +44,7 @@ final class InventoryServiceTest extends BeanSetup {
         final InventoryService service = prepareInventoryService();
         final InventoryRequest request = prepareRequest(InventoryRequest.class, Constants.ADMIN_ACCOUNT);
 
-        final Response response = service.inventory(request);
+        final Response response = invoke(asyncResponse -> service.inventory(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }
@@ -36,7 +36,7 @@ final class MasterKeyServiceTest extends BeanSetup {
         final MasterKeyRequest request = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
         request.setSecret(Constants.ADMIN_ACCOUNT.getBytes(settings.getCharset()));
 
-        final Response response = service.masterKey(request);
+        final Response response = invoke(asyncResponse -> service.masterKey(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -46,7 +46,7 @@ final class MasterKeyServiceTest extends BeanSetup {
         final MasterKeyRequest request = prepareRequest(MasterKeyRequest.class, Constants.ADMIN_ACCOUNT);
         request.setSecret(Constants.ADMIN_ACCOUNT.getBytes(settings.getCharset()));
 
-        final Response response = service.masterKey(request);
+        final Response response = invoke(asyncResponse -> service.masterKey(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }
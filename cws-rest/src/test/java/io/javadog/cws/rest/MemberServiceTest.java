@@ -35,7 +35,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService(settings, entityManager);
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.create(request);
+        final Response response = invoke(asyncResponse -> service.create(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -44,7 +44,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService();
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.create(request);
+        final Response response = invoke(asyncResponse -> service.create(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -53,7 +53,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService(settings, entityManager);
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.invite(request);
+        final Response response = invoke(asyncResponse -> service.invite(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -62,7 +62,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService();
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.invite(request);
+        final Response response = invoke(asyncResponse -> service.invite(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -71,7 +71,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService(settings, entityManager);
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.login(request);
+        final Response response = invoke(asyncResponse -> service.login(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -80,7 +80,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService();
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.login(request);
+        final Response response = invoke(asyncResponse -> service.login(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -89,7 +89,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService(settings, entityManager);
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.logout(request);
+        final Response response = invoke(asyncResponse -> service.logout(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -98,7 +98,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService();
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.logout(request);
+        final Response response = invoke(asyncResponse -> service.logout(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -107,7 +107,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService(settings, entityManager);
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.alter(request);
+        final Response response = invoke(asyncResponse -> service.alter(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -116,7 +116,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService();
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.alter(request);
+        final Response response = invoke(asyncResponse -> service.alter(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -125,7 +125,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService(settings, entityManager);
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.update(request);
+        final Response response = invoke(asyncResponse -> service.update(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -134,7 +134,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService();
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.update(request);
+        final Response response = invoke(asyncResponse -> service.update(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -143,7 +143,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService(settings, entityManager);
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.invalidate(request);
+        final Response response = invoke(asyncResponse -> service.invalidate(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -152,7 +152,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService();
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.invalidate(request);
+        final Response response = invoke(asyncResponse -> service.invalidate(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -161,7 +161,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService(settings, entityManager);
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.delete(request);
+        final Response response = invoke(asyncResponse -> service.delete(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -170,7 +170,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService();
         final ProcessMemberRequest request = new ProcessMemberRequest();
 
-        final Response response = service.delete(request);
+        final Response response = invoke(asyncResponse -> service.delete(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -179,7 +179,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService(settings, entityManager);
         final FetchMemberRequest request = new FetchMemberRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -188,7 +188,7 @@ final class MemberServiceTest extends BeanSetup {
         final MemberService service = prepareMemberService();
         final FetchMemberRequest request = new FetchMemberRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }
@@ -0,0 +1,40 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class MetricsServiceTest {
+
+    @Test
+    void testMetrics() {
+        final MetricsService service = new MetricsService();
+
+        final Response response = service.metrics();
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals("text/plain", response.getMediaType().getType() + '/' + response.getMediaType().getSubtype());
+        assertTrue(((String) response.getEntity()).contains("# TYPE cws_jvm_threads gauge"));
+    }
+}
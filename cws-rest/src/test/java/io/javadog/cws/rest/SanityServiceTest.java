@@ -34,7 +34,7 @@ final class SanityServiceTest extends BeanSetup {
         final SanityService service = prepareSanityService(settings, entityManager);
         final SanityRequest request = new SanityRequest();
 
-        final Response response = service.sanitized(request);
+        final Response response = invoke(asyncResponse -> service.sanitized(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -43,7 +43,7 @@ final class SanityServiceTest extends BeanSetup {
         final SanityService service = prepareSanityService();
         final SanityRequest request = new SanityRequest();
 
-        final Response response = service.sanitized(request);
+        final Response response = invoke(asyncResponse -> service.sanitized(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }
@@ -36,7 +36,7 @@ final class SettingServiceTest extends BeanSetup {
         final SettingService service = prepareSettingService(settings, entityManager);
         final SettingRequest request = prepareRequest(SettingRequest.class, Constants.ADMIN_ACCOUNT);
 
-        final Response response = service.settings(request);
+        final Response response = invoke(asyncResponse -> service.settings(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -45,7 +45,7 @@ final class SettingServiceTest extends BeanSetup {
         final SettingService service = prepareSettingService();
         final SettingRequest request = prepareRequest(SettingRequest.class, Constants.ADMIN_ACCOUNT);
 
-        final Response response = service.settings(request);
+        final Response response = invoke(asyncResponse -> service.settings(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }
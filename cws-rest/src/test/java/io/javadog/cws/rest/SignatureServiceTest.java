@@ -36,7 +36,7 @@ final class SignatureServiceTest extends BeanSetup {
         final SignatureService service = prepareSignatureService(settings, entityManager);
         final SignRequest request = new SignRequest();
 
-        final Response response = service.sign(request);
+        final Response response = invoke(asyncResponse -> service.sign(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -45,7 +45,7 @@ final class SignatureServiceTest extends BeanSetup {
         final SignatureService service = prepareSignatureService();
         final SignRequest request = new SignRequest();
 
-        final Response response = service.sign(request);
+        final Response response = invoke(asyncResponse -> service.sign(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -54,7 +54,7 @@ final class SignatureServiceTest extends BeanSetup {
         final SignatureService service = prepareSignatureService(settings, entityManager);
         final VerifyRequest request = new VerifyRequest();
 
-        final Response response = service.verify(request);
+        final Response response = invoke(asyncResponse -> service.verify(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -63,7 +63,7 @@ final class SignatureServiceTest extends BeanSetup {
         final SignatureService service = prepareSignatureService();
         final VerifyRequest request = new VerifyRequest();
 
-        final Response response = service.verify(request);
+        final Response response = invoke(asyncResponse -> service.verify(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -72,7 +72,7 @@ final class SignatureServiceTest extends BeanSetup {
         final SignatureService service = prepareSignatureService(settings, entityManager);
         final FetchSignatureRequest request = new FetchSignatureRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -81,7 +81,7 @@ final class SignatureServiceTest extends BeanSetup {
         final SignatureService service = prepareSignatureService();
         final FetchSignatureRequest request = new FetchSignatureRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }
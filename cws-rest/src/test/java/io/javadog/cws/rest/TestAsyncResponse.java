@@ -0,0 +1,179 @@
+/*
+ * CWS, Cryptographic Web Store - open source Cryptographic Storage system.
+ * Copyright (C) 2016-2021, JavaDog.io
+ * mailto: cws AT JavaDog DOT io
+ *
+ * CWS is free software; you can redistribute it and/or modify it under the
+ * terms of the Apache License, as published by the Apache Software Foundation.
+ *
+ * CWS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the Apache License for more details.
+ *
+ * You should have received a copy of the Apache License, version 2, along with
+ * this program; If not, you can download a copy of the License
+ * here: https://www.apache.org/licenses/
+ */
+package io.javadog.cws.rest;
+
+import io.javadog.cws.api.common.ReturnCode;
+import io.javadog.cws.core.exceptions.CWSException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Response;
+
+/**
+ * <p>Simple Asynchronous Response for the tests, which allows the test to
+ * wait for the Response from the Bulkhead thread.</p>
+ *
+ * @author Kim Jensen
+ * @since CWS 2.0
+ */
+final class TestAsyncResponse implements AsyncResponse {
+
+    private final CountDownLatch resumed = new CountDownLatch(1);
+    private volatile Object result = null;
+
+    Response await() {
+        try {
+            if (!resumed.await(30, TimeUnit.SECONDS)) {
+                throw new CWSException(ReturnCode.ERROR, "The request was not resumed in time.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CWSException(ReturnCode.ERROR, e);
+        }
+
+        if (result instanceof RuntimeException) {
+            throw (RuntimeException) result;
+        }
+
+        return (Response) result;
+    }
+
+    boolean isResumed() {
+        return resumed.getCount() == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean resume(final Object response) {
+        result = response;
+        resumed.countDown();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean resume(final Throwable response) {
+        result = response;
+        resumed.countDown();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean cancel() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean cancel(final int retryAfter) {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean cancel(final Date retryAfter) {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSuspended() {
+        return !isResumed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDone() {
+        return isResumed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean setTimeout(final long time, final TimeUnit unit) {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setTimeoutHandler(final TimeoutHandler handler) {
+        // Timeouts are not supported by the tests.
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Class<?>> register(final Class<?> callback) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Class<?>, Collection<Class<?>>> register(final Class<?> callback, final Class<?>... callbacks) {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Class<?>> register(final Object callback) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Class<?>, Collection<Class<?>>> register(final Object callback, final Object... callbacks) {
+        return Collections.emptyMap();
+    }
+}
@@ -35,7 +35,7 @@ final class TrusteeServiceTest extends BeanSetup {
         final TrusteeService service = prepareTrusteeService(settings, entityManager);
         final ProcessTrusteeRequest request = new ProcessTrusteeRequest();
 
-        final Response response = service.add(request);
+        final Response response = invoke(asyncResponse -> service.add(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -44,7 +44,7 @@ final class TrusteeServiceTest extends BeanSetup {
         final TrusteeService service = prepareTrusteeService();
         final ProcessTrusteeRequest request = new ProcessTrusteeRequest();
 
-        final Response response = service.add(request);
+        final Response response = invoke(asyncResponse -> service.add(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -53,7 +53,7 @@ final class TrusteeServiceTest extends BeanSetup {
         final TrusteeService service = prepareTrusteeService(settings, entityManager);
         final ProcessTrusteeRequest request = new ProcessTrusteeRequest();
 
-        final Response response = service.alter(request);
+        final Response response = invoke(asyncResponse -> service.alter(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -62,7 +62,7 @@ final class TrusteeServiceTest extends BeanSetup {
         final TrusteeService service = prepareTrusteeService(settings, entityManager);
         final ProcessTrusteeRequest request = new ProcessTrusteeRequest();
 
-        final Response response = service.alter(request);
+        final Response response = invoke(asyncResponse -> service.alter(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -71,7 +71,7 @@ final class TrusteeServiceTest extends BeanSetup {
         final TrusteeService service = prepareTrusteeService(settings, entityManager);
         final ProcessTrusteeRequest request = new ProcessTrusteeRequest();
 
-        final Response response = service.remove(request);
+        final Response response = invoke(asyncResponse -> service.remove(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -80,7 +80,7 @@ final class TrusteeServiceTest extends BeanSetup {
         final TrusteeService service = prepareTrusteeService();
         final ProcessTrusteeRequest request = new ProcessTrusteeRequest();
 
-        final Response response = service.remove(request);
+        final Response response = invoke(asyncResponse -> service.remove(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -89,7 +89,7 @@ final class TrusteeServiceTest extends BeanSetup {
         final TrusteeService service = prepareTrusteeService(settings, entityManager);
         final FetchTrusteeRequest request = new FetchTrusteeRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 
@@ -98,7 +98,7 @@ final class TrusteeServiceTest extends BeanSetup {
         final TrusteeService service = prepareTrusteeService();
         final FetchTrusteeRequest request = new FetchTrusteeRequest();
 
-        final Response response = service.fetch(request);
+        final Response response = invoke(asyncResponse -> service.fetch(asyncResponse, request));
         assertEquals(ReturnCode.SUCCESS.getHttpCode(), response.getStatus());
     }
 }